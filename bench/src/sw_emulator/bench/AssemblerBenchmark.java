@@ -0,0 +1,103 @@
+/**
+ * @(#)AssemblerBenchmark.java 2026/10/18
+ *
+ * ICE Team free software group
+ *
+ * This file is part of C64 Java Software Emulator.
+ * See README for copyright notice.
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ *  02111-1307  USA.
+ */
+package sw_emulator.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sw_emulator.software.Disassembly;
+import sw_emulator.software.MemoryDasm;
+import sw_emulator.software.memory.XRefManager;
+import sw_emulator.swing.main.DataType;
+import sw_emulator.swing.main.FileType;
+import sw_emulator.swing.main.Option;
+import sw_emulator.swing.main.Project;
+
+/**
+ * Time of source generation of the PRG example with all its memory marked as
+ * data of the given type, so that the assembler flushes only that type
+ * 
+ * @author ice
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations=3, time=1)
+@Measurement(iterations=5, time=1)
+@Fork(1)
+public class AssemblerBenchmark {
+  /** Type of data to flush (STACK needs real stack words pairs) */
+  @Param({"NONE", "BYTE_HEX", "BYTE_DEC", "BYTE_BIN", "BYTE_CHAR", "WORD", 
+          "SWAPPED", "TRIBYTE", "LONG", "ADDRESS", "TEXT", "NUM_TEXT", 
+          "ZERO_TEXT", "HIGH_TEXT", "SHIFT_TEXT", "SCREEN_TEXT", 
+          "PETASCII_TEXT", "MONO_SPRITE", "MULTI_SPRITE"})
+  DataType dataType;
+  
+  /** Project to disassemble */
+  Project project;
+  
+  /** Option to use */
+  Option option;
+  
+  /** Disassembly engine */
+  Disassembly disassembly;
+  
+  /** Manager of xref */
+  XRefManager xRefManager;
+  
+  @Setup
+  public void setup() {
+    project=Fixtures.project(FileType.PRG);
+    option=Fixtures.option();
+    disassembly=new Disassembly();
+    xRefManager=new XRefManager();
+    
+    // preview pass marks the memory inside the file
+    Fixtures.disassembly(disassembly, project, option, xRefManager, false);
+    
+    for (MemoryDasm mem: project.memory) {
+      if (!mem.isInside) continue;
+      
+      mem.isCode=false;
+      mem.isData=true;
+      mem.dataType=dataType;
+    }
+    
+    source();
+  }
+  
+  @Benchmark
+  public String source() {
+    return Fixtures.disassembly(disassembly, project, option, xRefManager, true);
+  }
+}
@@ -0,0 +1,98 @@
+/**
+ * @(#)CpuDasmBenchmark.java 2026/10/18
+ *
+ * ICE Team free software group
+ *
+ * This file is part of C64 Java Software Emulator.
+ * See README for copyright notice.
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ *  02111-1307  USA.
+ */
+package sw_emulator.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sw_emulator.software.Disassembly;
+import sw_emulator.software.memory.XRefManager;
+import sw_emulator.swing.main.Option;
+import sw_emulator.swing.main.Project;
+import sw_emulator.swing.main.TargetType;
+
+/**
+ * Throughput of the cpu disassemblers (M6510Dasm, Z80Dasm, I8048Dasm) on a 
+ * full 64K raw image, all used as code, for preview (cdasm) and source 
+ * (csdasm) output.
+ * 
+ * @author ice
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations=3, time=2)
+@Measurement(iterations=5, time=2)
+@Fork(1)
+public class CpuDasmBenchmark {
+  /** Target machine, that selects the cpu */
+  @Param({"C64", "C128Z", "ODYSSEY"})
+  TargetType targetType;
+  
+  /** Project with the 64K image */
+  Project project;
+  
+  /** Option to use */
+  Option option;
+  
+  /** Disassembly engine */
+  Disassembly disassembly;
+  
+  /** Manager of xref */
+  XRefManager xRefManager;
+  
+  @Setup
+  public void setup() {
+    project=Fixtures.image(targetType);
+    
+    option=Fixtures.option();
+    option.useAsCode=true;
+    
+    disassembly=new Disassembly();
+    xRefManager=new XRefManager();
+    
+    // first pass creates the labels that the next ones use
+    preview();
+    source();
+  }
+  
+  @Benchmark
+  public String preview() {
+    return Fixtures.disassembly(disassembly, project, option, xRefManager, false);
+  }
+  
+  @Benchmark
+  public String source() {
+    return Fixtures.disassembly(disassembly, project, option, xRefManager, true);
+  }
+}
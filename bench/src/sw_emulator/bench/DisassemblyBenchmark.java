@@ -0,0 +1,92 @@
+/**
+ * @(#)DisassemblyBenchmark.java 2026/10/18
+ *
+ * ICE Team free software group
+ *
+ * This file is part of C64 Java Software Emulator.
+ * See README for copyright notice.
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ *  02111-1307  USA.
+ */
+package sw_emulator.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sw_emulator.software.Disassembly;
+import sw_emulator.software.memory.XRefManager;
+import sw_emulator.swing.main.FileType;
+import sw_emulator.swing.main.Option;
+import sw_emulator.swing.main.Project;
+
+/**
+ * Time of a whole disassembly (preview and source pass) for each file type
+ * 
+ * @author ice
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations=3, time=2)
+@Measurement(iterations=5, time=2)
+@Fork(1)
+public class DisassemblyBenchmark {
+  /** Type of file to disassemble */
+  @Param({"PRG", "SID", "CRT", "VSF", "NSF", "SAP", "AY"})
+  FileType fileType;
+  
+  /** Project to disassemble */
+  Project project;
+  
+  /** Option to use */
+  Option option;
+  
+  /** Disassembly engine */
+  Disassembly disassembly;
+  
+  /** Manager of xref */
+  XRefManager xRefManager;
+  
+  @Setup
+  public void setup() {
+    project=Fixtures.project(fileType);
+    option=Fixtures.option();
+    disassembly=new Disassembly();
+    xRefManager=new XRefManager();
+    
+    preview();
+    source();
+  }
+  
+  @Benchmark
+  public String preview() {
+    return Fixtures.disassembly(disassembly, project, option, xRefManager, false);
+  }
+  
+  @Benchmark
+  public String source() {
+    return Fixtures.disassembly(disassembly, project, option, xRefManager, true);
+  }
+}
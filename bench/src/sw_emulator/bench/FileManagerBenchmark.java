@@ -0,0 +1,92 @@
+/**
+ * @(#)FileManagerBenchmark.java 2026/10/18
+ *
+ * ICE Team free software group
+ *
+ * This file is part of C64 Java Software Emulator.
+ * See README for copyright notice.
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ *  02111-1307  USA.
+ */
+package sw_emulator.bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import sw_emulator.swing.main.FileManager;
+import sw_emulator.swing.main.Project;
+
+/**
+ * Read and write of example project files
+ * 
+ * @author ice
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations=3, time=1)
+@Measurement(iterations=5, time=1)
+@Fork(1)
+public class FileManagerBenchmark {
+  /** Name of the example project */
+  @Param({Fixtures.PRG, Fixtures.SID, Fixtures.VSF})
+  String name;
+  
+  /** Example project file */
+  File file;
+  
+  /** Project read from the example */
+  Project project;
+  
+  /** File where to write */
+  File out;
+  
+  @Setup
+  public void setup() throws IOException {
+    file=new File(Fixtures.EXAMPLES, name);
+    project=Fixtures.read(name);
+    out=File.createTempFile("bench", ".dis");
+  }
+  
+  @TearDown
+  public void tearDown() {
+    out.delete();
+  }
+  
+  @Benchmark
+  public Project read() {
+    Project read=new Project();
+    FileManager.instance.readProjectFile(file, read);
+    return read;
+  }
+  
+  @Benchmark
+  public boolean write() {
+    return FileManager.instance.writeProjectFile(out, project);
+  }
+}
@@ -0,0 +1,321 @@
+/**
+ * @(#)Fixtures.java 2026/10/18
+ *
+ * ICE Team free software group
+ *
+ * This file is part of C64 Java Software Emulator.
+ * See README for copyright notice.
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ *  02111-1307  USA.
+ */
+package sw_emulator.bench;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Random;
+import sw_emulator.software.Disassembly;
+import sw_emulator.software.memory.XRefManager;
+import sw_emulator.swing.main.FileManager;
+import sw_emulator.swing.main.FileType;
+import sw_emulator.swing.main.Option;
+import sw_emulator.swing.main.Project;
+import sw_emulator.swing.main.TargetType;
+
+/**
+ * Fixtures for the benchmarks.
+ * The projects come from doc/example (or the directory given by the 
+ * bench.examples property). The file types without an example (CRT, NSF, AY) 
+ * are built around the code of the PRG example.
+ * 
+ * @author ice
+ */
+public final class Fixtures {
+  /** Directory of example projects */
+  public static final File EXAMPLES=new File(System.getProperty("bench.examples", "doc/example"));
+  
+  /** Example with a PRG file */
+  public static final String PRG="KeithBowden_Companion.dis";
+  
+  /** Example with a SID file */
+  public static final String SID="MusicAssembler.dis";
+  
+  /** Example with a VSF file */
+  public static final String VSF="Aleatory_Composer_sigma.dis";
+  
+  /** Example with a SAP file */
+  public static final String SAP="PeterLiepaAtari.dis";
+  
+  private Fixtures() {
+  }
+  
+  /**
+   * Get the option to use in benchmarks
+   * 
+   * @return the default option
+   */
+  public static Option option() {
+    return new Option();
+  }
+  
+  /**
+   * Disassembly all the blocks of project
+   * 
+   * @param disassembly the disassembly engine
+   * @param project the project
+   * @param option the option to use
+   * @param xRefManager the manager of xref
+   * @param asSource true for the source pass
+   * @return the output of the pass
+   */
+  public static String disassembly(Disassembly disassembly, Project project, Option option, 
+                                   XRefManager xRefManager, boolean asSource) {
+    disassembly.invalidate();
+    disassembly.dissassembly(project.fileType, project.inB, option, 
+                             project.memory, project.constant, project.mpr, 
+                             project.relocates, project.patches, 
+                             project.chip, project.binAddress, 
+                             project.targetType, asSource, xRefManager);
+    return asSource ? disassembly.source : disassembly.disassembly;
+  }
+  
+  /**
+   * Read an example project
+   * 
+   * @param name the name of project file
+   * @return the project
+   */
+  public static Project read(String name) {
+    File file=new File(EXAMPLES, name);
+    Project project=new Project();
+    
+    if (!FileManager.instance.readProjectFile(file, project) || project.inB==null) {
+      throw new IllegalStateException("Unable to read the example "+file);
+    }
+    return project;
+  }
+  
+  /**
+   * Get a project of the given file type
+   * 
+   * @param fileType the type of file
+   * @return the project
+   */
+  public static Project project(FileType fileType) {
+    switch (fileType) {
+      case PRG:
+        return read(PRG);
+      case SID:
+        return read(SID);
+      case VSF:
+        return read(VSF);
+      case SAP:
+        return read(SAP);
+      case CRT:
+        return create(crt(code()), TargetType.C64);
+      case NSF:
+        return create(nsf(code()), TargetType.C64);
+      case AY:
+        return create(ay(code()), TargetType.C128Z);
+      default:
+        throw new IllegalArgumentException("No fixture for "+fileType);
+    }
+  }
+  
+  /**
+   * Get a raw binary project of 64K of random bytes, for the given target
+   * 
+   * @param targetType the target machine
+   * @return the project
+   */
+  public static Project image(TargetType targetType) {
+    byte[] inB=new byte[0x10000];
+    new Random(6502).nextBytes(inB);
+    
+    return create(inB, targetType, true);
+  }
+  
+  /**
+   * Create a project with the given data
+   * 
+   * @param inB the data of file
+   * @param targetType the target machine
+   * @return the project
+   */
+  private static Project create(byte[] inB, TargetType targetType) {
+    return create(inB, targetType, false);
+  }
+  
+  /**
+   * Create a project with the given data
+   * 
+   * @param inB the data of file
+   * @param targetType the target machine
+   * @param isRawBin true for a raw binary file
+   * @return the project
+   */
+  private static Project create(byte[] inB, TargetType targetType, boolean isRawBin) {
+    Project project=new Project();
+    project.name="bench";
+    project.setData(inB, isRawBin);
+    project.targetType=targetType;
+    
+    return project;
+  }
+  
+  /**
+   * Get the code of the PRG example (without load address)
+   * 
+   * @return the code
+   */
+  private static byte[] code() {
+    byte[] inB=read(PRG).inB;
+    return Arrays.copyOfRange(inB, 2, inB.length);
+  }
+  
+  /**
+   * Build a CRT with one CHIP packet at $8000 containing the code
+   * 
+   * @param code the code
+   * @return the CRT file
+   */
+  private static byte[] crt(byte[] code) {
+    int size=Math.min(code.length, 0x2000);
+    byte[] inB=new byte[0x40+0x10+size];
+    
+    putText(inB, 0, "C64 CARTRIDGE   ");
+    putLong(inB, 0x10, 0x40);
+    inB[0x14]=1;
+    putText(inB, 0x20, "BENCH");
+    
+    putText(inB, 0x40, "CHIP");
+    putLong(inB, 0x44, 0x10+size);
+    putWord(inB, 0x40+0xC, 0x8000);
+    putWord(inB, 0x40+0xE, size);
+    System.arraycopy(code, 0, inB, 0x50, size);
+    
+    return inB;
+  }
+  
+  /**
+   * Build a NSF with the code loaded at $8000
+   * 
+   * @param code the code
+   * @return the NSF file
+   */
+  private static byte[] nsf(byte[] code) {
+    byte[] inB=new byte[0x80+code.length];
+    
+    putText(inB, 0, "NESM");
+    inB[4]=0x1A;
+    inB[5]=1;
+    inB[6]=1;
+    inB[7]=1;
+    inB[8]=0x00;      // load address $8000 
+    inB[9]=(byte)0x80;
+    inB[10]=0x00;     // init address $8000
+    inB[11]=(byte)0x80;
+    inB[12]=0x03;     // play address $8003
+    inB[13]=(byte)0x80;
+    putText(inB, 0x0E, "BENCH");
+    System.arraycopy(code, 0, inB, 0x80, code.length);
+    
+    return inB;
+  }
+  
+  /**
+   * Build an AY file with one song and one block with the code at $8000
+   * 
+   * @param code the code
+   * @return the AY file
+   */
+  private static byte[] ay(byte[] code) {
+    byte[] inB=new byte[62+code.length];
+    
+    putText(inB, 0, "ZXAYEMUL");
+    putRel(inB, 12, 24);     // author
+    putRel(inB, 14, 24);     // misc
+    inB[16]=0;               // one song
+    putRel(inB, 18, 20);     // songs structure
+    
+    putRel(inB, 20, 24);     // title
+    putRel(inB, 22, 30);     // song data
+    putText(inB, 24, "BENCH");
+    
+    putRel(inB, 30+10, 44);  // points
+    putRel(inB, 30+12, 50);  // addresses
+    
+    putWord(inB, 44, 0xF000);  // stack
+    putWord(inB, 46, 0x8000);  // init
+    putWord(inB, 48, 0x8003);  // interrupt
+    
+    putWord(inB, 50, 0x8000);
+    putWord(inB, 52, code.length);
+    putRel(inB, 54, 62);
+    putWord(inB, 56, 0);       // end of blocks
+    
+    System.arraycopy(code, 0, inB, 62, code.length);
+    
+    return inB;
+  }
+  
+  /**
+   * Put a text into buffer
+   * 
+   * @param inB the buffer
+   * @param pos the position
+   * @param text the text
+   */
+  private static void putText(byte[] inB, int pos, String text) {
+    for (int i=0; i<text.length(); i++) {
+      inB[pos+i]=(byte)text.charAt(i);
+    }
+  }
+  
+  /**
+   * Put a big endian word into buffer
+   * 
+   * @param inB the buffer
+   * @param pos the position
+   * @param value the value
+   */
+  private static void putWord(byte[] inB, int pos, int value) {
+    inB[pos]=(byte)(value>>8);
+    inB[pos+1]=(byte)value;
+  }
+  
+  /**
+   * Put a big endian long into buffer
+   * 
+   * @param inB the buffer
+   * @param pos the position
+   * @param value the value
+   */
+  private static void putLong(byte[] inB, int pos, int value) {
+    putWord(inB, pos, value>>16);
+    putWord(inB, pos+2, value);
+  }
+  
+  /**
+   * Put a big endian pointer relative to its position (AY format)
+   * 
+   * @param inB the buffer
+   * @param pos the position
+   * @param target the target position
+   */
+  private static void putRel(byte[] inB, int pos, int target) {
+    putWord(inB, pos, target-pos);
+  }
+}
@@ -0,0 +1,261 @@
+/**
+ * @(#)M6510Benchmark.java 2026/10/18
+ *
+ * ICE Team free software group
+ *
+ * This file is part of C64 Java Software Emulator.
+ * See README for copyright notice.
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ *  02111-1307  USA.
+ */
+package sw_emulator.bench;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sw_emulator.hardware.bus.Bus;
+import sw_emulator.hardware.bus.C64Bus;
+import sw_emulator.hardware.bus.readableBus;
+import sw_emulator.hardware.bus.writeableBus;
+import sw_emulator.hardware.cpu.M6510;
+import sw_emulator.hardware.memory.DRAM;
+import sw_emulator.hardware.signaller;
+import sw_emulator.util.TickMonitor;
+
+/**
+ * Instructions per second of the M6510 cpu emulation, executing loops of
+ * instructions by group (like the Lorenz test suite does for each opcode).
+ * The cpu runs on the C64 bus with 64K of ram in all the pages, and with a 
+ * monitor that does not wait, so only the cpu core and its bus accesses 
+ * are measured.
+ *
+ * @author ice
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations=3, time=2)
+@Measurement(iterations=5, time=2)
+@Fork(1)
+public class M6510Benchmark {
+  /** Number of instructions executed for each invocation */
+  public static final int INSTRUCTIONS=10000;
+
+  /** Address where the loop starts */
+  public static final int ORG=0x1000;
+
+  /** Address of a subroutine with only a RTS */
+  public static final int SUB=0x1800;
+
+  /** Group of instructions in the loop */
+  @Param({"LOAD_STORE", "ALU", "RMW", "STACK_BRANCH", "ILLEGAL", "MIXED"})
+  String group;
+
+  /** The cpu to test */
+  BenchCpu cpu;
+
+  /**
+   * Cpu that executes a given number of instructions, without interrupts
+   */
+  static class BenchCpu extends M6510 {
+    /**
+     * Construct the cpu onto the given bus
+     *
+     * @param bus the bus to use
+     */
+    BenchCpu(Bus bus) {
+      super(new TickMonitor("Bench", null) {
+        @Override
+        public void opWait() {
+        }
+      }, bus, C64Bus.V_CPU, null);
+
+      notifySignal(S_RDY, 1);
+      notifySignal(S_AEC, 1);
+      regPC=ORG;
+    }
+
+    /**
+     * Execute instructions as <code>step</code> does, without interrupts
+     *
+     * @param n number of instructions
+     */
+    void run(int n) {
+      for (int i=0; i<n; i++) {
+        p0=load(regPC++);
+        regPC&=0xFFFF;
+        clock();
+        decode();
+      }
+    }
+  }
+
+  /**
+   * Get the body of the loop of a group
+   *
+   * @param group the group of instructions
+   * @return the body of the loop
+   */
+  static int[] body(String group) {
+    switch (group) {
+      case "LOAD_STORE":
+        return new int[] {
+          0xA9, 0x11,                                   // LDA #$11
+          0xA5, 0x20,                                   // LDA $20
+          0xAD, 0x00, 0x30,                             // LDA $3000
+          0xBD, 0x00, 0x30,                             // LDA $3000,X
+          0xB1, 0x22,                                   // LDA ($22),Y
+          0x8D, 0x00, 0x31,                             // STA $3100
+          0x9D, 0x00, 0x31,                             // STA $3100,X
+          0x86, 0x30,                                   // STX $30
+          0xA4, 0x31                                    // LDY $31
+        };
+      case "ALU":
+        return new int[] {
+          0x18,                                         // CLC
+          0x69, 0x01,                                   // ADC #$01
+          0x65, 0x20,                                   // ADC $20
+          0x38,                                         // SEC
+          0xE9, 0x01,                                   // SBC #$01
+          0x29, 0x7F,                                   // AND #$7F
+          0x45, 0x21,                                   // EOR $21
+          0x09, 0x80,                                   // ORA #$80
+          0xC9, 0x40,                                   // CMP #$40
+          0xDD, 0x00, 0x30,                             // CMP $3000,X
+          0x2A,                                         // ROL A
+          0x4A                                          // LSR A
+        };
+      case "RMW":
+        return new int[] {
+          0xE6, 0x24,                                   // INC $24
+          0xC6, 0x25,                                   // DEC $25
+          0x0E, 0x00, 0x32,                             // ASL $3200
+          0x5E, 0x00, 0x32,                             // LSR $3200,X
+          0x3E, 0x00, 0x32,                             // ROL $3200,X
+          0x7E, 0x00, 0x32,                             // ROR $3200,X
+          0xEE, 0x01, 0x32                              // INC $3201
+        };
+      case "STACK_BRANCH":
+        return new int[] {
+          0x48,                                         // PHA
+          0x08,                                         // PHP
+          0x28,                                         // PLP
+          0x68,                                         // PLA
+          0x20, SUB & 0xFF, SUB>>8,                     // JSR SUB
+          0xB0, 0x00,                                   // BCS *+2
+          0x90, 0x00,                                   // BCC *+2
+          0xF0, 0x00,                                   // BEQ *+2
+          0xD0, 0x00                                    // BNE *+2
+        };
+      case "ILLEGAL":
+        return new int[] {
+          0xA7, 0x20,                                   // LAX $20
+          0x87, 0x26,                                   // SAX $26
+          0x07, 0x27,                                   // SLO $27
+          0x27, 0x28,                                   // RLA $28
+          0xC7, 0x29,                                   // DCP $29
+          0xE7, 0x2A,                                   // ISB $2A
+          0x0B, 0x01,                                   // ANC #$01
+          0x4B, 0x01,                                   // ASR #$01
+          0x1A,                                         // NOOP
+          0x04, 0x20                                    // NOOP $20
+        };
+      case "MIXED":
+        return concat("LOAD_STORE", "ALU", "RMW", "STACK_BRANCH", "ILLEGAL");
+      default:
+        throw new IllegalArgumentException(group);
+    }
+  }
+
+  /**
+   * Get the bodies of the given groups one after the other, so the opcode
+   * changes at each instruction like in a real program
+   *
+   * @param groups the groups of instructions
+   * @return the body of the loop
+   */
+  static int[] concat(String... groups) {
+    int[][] bodies=new int[groups.length][];
+    int size=0;
+    for (int i=0; i<groups.length; i++) {
+      bodies[i]=body(groups[i]);
+      size+=bodies[i].length;
+    }
+    
+    int[] body=new int[size];
+    int pos=0;
+    for (int[] part: bodies) {
+      System.arraycopy(part, 0, body, pos, part.length);
+      pos+=part.length;
+    }
+    return body;
+  }
+
+  @Setup
+  public void setup() {
+    DRAM ram=new DRAM(0x10000, 0);
+    byte[] mem=ram.memory;
+    int[] body=body(group);
+
+    int pos=ORG;
+    mem[pos++]=(byte)0xA2;                              // LDX #$00
+    mem[pos++]=0x00;
+    for (int value: body) {
+      mem[pos++]=(byte)value;
+    }
+    mem[pos++]=(byte)0xE8;                              // INX
+    mem[pos++]=(byte)0xD0;                              // BNE loop
+    mem[pos++]=(byte)(-(body.length+3));
+    mem[pos++]=(byte)0x4C;                              // JMP ORG
+    mem[pos++]=(byte)(ORG & 0xFF);
+    mem[pos++]=(byte)(ORG>>8);
+
+    mem[SUB]=(byte)0x60;                                // RTS
+
+    // pointer for indirect modes
+    mem[0x22]=0x00;
+    mem[0x23]=0x30;
+
+    readableBus[] read=new readableBus[256];
+    writeableBus[] write=new writeableBus[256];
+    Arrays.fill(read, ram);
+    Arrays.fill(write, ram);
+    
+    C64Bus bus=new C64Bus();
+    bus.setTableCpu(read, write);
+    bus.setTableVic(read);
+    
+    cpu=new BenchCpu(bus);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(INSTRUCTIONS)
+  public int step() {
+    cpu.run(INSTRUCTIONS);
+    return cpu.regA;
+  }
+}
@@ -0,0 +1,111 @@
+/**
+ * @(#)XRefManagerBenchmark.java 2026/10/18
+ *
+ * ICE Team free software group
+ *
+ * This file is part of C64 Java Software Emulator.
+ * See README for copyright notice.
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ *  02111-1307  USA.
+ */
+package sw_emulator.bench;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import sw_emulator.software.Disassembly;
+import sw_emulator.software.memory.XRefManager;
+import sw_emulator.swing.main.FileType;
+import sw_emulator.swing.main.Option;
+import sw_emulator.swing.main.Project;
+
+/**
+ * Population and lookup of the xref of the SID example.
+ * The population is done by the preview pass, as in the application.
+ * 
+ * @author ice
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations=3, time=1)
+@Measurement(iterations=5, time=1)
+@Fork(1)
+public class XRefManagerBenchmark {
+  /** Project of the SID example */
+  Project project;
+  
+  /** Option to use */
+  Option option;
+  
+  /** Disassembly engine */
+  Disassembly disassembly;
+  
+  /** Target address of each reference */
+  int[] targets;
+  
+  /** Manager populated with all the references */
+  XRefManager populated;
+  
+  @Setup
+  public void setup() {
+    project=Fixtures.project(FileType.SID);
+    option=Fixtures.option();
+    disassembly=new Disassembly();
+    populated=populate();
+    
+    ArrayList<Integer> listTargets=new ArrayList<>();
+    for (int address: populated.getAllReferencedAddresses()) {
+      listTargets.add(address);
+    }
+    
+    targets=new int[listTargets.size()];
+    for (int i=0; i<targets.length; i++) {
+      targets[i]=listTargets.get(i);
+    }
+  }
+  
+  @Benchmark
+  public XRefManager populate() {
+    XRefManager xRefManager=new XRefManager();
+    Fixtures.disassembly(disassembly, project, option, xRefManager, false);
+    return xRefManager;
+  }
+  
+  @Benchmark
+  public void lookup(Blackhole blackhole) {
+    for (int address=0; address<=0xFFFF; address++) {
+      blackhole.consume(populated.getXRefsForAddress(address));
+    }
+  }
+  
+  @Benchmark
+  public void stats(Blackhole blackhole) {
+    for (int address: targets) {
+      blackhole.consume(populated.getStatsForAddress(address));
+    }
+  }
+}
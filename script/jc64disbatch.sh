@@ -0,0 +1,2 @@
+#!/bin/bash
+java -Djava.awt.headless=true -cp jc64.jar sw_emulator.swing.main.JC64DisBatch "$@"
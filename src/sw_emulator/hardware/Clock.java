@@ -24,34 +24,90 @@
 
 package sw_emulator.hardware;
 
+import java.util.concurrent.locks.LockSupport;
+import sw_emulator.util.Gate;
 import sw_emulator.util.Monitor;
+import sw_emulator.util.TickMonitor;
 
 
 /**
  * Creates a clock circuits.
  * The clock period is at 8Mhz, and the clock can be not in real-time but
  * slow or accelerate.
+ * The real time is kept by sleeping at the end of each frame, while in warp
+ * mode the clock runs as fast as possible. In both the modes the emulated
+ * frequency and frames per seconds are measured.
  * The thread that wants to be clocked, must use the monitor of this class.
+ * If the clock is scheduled, no thread is started: the monitor is a 
+ * <code>TickMonitor</code> and the clock is ticked by who waits on it.
  *
  * @author Ice
  * @version 1.00 19/09/1999
  */
-public class Clock extends Thread {
+public class Clock extends Thread implements clocked {
 
   /** The monitor used to synchronized at 8Mhz */
-  public Monitor monitor=new Monitor("Clock at 8Mhz");
+  public Monitor monitor;
   
   public static final int PAL=1;
   public static final int NTSC=2;
+  
+  /** Frequency of the fi clock for PAL */
+  public static final int PAL_HZ=985248;
+  
+  /** Frequency of the fi clock for NTSC */
+  public static final int NTSC_HZ=1022727;
+  
+  /** Fi cycles of a PAL frame (312 lines of 63 cycles) */
+  public static final int PAL_FRAME_CYCLES=312*63;
+  
+  /** Fi cycles of a NTSC frame (263 lines of 65 cycles) */
+  public static final int NTSC_FRAME_CYCLES=263*65;
+  
+  /** Dot clock ticks for each fi cycle */
+  public static final int DOTS=8;
+  
+  /** Max nano seconds of delay before giving up to recover real time */
+  public static final long MAX_LATE=100_000_000L;
 
   /** The type of clock (for PAL or NTSC) */
   private int type=PAL;
 
   /** Coefficient for real time */
   private double realTime=1;
+  
+  /** True if the clock runs as fast as possible */
+  private volatile boolean warp=false;
+  
+  /** True if the real time reference is to take again */
+  private volatile boolean resync=true;
+  
+  /** Dot clock ticks done in the actual frame */
+  private int frameDots;
+  
+  /** Number of frames done after the real time reference */
+  private long syncFrames;
+  
+  /** Nano time of the real time reference */
+  private long syncTime;
+  
+  /** Number of frames done after the last measure */
+  private int measureFrames;
+  
+  /** Nano time of the last measure */
+  private long measureTime;
+  
+  /** Measured frequency of the emulated fi clock in Mhz */
+  private volatile double mhz;
+  
+  /** Measured frames per seconds */
+  private volatile double fps;
 
   /** True if clock is started */
-  private boolean started=false;
+  private volatile boolean started=false;
+  
+  /** Gate where the clock attends the start */
+  protected final Gate gate=new Gate();
   
   /** Cycle before calling a tod */
   private int cycleTod=0;
@@ -65,10 +121,34 @@ public class Clock extends Thread {
    * @param type the type (PAL or NTSC)
    */
   public Clock(int type) {
+    this(type, false);
+  }
+  
+  /**
+   * Create a clock of 8Mhz for PAL or NTSC
+   *
+   * @param type the type (PAL or NTSC)
+   * @param scheduled true if the clock is ticked by a single thread machine
+   */
+  public Clock(int type, boolean scheduled) {
     setType(type);
     setPriority(MIN_PRIORITY);
     setName("CLOCK");              // new name for this thread
-    start();
+    
+    if (scheduled) monitor=new TickMonitor("Clock at 8Mhz", this);
+    else {
+      monitor=new Monitor("Clock at 8Mhz");
+      start();
+    }
+  }
+  
+  /**
+   * Return true if the clock is ticked by a single thread machine
+   * 
+   * @return true if scheduled
+   */
+  public boolean isScheduled() {
+    return monitor instanceof TickMonitor;
   }
 
   /**
@@ -91,6 +171,62 @@ public class Clock extends Thread {
   public void setRealTime(double realTime) {
    if (realTime<0) this.realTime=1;
    else this.realTime=realTime;
+   resync=true;
+  }
+  
+  /**
+   * Set the warp mode, where the clock runs as fast as possible
+   * 
+   * @param warp true for warp mode, false for real time
+   */
+  public void setWarp(boolean warp) {
+    this.warp=warp;
+    resync=true;
+  }
+  
+  /**
+   * Return true if the clock is in warp mode
+   * 
+   * @return true if in warp mode
+   */
+  public boolean isWarp() {
+    return warp;
+  }
+  
+  /**
+   * Get the nominal frequency of the fi clock
+   * 
+   * @return the frequency in Hz
+   */
+  public int getFrequency() {
+    return type==NTSC ? NTSC_HZ : PAL_HZ;
+  }
+  
+  /**
+   * Get the number of fi cycles of a frame
+   * 
+   * @return the cycles of a frame
+   */
+  public int getFrameCycles() {
+    return type==NTSC ? NTSC_FRAME_CYCLES : PAL_FRAME_CYCLES;
+  }
+  
+  /**
+   * Get the measured frequency of the emulated fi clock
+   * 
+   * @return the frequency in Mhz
+   */
+  public double getMhz() {
+    return mhz;
+  }
+  
+  /**
+   * Get the measured frames per seconds
+   * 
+   * @return the frames per seconds
+   */
+  public double getFps() {
+    return fps;
   }
 
   /**
@@ -107,6 +243,8 @@ public class Clock extends Thread {
    */
   public synchronized void startClock() {
     started=true;
+    resync=true;
+    gate.signal();
   }
 
   /**
@@ -120,49 +258,92 @@ public class Clock extends Thread {
    * Notify a clock tick in the monitor
    */
   public void run() {
-    ///long start=0;
     while (true) {
-      while (started==false) {       // attend a start command
-        this.yield();
+      tick();
+    }
+  }
+  
+  /**
+   * Execute one clock tick: notify it in the monitor and generate the tod
+   * signal. It attends that the clock is started.
+   */
+  @Override
+  public void tick() {
+    if (started==false) {          // attend a start command
+      gate.await(() -> started);
+    }
+    
+    //if (type==NTSC) wait((int)(12*realTime), (int)(222*realTime));
+    //else            wait((int)(12*realTime), (int)(690*realTime));
+    
+    monitor.opSignal();
+    
+    // test for generating a tod high signal
+    if (--cycleTod<=0) {
+      cycleTod=160000;        /// to fix for pal/ntsc
+      if (devices!=null) { 
+        for (int i=0; i<devices.length; i++) {
+          devices[i].notifySignal(signaller.S_TOD, 1); // 0 to 1
+        }
       }
-
-      
-      //if (type==NTSC) wait((int)(12*realTime), (int)(222*realTime));
-      //else            wait((int)(12*realTime), (int)(690*realTime));
-       
-      // attend that the connected circuits have finish
- //     while (!monitor.isFinish()) {
- //       yield();
- //       //monitor.opWait2();
- //     }
-      
-      
-      monitor.opSignal();
       
-      // test for generating a tod high signal
-      if (--cycleTod<=0) {
-        cycleTod=160000;        /// to fix for pal/ntsc
-        if (devices!=null) { 
-          for (int i=0; i<devices.length; i++) {
-            devices[i].notifySignal(signaller.S_TOD, 1); // 0 to 1
-          }
+     /// start = System.nanoTime();
+    }
+    
+    // test for the end of a frame
+    if (++frameDots>=getFrameCycles()*DOTS) {
+      endFrame();
+    }
+    
+    // test for generating a tod low signal
+    if (cycleTod==80000) {      /// to fix for pal/ntsc
+      if (devices!=null) { 
+        for (int i=0; i<devices.length; i++) {
+          devices[i].notifySignal(signaller.S_TOD, 0); // 1 to 0
         }
-        
-       /// start = System.nanoTime();
-      }
+      }   
       
-      // test for generating a tod low signal
-      if (cycleTod==80000) {      /// to fix for pal/ntsc
-        if (devices!=null) { 
-          for (int i=0; i<devices.length; i++) {
-            devices[i].notifySignal(signaller.S_TOD, 0); // 1 to 0
-          }
-        }   
-        
-       /// long finish = System.nanoTime();
-       /// long timeElapsed = finish - start;
-       /// System.err.println(timeElapsed/1000000);
-      }     
+     /// long finish = System.nanoTime();
+     /// long timeElapsed = finish - start;
+     /// System.err.println(timeElapsed/1000000);
+    }     
+  }
+  
+  /**
+   * Manage the end of a frame: measure the speed and, if not in warp mode,
+   * sleep until the real time of the end of the frame.
+   */
+  private void endFrame() {
+    frameDots=0;
+    long now=System.nanoTime();
+    
+    if (resync) {
+      resync=false;
+      syncTime=now;
+      syncFrames=0;
+      measureTime=now;
+      measureFrames=0;
+      return;
+    }
+    
+    // measure at each second
+    measureFrames++;
+    if (now-measureTime>=1_000_000_000L) {
+      fps=measureFrames*1e9/(now-measureTime);
+      mhz=fps*getFrameCycles()/1e6;
+      measureTime=now;
+      measureFrames=0;
+    }
+    
+    if (warp) return;
+    
+    syncFrames++;
+    long target=syncTime+(long)(syncFrames*getFrameCycles()*1e9*realTime/getFrequency());
+    if (target-now>0) LockSupport.parkNanos(this, target-now);
+    else if (now-target>MAX_LATE) {
+      // too slow: take a new reference instead of running fast after
+      syncTime=now;
+      syncFrames=0;
     }
   }
 }
\ No newline at end of file
@@ -0,0 +1,85 @@
+/**
+ * @(#)Scheduler.java 2026/10/18
+ *
+ * ICE Team free software group
+ *
+ * This file is part of C64 Java Software Emulator.
+ * See README for copyright notice.
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ *  02111-1307  USA.
+ */
+
+package sw_emulator.hardware;
+
+import sw_emulator.hardware.cpu.M6510;
+
+/**
+ * Single thread execution engine of a machine.
+ * The chips are not executed into their own threads, as their monitors are
+ * <code>TickMonitor</code>: the cpu is executed into this thread, and each
+ * time it attends a clock cycle it ticks the clock, that ticks the Vic, that
+ * at the fi clock ticks the other clocked chips.
+ * So all the chips are executed in cycle order, deterministically and 
+ * without any handoff between threads.
+ *
+ * @author Ice
+ * @version 1.00 18/10/2026
+ */
+public class Scheduler extends Thread {
+  /** The cpu that drives the machine */
+  protected M6510 cpu;
+  
+  /** True if the scheduler is running */
+  protected volatile boolean running=true;
+
+  /**
+   * Create the scheduler of a machine
+   *
+   * @param cpu the cpu that drives the machine (with a scheduled monitor)
+   */
+  public Scheduler(M6510 cpu) {
+    this.cpu=cpu;
+    setName("SCHEDULER");          // new name for this thread
+  }
+  
+  /**
+   * Execute the cpu instructions until stopped
+   */
+  @Override
+  public void run() {
+    cpu.begin();
+    
+    while (running) {
+      cpu.step();
+    }
+  }
+  
+  /**
+   * Stops the scheduler after the actual instruction
+   */
+  public void stopScheduler() {
+    running=false;
+  }
+  
+  /**
+   * Get the number of cpu cycles executed
+   * 
+   * @return the number of cycles
+   */
+  public long getCycles() {
+    return cpu.clock;
+  }
+}
@@ -26,6 +26,9 @@ package sw_emulator.hardware.bus;
 
 import sw_emulator.hardware.bus.Bus;
 import sw_emulator.hardware.memory.ColorRAM;
+import sw_emulator.hardware.memory.DRAM;
+import sw_emulator.hardware.memory.Memory;
+import sw_emulator.hardware.memory.ROM;
 import sw_emulator.math.Unsigned;
 
 /**
@@ -45,6 +48,9 @@ import sw_emulator.math.Unsigned;
  *  <li>VIC: AEC high means tri-states</li>
  * </ul>
  * AEC is low if it is 0, high otherwise.
+ * The cpu pages that are plain ram (or rom for reading) are marked into a
+ * bitmap, and they are accessed directly into the memory array of the chip,
+ * while the I/O pages use the handler of the table.
  *
  * @author Ice
  * @version 1.00 15/10/1999
@@ -74,6 +80,80 @@ public class C64Bus extends Bus{
    */
   protected ColorRAM color;
 
+  /**
+   * Pages of the cpu tables that are accessed directly
+   */
+  protected Pages pages=new Pages(null, null);
+
+  /**
+   * The cpu pages of a read/write tables couple that are plain memory.
+   * A new object is made for each couple, so a cpu in another thread never
+   * sees a bitmap not in accord with the arrays.
+   */
+  protected static class Pages {
+    /** Bitmap of pages readable directly from memory (bit p&63 of p>>6) */
+    final long[] directRead=new long[4];
+
+    /** Bitmap of pages writeable directly to memory (bit p&63 of p>>6) */
+    final long[] directWrite=new long[4];
+
+    /** Memory array for reading of each page (if direct) */
+    final byte[][] readData=new byte[256][];
+
+    /** Offset into memory array for reading of each page (if direct) */
+    final int[] readBase=new int[256];
+
+    /** Memory array for writing of each page (if direct) */
+    final byte[][] writeData=new byte[256][];
+
+    /** Offset into memory array for writing of each page (if direct) */
+    final int[] writeBase=new int[256];
+
+    /**
+     * Find the direct pages of the tables
+     *
+     * @param readTable the table for reading from bus (can be null)
+     * @param writeTable the table for writing to bus (can be null)
+     */
+    Pages(readableBus[] readTable, writeableBus[] writeTable) {
+      for (int page=0; page<256; page++) {
+        if (readTable!=null) {
+          Memory memory=getDirect(readTable[page], true);
+          if (memory!=null) {
+            readData[page]=memory.memory;
+            readBase[page]=((page<<8)-memory.address) & (memory.size-1);
+            directRead[page>>6]|=1L<<page;
+          }
+        }
+
+        if (writeTable!=null) {
+          Memory memory=getDirect(writeTable[page], false);
+          if (memory!=null) {
+            writeData[page]=memory.memory;
+            writeBase[page]=((page<<8)-memory.address) & (memory.size-1);
+            directWrite[page>>6]|=1L<<page;
+          }
+        }
+      }
+    }
+
+    /**
+     * Get the memory chip that can be accessed directly with its array.
+     * Ram can be read and written, rom only read.
+     *
+     * @param device the device of the page
+     * @param read true for reading, false for writing
+     * @return the memory or null if the device is to use with its handler
+     */
+    private static Memory getDirect(Object device, boolean read) {
+      if (!(device instanceof DRAM) && !(read && device instanceof ROM)) return null;
+
+      Memory memory=(Memory)device;
+      if (memory.size<256 || (memory.address & 0xFF)!=0) return null;
+      return memory;
+    }
+  }
+
   /**
    * Construct a bus for the cpu and vic
    * Cpu use read and write to bus, Vic use only read.
@@ -110,7 +190,11 @@ public class C64Bus extends Bus{
     switch (view) {
       case V_CPU:
         if (aec!=0) {
-          writeTableCpu[addr>>8].write(addr,(byte)value);
+          Pages pages=this.pages;
+          int page=addr>>8;
+          if ((pages.directWrite[page>>6] & (1L<<page))!=0) {
+            pages.writeData[page][pages.writeBase[page]+(addr & 0xFF)]=(byte)value;
+          } else writeTableCpu[page].write(addr,(byte)value);
           // use previous byte for vic
           previous=value;
         } else {
@@ -135,8 +219,13 @@ public class C64Bus extends Bus{
     switch (view) {
       case V_CPU:
         if (aec!=0) {
+          Pages pages=this.pages;
+          int page=addr>>8;
           // use previous value for vic
-          return previous=Unsigned.done(readTableCpu[addr>>8].read(addr));
+          if ((pages.directRead[page>>6] & (1L<<page))!=0) {
+            return previous=pages.readData[page][pages.readBase[page]+(addr & 0xFF)] & 0xFF;
+          }
+          return previous=Unsigned.done(readTableCpu[page].read(addr));
         } else {
             // address line are tri-states
             return 0xFF;
@@ -163,8 +252,12 @@ public class C64Bus extends Bus{
    * @param readTableVic the table for reading from bus by vic view
    */
   public void setTableCpu(readableBus[] readTableCpu, writeableBus[] writeTableCpu) {
+    if (readTableCpu==this.readTableCpu && writeTableCpu==this.writeTableCpu) return;
+
+    Pages pages=new Pages(readTableCpu, writeTableCpu);
     this.readTableCpu=readTableCpu;
     this.writeTableCpu=writeTableCpu;
+    this.pages=pages;
   }
 
   /**
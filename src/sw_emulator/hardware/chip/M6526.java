@@ -26,11 +26,14 @@ package sw_emulator.hardware.chip;
 
 import sw_emulator.hardware.powered;
 import sw_emulator.hardware.signaller;
+import sw_emulator.hardware.clocked;
 import sw_emulator.hardware.bus.readableBus;
 import sw_emulator.hardware.bus.writeableBus;
 import sw_emulator.hardware.io.M6526IO;
 import sw_emulator.math.Unsigned;
+import sw_emulator.util.Gate;
 import sw_emulator.util.Monitor;
+import sw_emulator.util.TickMonitor;
 import sw_emulator.util.FlipFlop;
 import sw_emulator.util.FlipFlopClock;
 import sw_emulator.util.Counter;
@@ -45,7 +48,7 @@ import sw_emulator.util.FlipFlopDelayClock;
  * @author Ice
  * @version 1.00 23/10/1999
  */
-public class M6526 extends Thread implements powered, signaller,
+public class M6526 extends Thread implements powered, signaller, clocked,
                                              readableBus, writeableBus{
   public static final int NTSC=0;
   public static final int PAL=1;
@@ -57,6 +60,9 @@ public class M6526 extends Thread implements powered, signaller,
   /** The state of power */
   protected boolean power=false;
 
+  /** Gate where the thread attends power and connections */
+  protected final Gate gate=new Gate();
+
   /** The actual input FLAG signal */
   protected int inputFLAG=1;
   
@@ -306,7 +312,9 @@ public class M6526 extends Thread implements powered, signaller,
     this.monitor=monitor;
     this.io=io;
     setName("CIA1");               // use this name for the thread
-    start();
+    
+    if (monitor instanceof TickMonitor) ((TickMonitor)monitor).register(this);
+    else start();
   }
   
   /**
@@ -323,7 +331,9 @@ public class M6526 extends Thread implements powered, signaller,
     this.monitor=monitor;
     this.io=io;
     setName("CIA2");               // use this name for the thread    
-    start();    
+    
+    if (monitor instanceof TickMonitor) ((TickMonitor)monitor).register(this);
+    else start();
   }
 
   /**
@@ -568,6 +578,7 @@ public class M6526 extends Thread implements powered, signaller,
    */
   public void setIO(M6526IO io) {
     this.io=io;
+    gate.signal();
   }
   
   /**
@@ -738,13 +749,11 @@ public class M6526 extends Thread implements powered, signaller,
   public void run() {
     monitor.opNotify();                         // notify that we will use it      
       
-    while(io==null) {
-      this.yield();
-    }  
+    gate.await(() -> io!=null);
     
     while(true) {   
-      while (!power) {
-        this.yield();                              // give mutex to other threads
+      if (!power) {
+        gate.await(() -> power);                   // attend power
       }      
       
       bodyAsync();                            // execute tha async part of body 
@@ -752,12 +761,24 @@ public class M6526 extends Thread implements powered, signaller,
       monitor.opWait();                       // attend clock signal 
     }  
   }
+  
+  /**
+   * Execute the cia body for one clock tick of a scheduled machine
+   */
+  @Override
+  public void tick() {
+    if (!power || io==null) return;
+    
+    bodyAsync();                              // execute tha async part of body 
+    bodySync();                               // execute the cia clock boby  
+  }
     
   /**
    * Power on the electronic component
    */
   public void powerOn() {
       power=true;   // power is on
+      gate.signal();
   }
 
   /**
@@ -29,7 +29,7 @@ import sw_emulator.hardware.bus.writeableBus;
 import sw_emulator.hardware.bus.Bus;
 import sw_emulator.hardware.io.VicII_IO;
 import sw_emulator.hardware.memory.dinamic;
-import sw_emulator.hardware.device.raster;
+import sw_emulator.hardware.device.frameSink;
 import sw_emulator.util.FlipFlop;
 import sw_emulator.util.Monitor;
 import sw_emulator.util.Monitor2;
@@ -70,11 +70,11 @@ public class M6567R56A extends VicII {
    * @param view the vic bus view
    * @param io the vic io
    * @param devicesToRefresh the devices to be refreshed
-   * @param tv the raster TV attached to the Vic output
+   * @param sink the sink of the frames made by Vic (null for none)
    */
   public M6567R56A(Monitor extMonitor, Bus bus, int view, VicII_IO io,
-                                dinamic[] devicesToRefresh, raster tv) {
-    super(extMonitor, bus, view, io, devicesToRefresh, tv);
+                                dinamic[] devicesToRefresh, frameSink sink) {
+    super(extMonitor, bus, view, io, devicesToRefresh, sink);
 
     // set specific Vic values
     maxCycle=64;
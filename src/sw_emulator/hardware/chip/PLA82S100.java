@@ -33,6 +33,7 @@ import sw_emulator.hardware.memory.ColorRAM;
 import sw_emulator.hardware.bus.C64Bus;
 import sw_emulator.hardware.bus.readableBus;
 import sw_emulator.hardware.bus.writeableBus;
+import sw_emulator.util.Gate;
 import sw_emulator.util.Monitor1;
 
 /**
@@ -50,8 +51,9 @@ import sw_emulator.util.Monitor1;
  * GAME, EXROM, CHAREN.
  *
  * The chips that may notify some changing signals may use
- * <code>notifySignal</code> and then a <code>opSignal</code> to the available
- * <code>monitor</code>.
+ * <code>notifySignal</code> and then <code>update</code>, that makes a
+ * <code>opSignal</code> to the available <code>monitor</code>, or calculates
+ * the tables at once if the PLA is not threaded.
  *
  * @author Ice
  * @version 1.00 15/10/1999
@@ -61,11 +63,17 @@ public class PLA82S100 extends Thread implements powered, signaller {
   /** The state of power */
   private boolean power=false;
 
+  /** Gate where the thread attends power and connections */
+  protected final Gate gate=new Gate();
+
   /** True if it is a ultimax configuration */
   private boolean ultimax=false;
 
   /** The monitor where PLA attend a signal that changing value */
   public Monitor1 monitor=new Monitor1("PLA 82S100");
+  
+  /** True if the PLA attends the signal changes into its thread */
+  protected boolean threaded=true;
 
   /** A copy of actual C64 bus. */
   protected C64Bus bus;
@@ -251,6 +259,42 @@ public class PLA82S100 extends Thread implements powered, signaller {
                    ROM basic, ROM kernal, ROM chargen,
                    VicII vic, Sid sid, ColorRAM color,
                    M6526 cia1, M6526 cia2) {
+    this(bus, exp, ram0, ram1, ram2, ram3, ram4, ram5, ram6, ram7,
+         basic, kernal, chargen, vic, sid, color, cia1, cia2, true);
+  }
+  
+  /**
+   * Construct a PLA82S100.
+   *
+   * @param bus the C64 bus where changing tables
+   * @param exp the cartridge expansion port.
+   * @param ram0 8Kb of Ram memory address 0x0000 0x1FFF
+   * @param ram1 8Kb of Ram memory address 0x2000 0x3FFF
+   * @param ram2 8Kb of Ram memory address 0x4000 0x5FFF
+   * @param ram3 8Kb of Ram memory address 0x6000 0x7FFF
+   * @param ram4 8Kb of Ram memory address 0x8000 0x9FFF
+   * @param ram5 8Kb of Ram memory address 0xA000 0xBFFF
+   * @param ram6 8Kb of Ram memory address 0xC000 0xDFFF
+   * @param ram7 8Kb of Ram memory address 0xE000 0xFFFF
+   * @param basic the 8Kb of Basic ROM
+   * @param kernal the 8Kb of kernal ROM
+   * @param chargen the 4Kb of char ROM
+   * @param vic the 40h bytes of VIC I/O
+   * @param sid the 20h bytes of SID I/O
+   * @param color the 1Kbyte of color ram
+   * @param cia1 the 10h bytes of CIA1
+   * @param cia2 the 10h bytes of CIA2
+   * @param threaded true if signal changes are attended into the PLA thread
+   */
+  public PLA82S100(C64Bus bus,
+                   Cartridge exp,
+                   Memory ram0, Memory ram1, Memory ram2, Memory ram3,
+                   Memory ram4, Memory ram5, Memory ram6, Memory ram7,
+                   ROM basic, ROM kernal, ROM chargen,
+                   VicII vic, Sid sid, ColorRAM color,
+                   M6526 cia1, M6526 cia2, boolean threaded) {
+    this.threaded=threaded;
+      
     // make copy of C64 bus.
     this.bus=bus;
 
@@ -283,7 +327,7 @@ public class PLA82S100 extends Thread implements powered, signaller {
     buildVicTables();
 
     setName("PLA");               // use this name for the thread
-    start();
+    if (threaded) start();
   }
 
   /**
@@ -707,15 +751,22 @@ public class PLA82S100 extends Thread implements powered, signaller {
    */
   public void run() {
     while (true) {
-      while (!power) {          // is there power?
-        this.yield();                // no, attend power
-      }
+      gate.await(() -> power);  // attend power
       chooseTables();           // calculate the right tables for bus
       ///monitor.opSignal2();
       monitor.opWait();         // attend a signal changes value
     }
   }
 
+  /**
+   * Manage the signals changed with <code>notifySignal</code>.
+   * A threaded PLA is resumed, otherwise the tables are calculated now.
+   */
+  public void update() {
+    if (threaded) monitor.opSignal();
+    else if (power) chooseTables();
+  }
+  
   /**
    * Choose the right tables for the vic and cpu bus view.
    * It reads the actual value of LORAM, HIRAM, EXROM, GAME and CHAREN signals
@@ -862,6 +913,8 @@ public class PLA82S100 extends Thread implements powered, signaller {
    */
   public void powerOn() {
       power=true;   // power is on
+      if (!threaded) chooseTables();
+      gate.signal();
   }
 
   /**
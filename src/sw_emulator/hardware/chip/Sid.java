@@ -24,6 +24,7 @@
 
 package sw_emulator.hardware.chip;
 
+import sw_emulator.util.Gate;
 import sw_emulator.util.Monitor;
 import sw_emulator.hardware.powered;
 import sw_emulator.hardware.signaller;
@@ -45,6 +46,9 @@ public /*abstract*/ class Sid extends Thread implements powered, signaller,
    */
   private boolean power=false;
 
+  /** Gate where the thread attends power and connections */
+  protected final Gate gate=new Gate();
+
   /**
    * The monitor where synchronization with a clock
    */
@@ -82,9 +86,7 @@ public /*abstract*/ class Sid extends Thread implements powered, signaller,
   public void run() {
     while (true) {
       if (!power)                                  // there's power ?
-        while (!power) {                           // no, attend power
-          this.yield();                                  // give mutex
-        }
+        gate.await(() -> power);                   // no, attend power
 
       ///monitor.opSignal2();
       monitor.opWait();                            // attend synchronization
@@ -115,6 +117,7 @@ public /*abstract*/ class Sid extends Thread implements powered, signaller,
    */
   public void powerOn() {
       power=true;   // power is on
+      gate.signal();
   }
 
   /**
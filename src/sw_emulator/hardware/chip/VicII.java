@@ -24,7 +24,10 @@
 
 package sw_emulator.hardware.chip;
 
+import sw_emulator.util.Gate;
 import sw_emulator.util.Monitor;
+import sw_emulator.util.TickMonitor;
+import sw_emulator.hardware.clocked;
 import sw_emulator.hardware.powered;
 import sw_emulator.hardware.signaller;
 import sw_emulator.hardware.bus.readableBus;
@@ -32,7 +35,9 @@ import sw_emulator.hardware.bus.writeableBus;
 import sw_emulator.hardware.bus.Bus;
 import sw_emulator.hardware.memory.dinamic;
 import sw_emulator.hardware.io.VicII_IO;
-import sw_emulator.hardware.device.raster;
+import sw_emulator.hardware.device.FrameBuffer;
+import sw_emulator.hardware.device.NullSink;
+import sw_emulator.hardware.device.frameSink;
 import sw_emulator.util.FlipFlop;
 
 /**
@@ -60,7 +65,7 @@ import sw_emulator.util.FlipFlop;
  * @author Ice
  * @version 1.00 16/10/1999
  */
-public abstract class VicII extends Thread implements powered,
+public abstract class VicII extends Thread implements powered, clocked,
                                                readableBus, writeableBus{
 
   // idle state if all value different from below
@@ -126,10 +131,13 @@ public abstract class VicII extends Thread implements powered,
   public Monitor extMonitor;
 
   /** Internal monitor for generate clock at 1/8 of dot clock */
-  public Monitor intMonitor=new Monitor("VIC II fi clock");
+  public Monitor intMonitor;
 
   /** Actual VIC cycle */
   protected int cycle;
+  
+  /** Number of dot clock ticks in the actual cycle */
+  protected int tick;
 
   /** State of bad line (true means this is a bad line) */
   protected boolean badLine;
@@ -143,6 +151,9 @@ public abstract class VicII extends Thread implements powered,
   /** The state of power */
   private boolean power=false;
 
+  /** Gate where the thread attends power and connections */
+  protected final Gate gate=new Gate();
+
   /** The bus view of the Vic */
   protected int view;
 
@@ -161,8 +172,23 @@ public abstract class VicII extends Thread implements powered,
   /** The background/foreground priority of the pixel */
   public int grPriority;
 
-  /** The TV where Vic send pixels output */
-  public raster tv;
+  /** The sink where Vic sends the completed frames */
+  protected volatile frameSink sink;
+
+  /** True if the pixels are collected for the sink (false with no sink) */
+  protected volatile boolean output;
+
+  /** The frame buffer with the visible lines (made at the first line) */
+  protected FrameBuffer frame;
+
+  /** The pixels of the actual raster line (max 65 cycles of 8 pixels) */
+  protected int[] line=new int[65*8];
+
+  /** Number of pixels in the actual raster line */
+  protected int linePos;
+
+  /** Line of the frame buffer for the actual raster line */
+  protected int frameLine;
 
 
   // variables for sprites
@@ -393,18 +419,26 @@ public abstract class VicII extends Thread implements powered,
    * @param view the vic bus view
    * @param io the vic io
    * @param devicesToRefresh the devices to be refreshed
-   * @param tv the raster TV attached to the Vic output
+   * @param sink the sink of the frames made by Vic (null for none)
    */
   public VicII(Monitor extMonitor, Bus bus, int view, VicII_IO io,
-                            dinamic[] devicesToRefresh, raster tv) {
+                            dinamic[] devicesToRefresh, frameSink sink) {
     this.extMonitor=extMonitor;
     this.bus=bus;
     this.view=view;
     this.io=io;
     this.devicesToRefresh=devicesToRefresh;
-    this.tv=tv;
+    setSink(sink);
     setName("VicII");               // use this name for the thread
-    start();
+    
+    // a scheduled clock ticks the vic, that ticks who uses the fi clock 
+    if (extMonitor instanceof TickMonitor) {
+      ((TickMonitor)extMonitor).register(this);
+      intMonitor=new TickMonitor("VIC II fi clock", ((TickMonitor)extMonitor).getSource());
+    } else {
+        intMonitor=new Monitor("VIC II fi clock");
+        start();
+      }
   }
 
   /**
@@ -415,6 +449,37 @@ public abstract class VicII extends Thread implements powered,
    */
   public void setIO(VicII_IO io) {
     this.io=io;
+    gate.signal();
+  }
+
+  /**
+   * Set the sink where the completed frames are sent.
+   * With no sink (or a NullSink) the pixels are not collected at all, as in
+   * warp mode; collisions are always calculated, so the emulation is the same.
+   *
+   * @param sink the sink of frames (null for none)
+   */
+  public void setSink(frameSink sink) {
+    this.sink=sink;
+    output=(sink!=null) && !(sink instanceof NullSink);
+  }
+
+  /**
+   * Get the sink where the completed frames are sent
+   *
+   * @return the sink of frames (null for none)
+   */
+  public frameSink getSink() {
+    return sink;
+  }
+
+  /**
+   * Get the frame buffer where the visible lines are rendered
+   *
+   * @return the frame buffer (null if no line was rendered yet)
+   */
+  public FrameBuffer getFrame() {
+    return frame;
   }
 
   /**
@@ -422,7 +487,7 @@ public abstract class VicII extends Thread implements powered,
    * The power state is looked only 1 time over 8.
    */
   public void run() {
-    int tick=0;                                    // number of dot clock ticks
+    tick=0;                                        // number of dot clock ticks
     extMonitor.opNotify();                         // notify that we will use it
 
     cycle=1;                                       // this is supposed
@@ -430,53 +495,69 @@ public abstract class VicII extends Thread implements powered,
                                                    // for cycle=1
 
     // do nothing until io connection are inserted
-    while (io==null) {
-      this.yield();
-    }
+    gate.await(() -> io!=null);
 
     while (true) {
 
       // do nothig until the power is arrived   
-      while (!power) {                             // there's power ?
-        this.yield();                                   // no, attend power
+      if (!power) {                                // there's power ?
+        gate.await(() -> power);                   // no, attend power
       }
       
       // do nothing until the bus is available
-      while (!bus.isInitialized())  {              // there's a bus?
-        this.yield();                                   // no, attend power
+      if (!bus.isInitialized())  {                 // there's a bus?
+        gate.await(() -> bus.isInitialized());     // no, attend it
       }
       
 
 
       extMonitor.opWait();                         // attend dot clock tick
-      dotClock();                                  // execute dot clock operat.
-      switch (++tick) {
-        case 1:
-          fi0low();                                // execute oper. in 1° phase
-          break;
-        case 5:
-          fi0high();                               // execute oper. in 2° phase
-
-          
-          // attend that the connected circuits have finish
-        ///  while (!intMonitor.isFinish()) {
-        ///    yield();
-            ///intMonitor.opWait2();
-        ///  }          
-          intMonitor.opSignal();                   // clock tick at 1/8 of dot
-          break;
-        case 8:
-          cycle++;                                 // increment cycle counter
-          if (cycle>maxCycle)                      // are at the last cycle
-            cycle=1;                               // reset cycle counter
-
-          tick=0;                                  // reset tick counter
-          break;
-      }
+      tick();                                      // execute dot clock tick
       
       ///extMonitor.opSignal2();
     }
   }
+  
+  /**
+   * Execute the operations of one dot clock tick.
+   * At the middle of the cycle the fi clock is signaled to the internal
+   * monitor.
+   * If this is the first tick of a scheduled vic, the cycle is initialized.
+   */
+  @Override
+  public void tick() {
+    if (!power || io==null || !bus.isInitialized()) return;  // nothing to do
+    
+    if (cycle==0) {
+      cycle=1;                                     // this is supposed
+      rasterX=firstXCoo+4;                         // +4 is the pixels needed
+    }                                              // for cycle=1
+    
+    dotClock();                                    // execute dot clock operat.
+    switch (++tick) {
+      case 1:
+        fi0low();                                  // execute oper. in 1° phase
+        break;
+      case 5:
+        fi0high();                                 // execute oper. in 2° phase
+
+        
+        // attend that the connected circuits have finish
+      ///  while (!intMonitor.isFinish()) {
+      ///    yield();
+          ///intMonitor.opWait2();
+      ///  }          
+        intMonitor.opSignal();                     // clock tick at 1/8 of dot
+        break;
+      case 8:
+        cycle++;                                   // increment cycle counter
+        if (cycle>maxCycle)                        // are at the last cycle
+          cycle=1;                                 // reset cycle counter
+
+        tick=0;                                    // reset tick counter
+        break;
+    }
+  }
 
   /**
    * Write a byte to the bus at specific address location.
@@ -1839,20 +1920,73 @@ public abstract class VicII extends Thread implements powered,
     }
 
     if (rasterX==firstXCoo) {                        // is end of line
+      endLine();                                     // store the line
       raster++;                                      // next line
       if (raster>linesNumber) {                      // if end of screen?
         raster=0;                                    // start of screen
-        tv.newFrame();                               // start a new frame
+        endFrame();                                  // send the frame
       }
     }
   }
 
+  /**
+   * Store the actual raster line into the frame buffer, if it has visible
+   * pixels.
+   */
+  protected void endLine() {
+    if (linePos==0) return;                          // in vertical blank
+
+    if (frame==null) frame=createFrame();
+    frame.setLine(frameLine++, line, linePos);
+    linePos=0;
+  }
+
+  /**
+   * Send the completed frame to the sink and start a new one
+   */
+  protected void endFrame() {
+    frameSink sink=this.sink;
+
+    if (output && sink!=null && frame!=null && frameLine>0) {
+      frame.frame++;
+      sink.sendFrame(frame);
+    }
+    frameLine=0;
+  }
+
+  /**
+   * Create the frame buffer with the size of the visible area of this Vic
+   *
+   * @return the frame buffer
+   */
+  protected FrameBuffer createFrame() {
+    int width=0;
+    int height=0;
+
+    for (int x=0; x<=lastXPos; x++) {
+      if ((x<=lastVisXCoo) || (x>=firstVisXCoo)) width++;
+    }
+    for (int y=0; y<=linesNumber; y++) {
+      if (!((y>=firstVblankLine) || (y<=lastVblankLine))) height++;
+    }
+    return new FrameBuffer(width, height);
+  }
+
+  /**
+   * Put a pixel into the actual raster line
+   *
+   * @param color the color of the pixel
+   */
+  private void pixel(int color) {
+    if (output && linePos<line.length) line[linePos++]=color;
+  }
+
   /**
    * Display unit of the Vic
    * note: very experimental implementation: probably not the definitive.
    */
   public void display() {
-    int color;                     // color to be send to raster TV
+    int color;                     // color to be put in the raster line
 
     // this are calculated always
     calculateSpritesInfo();
@@ -1871,7 +2005,7 @@ public abstract class VicII extends Thread implements powered,
     // done to prevent sprite-graphics collisions in the border area."
 
     if (verticalBorder.isSet()) {
-      tv.sendPixel(EC);                              // output border color
+      pixel(EC);                                     // output border color
       return;
     } else {
         calculateGraphicsInfo();
@@ -1879,9 +2013,9 @@ public abstract class VicII extends Thread implements powered,
       }
 
     if (mainBorder.isSet()) {
-      tv.sendPixel(EC);                              // output border color
+      pixel(EC);                                     // output border color
     } else {
-        tv.sendPixel(multiplexerOutput());             // output color
+        pixel(multiplexerOutput());                    // output color
       }
   }
 
@@ -2398,6 +2532,7 @@ public abstract class VicII extends Thread implements powered,
    */
   public void powerOn() {
       power=true;     // power is on
+      gate.signal();
   }
 
   /**
@@ -0,0 +1,42 @@
+/**
+ * @(#)clocked.java 2026/10/18
+ *
+ * ICE Team free software group
+ *
+ * This file is part of C64 Java Software Emulator.
+ * See README for copyright notice.
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ *  02111-1307  USA.
+ */
+
+package sw_emulator.hardware;
+
+/**
+ * The interface <code>clocked</code> represents an electronical component that
+ * is driven by explicit clock ticks, instead of attending the clock signal
+ * into its own thread.
+ * The method <code>tick</code> is to be used for executing the operations of
+ * one clock period.
+ *
+ * @author Ice
+ * @version 1.00 18/10/2026
+ */
+public interface clocked {
+  /**
+   * Execute the operations of one clock tick
+   */
+  public void tick();
+}
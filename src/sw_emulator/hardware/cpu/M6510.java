@@ -25,7 +25,9 @@
 package sw_emulator.hardware.cpu;
 
 import sw_emulator.math.Unsigned;
+import sw_emulator.util.Gate;
 import sw_emulator.util.Monitor;
+import sw_emulator.util.TickMonitor;
 import sw_emulator.hardware.bus.Bus;
 import sw_emulator.hardware.io.M6510IO;
 import sw_emulator.hardware.powered;
@@ -191,6 +193,9 @@ public class M6510 extends Thread implements powered, signaller {
   /** Clock counter */
   public long clock=0;
 
+  /** Gate where the thread attends power and connections */
+  protected final Gate gate=new Gate();
+
   /**
    * Construct a Mos 6510 cpu.
    *
@@ -206,7 +211,9 @@ public class M6510 extends Thread implements powered, signaller {
     this.ioPort=ioPort;
     setName("CPU");               // use this name for the thread
     //setPriority(MAX_PRIORITY);
-    start();
+    
+    // a scheduled cpu is executed by the scheduler thread
+    if (!(monitor instanceof TickMonitor)) start();
   }
 
   /**
@@ -217,6 +224,7 @@ public class M6510 extends Thread implements powered, signaller {
    */
   public void setIO(M6510IO ioPort) {
     this.ioPort=ioPort;
+    gate.signal();
   }
 
 
@@ -3486,16 +3494,24 @@ public class M6510 extends Thread implements powered, signaller {
    * handler.
    */
   public void run() {
-    monitor.opNotify();                         // notify that we will use it
+    begin();
     
-    while(ioPort==null) {
-      this.yield();
+    while(true) {
+      step();
     }
+  }
+  
+  /**
+   * Prepare the cpu for executing instructions.
+   * It attends that io port and bus are set up.
+   */
+  public void begin() {
+    monitor.opNotify();                         // notify that we will use it
     
-      // do nothing until the bus is available
-      while (!bus.isInitialized())  {              // there's a bus?
-        this.yield();                                   // no, attend power
-      }
+    gate.await(() -> ioPort!=null);
+    
+    // do nothing until the bus is available
+    gate.await(() -> bus.isInitialized());
    
     regA=0;
     regX=0;
@@ -3503,8 +3519,13 @@ public class M6510 extends Thread implements powered, signaller {
     regP=P_UNUSED | P_BREAK;
     regS=0x1FF;
     regPC=0xFCE2;
-
-    while(true) {
+  }
+  
+  /**
+   * Execute one instruction (with its clock cycles).
+   * If there is no power, it attends that power returned.
+   */
+  public void step() {
       if (sigRESET==1) {
         //reset();
       }
@@ -3518,9 +3539,7 @@ public class M6510 extends Thread implements powered, signaller {
         regPC=0xFFFC;
         // attend that power returned
 
-        while (!power) {
-          this.yield();                              // give mutex to other threads
-        }
+        gate.await(() -> power);
         regPC=bus.load(regPC, view, sigAEC)+
              (bus.load(regPC+1, view, sigAEC)<<8);
         
@@ -3539,7 +3558,6 @@ public class M6510 extends Thread implements powered, signaller {
 
       clock();                      // 1
       decode();                     // decode and execute the instruction
-    }
   }
 
   /**
@@ -3577,6 +3595,7 @@ public class M6510 extends Thread implements powered, signaller {
    */
   public void powerOn() {
     power=true;     // power is on
+    gate.signal();
   }
 
   /**
@@ -18,7 +18,7 @@ public class C64Form
  /**
   * The reference to the TV object.
   */
- private Canvas tv;
+ private Component tv;
 
  public C64Form()
  {
@@ -110,7 +110,7 @@ public class C64Form
   super.setSize(width+10,height+25);
   }
 
- public void addTV(Canvas tv)
+ public void addTV(Component tv)
  {
   this.tv=tv;
   getContentPane().add(tv,BorderLayout.CENTER);
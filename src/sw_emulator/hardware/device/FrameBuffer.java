@@ -0,0 +1,118 @@
+/**
+ * @(#)FrameBuffer.java 2026/10/18
+ *
+ * ICE Team free software group
+ *
+ * This file is part of C64 Java Software Emulator.
+ * See README for copyright notice.
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ *  02111-1307  USA.
+ */
+
+package sw_emulator.hardware.device;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.IndexColorModel;
+import java.nio.IntBuffer;
+
+/**
+ * The frame buffer where the VIC renders the visible raster lines.
+ * Each pixel is the index into the C64 palette. The buffer is allocated one
+ * time and reused for all the frames.
+ *
+ * @author Ice
+ * @version 1.00 18/10/2026
+ */
+public class FrameBuffer {
+  /** The RGB value of each palette index */
+  public static final int[] RGB=new int[raster.PALETTE_SIZE];
+
+  static {
+    IndexColorModel model=(IndexColorModel)TV.createC64colorModel();
+    for (int i=0; i<RGB.length; i++) {
+      RGB[i]=model.getRGB(i) & 0xFFFFFF;
+    }
+  }
+
+  /** Width in pixels */
+  public final int width;
+
+  /** Height in lines */
+  public final int height;
+
+  /** The pixels (palette index), line after line */
+  public final int[] pixels;
+
+  /** Number of the frame, incremented at each completed frame */
+  public long frame;
+
+  /**
+   * Construct a frame buffer
+   *
+   * @param width the width in pixels
+   * @param height the height in lines
+   */
+  public FrameBuffer(int width, int height) {
+    this.width=width;
+    this.height=height;
+    pixels=new int[width*height];
+  }
+
+  /**
+   * Store a raster line into the buffer.
+   * Lines outside the buffer are discarded and pixels over the width are cut.
+   *
+   * @param y the line in the buffer
+   * @param line the pixels of the line
+   * @param length the number of pixels in the line
+   */
+  public void setLine(int y, int[] line, int length) {
+    if (y<0 || y>=height) return;
+    System.arraycopy(line, 0, pixels, y*width, Math.min(length, width));
+  }
+
+  /**
+   * Get the palette index of a pixel
+   *
+   * @param x the x position
+   * @param y the y position
+   * @return the palette index
+   */
+  public int getPixel(int x, int y) {
+    return pixels[y*width+x];
+  }
+
+  /**
+   * Make an indexed image of the frame, with the C64 palette
+   *
+   * @return the image of the frame
+   */
+  public BufferedImage toImage() {
+    BufferedImage image=new BufferedImage(width, height, BufferedImage.TYPE_BYTE_INDEXED,
+                                          (IndexColorModel)TV.createC64colorModel());
+    image.getRaster().setPixels(0, 0, width, height, pixels);
+    return image;
+  }
+
+  /**
+   * Get a read only buffer of the pixels
+   *
+   * @return the buffer of the pixels
+   */
+  public IntBuffer getBuffer() {
+    return IntBuffer.wrap(pixels).asReadOnlyBuffer();
+  }
+}
@@ -0,0 +1,120 @@
+/**
+ * @(#)FrameRecorder.java 2026/10/18
+ *
+ * ICE Team free software group
+ *
+ * This file is part of C64 Java Software Emulator.
+ * See README for copyright notice.
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ *  02111-1307  USA.
+ */
+
+package sw_emulator.hardware.device;
+
+import java.util.ArrayDeque;
+
+/**
+ * Headless sink that records the frames made by the VIC.
+ * It keeps a copy of the last frames, up to a given number.
+ *
+ * @author Ice
+ * @version 1.00 18/10/2026
+ */
+public class FrameRecorder implements frameSink {
+  /** Max number of frames to keep */
+  protected int keep;
+
+  /** The recorded frames, the last at the end */
+  protected final ArrayDeque<FrameBuffer> frames=new ArrayDeque<>();
+
+  /** Number of frames received */
+  protected long count;
+
+  /**
+   * Construct a recorder that keeps only the last frame
+   */
+  public FrameRecorder() {
+    this(1);
+  }
+
+  /**
+   * Construct a recorder
+   *
+   * @param keep the max number of frames to keep
+   */
+  public FrameRecorder(int keep) {
+    this.keep=Math.max(1, keep);
+  }
+
+  /**
+   * Record a copy of the frame
+   *
+   * @param frame the frame buffer with the pixels of the frame
+   */
+  @Override
+  public synchronized void sendFrame(FrameBuffer frame) {
+    FrameBuffer copy;
+
+    // reuse the oldest buffer if the max is reached
+    if (frames.size()>=keep) copy=frames.removeFirst();
+    else copy=new FrameBuffer(frame.width, frame.height);
+
+    if (copy.width!=frame.width || copy.height!=frame.height) {
+      copy=new FrameBuffer(frame.width, frame.height);
+    }
+
+    System.arraycopy(frame.pixels, 0, copy.pixels, 0, frame.pixels.length);
+    copy.frame=frame.frame;
+    frames.addLast(copy);
+    count++;
+  }
+
+  /**
+   * Get the number of frames received
+   *
+   * @return the number of frames
+   */
+  public synchronized long getCount() {
+    return count;
+  }
+
+  /**
+   * Get the last recorded frame.
+   * The buffer is reused when the max number of frames is reached, so copy
+   * it if the emulation is still running.
+   *
+   * @return the last frame or null if none
+   */
+  public synchronized FrameBuffer getLast() {
+    return frames.peekLast();
+  }
+
+  /**
+   * Get the recorded frames, from the oldest to the last
+   *
+   * @return the recorded frames
+   */
+  public synchronized FrameBuffer[] getFrames() {
+    return frames.toArray(new FrameBuffer[0]);
+  }
+
+  /**
+   * Remove all the recorded frames
+   */
+  public synchronized void clear() {
+    frames.clear();
+  }
+}
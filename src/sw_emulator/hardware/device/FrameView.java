@@ -0,0 +1,95 @@
+/**
+ * @(#)FrameView.java 2026/10/18
+ *
+ * ICE Team free software group
+ *
+ * This file is part of C64 Java Software Emulator.
+ * See README for copyright notice.
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ *  02111-1307  USA.
+ */
+
+package sw_emulator.hardware.device;
+
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import javax.swing.JComponent;
+
+/**
+ * Swing view of the frames made by the VIC.
+ * Each frame is converted to RGB into a back image on the VIC thread, then
+ * the back image is swapped with the front one that is scaled to the size of
+ * the component when painted by the event dispatch thread.
+ *
+ * @author Ice
+ * @version 1.00 18/10/2026
+ */
+public class FrameView extends JComponent implements frameSink {
+  private static final long serialVersionUID=1L;
+
+  /** The image with the last complete frame (painted) */
+  private BufferedImage front;
+
+  /** The image where the next frame is converted */
+  private BufferedImage back;
+
+  /**
+   * Construct the view
+   */
+  public FrameView() {
+    setPreferredSize(new Dimension(TV.SCREEN_W, TV.SCREEN_H));
+  }
+
+  /**
+   * Convert the frame into the back image, swap it with the front one and
+   * repaint the view
+   *
+   * @param frame the frame buffer with the pixels of the frame
+   */
+  @Override
+  public void sendFrame(FrameBuffer frame) {
+    if (back==null || back.getWidth()!=frame.width || back.getHeight()!=frame.height) {
+      back=new BufferedImage(frame.width, frame.height, BufferedImage.TYPE_INT_RGB);
+    }
+
+    int[] rgb=((DataBufferInt)back.getRaster().getDataBuffer()).getData();
+    int[] pixels=frame.pixels;
+    for (int i=0; i<pixels.length; i++) {
+      rgb[i]=FrameBuffer.RGB[pixels[i] & 0x0F];
+    }
+
+    synchronized (this) {
+      BufferedImage tmp=front;
+      front=back;
+      back=tmp;
+    }
+    repaint();
+  }
+
+  @Override
+  protected void paintComponent(Graphics g) {
+    synchronized (this) {
+      if (front!=null) {
+        g.drawImage(front, 0, 0, getWidth(), getHeight(), null);
+        return;
+      }
+    }
+    g.setColor(getBackground());
+    g.fillRect(0, 0, getWidth(), getHeight());
+  }
+}
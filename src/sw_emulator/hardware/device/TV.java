@@ -41,7 +41,7 @@ import java.awt.image.*;
 
 public class TV
 	     extends Canvas
-	     implements raster
+	     implements raster, frameSink
 {
  
  /**
@@ -333,6 +333,23 @@ public class TV
      }
   }
 
+ /**
+  * Copy the visible part of a frame made by the VIC in the video-buffer,
+  * and display it.
+  *
+  * @param frame the frame buffer with the pixels of the frame
+  */
+ public void sendFrame(FrameBuffer frame)
+ {
+  int w=Math.min(frame.width,SCREEN_W);
+  int h=Math.min(frame.height,SCREEN_H);
+
+  for(int y=0;y<h;y++)
+      System.arraycopy(frame.pixels,y*frame.width,screen,y*SCREEN_W,w);
+  carriage=-1;
+  displayCurrentFrame();
+  }
+
   /**
   * Reset variables. 
   */  
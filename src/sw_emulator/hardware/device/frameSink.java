@@ -0,0 +1,43 @@
+/**
+ * @(#)frameSink.java 2026/10/18
+ *
+ * ICE Team free software group
+ *
+ * This file is part of C64 Java Software Emulator.
+ * See README for copyright notice.
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ *  02111-1307  USA.
+ */
+
+package sw_emulator.hardware.device;
+
+/**
+ * The interface <code>frameSink</code> represents a device that receives the
+ * frames completed by the VIC, like a view on the screen or a recorder.
+ * The frame buffer is reused by the VIC for the next frame, so a sink that
+ * keeps the pixels must copy them.
+ *
+ * @author Ice
+ * @version 1.00 18/10/2026
+ */
+public interface frameSink {
+  /**
+   * Receive a completed frame
+   *
+   * @param frame the frame buffer with the pixels of the frame
+   */
+  public void sendFrame(FrameBuffer frame);
+}
@@ -111,7 +111,7 @@ public class C64CartridgeIO extends CartridgeIO {
       case S_GAME:
       case S_EXROM:
         pla.notifySignal(type, value);               // send signal to PLA
-        pla.monitor.opSignal();                      // resume PLA thread
+        pla.update();                                // resume PLA thread
         break;
       case S_NMI:
         cpu.notifySignal(type, value);               // send NMI to cpu
@@ -32,6 +32,7 @@ import sw_emulator.hardware.memory.DRAM;
 import sw_emulator.hardware.memory.ColorRAM;
 import sw_emulator.hardware.memory.ROM;
 import sw_emulator.hardware.Clock;
+import sw_emulator.hardware.Scheduler;
 import sw_emulator.hardware.cartridge.Cartridge;
 import sw_emulator.hardware.cartridge.GameCartridge;
 import sw_emulator.hardware.cpu.M6510;
@@ -45,7 +46,8 @@ import sw_emulator.hardware.io.C64Cia1IO;
 import sw_emulator.hardware.io.C64Cia2IO;
 import sw_emulator.hardware.io.C64CartridgeIO;
 import sw_emulator.hardware.device.C64Keyboard;
-import sw_emulator.hardware.device.TV;
+import sw_emulator.hardware.device.FrameView;
+import sw_emulator.hardware.device.frameSink;
 import sw_emulator.hardware.device.C64Form;
 import sw_emulator.util.AndPort;
 import sw_emulator.software.cartridge.FileCartridge;
@@ -85,6 +87,11 @@ public class C64 implements powered{
   /** 8Kb of Ram memory address 0xE000 0xFFFF */
   protected DRAM ram7=new DRAM(8*1024, 0xE000);
 
+  /** The ram chips, in order of address */
+  protected DRAM[] rams={
+    ram0, ram1, ram2, ram3, ram4, ram5, ram6, ram7
+  };
+
   /** Dinamic memories that need refresh */
   protected dinamic[] dinamicMemories={
     ram0, ram1, ram2, ram3, ram4, ram5, ram6, ram7
@@ -106,88 +113,140 @@ public class C64 implements powered{
   public ColorRAM color=new ColorRAM(1024, 0xD800, bus);
 
   /** The 8Mhz clock signal */
-  public Clock clock=new Clock(Clock.PAL);
+  public Clock clock;
+  
+  /** The single thread engine (null if each chip has its own thread) */
+  public Scheduler scheduler;
 
-  /** The TV attached to the C64 Vic II output */
-  public TV tv=new TV();
+  /** The view attached to the C64 Vic II output (null if headless) */
+  public FrameView tv;
 
-  /** The application menu bar */
-  public C64Form c64Form=new C64Form();
+  /** The application menu bar (null if headless) */
+  public C64Form c64Form;
+  
+  /** True if each chip has its own thread */
+  protected boolean threaded;
 
   /** The M6569 Vic II */
-  public M6569 vic=new M6569(clock.monitor, bus, C64Bus.V_VIC, null,
-                             dinamicMemories, tv);
+  public M6569 vic;
 
   /** The Mos 6510 cpu */
-  public M6510 cpu=new M6510(vic.intMonitor, bus, C64Bus.V_CPU, null);
+  public M6510 cpu;
 
   /** The Mos SID chip */
   public Sid sid=new Sid(); // to modify
 
   /** The cartridge port */
-  public Cartridge exp=new Cartridge(null, vic.intMonitor, bus);
+  public Cartridge exp;
 
   /** The Cia 1 chip */
-  public M6526 cia1=new M6526(M6526.PAL, vic.intMonitor, null);
+  public M6526 cia1;
 
   /** The Cia2 chip */
-  public M6526 cia2=new M6526(M6526.PAL, vic.intMonitor, null, signaller.S_NMI);
+  public M6526 cia2;
   
   /** Devices that will need tod signal */
-  protected signaller[] devicesTod={cia1, cia2};
+  protected signaller[] devicesTod;
 
   /** The PLA82S100 chip of C64 */
-  public PLA82S100 pla=new PLA82S100(bus, exp,
-                                     ram0, ram1, ram2, ram3,
-                                     ram4, ram5, ram6, ram7,
-                                     basic, kernal, chargen,
-                                     vic, sid,
-                                     color, cia1, cia2);
+  public PLA82S100 pla;
 
   /** The C64 keyboard */
   public C64Keyboard keyb=new C64Keyboard(null);
 
   /** The IO signals of C64 cpu */
-  public C64M6510IO cpuIO=new C64M6510IO(pla);
+  public C64M6510IO cpuIO;
 
   /**
    * The 74LS08 And port with output pin 6.
    * This give AEC signal to Cpu.
    */
-  protected AndPort and6=new AndPort(cpu, signaller.S_AEC, signaller.S_DMA,
-                                     signaller.S_AEC);
+  protected AndPort and6;
 
   /**
    * The 74LS08 And port with output pin 3.
    * This give RDY signal to Cpu.
    */
-  protected AndPort and3=new AndPort(cpu, signaller.S_BA, signaller.S_DMA,
-                                     signaller.S_RDY);
+  protected AndPort and3;
 
   /** The Vic IO signals connections */
-  public C64VicII_IO vicIO=new C64VicII_IO(cpu, exp, and6, and3);
+  public C64VicII_IO vicIO;
 
   /** The Cia 1 IO signals connections */
-  public C64Cia1IO cia1IO=new C64Cia1IO(cpu, exp, keyb.monitor, keyb.colLines);
+  public C64Cia1IO cia1IO;
 
   /** The Cia 2 IO signals connections */
-  public C64Cia2IO cia2IO=new C64Cia2IO(cpu, exp, pla);
+  public C64Cia2IO cia2IO;
 
   /** The expansion IO signals connections  */
-  public C64CartridgeIO expIO=new C64CartridgeIO(cpu, pla, and6, and3);
+  public C64CartridgeIO expIO;
   
   /** Manage file cartridge */
-  public FileCartridge fileCart=new FileCartridge(expIO, vic.intMonitor, bus);  
+  public FileCartridge fileCart;
   
   /** A game Cartridge */
   public GameCartridge gameExp;
 
+  /**
+   * Create the Commodore 64 with a single thread engine
+   */
   public C64() {
-    clock.registerTod(devicesTod);  // register cia for using tod from the clock
-    initMemory();
+    this(false);
+  }
+  
+  /**
+   * Create the Commodore 64 with its window, and start it.
+   * With the single thread engine, the chips are ticked in cycle order by
+   * the scheduler, otherwise each chip has its own thread synchronized by
+   * the clock monitors.
+   * 
+   * @param threaded true if each chip has its own thread
+   */
+  public C64(boolean threaded) {
+    this(threaded, null);
+    
+    tv=new FrameView();
+    vic.setSink(tv);
+    c64Form=new C64Form();
     c64Form.addTV(tv);
     c64Form.setVisible(true);
     
+    start();
+  }
+  
+  /**
+   * Create the Commodore 64 without any window and without starting it.
+   * 
+   * @param threaded true if each chip has its own thread
+   * @param sink the sink of the frames made by Vic (null for none)
+   */
+  protected C64(boolean threaded, frameSink sink) {
+    this.threaded=threaded;
+    clock=new Clock(Clock.PAL, !threaded);
+    vic=new M6569(clock.monitor, bus, C64Bus.V_VIC, null, dinamicMemories, sink);
+    cpu=new M6510(vic.intMonitor, bus, C64Bus.V_CPU, null);
+    exp=new Cartridge(null, vic.intMonitor, bus);
+    cia1=new M6526(M6526.PAL, vic.intMonitor, null);
+    cia2=new M6526(M6526.PAL, vic.intMonitor, null, signaller.S_NMI);
+    devicesTod=new signaller[] {cia1, cia2};
+    pla=new PLA82S100(bus, exp,
+                      ram0, ram1, ram2, ram3,
+                      ram4, ram5, ram6, ram7,
+                      basic, kernal, chargen,
+                      vic, sid,
+                      color, cia1, cia2, threaded);
+    cpuIO=new C64M6510IO(pla);
+    and6=new AndPort(cpu, signaller.S_AEC, signaller.S_DMA, signaller.S_AEC);
+    and3=new AndPort(cpu, signaller.S_BA, signaller.S_DMA, signaller.S_RDY);
+    vicIO=new C64VicII_IO(cpu, exp, and6, and3);
+    cia1IO=new C64Cia1IO(cpu, exp, keyb.monitor, keyb.colLines);
+    cia2IO=new C64Cia2IO(cpu, exp, pla);
+    expIO=new C64CartridgeIO(cpu, pla, and6, and3);
+    fileCart=new FileCartridge(expIO, vic.intMonitor, bus);
+    
+    clock.registerTod(devicesTod);  // register cia for using tod from the clock
+    initMemory();
+    
     // read cartridge:
     //fileCart.setFileName("/mnt/new/home/ice/dig_dug.crt");
     //System.out.println(fileCart.readFile());
@@ -207,7 +266,13 @@ public class C64 implements powered{
 
     kernal.change(0xfd84, (byte)0xa0);      // don't fill the memory
     kernal.change(0xfd85, (byte)00);
-
+  }
+  
+  /**
+   * Power on the machine and start the clock.
+   * With the single thread engine the scheduler is started too.
+   */
+  public void start() {
     System.out.println("Power ON the machine");
     powerOn();
 
@@ -215,10 +280,30 @@ public class C64 implements powered{
 
     System.out.println("Start the clock...");
     clock.startClock();
+    
+    if (!threaded) {
+      scheduler=new Scheduler(cpu);
+      scheduler.start();
+    }
   }
 
+  /**
+   * Use -threads for executing each chip into its own thread and -warp for
+   * running as fast as possible
+   * 
+   * @param args the command line arguments
+   */
   public static void main(String[] args) {
-   C64 c64 = new C64();
+   boolean threaded=false;
+   boolean warp=false;
+   
+   for (String arg: args) {
+     if ("-threads".equals(arg)) threaded=true;
+     if ("-warp".equals(arg)) warp=true;
+   }
+   
+   C64 c64 = new C64(threaded);
+   c64.setWarp(warp);
   }
 
   /**
@@ -283,4 +368,35 @@ public class C64 implements powered{
     sid.powerOff();
     System.out.println(" SID: power is off");        
   }
+  
+  /**
+   * Read a byte from the ram, without using the bus
+   * 
+   * @param addr the address of the location
+   * @return the byte value (stored in 32 bits)
+   */
+  public int readRam(int addr) {
+    return rams[(addr>>13) & 0x07].read(addr & 0xFFFF) & 0xFF;
+  }
+  
+  /**
+   * Write a byte to the ram, without using the bus
+   * 
+   * @param addr the address of the location
+   * @param value the byte value
+   */
+  public void writeRam(int addr, int value) {
+    rams[(addr>>13) & 0x07].write(addr & 0xFFFF, (byte)value);
+  }
+  
+  /**
+   * Set the warp mode: the clock runs as fast as possible and the VIC has no
+   * sink, so it does not render the frames at all.
+   * 
+   * @param warp true for warp mode, false for real time
+   */
+  public void setWarp(boolean warp) {
+    vic.setSink(warp ? null : tv);
+    clock.setWarp(warp);
+  }
 }
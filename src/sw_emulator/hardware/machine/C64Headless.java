@@ -0,0 +1,370 @@
+/**
+ * @(#)C64Headless.java 2026/10/18
+ *
+ * ICE Team free software group
+ *
+ * This file is part of C64 Java Software Emulator.
+ * See README for copyright notice.
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ *  02111-1307  USA.
+ */
+
+package sw_emulator.hardware.machine;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.TreeSet;
+import javax.imageio.ImageIO;
+import sw_emulator.hardware.device.FrameBuffer;
+import sw_emulator.hardware.device.frameSink;
+
+/**
+ * Emulate the Commodore 64 without any window, for regression testing.
+ * The machine runs into the calling thread for a given number of frames, as
+ * fast as possible, so the same program gives always the same frames.
+ * At a given frame a PRG can be loaded into ram and keys can be typed, by
+ * putting them into the keyboard buffer of the Kernal. Frames are dumped as
+ * raw palette indexes (one byte for pixel) or as PNG images, and the ram can
+ * be dumped at the end.
+ *
+ * Usage:
+ *   C64Headless [-frames n] [-prg file] [-keys text] [-at n] [-dump n,...]
+ *               [-png] [-out dir] [-ram file]
+ *
+ * In keys text, \n is the RETURN key.
+ *
+ * @author Ice
+ * @version 1.00 18/10/2026
+ */
+public class C64Headless extends C64 implements frameSink {
+  /** Kernal keyboard buffer */
+  public static final int KEY_BUFFER=0x0277;
+
+  /** Kernal number of keys in keyboard buffer */
+  public static final int KEY_COUNT=0xC6;
+
+  /** Size of Kernal keyboard buffer */
+  public static final int KEY_SIZE=10;
+
+  /** Default frame where the PRG is loaded and keys typed (after READY) */
+  public static final int DEFAULT_AT=120;
+
+  /** Number of frames done */
+  protected int frames;
+
+  /** Number of frames to run */
+  protected int maxFrames;
+
+  /** Frame where PRG is loaded and keys typed */
+  protected int at=DEFAULT_AT;
+
+  /** PRG to load (null for none) */
+  protected byte[] prg;
+
+  /** Keys to type (PETSCII) */
+  protected byte[] keys=new byte[0];
+
+  /** Position of next key to type */
+  protected int keyPos;
+
+  /** Frames to dump (empty for the last) */
+  protected TreeSet<Integer> dump=new TreeSet<>();
+
+  /** True for dump in PNG format, false for raw */
+  protected boolean png;
+
+  /** Directory where to dump frames */
+  protected File outDir=new File(".");
+
+  /** Error of the last dump (null for none) */
+  protected IOException error;
+
+  /**
+   * Create the headless Commodore 64 with a single thread engine
+   */
+  public C64Headless() {
+    super(false, null);
+    vic.setSink(this);
+    clock.setWarp(true);
+  }
+
+  /**
+   * Set the PRG to load
+   *
+   * @param prg the PRG content (load address in the first 2 bytes)
+   */
+  public void setPrg(byte[] prg) {
+    this.prg=prg;
+  }
+
+  /**
+   * Set the keys to type
+   *
+   * @param text the keys as text (\n for RETURN)
+   */
+  public void setKeys(String text) {
+    keys=toPetscii(text);
+    keyPos=0;
+  }
+
+  /**
+   * Set the frame where the PRG is loaded and the keys are typed
+   *
+   * @param at the number of frame
+   */
+  public void setAt(int at) {
+    this.at=at;
+  }
+
+  /**
+   * Set the frames to dump
+   *
+   * @param dump the frames to dump (empty for the last)
+   * @param png true for PNG format, false for raw
+   * @param outDir the directory where dump
+   */
+  public void setDump(TreeSet<Integer> dump, boolean png, File outDir) {
+    this.dump=dump;
+    this.png=png;
+    this.outDir=outDir;
+  }
+
+  /**
+   * Run the machine for the given number of frames
+   *
+   * @param maxFrames the number of frames to run
+   * @throws IOException if a dump fails
+   */
+  public void run(int maxFrames) throws IOException {
+    this.maxFrames=maxFrames;
+    if (dump.isEmpty()) dump.add(maxFrames);
+
+    powerOn();
+    clock.startClock();
+    cpu.begin();
+
+    while (frames<maxFrames && error==null) {
+      cpu.step();
+    }
+    if (error!=null) throw error;
+  }
+
+  /**
+   * Receive a completed frame: load the PRG, type the keys and dump the
+   * frame when needed.
+   *
+   * @param frame the frame buffer with the pixels of the frame
+   */
+  @Override
+  public void sendFrame(FrameBuffer frame) {
+    frames++;
+
+    if (frames==at && prg!=null) loadPrg();
+    if (frames>=at && keyPos<keys.length) typeKeys();
+
+    if (dump.contains(frames) && error==null) {
+      try {
+        writeFrame(frame, new File(outDir, String.format("frame_%05d.%s", frames, png ? "png" : "raw")));
+      } catch (IOException e) {
+          error=e;
+        }
+    }
+  }
+
+  /**
+   * Load the PRG into ram. If it is a Basic program, the Basic pointers are
+   * set to the end of it, and RUN is typed if there are no other keys.
+   */
+  protected void loadPrg() {
+    if (prg.length<2) return;
+
+    int start=(prg[0] & 0xFF)+((prg[1] & 0xFF)<<8);
+    int end=start;
+    for (int i=2; i<prg.length && end<0x10000; i++) {
+      writeRam(end++, prg[i]);
+    }
+
+    if (start==0x0801) {
+      // start of variables, arrays and end of arrays
+      for (int addr: new int[] {0x2D, 0x2F, 0x31, 0xAE}) {
+        writeRam(addr, end & 0xFF);
+        writeRam(addr+1, end>>8);
+      }
+      if (keys.length==0) setKeys("RUN\n");
+    }
+  }
+
+  /**
+   * Type the next keys if the keyboard buffer is empty
+   */
+  protected void typeKeys() {
+    if (readRam(KEY_COUNT)!=0) return;
+
+    int n=0;
+    while (n<KEY_SIZE && keyPos<keys.length) {
+      writeRam(KEY_BUFFER+n++, keys[keyPos++]);
+    }
+    writeRam(KEY_COUNT, n);
+  }
+
+  /**
+   * Write a frame to a file
+   *
+   * @param frame the frame to write
+   * @param file the file where write
+   * @throws IOException if write fails
+   */
+  protected void writeFrame(FrameBuffer frame, File file) throws IOException {
+    if (png) {
+      ImageIO.write(frame.toImage(), "png", file);
+      return;
+    }
+
+    byte[] raw=new byte[frame.pixels.length];
+    for (int i=0; i<raw.length; i++) {
+      raw[i]=(byte)frame.pixels[i];
+    }
+    Files.write(file.toPath(), raw);
+  }
+
+  /**
+   * Write the 64K of ram to a file
+   *
+   * @param file the file where write
+   * @throws IOException if write fails
+   */
+  public void writeRam(File file) throws IOException {
+    byte[] ram=new byte[0x10000];
+    for (int i=0; i<ram.length; i++) {
+      ram[i]=(byte)readRam(i);
+    }
+
+    try (OutputStream out=new FileOutputStream(file)) {
+      out.write(ram);
+    }
+  }
+
+  /**
+   * Convert a text to PETSCII keys (unshifted)
+   *
+   * @param text the text (\n for RETURN)
+   * @return the PETSCII keys
+   */
+  public static byte[] toPetscii(String text) {
+    text=text.replace("\\n", "\n");
+    byte[] result=new byte[text.length()];
+
+    for (int i=0; i<text.length(); i++) {
+      char c=text.charAt(i);
+
+      if (c=='\n' || c=='\r') result[i]=13;
+      else if (c>='a' && c<='z') result[i]=(byte)(c-'a'+'A');
+      else result[i]=(byte)c;
+    }
+    return result;
+  }
+
+  /**
+   * Print the usage
+   */
+  private static void usage() {
+    System.err.println("Usage: C64Headless [-frames n] [-prg file] [-keys text] [-at n] [-dump n,...] [-png] [-out dir] [-ram file]");
+  }
+
+  /**
+   * @param args the command line arguments
+   */
+  public static void main(String[] args) {
+    System.setProperty("java.awt.headless", "true");
+
+    int maxFrames=250;
+    int at=DEFAULT_AT;
+    File prgFile=null;
+    String keys=null;
+    TreeSet<Integer> dump=new TreeSet<>();
+    boolean png=false;
+    File outDir=new File(".");
+    File ramFile=null;
+
+    try {
+      for (int i=0; i<args.length; i++) {
+        switch (args[i]) {
+          case "-frames":
+            maxFrames=Integer.parseInt(args[++i]);
+            break;
+          case "-prg":
+            prgFile=new File(args[++i]);
+            break;
+          case "-keys":
+            keys=args[++i];
+            break;
+          case "-at":
+            at=Integer.parseInt(args[++i]);
+            break;
+          case "-dump":
+            for (String frame: args[++i].split(",")) {
+              dump.add(Integer.parseInt(frame.trim()));
+            }
+            break;
+          case "-png":
+            png=true;
+            break;
+          case "-out":
+            outDir=new File(args[++i]);
+            break;
+          case "-ram":
+            ramFile=new File(args[++i]);
+            break;
+          default:
+            usage();
+            System.exit(1);
+        }
+      }
+    } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+        usage();
+        System.exit(1);
+      }
+
+    if (!outDir.isDirectory() && !outDir.mkdirs()) {
+      System.err.println("Unable to create output directory "+outDir);
+      System.exit(1);
+    }
+
+    try {
+      C64Headless c64=new C64Headless();
+      c64.setAt(at);
+      c64.setDump(dump, png, outDir);
+      if (prgFile!=null) c64.setPrg(Files.readAllBytes(prgFile.toPath()));
+      if (keys!=null) c64.setKeys(keys);
+
+      long time=System.nanoTime();
+      c64.run(maxFrames);
+      time=System.nanoTime()-time;
+
+      if (ramFile!=null) c64.writeRam(ramFile);
+
+      System.out.println(String.format("%d frames, %d cycles, %.2f s",
+                                       c64.frames, c64.cpu.clock, time/1e9));
+    } catch (IOException e) {
+        System.err.println(e);
+        System.exit(2);
+      }
+    System.exit(0);
+  }
+}
@@ -58,20 +58,22 @@ public class Assembler {
   /**
    * Return spaces/tabs to use in start of data area
    * 
+   * @param ctx the emit context
    * @return the spaces/tabs
    */
-  protected static String getDataSpacesTabs() {
-    return SPACES.substring(0, option.numDataSpaces)+TABS.substring(0, option.numDataTabs);
+  protected static String getDataSpacesTabs(EmitContext ctx) {
+    return SPACES.substring(0, ctx.option.numDataSpaces)+TABS.substring(0, ctx.option.numDataTabs);
   } 
   
   /**
    * Return spaces/tabs to use in comment after data
    * 
+   * @param ctx the emit context
    * @param skip dimension to skip
    * @return the spaces/tabs
    */
-  protected static String getDataCSpacesTabs(int skip) {
-    return SPACES.substring(0, (option.numDataCSpaces-skip<0 ? 1: option.numDataCSpaces-skip))+TABS.substring(0, option.numDataCTabs);
+  protected static String getDataCSpacesTabs(EmitContext ctx, int skip) {
+    return SPACES.substring(0, (ctx.option.numDataCSpaces-skip<0 ? 1: ctx.option.numDataCSpaces-skip))+TABS.substring(0, ctx.option.numDataCTabs);
   }   
     
   /**
@@ -81,7 +83,7 @@ public class Assembler {
    * @return the spaces/tabs
    */
   protected String getInstrCSpacesTabs(int skip) {
-    return SPACES.substring(0, (option.numInstrCSpaces-skip<0 ? 1:option.numInstrCSpaces-skip))+TABS.substring(0, option.numInstrCTabs);
+    return SPACES.substring(0, (emit.option.numInstrCSpaces-skip<0 ? 1:emit.option.numInstrCSpaces-skip))+TABS.substring(0, emit.option.numInstrCTabs);
   } 
    
   /**
@@ -155,14 +157,15 @@ public class Assembler {
   /**
    * Convert an 8 bit 0/1 string to monocolor dots
    * 
+   * @param ctx the emit context
    * @param bin the bin to convert
    * @return the converted peace
    */
-  protected static String BinToMono(String bin) {
+  protected static String BinToMono(EmitContext ctx, String bin) {
     String d0="";
     String d1="";    
       
-    switch (option.dotsType) {
+    switch (ctx.option.dotsType) {
         case Option.DOTS_ASCII:
           d0=".";  
           d1="*";
@@ -180,16 +183,17 @@ public class Assembler {
   /**
    * Convert an 8 bit 0/1 string to multicolor dots
    * 
+   * @param ctx the emit context
    * @param bin the bin to convert
    * @return the converted peace
    */
-  protected static String BinToMulti(String bin) {
+  protected static String BinToMulti(EmitContext ctx, String bin) {
     String d00="";
     String d11="";
     String d01="";
     String d10="";
       
-    switch (option.dotsType) {
+    switch (ctx.option.dotsType) {
         case Option.DOTS_ASCII:
           d00="..";  
           d01="@@";
@@ -219,25 +223,28 @@ public class Assembler {
      /**
       * Flush the actual data to the output stream
       * 
+      * @param ctx the emit context
       * @param str the output stream
       */   
-      void flush(StringBuilder str);
+      void flush(EmitContext ctx, StringBuilder str);
       
       /**
        * Put a value to the stream
        * 
+       * @param ctx the emit context
        * @param str the otput stream
        * @param mem
        * @param option the option to use
        */
-      void putValue(StringBuilder str, MemoryDasm mem, Option option);
+      void putValue(EmitContext ctx, StringBuilder str, MemoryDasm mem, Option option);
       
       /** 
        * Setting up the action type if this is the case
        * 
+       * @param ctx the emit context
        * @param str the output stream
        */
-      default void setting(StringBuilder str) {};
+      default void setting(EmitContext ctx, StringBuilder str) {};
    } 
     
    /** 
@@ -329,40 +336,40 @@ public class Assembler {
        
        
       @Override
-      public void flush(StringBuilder str) {
-        switch (aStarting) {
+      public void flush(EmitContext ctx, StringBuilder str) {
+        switch (ctx.aStarting) {
           case PROC:
-            str.append(getDataSpacesTabs()).append("processor 6502\n\n");
+            str.append(getDataSpacesTabs(ctx)).append("processor 6502\n\n");
             break;
           case FAKE:
-            str.append(getDataSpacesTabs()).append("cpu = 6502\n\n");
+            str.append(getDataSpacesTabs(ctx)).append("cpu = 6502\n\n");
             break; 
           case FAKEZ:
-            str.append(getDataSpacesTabs()).append("cpu: equ 80\n\n");
+            str.append(getDataSpacesTabs(ctx)).append("cpu: equ 80\n\n");
             break;            
           case DOT_CPU_A:
-            str.append(getDataSpacesTabs()).append(".cpu \"6502\"\n\n");  
+            str.append(getDataSpacesTabs(ctx)).append(".cpu \"6502\"\n\n");  
             break;
           case DOT_CPU:
-            str.append(getDataSpacesTabs()).append(".cpu 6502\n\n");
+            str.append(getDataSpacesTabs(ctx)).append(".cpu 6502\n\n");
             break;
           case DOT_CPU_UND:
-            str.append(getDataSpacesTabs()).append(".cpu _6502\n\n");
+            str.append(getDataSpacesTabs(ctx)).append(".cpu _6502\n\n");
             break;  
           case DOT_SETCPU:
-            str.append(getDataSpacesTabs()).append(".setcpu \"6502x\"\n\n");
+            str.append(getDataSpacesTabs(ctx)).append(".setcpu \"6502x\"\n\n");
             break; 
           case DOT_P02:
-            str.append(getDataSpacesTabs()).append(".p02\n\n");
+            str.append(getDataSpacesTabs(ctx)).append(".p02\n\n");
             break;    
           case MARK_CPU:
-            str.append(getDataSpacesTabs()).append("!cpu 6510\n\n");
+            str.append(getDataSpacesTabs(ctx)).append("!cpu 6510\n\n");
             break;     
           case CPU_M:
-            str.append(getDataSpacesTabs()).append("cpu 6502\n\n");
+            str.append(getDataSpacesTabs(ctx)).append("cpu 6502\n\n");
             break;    
           case CPU_I:
-            str.append(getDataSpacesTabs()).append("cpu 8048\n\n");
+            str.append(getDataSpacesTabs(ctx)).append("cpu 8048\n\n");
             break;                         
         }  
       }
@@ -370,12 +377,13 @@ public class Assembler {
       /**
        * Put a value to the stream
        * 
+       * @param ctx the emit context
        * @param str the otput stream
        * @param mem the memory dasm
        * @param option the option to use
        */
       @Override
-      public void putValue(StringBuilder str, MemoryDasm mem, Option option) {       
+      public void putValue(EmitContext ctx, StringBuilder str, MemoryDasm mem, Option option) {       
       }
    } 
    
@@ -394,22 +402,22 @@ public class Assembler {
       ORG_H;            //  org xxyyh
            
       @Override
-      public void flush(StringBuilder str) {
-        switch (aOrigin) {
+      public void flush(EmitContext ctx, StringBuilder str) {
+        switch (ctx.aOrigin) {
           case ORG:
-              str.append(getDataSpacesTabs()).append("org $").append(ShortToExe(lastPC)).append("\n\n");
+              str.append(getDataSpacesTabs(ctx)).append("org $").append(ShortToExe(ctx.lastPC)).append("\n\n");
             break;
           case DOT_ORG:
-              str.append(getDataSpacesTabs()).append(".org $").append(ShortToExe(lastPC)).append("\n\n");
+              str.append(getDataSpacesTabs(ctx)).append(".org $").append(ShortToExe(ctx.lastPC)).append("\n\n");
             break;
           case ASTERISK:
-              str.append(getDataSpacesTabs()).append("*=$").append(ShortToExe(lastPC)).append("\n\n");
+              str.append(getDataSpacesTabs(ctx)).append("*=$").append(ShortToExe(ctx.lastPC)).append("\n\n");
             break;
           case DOT_PC:
-              str.append(getDataSpacesTabs()).append(".pc $").append(ShortToExe(lastPC)).append("\n\n");
+              str.append(getDataSpacesTabs(ctx)).append(".pc $").append(ShortToExe(ctx.lastPC)).append("\n\n");
             break;
           case ORG_H:
-              str.append(getDataSpacesTabs()).append("org ").append(ShortToExe(lastPC)).append("h\n\n");
+              str.append(getDataSpacesTabs(ctx)).append("org ").append(ShortToExe(ctx.lastPC)).append("h\n\n");
             break;  
         }    
       }
@@ -417,12 +425,13 @@ public class Assembler {
       /**
        * Put a value to the stream
        * 
+       * @param ctx the emit context
        * @param str the otput stream
        * @param mem the memory dasm
        * @param option the option to use
        */
       @Override
-      public void putValue(StringBuilder str, MemoryDasm mem, Option option) {     
+      public void putValue(EmitContext ctx, StringBuilder str, MemoryDasm mem, Option option) {     
       }      
    }
    
@@ -436,16 +445,16 @@ public class Assembler {
       NAME_COLON;         // xxxx:
     
       @Override
-      public void flush(StringBuilder str) {
+      public void flush(EmitContext ctx, StringBuilder str) {
         // add the label if it was declared by dasm or user   
         String label=null;
         
         int start=str.length();
          
-        if (lastMem.userLocation!=null && !"".equals(lastMem.userLocation)) label=lastMem.userLocation;
-        else if (lastMem.dasmLocation!=null && !"".equals(lastMem.dasmLocation)) label=lastMem.dasmLocation;
+        if (ctx.lastMem.userLocation!=null && !"".equals(ctx.lastMem.userLocation)) label=ctx.lastMem.userLocation;
+        else if (ctx.lastMem.dasmLocation!=null && !"".equals(ctx.lastMem.dasmLocation)) label=ctx.lastMem.dasmLocation;
           
-        switch (aLabel) {
+        switch (ctx.aLabel) {
           case NAME:
             str.append(label);  
             break; 
@@ -454,18 +463,19 @@ public class Assembler {
             break;
         }
         
-        carets.add(start, str.length(), lastMem, Type.LABEL);
+        ctx.carets.add(start, str.length(), ctx.lastMem, Type.LABEL);
       }
       
       /**
        * Put a value to the stream
        * 
+       * @param ctx the emit context
        * @param str the otput stream
        * @param mem the memory dasm
        * @param option the option to use
        */
       @Override
-      public void putValue(StringBuilder str, MemoryDasm mem, Option option) {       
+      public void putValue(EmitContext ctx, StringBuilder str, MemoryDasm mem, Option option) {       
       }
     }    
    
@@ -482,9 +492,9 @@ public class Assembler {
       DOUBLE_BAR;      // // xxx 
     
       @Override
-      public void flush(StringBuilder str) {
-        String comment=lastMem.dasmComment;
-        if (lastMem.userComment != null /*&& !"".equals(lastMem.userComment)*/) comment=lastMem.userComment;
+      public void flush(EmitContext ctx, StringBuilder str) {
+        String comment=ctx.lastMem.dasmComment;
+        if (ctx.lastMem.userComment != null /*&& !"".equals(ctx.lastMem.userComment)*/) comment=ctx.lastMem.userComment;
         
         if (comment==null || "".equals(comment)) {
           str.append("\n");
@@ -493,7 +503,7 @@ public class Assembler {
         
         int start=str.length();
         
-        switch (aComment) {
+        switch (ctx.aComment) {
           case SEMICOLON:
             str.append("; ").append(comment).append("\n");
             break;
@@ -505,18 +515,19 @@ public class Assembler {
             break;
         }
         
-        carets.add(start, str.length(), lastMem, Type.COMMENT);
+        ctx.carets.add(start, str.length(), ctx.lastMem, Type.COMMENT);
       }
       
       /**
        * Put a value to the stream
        * 
+       * @param ctx the emit context
        * @param str the otput stream
        * @param mem the memory dasm
        * @param option the option to use
        */
       @Override
-      public void putValue(StringBuilder str, MemoryDasm mem, Option option) {        
+      public void putValue(EmitContext ctx, StringBuilder str, MemoryDasm mem, Option option) {        
       }      
     }  
    
@@ -545,16 +556,16 @@ public class Assembler {
       DOT_COMMENT;     // .comment xxx .endc// .comment xxx .endc
     
       @Override
-      public void flush(StringBuilder str) {
-        if (lastMem==null || lastMem.userBlockComment==null) return;
+      public void flush(EmitContext ctx, StringBuilder str) {
+        if (ctx.lastMem==null || ctx.lastMem.userBlockComment==null) return;
         
         int start=str.length();
           
         // split by new line
-        String[] lines = lastMem.userBlockComment.split("\\r?\\n");  
+        String[] lines = ctx.lastMem.userBlockComment.split("\\r?\\n");  
         
         // there macro in comment?
-        if (lastMem.userBlockComment.contains("[<")) {
+        if (ctx.lastMem.userBlockComment.contains("[<")) {
 
           // expand them  
           String tmp;
@@ -562,7 +573,7 @@ public class Assembler {
           
           ArrayList<String> alist=new ArrayList();
           for (String line : lines) {
-            tmp=getMacro(line);
+            tmp=getMacro(ctx, line);
             // if length differs, then it was exploded
             if (tmp.length()>line.length()) {
               tmpLines=tmp.split("\\r?\\n");
@@ -579,7 +590,7 @@ public class Assembler {
           }
         }
      
-        switch (aBlockComment) {
+        switch (ctx.aBlockComment) {
           case SEMICOLON:    
             for (String line : lines) {
               if (" ".equals(line)) str.append("\n");
@@ -727,18 +738,19 @@ public class Assembler {
             break;  
         } 
               
-        carets.add(start, str.length(), lastMem, Type.BLOCK_COMMENT);
+        ctx.carets.add(start, str.length(), ctx.lastMem, Type.BLOCK_COMMENT);
       }
       
       /**
        * Put a value to the stream
        * 
+       * @param ctx the emit context
        * @param str the otput stream
        * @param mem the memory dasm
        * @param option the option to use
        */
       @Override
-      public void putValue(StringBuilder str, MemoryDasm mem, Option option) {  
+      public void putValue(EmitContext ctx, StringBuilder str, MemoryDasm mem, Option option) {  
       }      
       
       /** Enum for direction of blocks in memory */
@@ -780,11 +792,12 @@ public class Assembler {
        * <li>[<SPRITE#MULTI#NxM#DNUP>]</li>
        * </ul>
        * 
+       * @param ctx the emit context
        * @param line the line to process
        * 
        * @return the line or macro explosion
        */
-      private String getMacro(String line) {
+      private String getMacro(EmitContext ctx, String line) {
         Dir dir; 
         Chars chars=Chars.NONE;
         Sprites sprites=Sprites.NONE;
@@ -839,8 +852,8 @@ public class Assembler {
                  for (int i=0; i<8; i++) {
                    buf.append(" ");
                    for (int c=0; c<left; c++) {
-                     if (chars==Chars.MONO) buf.append(BinToMono(Integer.toBinaryString((memory[lastMem.address+8*(r*left+c)+i].copy & 0xFF) + 0x100).substring(1)));
-                     else buf.append(BinToMulti(Integer.toBinaryString((memory[lastMem.address+8*(r*left+c)+i].copy & 0xFF) + 0x100).substring(1)));
+                     if (chars==Chars.MONO) buf.append(BinToMono(ctx, Integer.toBinaryString((ctx.memory[ctx.lastMem.address+8*(r*left+c)+i].copy & 0xFF) + 0x100).substring(1)));
+                     else buf.append(BinToMulti(ctx, Integer.toBinaryString((ctx.memory[ctx.lastMem.address+8*(r*left+c)+i].copy & 0xFF) + 0x100).substring(1)));
                    }
                    buf.append("\n");
                  } 
@@ -851,8 +864,8 @@ public class Assembler {
                   for (int i=0; i<8; i++) {
                     buf.append(" ");
                     for (int c=0; c<left; c++) {
-                      if (chars==Chars.MONO) buf.append(BinToMono(Integer.toBinaryString((memory[lastMem.address+8*(c*right+r)+i].copy & 0xFF) + 0x100).substring(1)));
-                      else buf.append(BinToMulti(Integer.toBinaryString((memory[lastMem.address+8*(c*right+r)+i].copy & 0xFF) + 0x100).substring(1)));
+                      if (chars==Chars.MONO) buf.append(BinToMono(ctx, Integer.toBinaryString((ctx.memory[ctx.lastMem.address+8*(c*right+r)+i].copy & 0xFF) + 0x100).substring(1)));
+                      else buf.append(BinToMulti(ctx, Integer.toBinaryString((ctx.memory[ctx.lastMem.address+8*(c*right+r)+i].copy & 0xFF) + 0x100).substring(1)));
                     }
                     buf.append("\n");
                    } 
@@ -870,13 +883,13 @@ public class Assembler {
                    buf.append(" ");
                    for (int c=0; c<left; c++) {
                      if (sprites==Sprites.MONO) {
-                        buf.append(BinToMono(Integer.toBinaryString((memory[lastMem.address+64*(r*left+c)+(i*3)].copy & 0xFF) + 0x100).substring(1)));
-                        buf.append(BinToMono(Integer.toBinaryString((memory[lastMem.address+64*(r*left+c)+(i*3)+1].copy & 0xFF) + 0x100).substring(1)));
-                        buf.append(BinToMono(Integer.toBinaryString((memory[lastMem.address+64*(r*left+c)+(i*3)+2].copy & 0xFF) + 0x100).substring(1)));
+                        buf.append(BinToMono(ctx, Integer.toBinaryString((ctx.memory[ctx.lastMem.address+64*(r*left+c)+(i*3)].copy & 0xFF) + 0x100).substring(1)));
+                        buf.append(BinToMono(ctx, Integer.toBinaryString((ctx.memory[ctx.lastMem.address+64*(r*left+c)+(i*3)+1].copy & 0xFF) + 0x100).substring(1)));
+                        buf.append(BinToMono(ctx, Integer.toBinaryString((ctx.memory[ctx.lastMem.address+64*(r*left+c)+(i*3)+2].copy & 0xFF) + 0x100).substring(1)));
                      } else {
-                          buf.append(BinToMulti(Integer.toBinaryString((memory[lastMem.address+64*(r*left+c)+(i*3)].copy & 0xFF) + 0x100).substring(1)));
-                          buf.append(BinToMulti(Integer.toBinaryString((memory[lastMem.address+64*(r*left+c)+(i*3)+1].copy & 0xFF) + 0x100).substring(1)));
-                          buf.append(BinToMulti(Integer.toBinaryString((memory[lastMem.address+64*(r*left+c)+(i*3)+2].copy & 0xFF) + 0x100).substring(1)));
+                          buf.append(BinToMulti(ctx, Integer.toBinaryString((ctx.memory[ctx.lastMem.address+64*(r*left+c)+(i*3)].copy & 0xFF) + 0x100).substring(1)));
+                          buf.append(BinToMulti(ctx, Integer.toBinaryString((ctx.memory[ctx.lastMem.address+64*(r*left+c)+(i*3)+1].copy & 0xFF) + 0x100).substring(1)));
+                          buf.append(BinToMulti(ctx, Integer.toBinaryString((ctx.memory[ctx.lastMem.address+64*(r*left+c)+(i*3)+2].copy & 0xFF) + 0x100).substring(1)));
                        }
                    }
                    buf.append("\n");
@@ -889,13 +902,13 @@ public class Assembler {
                     buf.append(" ");
                     for (int c=0; c<left; c++) {
                       if (sprites==Sprites.MONO) {
-                        buf.append(BinToMono(Integer.toBinaryString((memory[lastMem.address+64*(c*right+r)+(i*3)].copy & 0xFF) + 0x100).substring(1)));
-                        buf.append(BinToMono(Integer.toBinaryString((memory[lastMem.address+64*(c*right+r)+(i*3)+1].copy & 0xFF) + 0x100).substring(1)));
-                        buf.append(BinToMono(Integer.toBinaryString((memory[lastMem.address+64*(c*right+r)+(i*3)+2].copy & 0xFF) + 0x100).substring(1)));
+                        buf.append(BinToMono(ctx, Integer.toBinaryString((ctx.memory[ctx.lastMem.address+64*(c*right+r)+(i*3)].copy & 0xFF) + 0x100).substring(1)));
+                        buf.append(BinToMono(ctx, Integer.toBinaryString((ctx.memory[ctx.lastMem.address+64*(c*right+r)+(i*3)+1].copy & 0xFF) + 0x100).substring(1)));
+                        buf.append(BinToMono(ctx, Integer.toBinaryString((ctx.memory[ctx.lastMem.address+64*(c*right+r)+(i*3)+2].copy & 0xFF) + 0x100).substring(1)));
                       } else {
-                          buf.append(BinToMulti(Integer.toBinaryString((memory[lastMem.address+64*(c*right+r)+(i*3)].copy & 0xFF) + 0x100).substring(1)));
-                          buf.append(BinToMulti(Integer.toBinaryString((memory[lastMem.address+64*(c*right+r)+(i*3)+1].copy & 0xFF) + 0x100).substring(1)));
-                          buf.append(BinToMulti(Integer.toBinaryString((memory[lastMem.address+64*(c*right+r)+(i*3)+2].copy & 0xFF) + 0x100).substring(1)));                          
+                          buf.append(BinToMulti(ctx, Integer.toBinaryString((ctx.memory[ctx.lastMem.address+64*(c*right+r)+(i*3)].copy & 0xFF) + 0x100).substring(1)));
+                          buf.append(BinToMulti(ctx, Integer.toBinaryString((ctx.memory[ctx.lastMem.address+64*(c*right+r)+(i*3)+1].copy & 0xFF) + 0x100).substring(1)));
+                          buf.append(BinToMulti(ctx, Integer.toBinaryString((ctx.memory[ctx.lastMem.address+64*(c*right+r)+(i*3)+2].copy & 0xFF) + 0x100).substring(1)));                          
                         }
                     }
                     buf.append("\n");
@@ -941,18 +954,9 @@ public class Assembler {
       DB_BYTE,            //    db $xx
       DB_BYTE_H;          //    db xxh
       
-      BasicDetokenize basicList=new BasicDetokenize();
-      
-      /**
-       * Clear the BASIC list
-       */
-      public void clearBasic() {
-        basicList.clear();
-      }
-      
       @Override
-      public void flush(StringBuilder str) {
-        if (list.isEmpty()) return; 
+      public void flush(EmitContext ctx, StringBuilder str) {
+        if (ctx.list.isEmpty()) return; 
         
         MemoryDasm mem;
         MemoryDasm memRel;
@@ -964,54 +968,54 @@ public class Assembler {
         int start=initial;
         
         // create starting command according to the kind of byte
-        switch (aByte) {
+        switch (ctx.aByte) {
           case DOT_BYTE:
-            str.append(getDataSpacesTabs()).append((".byte "));
+            str.append(getDataSpacesTabs(ctx)).append((".byte "));
             break;
           case DOT_CHAR:
-            str.append(getDataSpacesTabs()).append((".char "));
+            str.append(getDataSpacesTabs(ctx)).append((".char "));
             break;  
           case DOT_BY_BYTE:
-            str.append(getDataSpacesTabs()).append((".by "));
+            str.append(getDataSpacesTabs(ctx)).append((".by "));
             break;  
           case BYTE:
-            str.append(getDataSpacesTabs()).append(("byte "));
+            str.append(getDataSpacesTabs(ctx)).append(("byte "));
             break;
           case DC_BYTE:
-            str.append(getDataSpacesTabs()).append(("dc "));   
+            str.append(getDataSpacesTabs(ctx)).append(("dc "));   
             break;
           case DC_B_BYTE:
-            str.append(getDataSpacesTabs()).append(("dc.b "));
+            str.append(getDataSpacesTabs(ctx)).append(("dc.b "));
             break;
           case MARK_BY_BYTE:
-            str.append(getDataSpacesTabs()).append(("!by "));  
+            str.append(getDataSpacesTabs(ctx)).append(("!by "));  
             break;  
           case DOT_BYT_BYTE:
-            str.append(getDataSpacesTabs()).append((".byt "));  
+            str.append(getDataSpacesTabs(ctx)).append((".byt "));  
             break;
           case MARK_BYTE:
-            str.append(getDataSpacesTabs()).append(("!byte "));   
+            str.append(getDataSpacesTabs(ctx)).append(("!byte "));   
             break;  
           case EIGHT_BYTE:
-            str.append(getDataSpacesTabs()).append(("!8 "));  
+            str.append(getDataSpacesTabs(ctx)).append(("!8 "));  
             break;  
           case ZEROEIGHT_BYTE:
-            str.append(getDataSpacesTabs()).append(("!08 "));  
+            str.append(getDataSpacesTabs(ctx)).append(("!08 "));  
             break;    
           case DB_BYTE:
           case DB_BYTE_H:     
-            str.append(getDataSpacesTabs()).append(("db "));    
+            str.append(getDataSpacesTabs(ctx)).append(("db "));    
             break;            
         }
           
-        Iterator<MemoryDasm> iter=list.iterator();
+        Iterator<MemoryDasm> iter=ctx.list.iterator();
         while (iter.hasNext()) {
           // accodate each bytes in the format choosed
           mem=iter.next();
-          memRel=listRel.pop();
-          memRel2=listRel2.pop();
-          memBase=listBase.pop();
-          memDest=listDest.pop();
+          memRel=ctx.listRel.pop();
+          memRel2=ctx.listRel2.pop();
+          memBase=ctx.listBase.pop();
+          memDest=ctx.listDest.pop();
           
           if (mem.type==TYPE_MINOR || 
               mem.type==TYPE_MAJOR || 
@@ -1044,79 +1048,80 @@ public class Assembler {
                   /// this is a memory in table label
                   int rel=memRel.related;
                   int pos=memRel.address-memRel.related;
-                  str.append(getLocationPos(mem, memBase, memDest, memRel2, rel, pos, type));
+                  str.append(getLocationPos(ctx, mem, memBase, memDest, memRel2, rel, pos, type));
                   break;
                 case TYPE_PLUS_MAJOR:
                 case TYPE_PLUS_MINOR:    
                   /// this is a memory in table label
                   rel=(memRel.related>>16) & 0xFFFF;
                   pos=memRel.address-rel;
-                  str.append(getLocationPos(mem, memBase, memDest, memRel2, rel, pos, type));
+                  str.append(getLocationPos(ctx, mem, memBase, memDest, memRel2, rel, pos, type));
                   break;
                 case TYPE_MINUS_MAJOR:
                 case TYPE_MINUS_MINOR:    
                   /// this is a memory in table label
                   rel=(memRel.related>>16) & 0xFFFF;
                   pos=memRel.address-rel;
-                  str.append(getLocationNeg(mem, memBase, memDest, memRel2, rel, pos, type));
+                  str.append(getLocationNeg(ctx, mem, memBase, memDest, memRel2, rel, pos, type));
                   break;                  
                 case TYPE_MINUS:
                   /// this is a memory in table label
                   rel=memRel.related;
                   pos=memRel.address-memRel.related;
-                  str.append(getLocationNeg(mem, memBase, memDest, memRel2, rel, pos, type));
+                  str.append(getLocationNeg(ctx, mem, memBase, memDest, memRel2, rel, pos, type));
                   break;             
                 default:
-                  str.append(getLocation(mem, memBase, memDest, memRel, type));           
+                  str.append(getLocation(ctx, mem, memBase, memDest, memRel, type));           
                   break;
               }                
             }           
-            else str.append(getLocation(mem, memBase, memDest, memRel, type));               
-          } else str.append(getByteType(mem.dataType, mem.copy, mem.index));
+            else str.append(getLocation(ctx, mem, memBase, memDest, memRel, type));               
+          } else str.append(getByteType(ctx, mem.dataType, mem.copy, mem.index));
           
-          carets.add(start, str.length(), mem, Type.BYTE);
+          ctx.carets.add(start, str.length(), mem, Type.BYTE);
           
-          if (!listRel.isEmpty()) str.append(", ");  
+          if (!ctx.listRel.isEmpty()) str.append(", ");  
           else {
             if (mem.dasmLocation==null && mem.userLocation==null) {
-              str.append(getDataCSpacesTabs(str.length()-initial-getDataSpacesTabs().length()));
-              MemoryDasm tmp=lastMem;
-              lastMem=mem;
-              aComment.flush(str);  
-              lastMem=tmp;
+              str.append(getDataCSpacesTabs(ctx, str.length()-initial-getDataSpacesTabs(ctx).length()));
+              MemoryDasm tmp=ctx.lastMem;
+              ctx.lastMem=mem;
+              ctx.aComment.flush(ctx, str);  
+              ctx.lastMem=tmp;
             } else str.append("\n");            
           }
           
           start=str.length();
         }
-        list.clear();
+        ctx.list.clear();
       }  
       
       /**
        * Put a value to the stream
        * 
+       * @param ctx the emit context
        * @param str the otput stream
        * @param mem the memory dasm
        * @param option the option to use
        */
       @Override
-      public void putValue(StringBuilder str, MemoryDasm mem, Option option) {        
+      public void putValue(EmitContext ctx, StringBuilder str, MemoryDasm mem, Option option) {        
         // look if it is time to aggregate data
-        if (list.size()==option.maxByteAggregate) flush(str);     
+        if (ctx.list.size()==option.maxByteAggregate) flush(ctx, str);     
         
         if (mem.basicType!=BasicType.NONE) {
-          basicList.add(mem.copy);
+          ctx.basicList.add(mem.copy);
           
-          if (basicList.isComplete()) mem.dasmComment=basicList.detokenizedCommand(mem.basicType);
+          if (ctx.basicList.isComplete()) mem.dasmComment=ctx.basicList.detokenizedCommand(mem.basicType);
         } else {
-           basicList.clear();
+           ctx.basicList.clear();
         }
        
         if (mem.dasmLocation==null && mem.userLocation==null) {
           // look for comment inside
-          String comment=lastMem.dasmComment;
-          if (lastMem.userComment != null) comment=lastMem.userComment;        
-          if (!(comment==null || "".equals(comment))) flush(str);  
+          String comment=ctx.lastMem.dasmComment;
+          if (ctx.lastMem.userComment != null) comment=ctx.lastMem.userComment;        
+          if (!(comment==null || "".equals(comment))) flush(ctx, str);  
         }          
       }      
       
@@ -1127,16 +1132,17 @@ public class Assembler {
        * 
        * Note: As uses xx % $FF,  xx>>8
        * 
+       * @param ctx the emit context
        * @param type the type to valuate
        * @param value the value 
        * @return the right type value
        */
-      private String getRightType(char type, String value) {
+      private String getRightType(EmitContext ctx, char type, String value) {
         // add () if there are relative address to avoid compilation errors like in Dasm
         if (value.contains("+") || value.contains("-")) value="("+value+")";
-        switch (aByte) {
+        switch (ctx.aByte) {
             case DB_BYTE:
-              if (option.assembler==Name.AS) {
+              if (ctx.option.assembler==Name.AS) {
                   if (type==TYPE_MINOR) return value+" & $FF";
                   else return value+">>8";
               } else {
@@ -1151,6 +1157,7 @@ public class Assembler {
       /**
        * Get the location (positive)
        * 
+       * @param ctx the emit context
        * @param mem the memory location
        * @param memBase the base memory location
        * @param memDest the destination memory location
@@ -1160,8 +1167,8 @@ public class Assembler {
        * @param type the type 
        * @return the string of the location 
        */
-      private String getLocationPos(MemoryDasm mem, MemoryDasm memBase, MemoryDasm memDest, MemoryDasm memRel, int rel, int pos, char type) {
-        boolean defaultMode=(aByte!=DB_BYTE_H);
+      private String getLocationPos(EmitContext ctx, MemoryDasm mem, MemoryDasm memBase, MemoryDasm memDest, MemoryDasm memRel, int rel, int pos, char type) {
+        boolean defaultMode=(ctx.aByte!=DB_BYTE_H);
           
         if (mem.relatedAddressBase+mem.relatedAddressDest !=0) {
           String base;
@@ -1175,19 +1182,20 @@ public class Assembler {
           else if (memDest.dasmLocation!=null && !"".equals(memDest.dasmLocation)) dest=memDest.dasmLocation;
           else dest=HexNum(ShortToExe(memDest.address), defaultMode);
           
-          if (memRel.userLocation!=null && !"".equals(memRel.userLocation)) return getRightType(type, base+"-"+dest+"+"+memRel.userLocation+"+"+pos);
-          else if (memRel.dasmLocation!=null && !"".equals(memRel.dasmLocation)) return getRightType(type, base+"-"+dest+"+"+memRel.dasmLocation+"+"+pos);
-          else return getRightType(type,base+"-"+dest+"+"+ HexNum(ShortToExe(memRel.address), defaultMode)+"+"+pos);
+          if (memRel.userLocation!=null && !"".equals(memRel.userLocation)) return getRightType(ctx, type, base+"-"+dest+"+"+memRel.userLocation+"+"+pos);
+          else if (memRel.dasmLocation!=null && !"".equals(memRel.dasmLocation)) return getRightType(ctx, type, base+"-"+dest+"+"+memRel.dasmLocation+"+"+pos);
+          else return getRightType(ctx, type,base+"-"+dest+"+"+ HexNum(ShortToExe(memRel.address), defaultMode)+"+"+pos);
         } else {
-            if (memRel.userLocation!=null && !"".equals(memRel.userLocation)) return getRightType(type, memRel.userLocation+"+"+pos);
-            else if (memRel.dasmLocation!=null && !"".equals(memRel.dasmLocation)) return getRightType(type, memRel.dasmLocation+"+"+pos);
-            else return getRightType(type,HexNum(ShortToExe(rel), defaultMode)+"+"+pos);
+            if (memRel.userLocation!=null && !"".equals(memRel.userLocation)) return getRightType(ctx, type, memRel.userLocation+"+"+pos);
+            else if (memRel.dasmLocation!=null && !"".equals(memRel.dasmLocation)) return getRightType(ctx, type, memRel.dasmLocation+"+"+pos);
+            else return getRightType(ctx, type,HexNum(ShortToExe(rel), defaultMode)+"+"+pos);
           }
       }
       
        /**
        * Get the location (negative)
        * 
+       * @param ctx the emit context
        * @param mem the memory location
        * @param memBase the base memory location
        * @param memDest the destination memory location
@@ -1197,8 +1205,8 @@ public class Assembler {
        * @param type the type 
        * @return the string of the location 
        */
-      private String getLocationNeg(MemoryDasm mem, MemoryDasm memBase, MemoryDasm memDest, MemoryDasm memRel, int rel, int pos, char type) {
-        boolean defaultMode=(aByte!=DB_BYTE_H);  
+      private String getLocationNeg(EmitContext ctx, MemoryDasm mem, MemoryDasm memBase, MemoryDasm memDest, MemoryDasm memRel, int rel, int pos, char type) {
+        boolean defaultMode=(ctx.aByte!=DB_BYTE_H);  
           
         if (mem.relatedAddressBase+mem.relatedAddressDest !=0) {
           String base;
@@ -1212,19 +1220,20 @@ public class Assembler {
           else if (memDest.dasmLocation!=null && !"".equals(memDest.dasmLocation)) dest=memDest.dasmLocation;
           else dest=HexNum(ShortToExe(memDest.address), defaultMode);
           
-          if (memRel.userLocation!=null && !"".equals(memRel.userLocation)) return getRightType(type, base+"-"+dest+"+"+memRel.userLocation+pos);
-          else if (memRel.dasmLocation!=null && !"".equals(memRel.dasmLocation)) return getRightType(type, base+"-"+dest+"+"+memRel.dasmLocation+pos);
-          else return getRightType(type,base+"-"+dest+"+"+ HexNum(ShortToExe(memRel.address), defaultMode)+pos);
+          if (memRel.userLocation!=null && !"".equals(memRel.userLocation)) return getRightType(ctx, type, base+"-"+dest+"+"+memRel.userLocation+pos);
+          else if (memRel.dasmLocation!=null && !"".equals(memRel.dasmLocation)) return getRightType(ctx, type, base+"-"+dest+"+"+memRel.dasmLocation+pos);
+          else return getRightType(ctx, type,base+"-"+dest+"+"+ HexNum(ShortToExe(memRel.address), defaultMode)+pos);
         } else {
-            if (memRel.userLocation!=null && !"".equals(memRel.userLocation)) return getRightType(type, memRel.userLocation+pos);  
-            else if (memRel.dasmLocation!=null && !"".equals(memRel.dasmLocation)) return getRightType(type, memRel.dasmLocation+pos);
-            else return getRightType(type, HexNum(ShortToExe(rel), defaultMode)+pos);
+            if (memRel.userLocation!=null && !"".equals(memRel.userLocation)) return getRightType(ctx, type, memRel.userLocation+pos);  
+            else if (memRel.dasmLocation!=null && !"".equals(memRel.dasmLocation)) return getRightType(ctx, type, memRel.dasmLocation+pos);
+            else return getRightType(ctx, type, HexNum(ShortToExe(rel), defaultMode)+pos);
           }
       }
       
       /**
        * Get the location
        * 
+       * @param ctx the emit context
        * @param mem the memory location
        * @param memBase the base memory location
        * @param memDest the destination memory location
@@ -1232,8 +1241,8 @@ public class Assembler {
        * @param type the type
        * @return 
        */
-      private String getLocation(MemoryDasm mem, MemoryDasm memBase, MemoryDasm memDest, MemoryDasm memRel, char type) {
-        boolean defaultMode=(aByte!=DB_BYTE_H);  
+      private String getLocation(EmitContext ctx, MemoryDasm mem, MemoryDasm memBase, MemoryDasm memDest, MemoryDasm memRel, char type) {
+        boolean defaultMode=(ctx.aByte!=DB_BYTE_H);  
           
         if (mem.relatedAddressBase+mem.relatedAddressDest !=0) {
           String base;
@@ -1247,28 +1256,29 @@ public class Assembler {
           else if (memDest.dasmLocation!=null && !"".equals(memDest.dasmLocation)) dest=memDest.dasmLocation;
           else dest=HexNum(ShortToExe(memDest.address), defaultMode);
           
-          if (memRel.userLocation!=null && !"".equals(memRel.userLocation)) return getRightType(type, base+"-"+dest+"+"+memRel.userLocation);
-          else if (memRel.dasmLocation!=null && !"".equals(memRel.dasmLocation)) return getRightType(type, base+"-"+dest+"+"+memRel.dasmLocation);
-          else return getRightType(type,base+"-"+dest+"+"+ HexNum(ShortToExe(memRel.address), defaultMode));
+          if (memRel.userLocation!=null && !"".equals(memRel.userLocation)) return getRightType(ctx, type, base+"-"+dest+"+"+memRel.userLocation);
+          else if (memRel.dasmLocation!=null && !"".equals(memRel.dasmLocation)) return getRightType(ctx, type, base+"-"+dest+"+"+memRel.dasmLocation);
+          else return getRightType(ctx, type,base+"-"+dest+"+"+ HexNum(ShortToExe(memRel.address), defaultMode));
         } else {
-            if (memRel.userLocation!=null && !"".equals(memRel.userLocation)) return getRightType(type, memRel.userLocation);
-            else if (memRel.dasmLocation!=null && !"".equals(memRel.dasmLocation)) return getRightType(type, memRel.dasmLocation);
-            else return getRightType(type, HexNum(ShortToExe(memRel.address), defaultMode));
+            if (memRel.userLocation!=null && !"".equals(memRel.userLocation)) return getRightType(ctx, type, memRel.userLocation);
+            else if (memRel.dasmLocation!=null && !"".equals(memRel.dasmLocation)) return getRightType(ctx, type, memRel.dasmLocation);
+            else return getRightType(ctx, type, HexNum(ShortToExe(memRel.address), defaultMode));
           }    
       }
       
       /**
        * Return the byte represented as by the given type
        * 
+       * @param ctx the emit context
        * @param dataType the type to use 
        * @param value the byte value
        * @param index the index of constant
        * @return the converted string
        */
-      private String getByteType(DataType dataType, byte value, byte index) {
-        boolean defaultMode=(aByte!=DB_BYTE_H);          
+      private String getByteType(EmitContext ctx, DataType dataType, byte value, byte index) {
+        boolean defaultMode=(ctx.aByte!=DB_BYTE_H);          
           
-        if (aByte==DOT_CHAR && value<0) {
+        if (ctx.aByte==DOT_CHAR && value<0) {
           switch (dataType)   {
               case BYTE_DEC:
                 return "-"+Math.abs(value);
@@ -1283,7 +1293,7 @@ public class Assembler {
            }            
         } else {
             if (index!=-1) {
-              String res=constant.table[index][value & 0xFF];  
+              String res=ctx.constant.get(index, value & 0xFF);  
               if (res!=null && !"".equals(res)) return res;
             } 
             
@@ -1294,35 +1304,35 @@ public class Assembler {
                 return BinNum(Integer.toBinaryString((value & 0xFF) + 0x100).substring(1), defaultMode);
               case BYTE_CHAR:
                 int val=(value & 0xFF);
-                switch (option.assembler) {
+                switch (ctx.option.assembler) {
                   case DASM:
                     if (
-                       (!option.allowUtf && (val<0x20 || val==0x22 || (val>127))) ||     
-                       (option.allowUtf && ((val==0x00) || (val==0x0A) || (val==0x22) || (val>127)))  
+                       (!ctx.option.allowUtf && (val<0x20 || val==0x22 || (val>127))) ||     
+                       (ctx.option.allowUtf && ((val==0x00) || (val==0x0A) || (val==0x22) || (val>127)))  
                        ) return HexNum(ByteToExe(Unsigned.done(value)), defaultMode);
                     else return "'"+(char)Unsigned.done(value); 
                   case TMPX:
                     if (
-                        (!option.allowUtf && (val<=0x19) || (val==0x22) || (val>127)) ||    
-                        (option.allowUtf && ((val==0x08) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127)))   
+                        (!ctx.option.allowUtf && (val<=0x19) || (val==0x22) || (val>127)) ||    
+                        (ctx.option.allowUtf && ((val==0x08) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127)))   
                        ) return HexNum(ByteToExe(Unsigned.done(value)), defaultMode);
                     else return "'"+(char)Unsigned.done(value); 
                   case CA65:
                     if (
-                        (!option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) ||    
-                        (option.allowUtf && ((val==0x0A) || (val==0x22) || (val>127)))   
+                        (!ctx.option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) ||    
+                        (ctx.option.allowUtf && ((val==0x0A) || (val==0x22) || (val>127)))   
                        ) return HexNum(ByteToExe(Unsigned.done(value)), defaultMode);
                     else if (val>=0x20) return "'"+(char)Unsigned.done(value)+"'"; 
                          else return "\""+(char)Unsigned.done(value)+"\""; 
                   case ACME:
                     if (
-                        (!option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) ||    
-                        (option.allowUtf && ( (val==0x00) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127)))   
+                        (!ctx.option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) ||    
+                        (ctx.option.allowUtf && ( (val==0x00) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127)))   
                        ) return HexNum(ByteToExe(Unsigned.done(value)), defaultMode);
                     else  if (val==0x27 || val==0x5C) return "'\\"+(char)Unsigned.done(value)+"'"; 
                           else return "'"+(char)Unsigned.done(value)+"'";   
                   case KICK:
-                    if (!option.allowUtf &&  (val<=0x1F || val>=0x80)) return HexNum(ByteToExe(Unsigned.done(value)), defaultMode);                        
+                    if (!ctx.option.allowUtf &&  (val<=0x1F || val>=0x80)) return HexNum(ByteToExe(Unsigned.done(value)), defaultMode);                        
                     if (val==0x0A || (val>=0x0C && val<=0x0F) 
                                   || val==0x040 || val==0x05B 
                                   || val==0x05D
@@ -1334,8 +1344,8 @@ public class Assembler {
                     else return "'"+(char)Unsigned.done(value)+"'";      
                   case TASS64:
                     if (
-                        (!option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) || 
-                        (option.allowUtf && ((val==0x00) || (val==0x0A) || (val==0x0D) ||
+                        (!ctx.option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) || 
+                        (ctx.option.allowUtf && ((val==0x00) || (val==0x0A) || (val==0x0D) ||
                          (val==0x22) || (val>127)))                      
                        ) return HexNum(ByteToExe(Unsigned.done(value)), defaultMode);    
                     else return "\""+(char)Unsigned.done(value)+"\"";
@@ -1376,8 +1386,8 @@ public class Assembler {
      DW_WORD_H;           //     dw xxyyh
      
      @Override
-     public void flush(StringBuilder str) {         
-       if (list.isEmpty()) return; 
+     public void flush(EmitContext ctx, StringBuilder str) {         
+       if (ctx.list.isEmpty()) return; 
        
        MemoryDasm memLow;
        MemoryDasm memHigh;
@@ -1394,61 +1404,61 @@ public class Assembler {
        int start=pos1;
        
        // create starting command according to the kind of byte
-       switch (aWord) {
+       switch (ctx.aWord) {
          case DOT_WORD:
-           str.append(getDataSpacesTabs()).append((".word "));  
+           str.append(getDataSpacesTabs(ctx)).append((".word "));  
            break;
          case DOT_WO_WORD:
-           str.append(getDataSpacesTabs()).append((".wo "));  
+           str.append(getDataSpacesTabs(ctx)).append((".wo "));  
            break;  
          case DOT_SINT:
-           str.append(getDataSpacesTabs()).append((".sint "));  
+           str.append(getDataSpacesTabs(ctx)).append((".sint "));  
            break;           
          case WORD:
-           str.append(getDataSpacesTabs()).append(("word "));   
+           str.append(getDataSpacesTabs(ctx)).append(("word "));   
            break;
          case DC_W_WORD:
-           str.append(getDataSpacesTabs()).append(("dc.w "));  
+           str.append(getDataSpacesTabs(ctx)).append(("dc.w "));  
            break;
          case DOT_DBYTE:
-           str.append(getDataSpacesTabs()).append((".dbyte "));   
+           str.append(getDataSpacesTabs(ctx)).append((".dbyte "));   
            break;
          case MARK_WORD:
-           str.append(getDataSpacesTabs()).append(("!word "));   
+           str.append(getDataSpacesTabs(ctx)).append(("!word "));   
            break;
          case SIXTEEN_WORD:
-           str.append(getDataSpacesTabs()).append(("!16 "));  
+           str.append(getDataSpacesTabs(ctx)).append(("!16 "));  
            break;  
          case DW_WORD:
          case DW_WORD_H:
-           str.append(getDataSpacesTabs()).append(("dw "));   
+           str.append(getDataSpacesTabs(ctx)).append(("dw "));   
            break;
        }
        
        int pos2=str.length();   // store final position
        boolean isFirst=true;       // true if this is the first output
        
-       while (!list.isEmpty()) {
+       while (!ctx.list.isEmpty()) {
          // if only 1 byte left, use byte coding
-         if (list.size()==1) {
+         if (ctx.list.size()==1) {
            if (isFirst) {
               str.replace(pos1, pos2, "");
               isFirst=false;                    
            }  
-           aByte.flush(str);
+           ctx.aByte.flush(ctx, str);
          }
          else {
-           memLow=list.pop();
-           memRelLow=listRel.pop();
-           memRel2Low=listRel2.pop();
-           memBaseLo=listBase.pop();
-           memDestLo=listDest.pop();
+           memLow=ctx.list.pop();
+           memRelLow=ctx.listRel.pop();
+           memRel2Low=ctx.listRel2.pop();
+           memBaseLo=ctx.listBase.pop();
+           memDestLo=ctx.listDest.pop();
            
-           memHigh=list.pop();
-           memRelHigh=listRel.pop();           
-           memRel2High=listRel2.pop();
-           memBaseHi=listBase.pop();
-           memDestHi=listDest.pop();
+           memHigh=ctx.list.pop();
+           memRelHigh=ctx.listRel.pop();           
+           memRel2High=ctx.listRel2.pop();
+           memBaseHi=ctx.listBase.pop();
+           memDestHi=ctx.listDest.pop();
            
            if ((
                  ((memLow.type==TYPE_MINOR || memLow.type==TYPE_PLUS_MINOR) && 
@@ -1466,37 +1476,37 @@ public class Assembler {
                    /// this is a memory in table label
                    int rel=memRelLow.related;
                    int pos=memRelLow.address-memRelLow.related;
-                   str.append(getLocationPos(memLow, memBaseLo, memDestLo, memRel2Low, rel, pos));
+                   str.append(getLocationPos(ctx, memLow, memBaseLo, memDestLo, memRel2Low, rel, pos));
                    break;
                  case TYPE_PLUS_MAJOR:
                  case TYPE_PLUS_MINOR:    
                    /// this is a memory in table label
                    rel=(memRelLow.related>>16) & 0xFFFF;
                    pos=memRelLow.address-rel;
-                   str.append(getLocationPos(memLow, memBaseLo, memDestLo, memRel2Low, rel, pos));
+                   str.append(getLocationPos(ctx, memLow, memBaseLo, memDestLo, memRel2Low, rel, pos));
                    break;
                 case TYPE_MINUS_MAJOR:
                  case TYPE_MINUS_MINOR:    
                    /// this is a memory in table label
                    rel=(memRelLow.related>>16) & 0xFFFF;
                    pos=memRelLow.address-rel;
-                   str.append(getLocationNeg(memLow, memBaseLo, memDestLo, memRel2Low, rel, pos));
+                   str.append(getLocationNeg(ctx, memLow, memBaseLo, memDestLo, memRel2Low, rel, pos));
                    break;                   
                  case TYPE_MINUS:
                    /// this is a memory in table label
                    rel=memRelLow.related;
                    pos=memRelLow.address-memRelLow.related;
-                   str.append(getLocationNeg(memLow, memBaseLo, memDestLo, memRel2Low, rel, pos));
+                   str.append(getLocationNeg(ctx, memLow, memBaseLo, memDestLo, memRel2Low, rel, pos));
                    break;             
                  default:
-                   str.append(getLocation(memLow, memBaseLo, memDestLo, memRelLow));         
+                   str.append(getLocation(ctx, memLow, memBaseLo, memDestLo, memRelLow));         
                    break;
                }                
              }  else {        
                   if (memRelLow.dasmLocation==null || "".equals(memRelLow.dasmLocation)) {
                      memRelLow.dasmLocation="W"+ShortToExe(memRelLow.address);
                   }               
-                  str.append(getLocation(memLow, memBaseLo, memDestLo, memRelLow));  
+                  str.append(getLocation(ctx, memLow, memBaseLo, memDestLo, memRelLow));  
                 }
              isFirst=false;
            } else {
@@ -1513,31 +1523,31 @@ public class Assembler {
                    memHigh.type==TYPE_PLUS_MINOR || 
                    memHigh.type==TYPE_MINUS_MAJOR || 
                    memHigh.type==TYPE_MINUS_MINOR )  {
-                 list.addFirst(memHigh);
-                 list.addFirst(memLow);
-                 listRel.addFirst(memRelHigh);
-                 listRel.addFirst(memRelLow);
-                 listRel2.addFirst(null);
-                 listRel2.addFirst(null);
-                 listBase.addFirst(null);
-                 listBase.addFirst(null);
-                 listDest.addFirst(null);
-                 listDest.addFirst(null);
+                 ctx.list.addFirst(memHigh);
+                 ctx.list.addFirst(memLow);
+                 ctx.listRel.addFirst(memRelHigh);
+                 ctx.listRel.addFirst(memRelLow);
+                 ctx.listRel2.addFirst(null);
+                 ctx.listRel2.addFirst(null);
+                 ctx.listBase.addFirst(null);
+                 ctx.listBase.addFirst(null);
+                 ctx.listDest.addFirst(null);
+                 ctx.listDest.addFirst(null);
                  
                  if (isFirst) {
                    str.replace(pos1, pos2, "");
                    isFirst=false;
                  }
-                 aByte.flush(str);
+                 ctx.aByte.flush(ctx, str);
                }
                else {
-                 if (aWord==DOT_SINT && memHigh.copy<0) str.append("-$").append(ByteToExe(Math.abs(memHigh.copy))).append(ByteToExe(Unsigned.done(memLow.copy)));
+                 if (ctx.aWord==DOT_SINT && memHigh.copy<0) str.append("-$").append(ByteToExe(Math.abs(memHigh.copy))).append(ByteToExe(Unsigned.done(memLow.copy)));
                  else {
-                   boolean defaultMode=(aWord!=DW_WORD_H);
+                   boolean defaultMode=(ctx.aWord!=DW_WORD_H);
                    
                    // look for constant  
                    if (memLow.index!=-1 && memHigh.index!=-1 && memLow.index==memHigh.index) {
-                     String res=constant.table[memLow.index][(memLow.copy & 0xFF) + ((memHigh.copy & 0xFF)<<8)];  
+                     String res=ctx.constant.get(memLow.index, (memLow.copy & 0xFF) + ((memHigh.copy & 0xFF)<<8));  
                      if (res!=null && !"".equals(res)) str.append(res);
                      else str.append(
                               HexNum(ByteToExe(Unsigned.done(memHigh.copy))+ByteToExe(Unsigned.done(memLow.copy)), defaultMode)
@@ -1549,17 +1559,17 @@ public class Assembler {
                  isFirst=false;  
                }    
              }
-           carets.add(start, str.length(), memLow, Type.WORD);
+           ctx.carets.add(start, str.length(), memLow, Type.WORD);
            
            
-           if (list.size()>=2) str.append(", ");
+           if (ctx.list.size()>=2) str.append(", ");
            else {
              if (memHigh.dasmLocation==null && memHigh.userLocation==null) {
-               str.append(getDataCSpacesTabs(str.length()-pos1-getDataSpacesTabs().length()));
-               MemoryDasm tmp=lastMem;
-               lastMem=memHigh;
-               aComment.flush(str);  
-               lastMem=tmp;
+               str.append(getDataCSpacesTabs(ctx, str.length()-pos1-getDataSpacesTabs(ctx).length()));
+               MemoryDasm tmp=ctx.lastMem;
+               ctx.lastMem=memHigh;
+               ctx.aComment.flush(ctx, str);  
+               ctx.lastMem=tmp;
              } else str.append("\n");            
            }
            
@@ -1571,25 +1581,27 @@ public class Assembler {
       /**
        * Put a value to the stream
        * 
+       * @param ctx the emit context
        * @param str the otput stream
        * @param mem the memory dasm
        * @param option the option to use
        */
       @Override
-      public void putValue(StringBuilder str, MemoryDasm mem, Option option) {        
+      public void putValue(EmitContext ctx, StringBuilder str, MemoryDasm mem, Option option) {        
         // look if it is time to aggregate data
-        if (list.size()==option.maxWordAggregate*2) flush(str);   
+        if (ctx.list.size()==option.maxWordAggregate*2) flush(ctx, str);   
        
         if (mem.dasmLocation==null && mem.userLocation==null) {
           // look for comment inside
-          String comment=lastMem.dasmComment;
-          if (lastMem.userComment != null) comment=lastMem.userComment;        
-          if (!(comment==null || "".equals(comment))) flush(str);  
+          String comment=ctx.lastMem.dasmComment;
+          if (ctx.lastMem.userComment != null) comment=ctx.lastMem.userComment;        
+          if (!(comment==null || "".equals(comment))) flush(ctx, str);  
         }
       }
      
      /**
       * Get location (positive)
+      * @param ctx the emit context
       * @param mem the memory location
       * @param memBase the base memory location
       * @param memDest the destination memory location
@@ -1598,8 +1610,8 @@ public class Assembler {
       * @param pos the offset position
       * @return the location
       */
-     private String getLocationPos(MemoryDasm mem, MemoryDasm memBase, MemoryDasm memDest, MemoryDasm memRel, int rel, int pos) {
-        boolean defaultMode=(aWord!=DW_WORD_H);
+     private String getLocationPos(EmitContext ctx, MemoryDasm mem, MemoryDasm memBase, MemoryDasm memDest, MemoryDasm memRel, int rel, int pos) {
+        boolean defaultMode=(ctx.aWord!=DW_WORD_H);
        
         if (mem.relatedAddressBase+mem.relatedAddressDest !=0) {          
           String base;
@@ -1626,6 +1638,7 @@ public class Assembler {
      /**
       * Get location (negative)
       * 
+      * @param ctx the emit context
       * @param mem the memory location
       * @param memBase the base memory location
       * @param memDest the destination memory location
@@ -1634,8 +1647,8 @@ public class Assembler {
       * @param pos the offset position
       * @return the location
       */
-     private String getLocationNeg(MemoryDasm mem, MemoryDasm memBase, MemoryDasm memDest, MemoryDasm memRel, int rel, int pos) {
-       boolean defaultMode=(aWord!=DW_WORD_H);
+     private String getLocationNeg(EmitContext ctx, MemoryDasm mem, MemoryDasm memBase, MemoryDasm memDest, MemoryDasm memRel, int rel, int pos) {
+       boolean defaultMode=(ctx.aWord!=DW_WORD_H);
        
        if (mem.relatedAddressBase+mem.relatedAddressDest !=0) {
           String base;
@@ -1662,14 +1675,15 @@ public class Assembler {
      /**
       * Get the location
       * 
+      * @param ctx the emit context
       * @param mem the memory location
       * @param memBase the base memory location
       * @param memDest the destination memory location
       * @param memRel the memory relative location
       * @return the location
       */
-     private String getLocation(MemoryDasm mem, MemoryDasm memBase, MemoryDasm memDest, MemoryDasm memRel) {
-        boolean defaultMode=(aWord!=DW_WORD_H);
+     private String getLocation(EmitContext ctx, MemoryDasm mem, MemoryDasm memBase, MemoryDasm memDest, MemoryDasm memRel) {
+        boolean defaultMode=(ctx.aWord!=DW_WORD_H);
         
         if (mem.relatedAddressBase+mem.relatedAddressDest !=0) {
           String base;
@@ -1711,8 +1725,8 @@ public class Assembler {
         ;
 
      @Override
-     public void flush(StringBuilder str) {
-       if (list.isEmpty()) return; 
+     public void flush(EmitContext ctx, StringBuilder str) {
+       if (ctx.list.isEmpty()) return; 
        
        MemoryDasm memLow;
        MemoryDasm memHigh;
@@ -1720,31 +1734,31 @@ public class Assembler {
        MemoryDasm memRelHigh;
        
        // we have a min of 1 or a max of 8 word swapped, so use the right call for macro
-       int index=(int)(list.size()/2);
+       int index=(int)(ctx.list.size()/2);
        
        int pos1=str.length();      // store initial position
        int start=pos1;
         
        // create starting command according to the kind of byte
-       switch (aWordSwapped) {
+       switch (ctx.aWordSwapped) {
          case DC_DOT_S_WORD_SWAPPED:
-           str.append(getDataSpacesTabs()).append("dc.s ");  
+           str.append(getDataSpacesTabs(ctx)).append("dc.s ");  
            break;
          case DOT_DTYB:
-           str.append(getDataSpacesTabs()).append(".dtyb ");  
+           str.append(getDataSpacesTabs(ctx)).append(".dtyb ");  
            break;           
          case MACRO1_WORD_SWAPPED:
-           str.append(getDataSpacesTabs()).append("Swapped").append(index).append("(");   // must close the )
+           str.append(getDataSpacesTabs(ctx)).append("Swapped").append(index).append("(");   // must close the )
            break;
          case MACRO2_WORD_SWAPPED:
-           str.append(getDataSpacesTabs()).append("+Swapped").append(index).append(" ");  
+           str.append(getDataSpacesTabs(ctx)).append("+Swapped").append(index).append(" ");  
            break;
          case MACRO4_WORD_SWAPPED:
-           str.append(getDataSpacesTabs()).append("#Swapped").append(index).append(" ");    
+           str.append(getDataSpacesTabs(ctx)).append("#Swapped").append(index).append(" ");    
            break;
          case MACRO5_WORD_SWAPPED:
          case MACRO6_WORD_SWAPPED:  
-           str.append(getDataSpacesTabs()).append("Swapped").append(index).append(" ");    
+           str.append(getDataSpacesTabs(ctx)).append("Swapped").append(index).append(" ");    
            break;   
        }
        
@@ -1752,29 +1766,29 @@ public class Assembler {
        boolean isFirst=true;       // true if this is the first output
        
        // we use byte, so check for his default mode
-       boolean defaultMode=(aByte!=DB_BYTE_H);  
+       boolean defaultMode=(ctx.aByte!=DB_BYTE_H);  
        
-       while (!list.isEmpty()) {
+       while (!ctx.list.isEmpty()) {
          // if only 1 byte left, use byte coding
-         if (list.size()==1) {
+         if (ctx.list.size()==1) {
            if (isFirst) {
              str.replace(pos1, pos2, "");
              isFirst=false;                    
            }  
-           aByte.flush(str);
+           ctx.aByte.flush(ctx, str);
          }
          else {
-           memLow=list.pop();
-           memRelLow=listRel.pop();
-           listRel2.pop();
-           listBase.pop();
-           listDest.pop();
+           memLow=ctx.list.pop();
+           memRelLow=ctx.listRel.pop();
+           ctx.listRel2.pop();
+           ctx.listBase.pop();
+           ctx.listDest.pop();
            
-           memHigh=list.pop();
-           memRelHigh=listRel.pop();  
-           listRel2.pop();
-           listBase.pop();
-           listDest.pop();
+           memHigh=ctx.list.pop();
+           memRelHigh=ctx.listRel.pop();  
+           ctx.listRel2.pop();
+           ctx.listBase.pop();
+           ctx.listDest.pop();
                      
            if ((
                  ((memLow.type==TYPE_MINOR || memLow.type==TYPE_PLUS_MINOR) && 
@@ -1802,22 +1816,22 @@ public class Assembler {
                  memHigh.type==TYPE_PLUS_MINOR || 
                  memHigh.type==TYPE_MINUS_MAJOR || 
                  memHigh.type==TYPE_MINUS_MINOR)  {
-               list.addFirst(memHigh);
-               list.addFirst(memLow);
-               listRel.addFirst(memRelHigh);
-               listRel.addFirst(memRelLow);
-               listRel2.addFirst(null);
-               listRel2.addFirst(null);
-               listBase.addFirst(null);
-               listBase.addFirst(null);
-               listDest.addFirst(null);
-               listDest.addFirst(null);
+               ctx.list.addFirst(memHigh);
+               ctx.list.addFirst(memLow);
+               ctx.listRel.addFirst(memRelHigh);
+               ctx.listRel.addFirst(memRelLow);
+               ctx.listRel2.addFirst(null);
+               ctx.listRel2.addFirst(null);
+               ctx.listBase.addFirst(null);
+               ctx.listBase.addFirst(null);
+               ctx.listDest.addFirst(null);
+               ctx.listDest.addFirst(null);
                
                if (isFirst) {
                  str.replace(pos1, pos2, "");
                  isFirst=false;
                }
-               aByte.flush(str);
+               ctx.aByte.flush(ctx, str);
              }
              else {
                str.append(HexNum(ByteToExe(Unsigned.done(memLow.copy))+ByteToExe(Unsigned.done(memHigh.copy)), defaultMode));
@@ -1825,17 +1839,17 @@ public class Assembler {
              }                            
            }
            
-           carets.add(start, str.length(), memLow, Type.WORD_SWAPPED);
+           ctx.carets.add(start, str.length(), memLow, Type.WORD_SWAPPED);
            
-           if (list.size()>=2) str.append(", ");           
+           if (ctx.list.size()>=2) str.append(", ");           
            else {
             if (memHigh.dasmLocation==null && memHigh.userLocation==null) {
-              str.append(getDataCSpacesTabs(str.length()-pos1-getDataSpacesTabs().length()));
-              MemoryDasm tmp=lastMem;
-              lastMem=memHigh;
-              aComment.flush(str);  
-              lastMem=tmp;
-            } else if (aWordSwapped==MACRO1_WORD_SWAPPED) str.append(")\n");
+              str.append(getDataCSpacesTabs(ctx, str.length()-pos1-getDataSpacesTabs(ctx).length()));
+              MemoryDasm tmp=ctx.lastMem;
+              ctx.lastMem=memHigh;
+              ctx.aComment.flush(ctx, str);  
+              ctx.lastMem=tmp;
+            } else if (ctx.aWordSwapped==MACRO1_WORD_SWAPPED) str.append(")\n");
                    else str.append("\n");   
             
             start=str.length();
@@ -1847,29 +1861,30 @@ public class Assembler {
     /**
      * Put a value to the stream
      * 
+     * @param ctx the emit context
      * @param str the otput stream
      * @param mem the memory dasm
      * @param option the option to use
      */
     @Override
-    public void putValue(StringBuilder str, MemoryDasm mem, Option option) {
+    public void putValue(EmitContext ctx, StringBuilder str, MemoryDasm mem, Option option) {
              // look if it is time to aggregate data
-       if (list.size()==option.maxSwappedAggregate*2) flush(str);   
+       if (ctx.list.size()==option.maxSwappedAggregate*2) flush(ctx, str);   
        
        if (mem.dasmLocation==null && mem.userLocation==null) {
          // look for comment inside
-         String comment=lastMem.dasmComment;
-         if (lastMem.userComment != null) comment=lastMem.userComment;        
-         if (!(comment==null || "".equals(comment))) flush(str);  
+         String comment=ctx.lastMem.dasmComment;
+         if (ctx.lastMem.userComment != null) comment=ctx.lastMem.userComment;        
+         if (!(comment==null || "".equals(comment))) flush(ctx, str);  
        }
     }     
 
     
      @Override
-     public void setting(StringBuilder str) {
-       String spaces=getDataSpacesTabs(); 
+     public void setting(EmitContext ctx, StringBuilder str) {
+       String spaces=getDataSpacesTabs(ctx); 
          
-       switch (aWordSwapped) {
+       switch (ctx.aWordSwapped) {
          case MACRO1_WORD_SWAPPED:
            str.append(spaces).append(".macro Swapped1 (twobyte) {\n")
               .append(spaces).append("   .byte twobyte & 255, ( twobyte >> 8) & 255\n")
@@ -2161,11 +2176,11 @@ public class Assembler {
      MARK_TWENTYFOUR_TRIBYTE   //     !24 $xxyyzz
      ;
      @Override
-     public void flush(StringBuilder str) {
-       if (list.isEmpty()) return; 
+     public void flush(EmitContext ctx, StringBuilder str) {
+       if (ctx.list.isEmpty()) return; 
        
-       if (list.size()<=2) {
-         aByte.flush(str);
+       if (ctx.list.size()<=2) {
+         ctx.aByte.flush(ctx, str);
          return;
        }
        
@@ -2174,45 +2189,45 @@ public class Assembler {
        
        MemoryDasm mem;
        
-       Iterator<MemoryDasm> iter=list.iterator();
+       Iterator<MemoryDasm> iter=ctx.list.iterator();
        while (iter.hasNext()) {
          mem=iter.next();
          // we cannot handle memory reference inside tribyte
          if (mem.type==TYPE_MINOR || mem.type==TYPE_MAJOR || 
              mem.type==TYPE_PLUS_MAJOR || mem.type==TYPE_PLUS_MINOR) {
            // force all to be as byte even if this breaks layout
-           aByte.flush(str);
+           ctx.aByte.flush(ctx, str);
            return;
          }
        }              
        
        // we have a min of 1 or a max of 8 tribyte, so use the right call for macro
-       int index=(int)(list.size()/3);
+       int index=(int)(ctx.list.size()/3);
         
        // create starting command according to the kind of byte
-       switch (aTribyte) {
+       switch (ctx.aTribyte) {
          case MACRO_TRIBYTE:
          case MACRO3_TRIBYTE:    
-           str.append(getDataSpacesTabs()).append("Tribyte").append(index).append(" ");  
+           str.append(getDataSpacesTabs(ctx)).append("Tribyte").append(index).append(" ");  
            break;
          case MACRO1_TRIBYTE:
-           str.append(getDataSpacesTabs()).append("Tribyte").append(index).append("(");   // must close the )
+           str.append(getDataSpacesTabs(ctx)).append("Tribyte").append(index).append("(");   // must close the )
            break;           
          case MACRO4_TRIBYTE:
-           str.append(getDataSpacesTabs()).append("#Tribyte").append(index).append(" ");  
+           str.append(getDataSpacesTabs(ctx)).append("#Tribyte").append(index).append(" ");  
            break;
          case MACRO5_TRIBYTE:  
          case MACRO6_TRIBYTE:  
-           str.append(getDataSpacesTabs()).append("Tribyte").append(index).append(" ");  
+           str.append(getDataSpacesTabs(ctx)).append("Tribyte").append(index).append(" ");  
            break;          
          case DOT_LINT_TRIBYTE:
-           str.append(getDataSpacesTabs()).append((".lint "));   
+           str.append(getDataSpacesTabs(ctx)).append((".lint "));   
            break;
          case DOT_LONG_TRIBYTE:
-           str.append(getDataSpacesTabs()).append((".long "));   
+           str.append(getDataSpacesTabs(ctx)).append((".long "));   
            break;
          case MARK_TWENTYFOUR_TRIBYTE:
-           str.append(getDataSpacesTabs()).append(("!24 "));  
+           str.append(getDataSpacesTabs(ctx)).append(("!24 "));  
            break;  
        }
        
@@ -2221,33 +2236,33 @@ public class Assembler {
        MemoryDasm mem3;
        
        // we use byte, so check for his default mode
-       boolean defaultMode=(aByte!=DB_BYTE_H);  
+       boolean defaultMode=(ctx.aByte!=DB_BYTE_H);  
        
-       while (!list.isEmpty()) {
+       while (!ctx.list.isEmpty()) {
          // if only 1 or 2 bytes left, use byte coding
-         if (list.size()<=2) aByte.flush(str);
+         if (ctx.list.size()<=2) ctx.aByte.flush(ctx, str);
          else {
-           mem1=list.pop();
-           mem2=list.pop();
-           mem3=list.pop();
+           mem1=ctx.list.pop();
+           mem2=ctx.list.pop();
+           mem3=ctx.list.pop();
            
-           listRel.pop();
-           listRel.pop();
-           listRel.pop();
+           ctx.listRel.pop();
+           ctx.listRel.pop();
+           ctx.listRel.pop();
            
-           listRel2.pop();
-           listRel2.pop();
-           listRel2.pop();
+           ctx.listRel2.pop();
+           ctx.listRel2.pop();
+           ctx.listRel2.pop();
            
-           listBase.pop();
-           listBase.pop();
-           listBase.pop();
+           ctx.listBase.pop();
+           ctx.listBase.pop();
+           ctx.listBase.pop();
            
-           listDest.pop();
-           listDest.pop();
-           listDest.pop();
+           ctx.listDest.pop();
+           ctx.listDest.pop();
+           ctx.listDest.pop();
            
-           if (aTribyte==DOT_LINT_TRIBYTE && mem1.copy<0) {
+           if (ctx.aTribyte==DOT_LINT_TRIBYTE && mem1.copy<0) {
               str.append("-").append(
                   HexNum(ByteToExe(Math.abs(mem1.copy))+
                          ByteToExe(Unsigned.done(mem2.copy))+
@@ -2261,17 +2276,17 @@ public class Assembler {
                   );        
            }
            
-           carets.add(start, str.length(), mem1, Type.TRIBYTE);
+           ctx.carets.add(start, str.length(), mem1, Type.TRIBYTE);
            
-           if (list.size()>=3) str.append(", ");
+           if (ctx.list.size()>=3) str.append(", ");
            else {
             if (mem3.dasmLocation==null && mem3.userLocation==null) {
-              str.append(getDataCSpacesTabs(str.length()-initial-getDataSpacesTabs().length()));
-              MemoryDasm tmp=lastMem;
-              lastMem=mem3;
-              aComment.flush(str);  
-              lastMem=tmp;
-            } else if (aTribyte==MACRO1_TRIBYTE) str.append(")\n");
+              str.append(getDataCSpacesTabs(ctx, str.length()-initial-getDataSpacesTabs(ctx).length()));
+              MemoryDasm tmp=ctx.lastMem;
+              ctx.lastMem=mem3;
+              ctx.aComment.flush(ctx, str);  
+              ctx.lastMem=tmp;
+            } else if (ctx.aTribyte==MACRO1_TRIBYTE) str.append(")\n");
                 else str.append("\n");       
            }  
            
@@ -2283,33 +2298,35 @@ public class Assembler {
      /**
      * Put a value to the stream
      * 
+     * @param ctx the emit context
      * @param str the otput stream
      * @param mem the memory dasm
      * @param option the option to use
      */
     @Override
-    public void putValue(StringBuilder str, MemoryDasm mem, Option option) {
+    public void putValue(EmitContext ctx, StringBuilder str, MemoryDasm mem, Option option) {
       // look if it is time to aggregate data
-      if (list.size()==option.maxTribyteAggregate*3) flush(str);        
+      if (ctx.list.size()==option.maxTribyteAggregate*3) flush(ctx, str);        
        
       if (mem.dasmLocation==null && mem.userLocation==null) {
         // look for comment inside
-        String comment=lastMem.dasmComment;
-        if (lastMem.userComment != null) comment=lastMem.userComment;        
-        if (!(comment==null || "".equals(comment))) flush(str);  
+        String comment=ctx.lastMem.dasmComment;
+        if (ctx.lastMem.userComment != null) comment=ctx.lastMem.userComment;        
+        if (!(comment==null || "".equals(comment))) flush(ctx, str);  
       }
     }
      
      /** 
       * Setting up the action type if this is the case
       * 
+      * @param ctx the emit context
       * @param str the output stream
       */
      @Override
-     public void setting(StringBuilder str) {
-       String spaces=getDataSpacesTabs(); 
+     public void setting(EmitContext ctx, StringBuilder str) {
+       String spaces=getDataSpacesTabs(ctx); 
        
-       switch (aTribyte) {
+       switch (ctx.aTribyte) {
          case MACRO_TRIBYTE:
            str.append(spaces).append(".mac Tribyte1 \n")
               .append(spaces).append("  .byte {1} >> 16, ( {1} >> 8) & 255,  {1} & 255\n")
@@ -2653,11 +2670,11 @@ public class Assembler {
      MACRO4_LONG           // [.mac] $xxyyzzkk  (TMPx)
         ;      
      @Override
-     public void flush(StringBuilder str) {
-       if (list.isEmpty()) return; 
+     public void flush(EmitContext ctx, StringBuilder str) {
+       if (ctx.list.isEmpty()) return; 
        
-       if (list.size()<=3) {
-         aByte.flush(str);
+       if (ctx.list.size()<=3) {
+         ctx.aByte.flush(ctx, str);
          return;
        }
        
@@ -2666,49 +2683,49 @@ public class Assembler {
        
        MemoryDasm mem;
        
-       Iterator<MemoryDasm> iter=list.iterator();
+       Iterator<MemoryDasm> iter=ctx.list.iterator();
        while (iter.hasNext()) {
          mem=iter.next();
          // we cannot handle memory reference inside long
          if (mem.type==TYPE_MINOR || mem.type==TYPE_MAJOR || 
              mem.type==TYPE_PLUS_MAJOR || mem.type==TYPE_PLUS_MINOR) {
            // force all to be as byte even if this breaks layout
-           aByte.flush(str);
+           ctx.aByte.flush(ctx, str);
            return;
          }
        }  
                     
-       switch (aLong) {
+       switch (ctx.aLong) {
          case LONG:
-           str.append(getDataSpacesTabs()).append("long ");  
+           str.append(getDataSpacesTabs(ctx)).append("long ");  
            break;             
          case DOT_LONG:
-           str.append(getDataSpacesTabs()).append(".long ");   
+           str.append(getDataSpacesTabs(ctx)).append(".long ");   
            break;    
          case DOT_DC_L_LONG:
-           str.append(getDataSpacesTabs()).append(".dc.l ");   
+           str.append(getDataSpacesTabs(ctx)).append(".dc.l ");   
            break;  
          case DOT_DWORD_LONG:
-           str.append(getDataSpacesTabs()).append(".dword ");  
+           str.append(getDataSpacesTabs(ctx)).append(".dword ");  
            break;  
          case DOT_DW_LONG:
-           str.append(getDataSpacesTabs()).append(".dw ");  
+           str.append(getDataSpacesTabs(ctx)).append(".dw ");  
            break;    
          case DOT_DLINT_LONG:
-           str.append(getDataSpacesTabs()).append(".dlint ");  
+           str.append(getDataSpacesTabs(ctx)).append(".dlint ");  
            break;        
          case DD_LONG:
          case DD_LONG_H:
-           str.append(getDataSpacesTabs()).append("dd ");  
+           str.append(getDataSpacesTabs(ctx)).append("dd ");  
            break;   
          case MARK_THIRTYTWO_LONG:
-           str.append(getDataSpacesTabs()).append("!32 ");  
+           str.append(getDataSpacesTabs(ctx)).append("!32 ");  
            break;                                  
          case MACRO4_LONG: 
            // we have a min of 1 or a max of 8 tribyte, so use the right call for macro
-           int index=(int)(list.size()/4);
+           int index=(int)(ctx.list.size()/4);
         
-           str.append(getDataSpacesTabs()).append("#Long").append(index).append(" ");  
+           str.append(getDataSpacesTabs(ctx)).append("#Long").append(index).append(" ");  
            break;  
        }
         
@@ -2717,38 +2734,38 @@ public class Assembler {
        MemoryDasm mem3;
        MemoryDasm mem4;
        
-       while (!list.isEmpty()) {
+       while (!ctx.list.isEmpty()) {
          // if only 1..3 bytes left, use byte coding
-         if (list.size()<=3) aByte.flush(str);
+         if (ctx.list.size()<=3) ctx.aByte.flush(ctx, str);
          else {
-           mem1=list.pop();
-           mem2=list.pop();
-           mem3=list.pop();
-           mem4=list.pop();
+           mem1=ctx.list.pop();
+           mem2=ctx.list.pop();
+           mem3=ctx.list.pop();
+           mem4=ctx.list.pop();
            
-           listRel.pop();
-           listRel.pop();
-           listRel.pop();
-           listRel.pop();
+           ctx.listRel.pop();
+           ctx.listRel.pop();
+           ctx.listRel.pop();
+           ctx.listRel.pop();
            
-           listRel2.pop();
-           listRel2.pop();
-           listRel2.pop();
-           listRel2.pop();
+           ctx.listRel2.pop();
+           ctx.listRel2.pop();
+           ctx.listRel2.pop();
+           ctx.listRel2.pop();
            
-           listBase.pop();
-           listBase.pop();
-           listBase.pop();
-           listBase.pop();
+           ctx.listBase.pop();
+           ctx.listBase.pop();
+           ctx.listBase.pop();
+           ctx.listBase.pop();
            
-           listDest.pop();
-           listDest.pop();
-           listDest.pop();
-           listDest.pop();
+           ctx.listDest.pop();
+           ctx.listDest.pop();
+           ctx.listDest.pop();
+           ctx.listDest.pop();
            
-           boolean defaultMode=(aLong!=DD_LONG_H);
+           boolean defaultMode=(ctx.aLong!=DD_LONG_H);
            
-           if (aLong==DOT_DLINT_LONG && mem1.copy<0) {
+           if (ctx.aLong==DOT_DLINT_LONG && mem1.copy<0) {
               str.append("-").append(
                                 HexNum(
                                   ByteToExe(Math.abs(mem1.copy))+
@@ -2766,16 +2783,16 @@ public class Assembler {
                          );
            }
            
-           carets.add(start, str.length(), mem1, Type.LONG);
+           ctx.carets.add(start, str.length(), mem1, Type.LONG);
            
-           if (list.size()>=4) str.append(", ");
+           if (ctx.list.size()>=4) str.append(", ");
            else {
              if (mem4.dasmLocation==null && mem4.userLocation==null) {
-               str.append(getDataCSpacesTabs(str.length()-initial-getDataSpacesTabs().length()));
-               MemoryDasm tmp=lastMem;
-               lastMem=mem4;
-               aComment.flush(str);  
-               lastMem=tmp;
+               str.append(getDataCSpacesTabs(ctx, str.length()-initial-getDataSpacesTabs(ctx).length()));
+               MemoryDasm tmp=ctx.lastMem;
+               ctx.lastMem=mem4;
+               ctx.aComment.flush(ctx, str);  
+               ctx.lastMem=tmp;
              } else str.append("\n");       
            }
            
@@ -2787,20 +2804,21 @@ public class Assembler {
     /**
      * Put a value to the stream
      * 
+     * @param ctx the emit context
      * @param str the otput stream
      * @param mem the memory dasm
      * @param option the option to use
      */
     @Override
-    public void putValue(StringBuilder str, MemoryDasm mem, Option option) {
+    public void putValue(EmitContext ctx, StringBuilder str, MemoryDasm mem, Option option) {
       // look if it is time to aggregate data
-      if (list.size()==option.maxLongAggregate*4) flush(str);  
+      if (ctx.list.size()==option.maxLongAggregate*4) flush(ctx, str);  
 
       if (mem.dasmLocation==null && mem.userLocation==null) {
         // look for comment inside
-        String comment=lastMem.dasmComment;
-        if (lastMem.userComment != null) comment=lastMem.userComment;        
-        if (!(comment==null || "".equals(comment))) flush(str);  
+        String comment=ctx.lastMem.dasmComment;
+        if (ctx.lastMem.userComment != null) comment=ctx.lastMem.userComment;        
+        if (!(comment==null || "".equals(comment))) flush(ctx, str);  
       }  
     }
      
@@ -2808,11 +2826,12 @@ public class Assembler {
      /** 
       * Setting up the action type if this is the case
       * 
+      * @param ctx the emit context
       * @param str the output stream
       */
      @Override
-     public void setting(StringBuilder str) {        
-       switch (aLong) {  
+     public void setting(EmitContext ctx, StringBuilder str) {        
+       switch (ctx.aLong) {  
          case MACRO4_LONG:         
            str.append(
              "Long1 .macro \n" +
@@ -2895,8 +2914,8 @@ public class Assembler {
      SIXTEEN_WORD_ADDR;        //    !16 $xxyy//    !16 $xxyy
      
      @Override
-     public void flush(StringBuilder str) {         
-       if (list.isEmpty()) return; 
+     public void flush(EmitContext ctx, StringBuilder str) {         
+       if (ctx.list.isEmpty()) return; 
        
        MemoryDasm memLow;
        MemoryDasm memHigh;
@@ -2907,59 +2926,59 @@ public class Assembler {
        int start=pos1;
        
        // create starting command according to the kind of byte
-       switch (aAddress) {
+       switch (ctx.aAddress) {
          case DOT_WORD_ADDR:
-           str.append(getDataSpacesTabs()).append((".word "));  
+           str.append(getDataSpacesTabs(ctx)).append((".word "));  
            break;
          case DOT_WO_WORD_ADDR:
-           str.append(getDataSpacesTabs()).append((".wo "));  
+           str.append(getDataSpacesTabs(ctx)).append((".wo "));  
            break;           
          case WORD_ADDR:
-           str.append(getDataSpacesTabs()).append(("word "));   
+           str.append(getDataSpacesTabs(ctx)).append(("word "));   
            break;
          case DC_W_ADDR:
-           str.append(getDataSpacesTabs()).append(("dc.w "));  
+           str.append(getDataSpacesTabs(ctx)).append(("dc.w "));  
            break;
          case DW_ADDR:
          case DW_ADDR_H:  
-           str.append(getDataSpacesTabs()).append(("dw "));  
+           str.append(getDataSpacesTabs(ctx)).append(("dw "));  
            break;  
          case DOT_ADDR_ADDR:
-           str.append(getDataSpacesTabs()).append((".addr "));   
+           str.append(getDataSpacesTabs(ctx)).append((".addr "));   
            break;
          case MARK_WORD_ADDR:
-           str.append(getDataSpacesTabs()).append(("!word "));   
+           str.append(getDataSpacesTabs(ctx)).append(("!word "));   
            break;
          case SIXTEEN_WORD_ADDR:
-           str.append(getDataSpacesTabs()).append(("!16 "));  
+           str.append(getDataSpacesTabs(ctx)).append(("!16 "));  
            break;  
        }
        
        int pos2=str.length();   // store final position
        boolean isFirst=true;       // true if this is the first output
-       boolean defaultMode=(aAddress!=DW_ADDR_H);
+       boolean defaultMode=(ctx.aAddress!=DW_ADDR_H);
        
-       while (!list.isEmpty()) {
+       while (!ctx.list.isEmpty()) {
          // if only 1 byte left, use byte coding
-         if (list.size()==1) {
+         if (ctx.list.size()==1) {
            if (isFirst) {
               str.replace(pos1, pos2, "");
               isFirst=false;                    
            }  
-           aByte.flush(str);
+           ctx.aByte.flush(ctx, str);
          }
          else {
-           memLow=list.pop();
-           memRelLow=listRel.pop();
-           listRel2.pop();
-           listBase.pop();
-           listDest.pop();
+           memLow=ctx.list.pop();
+           memRelLow=ctx.listRel.pop();
+           ctx.listRel2.pop();
+           ctx.listBase.pop();
+           ctx.listDest.pop();
            
-           memHigh=list.pop();
-           memRelHigh=listRel.pop(); 
-           listRel2.pop();
-           listBase.pop();
-           listDest.pop();
+           memHigh=ctx.list.pop();
+           memRelHigh=ctx.listRel.pop(); 
+           ctx.listRel2.pop();
+           ctx.listBase.pop();
+           ctx.listDest.pop();
            
            if ((memLow.type==TYPE_MINOR || memLow.type==TYPE_PLUS_MINOR) && 
                (memHigh.type==TYPE_MAJOR || memHigh.type==TYPE_PLUS_MAJOR) && 
@@ -2984,27 +3003,27 @@ public class Assembler {
                    memHigh.type==TYPE_MAJOR || 
                    memHigh.type==TYPE_PLUS_MAJOR || 
                    memHigh.type==TYPE_PLUS_MINOR)  {
-                 list.addFirst(memHigh);
-                 list.addFirst(memLow);
-                 listRel.addFirst(memRelHigh);
-                 listRel.addFirst(memRelLow);
-                 listRel2.addFirst(null);
-                 listRel2.addFirst(null);
-                 listBase.addFirst(null);
-                 listBase.addFirst(null);
-                 listDest.addFirst(null);
-                 listDest.addFirst(null);
+                 ctx.list.addFirst(memHigh);
+                 ctx.list.addFirst(memLow);
+                 ctx.listRel.addFirst(memRelHigh);
+                 ctx.listRel.addFirst(memRelLow);
+                 ctx.listRel2.addFirst(null);
+                 ctx.listRel2.addFirst(null);
+                 ctx.listBase.addFirst(null);
+                 ctx.listBase.addFirst(null);
+                 ctx.listDest.addFirst(null);
+                 ctx.listDest.addFirst(null);
                  
                  if (isFirst) {
                    str.replace(pos1, pos2, "");
                    isFirst=false;
                  }
-                 aByte.flush(str);
+                 ctx.aByte.flush(ctx, str);
                }
                else {
                  // look fopr constant  
                  if (memLow.index!=-1 && memHigh.index!=-1 && memLow.index==memHigh.index) {
-                   String res=constant.table[memLow.index][(memLow.copy & 0xFF) + ((memHigh.copy & 0xFF)<<8)];  
+                   String res=ctx.constant.get(memLow.index, (memLow.copy & 0xFF) + ((memHigh.copy & 0xFF)<<8));  
                    if (res!=null && !"".equals(res)) str.append(res);
                    else str.append(HexNum(ByteToExe(Unsigned.done(memHigh.copy))+ByteToExe(Unsigned.done(memLow.copy)), defaultMode));
                  } else str.append(HexNum(ByteToExe(Unsigned.done(memHigh.copy))+ByteToExe(Unsigned.done(memLow.copy)), defaultMode));                         
@@ -3012,16 +3031,16 @@ public class Assembler {
                }    
              }
            
-           carets.add(start, str.length(), memLow, Type.ADDRESS);
+           ctx.carets.add(start, str.length(), memLow, Type.ADDRESS);
            
-           if (list.size()>=2) str.append(", ");
+           if (ctx.list.size()>=2) str.append(", ");
            else {
              if (memHigh.dasmLocation==null && memHigh.userLocation==null) {
-               str.append(getDataCSpacesTabs(str.length()-pos1-getDataSpacesTabs().length()));
-               MemoryDasm tmp=lastMem;
-               lastMem=memHigh;
-               aComment.flush(str);  
-               lastMem=tmp;
+               str.append(getDataCSpacesTabs(ctx, str.length()-pos1-getDataSpacesTabs(ctx).length()));
+               MemoryDasm tmp=ctx.lastMem;
+               ctx.lastMem=memHigh;
+               ctx.aComment.flush(ctx, str);  
+               ctx.lastMem=tmp;
              } else str.append("\n");       
            }
            
@@ -3033,20 +3052,21 @@ public class Assembler {
                /**
      * Put a value to the stream
      * 
+     * @param ctx the emit context
      * @param str the otput stream
      * @param mem the memory dasm
      * @param option the option to use
      */
     @Override
-    public void putValue(StringBuilder str, MemoryDasm mem, Option option) {
+    public void putValue(EmitContext ctx, StringBuilder str, MemoryDasm mem, Option option) {
        // look if it is time to aggregate data
-       if (list.size()==option.maxAddressAggregate*2) flush(str); 
+       if (ctx.list.size()==option.maxAddressAggregate*2) flush(ctx, str); 
        
        if (mem.dasmLocation==null && mem.userLocation==null) {
          // look for comment inside
-         String comment=lastMem.dasmComment;
-         if (lastMem.userComment != null) comment=lastMem.userComment;        
-         if (!(comment==null || "".equals(comment))) flush(str);  
+         String comment=ctx.lastMem.dasmComment;
+         if (ctx.lastMem.userComment != null) comment=ctx.lastMem.userComment;        
+         if (!(comment==null || "".equals(comment))) flush(ctx, str);  
        }
     }
    }   
@@ -3083,28 +3103,28 @@ public class Assembler {
      ;      
      
       @Override
-      public void flush(StringBuilder str) {
-        if (list.isEmpty()) return; 
+      public void flush(EmitContext ctx, StringBuilder str) {
+        if (ctx.list.isEmpty()) return; 
         
         // we must receive a list of 3 or 1 final byte (if 2, uses as bytes)
-        if (list.size()>=3) {    
-          MemoryDasm mem1=list.pop(); 
-          MemoryDasm mem2=list.pop();
-          MemoryDasm mem3=list.pop(); 
+        if (ctx.list.size()>=3) {    
+          MemoryDasm mem1=ctx.list.pop(); 
+          MemoryDasm mem2=ctx.list.pop();
+          MemoryDasm mem3=ctx.list.pop(); 
           StringBuilder tmp;
           String tmpS;
            
           // add a dasm comment with pixels
-          mem3.dasmComment=BinToMono(Integer.toBinaryString((mem1.copy & 0xFF) + 0x100).substring(1))+
-                           BinToMono(Integer.toBinaryString((mem2.copy & 0xFF) + 0x100).substring(1))+
-                           BinToMono(Integer.toBinaryString((mem3.copy & 0xFF) + 0x100).substring(1));
-          lastMem=mem3;
+          mem3.dasmComment=BinToMono(ctx, Integer.toBinaryString((mem1.copy & 0xFF) + 0x100).substring(1))+
+                           BinToMono(ctx, Integer.toBinaryString((mem2.copy & 0xFF) + 0x100).substring(1))+
+                           BinToMono(ctx, Integer.toBinaryString((mem3.copy & 0xFF) + 0x100).substring(1));
+          ctx.lastMem=mem3;
           
           int initial=str.length();
           int start=initial;
           
           // now we have one row of 3 bytes
-          switch (aMonoSprite) {
+          switch (ctx.aMonoSprite) {
             case BYTE_HEX:
               mem1=mem1.clone();
               mem2=mem2.clone();
@@ -3112,12 +3132,12 @@ public class Assembler {
               mem1.dataType=DataType.BYTE_HEX;
               mem2.dataType=DataType.BYTE_HEX;
               mem3.dataType=DataType.BYTE_HEX;
-              list.push(mem3);
-              list.push(mem2);
-              list.push(mem1);
+              ctx.list.push(mem3);
+              ctx.list.push(mem2);
+              ctx.list.push(mem1);
               
               tmp=new StringBuilder();
-              aByte.flush(tmp);  
+              ctx.aByte.flush(ctx, tmp);  
               tmpS=tmp.toString();
               str.append(tmpS.substring(0, tmpS.length()-1)).append("  ");
               break;
@@ -3128,190 +3148,194 @@ public class Assembler {
               mem1.dataType=DataType.BYTE_BIN;
               mem2.dataType=DataType.BYTE_BIN;
               mem3.dataType=DataType.BYTE_BIN;
-              list.push(mem3);
-              list.push(mem2);
-              list.push(mem1);
+              ctx.list.push(mem3);
+              ctx.list.push(mem2);
+              ctx.list.push(mem1);
               
               tmp=new StringBuilder();
-              aByte.flush(tmp); 
+              ctx.aByte.flush(ctx, tmp); 
               tmpS=tmp.toString();
               str.append(tmpS.substring(0, tmpS.length()-1)).append("  ");
               break;
             case TWENTYFOUR_HEX:
-              str.append(getDataSpacesTabs()).append("!24 $")
+              str.append(getDataSpacesTabs(ctx)).append("!24 $")
                  .append(ByteToExe(Unsigned.done(mem1.copy)))
                  .append(ByteToExe(Unsigned.done(mem2.copy)))
                  .append(ByteToExe(Unsigned.done(mem3.copy)))
                  .append("  ");
-              emptyPop();
+              emptyPop(ctx);
               break;
             case TWENTYFOUR_BIN:
-              str.append(getDataSpacesTabs()).append("!24 %")
+              str.append(getDataSpacesTabs(ctx)).append("!24 %")
                  .append(Integer.toBinaryString((mem1.copy & 0xFF) + 0x100).substring(1))
                  .append(Integer.toBinaryString((mem2.copy & 0xFF) + 0x100).substring(1))        
                  .append(Integer.toBinaryString((mem3.copy & 0xFF) + 0x100).substring(1))
                  .append("  ");
-              emptyPop();
+              emptyPop(ctx);
               break;                
             case MACRO_HEX:
             case MACRO3_HEX: 
             case MACRO5_HEX:
             case MACRO6_HEX:  
-              str.append(getDataSpacesTabs())
+              str.append(getDataSpacesTabs(ctx))
                  .append("MonoSpriteLine $")
                  .append(ByteToExe(Unsigned.done(mem1.copy)))
                  .append(ByteToExe(Unsigned.done(mem2.copy)))
                  .append(ByteToExe(Unsigned.done(mem3.copy)))
                  .append("  ");
-              emptyPop();
+              emptyPop(ctx);
               break;
             case MACRO_BIN:
             case MACRO3_BIN:
             case MACRO5_BIN:  
             case MACRO6_BIN:   
-              str.append(getDataSpacesTabs())
+              str.append(getDataSpacesTabs(ctx))
                  .append("MonoSpriteLine %")
                  .append(Integer.toBinaryString((mem1.copy & 0xFF) + 0x100).substring(1))
                  .append(Integer.toBinaryString((mem2.copy & 0xFF) + 0x100).substring(1))        
                  .append(Integer.toBinaryString((mem3.copy & 0xFF) + 0x100).substring(1))
                  .append("  ");
-              emptyPop();
+              emptyPop(ctx);
               break;  
             case MACRO1_HEX:
-              str.append(getDataSpacesTabs())
-                 .append((option.kickColonMacro ? ":":""))
+              str.append(getDataSpacesTabs(ctx))
+                 .append((ctx.option.kickColonMacro ? ":":""))
                  .append("MonoSpriteLine($")
                  .append(ByteToExe(Unsigned.done(mem1.copy)))
                  .append(ByteToExe(Unsigned.done(mem2.copy)))
                  .append(ByteToExe(Unsigned.done(mem3.copy)))
                  .append(")  ");
-              emptyPop();
+              emptyPop(ctx);
               break;
             case MACRO1_BIN:
-              str.append(getDataSpacesTabs())
-                 .append((option.kickColonMacro ? ":":""))     
+              str.append(getDataSpacesTabs(ctx))
+                 .append((ctx.option.kickColonMacro ? ":":""))     
                  .append("MonoSpriteLine(%")
                  .append(Integer.toBinaryString((mem1.copy & 0xFF) + 0x100).substring(1))
                  .append(Integer.toBinaryString((mem2.copy & 0xFF) + 0x100).substring(1))        
                  .append(Integer.toBinaryString((mem3.copy & 0xFF) + 0x100).substring(1))
                  .append(")  ");
-              emptyPop();
+              emptyPop(ctx);
               break; 
             case MACRO2_HEX:
-              str.append(getDataSpacesTabs()).append("+MonoSpriteLine $")
+              str.append(getDataSpacesTabs(ctx)).append("+MonoSpriteLine $")
                  .append(ByteToExe(Unsigned.done(mem1.copy)))
                  .append(ByteToExe(Unsigned.done(mem2.copy)))
                  .append(ByteToExe(Unsigned.done(mem3.copy)))
                  .append("  ");
-              emptyPop();
+              emptyPop(ctx);
               break;
             case MACRO2_BIN:
-              str.append(getDataSpacesTabs()).append("+MonoSpriteLine %")
+              str.append(getDataSpacesTabs(ctx)).append("+MonoSpriteLine %")
                  .append(Integer.toBinaryString((mem1.copy & 0xFF) + 0x100).substring(1))
                  .append(Integer.toBinaryString((mem2.copy & 0xFF) + 0x100).substring(1))        
                  .append(Integer.toBinaryString((mem3.copy & 0xFF) + 0x100).substring(1))
                  .append("  ");
-              emptyPop();
+              emptyPop(ctx);
               break;    
             case MACRO4_HEX:
-              str.append(getDataSpacesTabs()).append("#MonoSpriteLine $")
+              str.append(getDataSpacesTabs(ctx)).append("#MonoSpriteLine $")
                  .append(ByteToExe(Unsigned.done(mem1.copy)))
                  .append(ByteToExe(Unsigned.done(mem2.copy)))
                  .append(ByteToExe(Unsigned.done(mem3.copy)))
                  .append("  ");
-              emptyPop();
+              emptyPop(ctx);
               break;
             case MACRO4_BIN:
-              str.append(getDataSpacesTabs()).append("#MonoSpriteLine %")
+              str.append(getDataSpacesTabs(ctx)).append("#MonoSpriteLine %")
                  .append(Integer.toBinaryString((mem1.copy & 0xFF) + 0x100).substring(1))
                  .append(Integer.toBinaryString((mem2.copy & 0xFF) + 0x100).substring(1))        
                  .append(Integer.toBinaryString((mem3.copy & 0xFF) + 0x100).substring(1))
                  .append("  ");
-              emptyPop();
+              emptyPop(ctx);
               break;               
             }
-          carets.add(start, str.length(), mem1, Type.MONO_SPRITE);
+          ctx.carets.add(start, str.length(), mem1, Type.MONO_SPRITE);
           ///start=str.length();
           
-          str.append(getDataCSpacesTabs(str.length()-initial-getDataSpacesTabs().length()));
+          str.append(getDataCSpacesTabs(ctx, str.length()-initial-getDataSpacesTabs(ctx).length()));
           // flush comment only for macro as byte flush it itself
-          if (aMonoSprite!=BYTE_HEX && aMonoSprite!=BYTE_BIN) aComment.flush(str);
+          if (ctx.aMonoSprite!=BYTE_HEX && ctx.aMonoSprite!=BYTE_BIN) ctx.aComment.flush(ctx, str);
           else str.append("\n");
           
         } else {
             // force to be as byte
-            aByte.flush(str);
+            ctx.aByte.flush(ctx, str);
           }            
       }   
       
       /**
        * Put a value to the stream
        * 
+       * @param ctx the emit context
        * @param str the otput stream
        * @param mem the memory dasm
        * @param option the option to use
        */
       @Override
-      public void putValue(StringBuilder str, MemoryDasm mem, Option option) {
-         if ((sizeMonoSpriteBlock % 3)==0) flush(str);
-         else if (sizeMonoSpriteBlock>=64) {
-           flush(str);
-           sizeMonoSpriteBlock=0;
+      public void putValue(EmitContext ctx, StringBuilder str, MemoryDasm mem, Option option) {
+         if ((ctx.sizeMonoSpriteBlock % 3)==0) flush(ctx, str);
+         else if (ctx.sizeMonoSpriteBlock>=64) {
+           flush(ctx, str);
+           ctx.sizeMonoSpriteBlock=0;
          }
       }      
       
       /**
        * Empty pop to have stack corrected
+       * 
+       * @param ctx the emit context
        */
-      private void emptyPop() {
-        listRel.pop();
-        listRel.pop();
-        listRel.pop();
+      private void emptyPop(EmitContext ctx) {
+        ctx.listRel.pop();
+        ctx.listRel.pop();
+        ctx.listRel.pop();
               
-        listRel2.pop();
-        listRel2.pop();
-        listRel2.pop();
+        ctx.listRel2.pop();
+        ctx.listRel2.pop();
+        ctx.listRel2.pop();
               
-        listBase.pop();
-        listBase.pop();
-        listBase.pop();
+        ctx.listBase.pop();
+        ctx.listBase.pop();
+        ctx.listBase.pop();
               
-        listDest.pop();
-        listDest.pop();
-        listDest.pop();
+        ctx.listDest.pop();
+        ctx.listDest.pop();
+        ctx.listDest.pop();
       }
       
      /** 
       * Setting up the action type if this is the case
       * 
+      * @param ctx the emit context
       * @param str the output stream
       */
      @Override
-     public void setting(StringBuilder str) {
-       switch (aMonoSprite) {
+     public void setting(EmitContext ctx, StringBuilder str) {
+       switch (ctx.aMonoSprite) {
          case MACRO_HEX:
          case MACRO_BIN:
-           str.append(getDataSpacesTabs()).append(".mac MonoSpriteLine \n")
-              .append(getDataSpacesTabs()).append("  .byte {1} >> 16, ( {1} >> 8) & 255,  {1} & 255\n")
-              .append(getDataSpacesTabs()).append(".endm \n\n");          
+           str.append(getDataSpacesTabs(ctx)).append(".mac MonoSpriteLine \n")
+              .append(getDataSpacesTabs(ctx)).append("  .byte {1} >> 16, ( {1} >> 8) & 255,  {1} & 255\n")
+              .append(getDataSpacesTabs(ctx)).append(".endm \n\n");          
            break;
          case MACRO1_HEX:
          case MACRO1_BIN:
-           str.append(getDataSpacesTabs()).append(".macro MonoSpriteLine (tribyte) {\n")
-              .append(getDataSpacesTabs()).append("  .byte tribyte >> 16, ( tribyte >> 8) & 255,  tribyte & 255\n")
-              .append(getDataSpacesTabs()).append("}\n\n");
+           str.append(getDataSpacesTabs(ctx)).append(".macro MonoSpriteLine (tribyte) {\n")
+              .append(getDataSpacesTabs(ctx)).append("  .byte tribyte >> 16, ( tribyte >> 8) & 255,  tribyte & 255\n")
+              .append(getDataSpacesTabs(ctx)).append("}\n\n");
            break;  
          case MACRO2_HEX:
          case MACRO2_BIN:
-           str.append(getDataSpacesTabs()).append("!macro MonoSpriteLine tribyte {\n")
-              .append(getDataSpacesTabs()).append("  !byte tribyte >> 16, ( tribyte >> 8) & 255,  tribyte & 255\n")
-              .append(getDataSpacesTabs()).append("}\n\n");               
+           str.append(getDataSpacesTabs(ctx)).append("!macro MonoSpriteLine tribyte {\n")
+              .append(getDataSpacesTabs(ctx)).append("  !byte tribyte >> 16, ( tribyte >> 8) & 255,  tribyte & 255\n")
+              .append(getDataSpacesTabs(ctx)).append("}\n\n");               
            break; 
          case MACRO3_HEX:
          case MACRO3_BIN:
-           str.append(getDataSpacesTabs()).append(".macro MonoSpriteLine tribyte \n")
-              .append(getDataSpacesTabs()).append("  .byte tribyte >> 16, ( tribyte >> 8) & 255,  tribyte & 255\n")
-              .append(getDataSpacesTabs()).append(".endmacro\n\n");                         
+           str.append(getDataSpacesTabs(ctx)).append(".macro MonoSpriteLine tribyte \n")
+              .append(getDataSpacesTabs(ctx)).append("  .byte tribyte >> 16, ( tribyte >> 8) & 255,  tribyte & 255\n")
+              .append(getDataSpacesTabs(ctx)).append(".endmacro\n\n");                         
            break;    
          case MACRO4_HEX:
          case MACRO4_BIN:
@@ -3323,15 +3347,15 @@ public class Assembler {
            break;  
          case MACRO5_HEX:  
          case MACRO5_BIN:          
-           str.append(getDataSpacesTabs()).append("MonoSpriteLine: macro ?tribyte \n")
-              .append(getDataSpacesTabs()).append(" db ?tribyte >> 16, ( ?tribyte >> 8) & 255,  ?tribyte & 255\n")
-              .append(getDataSpacesTabs()).append("endm\n\n");                         
+           str.append(getDataSpacesTabs(ctx)).append("MonoSpriteLine: macro ?tribyte \n")
+              .append(getDataSpacesTabs(ctx)).append(" db ?tribyte >> 16, ( ?tribyte >> 8) & 255,  ?tribyte & 255\n")
+              .append(getDataSpacesTabs(ctx)).append("endm\n\n");                         
            break;   
          case MACRO6_HEX:  
          case MACRO6_BIN:          
-           str.append(getDataSpacesTabs()).append("MonoSpriteLine: macro tribyte \n")
-              .append(getDataSpacesTabs()).append(" db tribyte >> 16, ( tribyte >> 8) & 255,  tribyte & 255\n")
-              .append(getDataSpacesTabs()).append("endm\n\n");                         
+           str.append(getDataSpacesTabs(ctx)).append("MonoSpriteLine: macro tribyte \n")
+              .append(getDataSpacesTabs(ctx)).append(" db tribyte >> 16, ( tribyte >> 8) & 255,  tribyte & 255\n")
+              .append(getDataSpacesTabs(ctx)).append("endm\n\n");                         
            break;           
        }
      };
@@ -3370,28 +3394,28 @@ public class Assembler {
      MACRO6_BIN,    // [.macro] %b..  (AS)    
      ;      
      @Override
-     public void flush(StringBuilder str) {
-        if (list.isEmpty()) return; 
+     public void flush(EmitContext ctx, StringBuilder str) {
+        if (ctx.list.isEmpty()) return; 
         
         // we must receive a list of 3 or 1 final byte (if 2, uses as bytes)
-        if (list.size()>=3) {    
-          MemoryDasm mem1=list.pop(); 
-          MemoryDasm mem2=list.pop();
-          MemoryDasm mem3=list.pop(); 
+        if (ctx.list.size()>=3) {    
+          MemoryDasm mem1=ctx.list.pop(); 
+          MemoryDasm mem2=ctx.list.pop();
+          MemoryDasm mem3=ctx.list.pop(); 
           StringBuilder tmp;
           String tmpS;
            
           // add a dasm comment with pixels
-          mem3.dasmComment=BinToMulti(Integer.toBinaryString((mem1.copy & 0xFF) + 0x100).substring(1))+
-                           BinToMulti(Integer.toBinaryString((mem2.copy & 0xFF) + 0x100).substring(1))+
-                           BinToMulti(Integer.toBinaryString((mem3.copy & 0xFF) + 0x100).substring(1));
-          lastMem=mem3;
+          mem3.dasmComment=BinToMulti(ctx, Integer.toBinaryString((mem1.copy & 0xFF) + 0x100).substring(1))+
+                           BinToMulti(ctx, Integer.toBinaryString((mem2.copy & 0xFF) + 0x100).substring(1))+
+                           BinToMulti(ctx, Integer.toBinaryString((mem3.copy & 0xFF) + 0x100).substring(1));
+          ctx.lastMem=mem3;
           
           int initial=str.length();
           int start=initial;
           
           // now we have one row of 3 bytes
-          switch (aMultiSprite) {
+          switch (ctx.aMultiSprite) {
             case BYTE_HEX:
               mem1=mem1.clone();
               mem2=mem2.clone();
@@ -3399,11 +3423,11 @@ public class Assembler {
               mem1.dataType=DataType.BYTE_HEX;
               mem2.dataType=DataType.BYTE_HEX;
               mem3.dataType=DataType.BYTE_HEX;
-              list.push(mem3);
-              list.push(mem2);
-              list.push(mem1);
+              ctx.list.push(mem3);
+              ctx.list.push(mem2);
+              ctx.list.push(mem1);
               tmp=new StringBuilder();
-              aByte.flush(tmp);  
+              ctx.aByte.flush(ctx, tmp);  
               tmpS=tmp.toString();
               str.append(tmpS.substring(0, tmpS.length()-1)).append("  ");
               break;
@@ -3414,187 +3438,191 @@ public class Assembler {
               mem1.dataType=DataType.BYTE_BIN;
               mem2.dataType=DataType.BYTE_BIN;
               mem3.dataType=DataType.BYTE_BIN;
-              list.push(mem3);
-              list.push(mem2);
-              list.push(mem1);
+              ctx.list.push(mem3);
+              ctx.list.push(mem2);
+              ctx.list.push(mem1);
               tmp=new StringBuilder();
-              aByte.flush(tmp); 
+              ctx.aByte.flush(ctx, tmp); 
               tmpS=tmp.toString();
               str.append(tmpS.substring(0, tmpS.length()-1)).append("  ");
               break;
             case TWENTYFOUR_HEX:
-              str.append(getDataSpacesTabs()).append("!24 $")
+              str.append(getDataSpacesTabs(ctx)).append("!24 $")
                  .append(ByteToExe(Unsigned.done(mem1.copy)))
                  .append(ByteToExe(Unsigned.done(mem2.copy)))
                  .append(ByteToExe(Unsigned.done(mem3.copy)))
                  .append("  ");
-              emptyPop();
+              emptyPop(ctx);
               break;
             case TWENTYFOUR_BIN:
-              str.append(getDataSpacesTabs()).append("!24 %")
+              str.append(getDataSpacesTabs(ctx)).append("!24 %")
                  .append(Integer.toBinaryString((mem1.copy & 0xFF) + 0x100).substring(1))
                  .append(Integer.toBinaryString((mem2.copy & 0xFF) + 0x100).substring(1))        
                  .append(Integer.toBinaryString((mem3.copy & 0xFF) + 0x100).substring(1))
                  .append("  ");
-              emptyPop();
+              emptyPop(ctx);
               break;               
             case MACRO_HEX:
             case MACRO3_HEX:    
             case MACRO5_HEX:
             case MACRO6_HEX: 
-              str.append(getDataSpacesTabs()).append("MultiSpriteLine $")
+              str.append(getDataSpacesTabs(ctx)).append("MultiSpriteLine $")
                  .append(ByteToExe(Unsigned.done(mem1.copy)))
                  .append(ByteToExe(Unsigned.done(mem2.copy)))
                  .append(ByteToExe(Unsigned.done(mem3.copy)))
                  .append("  ");
-              emptyPop();
+              emptyPop(ctx);
               break;
             case MACRO_BIN:
             case MACRO3_BIN:  
             case MACRO5_BIN:    
             case MACRO6_BIN:   
-              str.append(getDataSpacesTabs()).append("MultiSpriteLine %")
+              str.append(getDataSpacesTabs(ctx)).append("MultiSpriteLine %")
                  .append(Integer.toBinaryString((mem1.copy & 0xFF) + 0x100).substring(1))
                  .append(Integer.toBinaryString((mem2.copy & 0xFF) + 0x100).substring(1))        
                  .append(Integer.toBinaryString((mem3.copy & 0xFF) + 0x100).substring(1))
                  .append("  ");
-              emptyPop();
+              emptyPop(ctx);
               break;  
             case MACRO1_HEX:
-              str.append(getDataSpacesTabs())
-                 .append((option.kickColonMacro ? ":":""))     
+              str.append(getDataSpacesTabs(ctx))
+                 .append((ctx.option.kickColonMacro ? ":":""))     
                  .append("MultiSpriteLine($")
                  .append(ByteToExe(Unsigned.done(mem1.copy)))
                  .append(ByteToExe(Unsigned.done(mem2.copy)))
                  .append(ByteToExe(Unsigned.done(mem3.copy)))
                  .append(")  ");
-              emptyPop();
+              emptyPop(ctx);
               break;
             case MACRO1_BIN:
-              str.append(getDataSpacesTabs())
-                 .append((option.kickColonMacro ? ":":""))       
+              str.append(getDataSpacesTabs(ctx))
+                 .append((ctx.option.kickColonMacro ? ":":""))       
                  .append("MultiSpriteLine(%")
                  .append(Integer.toBinaryString((mem1.copy & 0xFF) + 0x100).substring(1))
                  .append(Integer.toBinaryString((mem2.copy & 0xFF) + 0x100).substring(1))        
                  .append(Integer.toBinaryString((mem3.copy & 0xFF) + 0x100).substring(1))
                  .append(")  ");
-              emptyPop();
+              emptyPop(ctx);
               break; 
             case MACRO2_HEX:
-              str.append(getDataSpacesTabs()).append("+MultiSpriteLine $")
+              str.append(getDataSpacesTabs(ctx)).append("+MultiSpriteLine $")
                  .append(ByteToExe(Unsigned.done(mem1.copy)))
                  .append(ByteToExe(Unsigned.done(mem2.copy)))
                  .append(ByteToExe(Unsigned.done(mem3.copy)))
                  .append("  ");
-              emptyPop();
+              emptyPop(ctx);
               break;
             case MACRO2_BIN:
-              str.append(getDataSpacesTabs()).append("+MultiSpriteLine %")
+              str.append(getDataSpacesTabs(ctx)).append("+MultiSpriteLine %")
                  .append(Integer.toBinaryString((mem1.copy & 0xFF) + 0x100).substring(1))
                  .append(Integer.toBinaryString((mem2.copy & 0xFF) + 0x100).substring(1))        
                  .append(Integer.toBinaryString((mem3.copy & 0xFF) + 0x100).substring(1))
                  .append("  ");
-              emptyPop();
+              emptyPop(ctx);
               break;   
             case MACRO4_HEX:
-              str.append(getDataSpacesTabs()).append("#MultiSpriteLine $")
+              str.append(getDataSpacesTabs(ctx)).append("#MultiSpriteLine $")
                  .append(ByteToExe(Unsigned.done(mem1.copy)))
                  .append(ByteToExe(Unsigned.done(mem2.copy)))
                  .append(ByteToExe(Unsigned.done(mem3.copy)))
                  .append("  ");
-              emptyPop();
+              emptyPop(ctx);
               break;
             case MACRO4_BIN:
-              str.append(getDataSpacesTabs()).append("#MultiSpriteLine %")
+              str.append(getDataSpacesTabs(ctx)).append("#MultiSpriteLine %")
                  .append(Integer.toBinaryString((mem1.copy & 0xFF) + 0x100).substring(1))
                  .append(Integer.toBinaryString((mem2.copy & 0xFF) + 0x100).substring(1))        
                  .append(Integer.toBinaryString((mem3.copy & 0xFF) + 0x100).substring(1))
                  .append("  ");
-              emptyPop();
+              emptyPop(ctx);
               break;               
             }      
-          carets.add(start, str.length(), mem1, Type.MULTI_SPRITE);
+          ctx.carets.add(start, str.length(), mem1, Type.MULTI_SPRITE);
           
-          str.append(getDataCSpacesTabs(str.length()-initial-getDataSpacesTabs().length()));
+          str.append(getDataCSpacesTabs(ctx, str.length()-initial-getDataSpacesTabs(ctx).length()));
           // flush comment only for macro as byte flush it itself
-          if (aMultiSprite!=BYTE_HEX && aMultiSprite!=BYTE_BIN) aComment.flush(str);
+          if (ctx.aMultiSprite!=BYTE_HEX && ctx.aMultiSprite!=BYTE_BIN) ctx.aComment.flush(ctx, str);
           else str.append("\n");
           
           //start=str.length();
         } else {
             // force to be as byte
-            aByte.flush(str);
+            ctx.aByte.flush(ctx, str);
           }    
      }   
      
       /**
        * Put a value to the stream
        * 
+       * @param ctx the emit context
        * @param str the otput stream
        * @param mem the memory dasm
        * @param option the option to use
        */
       @Override
-      public void putValue(StringBuilder str, MemoryDasm mem, Option option) {        
-         if ((sizeMultiSpriteBlock % 3)==0) flush(str);
-         else if (sizeMultiSpriteBlock>=64) {
-           flush(str);
-           sizeMultiSpriteBlock=0;
+      public void putValue(EmitContext ctx, StringBuilder str, MemoryDasm mem, Option option) {        
+         if ((ctx.sizeMultiSpriteBlock % 3)==0) flush(ctx, str);
+         else if (ctx.sizeMultiSpriteBlock>=64) {
+           flush(ctx, str);
+           ctx.sizeMultiSpriteBlock=0;
          }          
       }     
      
       /**
        * Empty pop to have stack corrected
+       * 
+       * @param ctx the emit context
        */
-      private void emptyPop() {
-        listRel.pop();
-        listRel.pop();
-        listRel.pop();
+      private void emptyPop(EmitContext ctx) {
+        ctx.listRel.pop();
+        ctx.listRel.pop();
+        ctx.listRel.pop();
               
-        listRel2.pop();
-        listRel2.pop();
-        listRel2.pop();
+        ctx.listRel2.pop();
+        ctx.listRel2.pop();
+        ctx.listRel2.pop();
               
-        listBase.pop();
-        listBase.pop();
-        listBase.pop();
+        ctx.listBase.pop();
+        ctx.listBase.pop();
+        ctx.listBase.pop();
               
-        listDest.pop();
-        listDest.pop();
-        listDest.pop();
+        ctx.listDest.pop();
+        ctx.listDest.pop();
+        ctx.listDest.pop();
       }
       
      /** 
       * Setting up the action type if this is the case
       * 
+      * @param ctx the emit context
       * @param str the output stream
       */
      @Override
-     public void setting(StringBuilder str) {
-       switch (aMultiSprite) {
+     public void setting(EmitContext ctx, StringBuilder str) {
+       switch (ctx.aMultiSprite) {
          case MACRO_HEX:
          case MACRO_BIN:
-           str.append(getDataSpacesTabs()).append(".mac MultiSpriteLine \n")
-              .append(getDataSpacesTabs()).append("  .byte {1} >> 16, ( {1} >> 8) & 255,  {1} & 255\n")
-              .append(getDataSpacesTabs()).append(".endm \n\n");
+           str.append(getDataSpacesTabs(ctx)).append(".mac MultiSpriteLine \n")
+              .append(getDataSpacesTabs(ctx)).append("  .byte {1} >> 16, ( {1} >> 8) & 255,  {1} & 255\n")
+              .append(getDataSpacesTabs(ctx)).append(".endm \n\n");
            break;
          case MACRO1_HEX:
          case MACRO1_BIN:
-           str.append(getDataSpacesTabs()).append(".macro MultiSpriteLine (tribyte) {\n")
-              .append(getDataSpacesTabs()).append("  .byte tribyte >> 16, ( tribyte >> 8) & 255,  tribyte & 255\n")
-              .append(getDataSpacesTabs()).append("}\n\n");               
+           str.append(getDataSpacesTabs(ctx)).append(".macro MultiSpriteLine (tribyte) {\n")
+              .append(getDataSpacesTabs(ctx)).append("  .byte tribyte >> 16, ( tribyte >> 8) & 255,  tribyte & 255\n")
+              .append(getDataSpacesTabs(ctx)).append("}\n\n");               
            break;  
          case MACRO2_HEX:
          case MACRO2_BIN:
-           str.append(getDataSpacesTabs()).append("!macro MultiSpriteLine tribyte {\n")
-              .append(getDataSpacesTabs()).append("  !byte tribyte >> 16, ( tribyte >> 8) & 255,  tribyte & 255\n")
-              .append(getDataSpacesTabs()).append("}\n\n");           
+           str.append(getDataSpacesTabs(ctx)).append("!macro MultiSpriteLine tribyte {\n")
+              .append(getDataSpacesTabs(ctx)).append("  !byte tribyte >> 16, ( tribyte >> 8) & 255,  tribyte & 255\n")
+              .append(getDataSpacesTabs(ctx)).append("}\n\n");           
            break;      
          case MACRO3_HEX:
          case MACRO3_BIN:
-           str.append(getDataSpacesTabs()).append(".macro MultiSpriteLine tribyte \n")
-              .append(getDataSpacesTabs()).append("  .byte tribyte >> 16, ( tribyte >> 8) & 255,  tribyte & 255\n")
-              .append(getDataSpacesTabs()).append(".endmacro\n\n");  
+           str.append(getDataSpacesTabs(ctx)).append(".macro MultiSpriteLine tribyte \n")
+              .append(getDataSpacesTabs(ctx)).append("  .byte tribyte >> 16, ( tribyte >> 8) & 255,  tribyte & 255\n")
+              .append(getDataSpacesTabs(ctx)).append(".endmacro\n\n");  
          case MACRO4_HEX:
          case MACRO4_BIN:
            str.append(
@@ -3605,15 +3633,15 @@ public class Assembler {
            break;  
          case MACRO5_HEX:  
          case MACRO5_BIN:          
-           str.append(getDataSpacesTabs()).append("MultiSpriteLine: macro ?tribyte \n")
-              .append(getDataSpacesTabs()).append(" db ?tribyte >> 16, ( ?tribyte >> 8) & 255,  ?tribyte & 255\n")
-              .append(getDataSpacesTabs()).append("endm\n\n");                         
+           str.append(getDataSpacesTabs(ctx)).append("MultiSpriteLine: macro ?tribyte \n")
+              .append(getDataSpacesTabs(ctx)).append(" db ?tribyte >> 16, ( ?tribyte >> 8) & 255,  ?tribyte & 255\n")
+              .append(getDataSpacesTabs(ctx)).append("endm\n\n");                         
            break;  
          case MACRO6_HEX:  
          case MACRO6_BIN:          
-           str.append(getDataSpacesTabs()).append("MultiSpriteLine: macro tribyte \n")
-              .append(getDataSpacesTabs()).append(" db tribyte >> 16, ( tribyte >> 8) & 255,  tribyte & 255\n")
-              .append(getDataSpacesTabs()).append("endm\n\n");                         
+           str.append(getDataSpacesTabs(ctx)).append("MultiSpriteLine: macro tribyte \n")
+              .append(getDataSpacesTabs(ctx)).append(" db tribyte >> 16, ( tribyte >> 8) & 255,  tribyte & 255\n")
+              .append(getDataSpacesTabs(ctx)).append("endm\n\n");                         
            break;    
        }
      };      
@@ -3647,8 +3675,8 @@ public class Assembler {
       ;
 
       @Override
-      public void flush(StringBuilder str) {
-        if (list.isEmpty()) return;    
+      public void flush(EmitContext ctx, StringBuilder str) {
+        if (ctx.list.isEmpty()) return;    
         
         boolean isString=false;
         boolean isFirst=true;
@@ -3658,36 +3686,36 @@ public class Assembler {
         int pos1=str.length();
         int start=pos1;
                
-        switch (aText) {
+        switch (ctx.aText) {
           case DOT_BYTE_TEXT:
-            str.append(getDataSpacesTabs()).append((".byte "));
+            str.append(getDataSpacesTabs(ctx)).append((".byte "));
             break;
           case DOT_BYT_TEXT:
-            str.append(getDataSpacesTabs()).append((".byt "));
+            str.append(getDataSpacesTabs(ctx)).append((".byt "));
             break;  
           case DB_BYTE_TEXT:
-            str.append(getDataSpacesTabs()).append(("db "));  
+            str.append(getDataSpacesTabs(ctx)).append(("db "));  
             break;            
           case BYTE_TEXT:
-            str.append(getDataSpacesTabs()).append(("byte "));  
+            str.append(getDataSpacesTabs(ctx)).append(("byte "));  
             break;
           case DC_BYTE_TEXT:
-            str.append(getDataSpacesTabs()).append(("dc "));  
+            str.append(getDataSpacesTabs(ctx)).append(("dc "));  
             break;
           case DC_B_BYTE_TEXT:
-            str.append(getDataSpacesTabs()).append(("dc.b "));  
+            str.append(getDataSpacesTabs(ctx)).append(("dc.b "));  
             break;
           case MARK_TEXT:
-            str.append(getDataSpacesTabs()).append(("!text "));  
+            str.append(getDataSpacesTabs(ctx)).append(("!text "));  
             break;
           case MARK_TX_TEXT:
-            str.append(getDataSpacesTabs()).append(("!tx "));  
+            str.append(getDataSpacesTabs(ctx)).append(("!tx "));  
             break; 
           case MARK_RAW_TEXT:
-            str.append(getDataSpacesTabs()).append(("!raw "));  
+            str.append(getDataSpacesTabs(ctx)).append(("!raw "));  
             break;            
           case DOT_TEXT:
-            str.append(getDataSpacesTabs()).append((".text "));   
+            str.append(getDataSpacesTabs(ctx)).append((".text "));   
             break;  
         }       
         
@@ -3696,22 +3724,22 @@ public class Assembler {
         MemoryDasm mem;
         MemoryDasm memRel;
       
-        while (!list.isEmpty()) {
+        while (!ctx.list.isEmpty()) {
           // accodate each bytes in the format choosed
-          mem=list.pop();
-          memRel=listRel.pop();
-          listRel2.pop();
-          listBase.pop();
-          listDest.pop();
+          mem=ctx.list.pop();
+          memRel=ctx.listRel.pop();
+          ctx.listRel2.pop();
+          ctx.listBase.pop();
+          ctx.listDest.pop();
           
           // not all char can be converted in string
           
           int val=(mem.copy & 0xFF);  
-          switch (option.assembler) {
+          switch (ctx.option.assembler) {
             case DASM:
               if (
-                 (!option.allowUtf && ((val<0x20 || val==0x22 || (val>127)))) ||     
-                 (option.allowUtf && ((val==0x00) || (val==0x0A) || (val==0x22) || (val>127)))  
+                 (!ctx.option.allowUtf && ((val<0x20 || val==0x22 || (val>127)))) ||     
+                 (ctx.option.allowUtf && ((val==0x00) || (val==0x0A) || (val==0x22) || (val>127)))  
                  )     
               {
                   if (isString) {
@@ -3736,8 +3764,8 @@ public class Assembler {
               break;
             case TMPX:
               if (
-                  (!option.allowUtf && ((val<0x08) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127))) ||    
-                  (option.allowUtf && ((val==0x08) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127)))   
+                  (!ctx.option.allowUtf && ((val<0x08) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127))) ||    
+                  (ctx.option.allowUtf && ((val==0x08) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127)))   
                  ) {                                    
                   // sorry, we force to be bytes as tmpx did not supports byte in line of text
                   if (isFirst) {
@@ -3748,13 +3776,13 @@ public class Assembler {
                         str.append("\"\n");
                         isString=false;  
                       }                  
-                  list.push(mem);
-                  listRel.push(memRel);
-                  listRel2.push(null);
-                  listBase.push(null);
-                  listDest.push(null);
+                  ctx.list.push(mem);
+                  ctx.listRel.push(memRel);
+                  ctx.listRel2.push(null);
+                  ctx.listBase.push(null);
+                  ctx.listDest.push(null);
                   
-                  aByte.flush(str);   
+                  ctx.aByte.flush(ctx, str);   
               } else {
                  if (isFirst) {
                       isFirst=false;
@@ -3769,8 +3797,8 @@ public class Assembler {
               break;  
             case CA65:
               if (
-                  (!option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) ||    
-                  (option.allowUtf && ((val==0x0A) || (val==0x22) || (val>127)))   
+                  (!ctx.option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) ||    
+                  (ctx.option.allowUtf && ((val==0x0A) || (val==0x22) || (val>127)))   
                  ) {
                   if (isString) {
                     str.append("\"");
@@ -3794,8 +3822,8 @@ public class Assembler {
               break;
             case ACME:                
               if (
-                  (!option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) ||    
-                  (option.allowUtf && ( (val==0x00) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127)))   
+                  (!ctx.option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) ||    
+                  (ctx.option.allowUtf && ( (val==0x00) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127)))   
                  ) {
                   if (isString) {
                     str.append("\"");
@@ -3826,13 +3854,13 @@ public class Assembler {
                 isFirst=false;  
               }    
               if (
-                  (!option.allowUtf && ((val<=0x1F) || (val==0x40) ||
+                  (!ctx.option.allowUtf && ((val<=0x1F) || (val==0x40) ||
                     (val==0x5B) ||
                     (val==0x5D) ||
                     (val>=0x61 && val<=0x7A) ||
                     (val==0x7F) ||
                     (val>=0xA0))) ||    
-                  (option.allowUtf && ((val<=0x02) ||
+                  (ctx.option.allowUtf && ((val<=0x02) ||
                     (val==0x0A) ||
                     (val==0x0C) ||    
                     (val==0x0D) ||
@@ -3861,8 +3889,8 @@ public class Assembler {
               break; 
             case TASS64:
               if (
-                  (!option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) || 
-                  (option.allowUtf && ((val==0x0A) ||
+                  (!ctx.option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) || 
+                  (ctx.option.allowUtf && ((val==0x0A) ||
                    (val==0x0D) ||
                    (val==0x22) ||
                    (val>127)))                      
@@ -3951,8 +3979,8 @@ public class Assembler {
               break;
             case AS:
               if (
-                 (!option.allowUtf && ((val<0x20 || val==0x22 || val==0x5c || (val>127)))) ||     
-                 (option.allowUtf && ((val==0x00) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val==0x5c) || (val>127)))  
+                 (!ctx.option.allowUtf && ((val<0x20 || val==0x22 || val==0x5c || (val>127)))) ||     
+                 (ctx.option.allowUtf && ((val==0x00) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val==0x5c) || (val>127)))  
                  )     
               {
                   if (isString) {
@@ -3976,12 +4004,12 @@ public class Assembler {
                 }                  
               break;
           }         
-          carets.add(start, str.length(), mem, Type.TEXT);
+          ctx.carets.add(start, str.length(), mem, Type.TEXT);
           
-          if (list.isEmpty()) { 
+          if (ctx.list.isEmpty()) { 
             if (isString) str.append("\"\n");
             else str.append("\n");
-            if (option.assembler==Assembler.Name.KICK && !isSpecial) str.setCharAt(position, ' ');
+            if (ctx.option.assembler==Assembler.Name.KICK && !isSpecial) str.setCharAt(position, ' ');
           }
           
           start=str.length();
@@ -3991,14 +4019,15 @@ public class Assembler {
       /**
        * Put a value to the stream
        * 
+       * @param ctx the emit context
        * @param str the otput stream
        * @param mem the memory dasm
        * @param option the option to use
        */
       @Override
-      public void putValue(StringBuilder str, MemoryDasm mem, Option option) { 
+      public void putValue(EmitContext ctx, StringBuilder str, MemoryDasm mem, Option option) { 
         // look if it is time to aggregate data
-        if (list.size()==option.maxTextAggregate) flush(str);    
+        if (ctx.list.size()==option.maxTextAggregate) flush(ctx, str);    
       }      
    }
    
@@ -4022,8 +4051,8 @@ public class Assembler {
      ;     
 
      @Override
-     public void flush(StringBuilder str) {
-       if (list.isEmpty()) return;    
+     public void flush(EmitContext ctx, StringBuilder str) {
+       if (ctx.list.isEmpty()) return;    
          
        boolean isString=false;
        boolean isFirst=true;  
@@ -4031,42 +4060,42 @@ public class Assembler {
        int pos1=str.length();
        int start=pos1;
          
-       switch (aNumText) {
+       switch (ctx.aNumText) {
          case DOT_PTEXT_NUMTEXT:
-           str.append(getDataSpacesTabs()).append((".ptext "));
+           str.append(getDataSpacesTabs(ctx)).append((".ptext "));
            break; 
          case DOT_TEXT_NUMTEXT:
-           str.append(getDataSpacesTabs()).append((".text "));
+           str.append(getDataSpacesTabs(ctx)).append((".text "));
            break;   
          case DOT_TEXT_P_NUMTEXT:
-           str.append(getDataSpacesTabs()).append((".text p"));
+           str.append(getDataSpacesTabs(ctx)).append((".text p"));
            break;  
          case DOT_BYTE_NUMTEXT:
-           str.append(getDataSpacesTabs()).append((".byte "));
+           str.append(getDataSpacesTabs(ctx)).append((".byte "));
            break;
          case DOT_BYT_NUMTEXT:
-           str.append(getDataSpacesTabs()).append((".byt "));
+           str.append(getDataSpacesTabs(ctx)).append((".byt "));
            break;     
          case DB_BYTE_NUMTEXT:
-            str.append(getDataSpacesTabs()).append(("db "));  
+            str.append(getDataSpacesTabs(ctx)).append(("db "));  
             break;     
          case MARK_TEXT_NUMTEXT:
-           str.append(getDataSpacesTabs()).append(("!text "));
+           str.append(getDataSpacesTabs(ctx)).append(("!text "));
            break;   
          case MARK_TX_NUMTEXT:
-           str.append(getDataSpacesTabs()).append(("!tx "));
+           str.append(getDataSpacesTabs(ctx)).append(("!tx "));
            break; 
          case MARK_RAW_NUMTEXT:
-           str.append(getDataSpacesTabs()).append(("!raw "));
+           str.append(getDataSpacesTabs(ctx)).append(("!raw "));
            break;            
          case BYTE_NUMTEXT:
-           str.append(getDataSpacesTabs()).append(("byte "));  
+           str.append(getDataSpacesTabs(ctx)).append(("byte "));  
            break;
          case DC_NUMTEXT:
-           str.append(getDataSpacesTabs()).append(("dc "));  
+           str.append(getDataSpacesTabs(ctx)).append(("dc "));  
            break;
          case DC_DOT_B_NUMTEXT:
-           str.append(getDataSpacesTabs()).append(("dc.b "));  
+           str.append(getDataSpacesTabs(ctx)).append(("dc.b "));  
            break;  
        }  
        
@@ -4075,35 +4104,35 @@ public class Assembler {
        MemoryDasm mem;
        MemoryDasm memRel;
        
-       if (option.assembler==Assembler.Name.TMPX || option.assembler==Assembler.Name.TASS64)  {
+       if (ctx.option.assembler==Assembler.Name.TMPX || ctx.option.assembler==Assembler.Name.TASS64)  {
          // this byte is calculated by instruction
-         list.pop();
-         listRel.pop();
-         listRel2.pop();
-         listBase.pop();
-         listDest.pop();
+         ctx.list.pop();
+         ctx.listRel.pop();
+         ctx.listRel2.pop();
+         ctx.listBase.pop();
+         ctx.listDest.pop();
        }
       
-        while (!list.isEmpty()) {
+        while (!ctx.list.isEmpty()) {
           // accodate each bytes in the format choosed
-          mem=list.pop();
-          memRel=listRel.pop();
-          listRel2.pop();
-          listBase.pop();
-          listDest.pop();
+          mem=ctx.list.pop();
+          memRel=ctx.listRel.pop();
+          ctx.listRel2.pop();
+          ctx.listBase.pop();
+          ctx.listDest.pop();
           
           // not all char can be converted in string
           
           int val=(mem.copy & 0xFF);  
-          switch (option.assembler) {
+          switch (ctx.option.assembler) {
             case DASM:
               if (isFirst) {  
                str.append("$").append(ByteToExe(val)); 
                isFirst=false;                   
               } else {  
                   if (
-                      (!option.allowUtf && (val<0x20 || val==0x22 || (val>127))) ||     
-                      (option.allowUtf && ((val==0x00) || (val==0x0A) || (val==0x22) || (val>127)))  
+                      (!ctx.option.allowUtf && (val<0x20 || val==0x22 || (val>127))) ||     
+                      (ctx.option.allowUtf && ((val==0x00) || (val==0x0A) || (val==0x22) || (val>127)))  
                      )  {
                       if (isString) {
                         str.append("\"");
@@ -4128,8 +4157,8 @@ public class Assembler {
               break;
             case TMPX:
               if (
-                  (!option.allowUtf && ((val<0x08) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127))) ||    
-                  (option.allowUtf && ((val==0x08) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127)))   
+                  (!ctx.option.allowUtf && ((val<0x08) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127))) ||    
+                  (ctx.option.allowUtf && ((val==0x08) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127)))   
                  )   {                                    
                   // sorry, we force to be bytes as tmpx did not supports byte in line of text
                   if (isFirst) {
@@ -4140,13 +4169,13 @@ public class Assembler {
                         str.append("\"\n");
                         isString=false;  
                       }                  
-                  list.push(mem);
-                  listRel.push(memRel);
-                  listRel2.push(null);
-                  listBase.push(null);
-                  listDest.push(null);
+                  ctx.list.push(mem);
+                  ctx.listRel.push(memRel);
+                  ctx.listRel2.push(null);
+                  ctx.listBase.push(null);
+                  ctx.listDest.push(null);
                   
-                  aByte.flush(str);   
+                  ctx.aByte.flush(ctx, str);   
               } else {
                  if (isFirst) {
                       isFirst=false;
@@ -4165,8 +4194,8 @@ public class Assembler {
                isFirst=false;                   
               } else {  
                   if (
-                      (!option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) ||    
-                      (option.allowUtf && ((val==0x0A) || (val==0x22) || (val>127)))   
+                      (!ctx.option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) ||    
+                      (ctx.option.allowUtf && ((val==0x0A) || (val==0x22) || (val>127)))   
                      )  {
                     if (isString) {
                       str.append("\"");
@@ -4195,8 +4224,8 @@ public class Assembler {
                isFirst=false;                   
               } else {  
                 if (
-                    (!option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) ||    
-                    (option.allowUtf && ( (val==0x00) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127)))   
+                    (!ctx.option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) ||    
+                    (ctx.option.allowUtf && ( (val==0x00) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127)))   
                    )  {
                     if (isString) {
                        str.append("\"");
@@ -4227,13 +4256,13 @@ public class Assembler {
                 isFirst=false; 
               } else {   
                   if (
-                  (!option.allowUtf && ((val<=0x1F) || (val==0x40) ||
+                  (!ctx.option.allowUtf && ((val<=0x1F) || (val==0x40) ||
                     (val==0x5B) ||
                     (val==0x5D) ||
                     (val>=0x61 && val<=0x7A) ||
                     (val==0x7F) ||
                     (val>=0xA0))) ||    
-                  (option.allowUtf && ((val<=0x02) ||
+                  (ctx.option.allowUtf && ((val<=0x02) ||
                     (val==0x0A) ||
                     (val==0x0C) ||    
                     (val==0x0D) ||
@@ -4255,8 +4284,8 @@ public class Assembler {
               break;    
             case TASS64:
               if (
-                  (!option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) || 
-                  (option.allowUtf && ((val==0x0A) ||
+                  (!ctx.option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) || 
+                  (ctx.option.allowUtf && ((val==0x0A) ||
                    (val==0x0D) ||
                    (val==0x22) ||
                    (val>127)))                      
@@ -4356,8 +4385,8 @@ public class Assembler {
                isFirst=false;                   
               } else {  
                   if (
-                      (!option.allowUtf && ((val<0x20 || val==0x22 || val==0x5c || (val>127)))) ||     
-                      (option.allowUtf && ((val==0x00) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val==0x5c) || (val>127)))  
+                      (!ctx.option.allowUtf && ((val<0x20 || val==0x22 || val==0x5c || (val>127)))) ||     
+                      (ctx.option.allowUtf && ((val==0x00) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val==0x5c) || (val>127)))  
                      )  {
                       if (isString) {
                         str.append("\"");
@@ -4382,9 +4411,9 @@ public class Assembler {
               break;
           }   
           
-          carets.add(start, str.length(), mem, Type.NUM_TEXT);
+          ctx.carets.add(start, str.length(), mem, Type.NUM_TEXT);
           
-          if (list.isEmpty()) { 
+          if (ctx.list.isEmpty()) { 
             if (isString) str.append("\"\n");
             else str.append("\n");
           }
@@ -4396,18 +4425,19 @@ public class Assembler {
       /**
        * Put a value to the stream
        * 
+       * @param ctx the emit context
        * @param str the otput stream
        * @param mem the memory dasm
        * @param option the option to use
        */
       @Override
-      public void putValue(StringBuilder str, MemoryDasm mem, Option option) {
+      public void putValue(EmitContext ctx, StringBuilder str, MemoryDasm mem, Option option) {
         
-        if (numText==null) numText=mem;
+        if (ctx.numText==null) ctx.numText=mem;
         // look if it is time to aggregate data
-        if (list.size()==numText.copy+1) {
-          flush(str);
-          numText=null;
+        if (ctx.list.size()==ctx.numText.copy+1) {
+          flush(ctx, str);
+          ctx.numText=null;
         }   
         
       }     
@@ -4432,8 +4462,8 @@ public class Assembler {
      ;
 
      @Override
-     public void flush(StringBuilder str) {
-       if (list.isEmpty()) return;  
+     public void flush(EmitContext ctx, StringBuilder str) {
+       if (ctx.list.isEmpty()) return;  
        
        boolean isString=false;
        boolean isFirst=true;
@@ -4443,42 +4473,42 @@ public class Assembler {
        int pos1=str.length(); 
        int start=pos1;
          
-       switch (aZeroText) {
+       switch (ctx.aZeroText) {
          case DOT_NULL_ZEROTEXT:
-           str.append(getDataSpacesTabs()).append((".null "));
+           str.append(getDataSpacesTabs(ctx)).append((".null "));
            break; 
          case DOT_TEXT_ZEROTEXT:
-           str.append(getDataSpacesTabs()).append((".text "));
+           str.append(getDataSpacesTabs(ctx)).append((".text "));
            break;   
          case DOT_TEXT_N_ZEROTEXT:
-           str.append(getDataSpacesTabs()).append((".text n"));
+           str.append(getDataSpacesTabs(ctx)).append((".text n"));
            break;  
          case DOT_BYTE_ZEROTEXT:
-           str.append(getDataSpacesTabs()).append((".byte "));
+           str.append(getDataSpacesTabs(ctx)).append((".byte "));
            break;
          case DOT_ASCIIZ_ZEROTEXT:
-           str.append(getDataSpacesTabs()).append((".asciiz "));
+           str.append(getDataSpacesTabs(ctx)).append((".asciiz "));
            break;     
          case DB_BYTE_ZEROTEXT:
-           str.append(getDataSpacesTabs()).append(("db "));
+           str.append(getDataSpacesTabs(ctx)).append(("db "));
            break;  
          case MARK_TEXT_ZEROTEXT:
-           str.append(getDataSpacesTabs()).append(("!text "));
+           str.append(getDataSpacesTabs(ctx)).append(("!text "));
            break;   
          case MARK_TX_ZEROTEXT:
-           str.append(getDataSpacesTabs()).append(("!tx "));
+           str.append(getDataSpacesTabs(ctx)).append(("!tx "));
            break; 
          case MARK_RAW_ZEROTEXT:
-           str.append(getDataSpacesTabs()).append(("!raw "));
+           str.append(getDataSpacesTabs(ctx)).append(("!raw "));
            break;            
          case BYTE_ZEROTEXT:
-           str.append(getDataSpacesTabs()).append(("byte "));  
+           str.append(getDataSpacesTabs(ctx)).append(("byte "));  
            break;
          case DC_BYTE_ZEROTEXT:
-           str.append(getDataSpacesTabs()).append(("dc "));  
+           str.append(getDataSpacesTabs(ctx)).append(("dc "));  
            break;
          case DC_B_BYTE_ZEROTEXT:
-           str.append(getDataSpacesTabs()).append(("dc.b "));  
+           str.append(getDataSpacesTabs(ctx)).append(("dc.b "));  
            break;   
        }
        
@@ -4487,22 +4517,22 @@ public class Assembler {
        MemoryDasm mem;
        MemoryDasm memRel;
       
-        while (!list.isEmpty()) {
+        while (!ctx.list.isEmpty()) {
           // accodate each bytes in the format choosed
-          mem=list.pop();
-          memRel=listRel.pop();
-          listRel2.pop();
-          listBase.pop();
-          listDest.pop();
+          mem=ctx.list.pop();
+          memRel=ctx.listRel.pop();
+          ctx.listRel2.pop();
+          ctx.listBase.pop();
+          ctx.listDest.pop();
           
           // not all char can be converted in string
           
           int val=(mem.copy & 0xFF);  
-          switch (option.assembler) {
+          switch (ctx.option.assembler) {
             case DASM:
               if (
-                  (!option.allowUtf && (val<0x20 || val==0x22 || (val>127))) ||     
-                  (option.allowUtf && ((val==0x00) || (val==0x0A) || (val==0x22) || (val>127)))  
+                  (!ctx.option.allowUtf && (val<0x20 || val==0x22 || (val>127))) ||     
+                  (ctx.option.allowUtf && ((val==0x00) || (val==0x0A) || (val==0x22) || (val>127)))  
                  )  {
                   if (isString) {
                     str.append("\"");
@@ -4526,8 +4556,8 @@ public class Assembler {
               break;
            case TMPX:
               if (
-                  (!option.allowUtf && (val<0x08) || ((val==0x0A) || (val==0x0D) || (val==0x22) || (val>127))) ||    
-                  (option.allowUtf && ((val==0x08) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127)))   
+                  (!ctx.option.allowUtf && (val<0x08) || ((val==0x0A) || (val==0x0D) || (val==0x22) || (val>127))) ||    
+                  (ctx.option.allowUtf && ((val==0x08) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127)))   
                  )  {                                    
                   // sorry, we force to be bytes as tmpx did not supports byte in line of text
                   if (isFirst) {
@@ -4538,13 +4568,13 @@ public class Assembler {
                         str.append("\"\n");
                         isString=false;  
                       }                  
-                  list.push(mem);
-                  listRel.push(memRel);
-                  listRel2.push(null);
-                  listBase.push(null);
-                  listDest.push(null);
+                  ctx.list.push(mem);
+                  ctx.listRel.push(memRel);
+                  ctx.listRel2.push(null);
+                  ctx.listBase.push(null);
+                  ctx.listDest.push(null);
                   
-                  aByte.flush(str);   
+                  ctx.aByte.flush(ctx, str);   
               } else {
                  if (isFirst) {
                       isFirst=false;
@@ -4556,19 +4586,19 @@ public class Assembler {
                         }  
                   str.append((char)val);  
                 }   
-              if (list.size()==1) {
+              if (ctx.list.size()==1) {
                   // terminating 0 is ommitted
-                list.pop();
-                listRel.pop();
-                listRel2.pop();
-                listBase.pop();
-                listDest.pop();
+                ctx.list.pop();
+                ctx.listRel.pop();
+                ctx.listRel2.pop();
+                ctx.listBase.pop();
+                ctx.listDest.pop();
               }
               break; 
             case CA65:
               if (
-                  (!option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) ||    
-                  (option.allowUtf && ((val==0x0A) || (val==0x22) || (val>127)))   
+                  (!ctx.option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) ||    
+                  (ctx.option.allowUtf && ((val==0x0A) || (val==0x22) || (val>127)))   
                  )  {
                   if (isString) {
                     str.append("\"");
@@ -4589,19 +4619,19 @@ public class Assembler {
                         }  
                   str.append((char)val);  
                 }   
-              if (list.size()==1) {
+              if (ctx.list.size()==1) {
                   // terminating 0 is ommitted
-                list.pop();
-                listRel.pop();
-                listRel2.pop();
-                listBase.pop();
-                listDest.pop();
+                ctx.list.pop();
+                ctx.listRel.pop();
+                ctx.listRel2.pop();
+                ctx.listBase.pop();
+                ctx.listDest.pop();
               }
               break;  
            case ACME:                
               if (
-                  (!option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) ||    
-                  (option.allowUtf && ( (val==0x00) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127)))   
+                  (!ctx.option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) ||    
+                  (ctx.option.allowUtf && ( (val==0x00) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127)))   
                  )  {
                   if (isString) {
                     str.append("\"");
@@ -4623,13 +4653,13 @@ public class Assembler {
                   if  (val==0x5C) str.append("\\");
                   str.append((char)val);  
                 }  
-              if (list.size()==1) {
+              if (ctx.list.size()==1) {
                   // terminating 0 is ommitted
-                list.pop();
-                listRel.pop();
-                listRel2.pop();
-                listBase.pop();
-                listDest.pop();
+                ctx.list.pop();
+                ctx.listRel.pop();
+                ctx.listRel2.pop();
+                ctx.listBase.pop();
+                ctx.listDest.pop();
               }
               break;  
             case KICK:
@@ -4640,13 +4670,13 @@ public class Assembler {
                 isFirst=false;  
               }    
               if (
-                  (!option.allowUtf && ((val<=0x1F) || (val==0x40) ||
+                  (!ctx.option.allowUtf && ((val<=0x1F) || (val==0x40) ||
                     (val==0x5B) ||
                     (val==0x5D) ||
                     (val>=0x61 && val<=0x7A) ||
                     (val==0x7F) ||
                     (val>=0xA0))) ||    
-                  (option.allowUtf && ((val<=0x02) ||
+                  (ctx.option.allowUtf && ((val<=0x02) ||
                     (val==0x0A) ||
                     (val==0x0C) ||    
                     (val==0x0D) ||
@@ -4674,8 +4704,8 @@ public class Assembler {
               break;         
             case TASS64:
               if (
-                  (!option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) || 
-                  (option.allowUtf && ((val==0x0A) ||
+                  (!ctx.option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) || 
+                  (ctx.option.allowUtf && ((val==0x0A) ||
                    (val==0x0D) ||
                    (val==0x22) ||
                    (val>127)))                      
@@ -4699,13 +4729,13 @@ public class Assembler {
                         }  
                   str.append((char)val);  
                 }   
-              if (list.size()==1) {
+              if (ctx.list.size()==1) {
                   // terminating 0 is ommitted
-                list.pop();
-                listRel.pop();
-                listRel2.pop();
-                listBase.pop();
-                listDest.pop();
+                ctx.list.pop();
+                ctx.listRel.pop();
+                ctx.listRel2.pop();
+                ctx.listBase.pop();
+                ctx.listDest.pop();
               }
               break;   
             case GLASS:
@@ -4772,8 +4802,8 @@ public class Assembler {
               break;  
             case AS:
               if (
-                  (!option.allowUtf && ((val<0x20 || val==0x22 || val==0x5c || (val>127)))) ||     
-                  (option.allowUtf && ((val==0x00) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val==0x5c) || (val>127)))  
+                  (!ctx.option.allowUtf && ((val<0x20 || val==0x22 || val==0x5c || (val>127)))) ||     
+                  (ctx.option.allowUtf && ((val==0x00) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val==0x5c) || (val>127)))  
                  )  {
                   if (isString) {
                     str.append("\"");
@@ -4797,12 +4827,12 @@ public class Assembler {
               break;  
           }   
           
-          carets.add(start, str.length(), mem, Type.ZERO_TEXT);
+          ctx.carets.add(start, str.length(), mem, Type.ZERO_TEXT);
           
-          if (list.isEmpty()) { 
+          if (ctx.list.isEmpty()) { 
             if (isString) str.append("\"\n");
             else str.append("\n");
-            if (option.assembler==Assembler.Name.KICK && !isSpecial) str.setCharAt(position, ' ');
+            if (ctx.option.assembler==Assembler.Name.KICK && !isSpecial) str.setCharAt(position, ' ');
           }
           
           start=str.length();
@@ -4812,14 +4842,15 @@ public class Assembler {
       /**
        * Put a value to the stream
        * 
+       * @param ctx the emit context
        * @param str the otput stream
        * @param mem the memory dasm
        * @param option the option to use
        */
       @Override
-      public void putValue(StringBuilder str, MemoryDasm mem, Option option) {  
+      public void putValue(EmitContext ctx, StringBuilder str, MemoryDasm mem, Option option) {  
         // look if it is time to aggregate data
-        if (mem.copy==0) flush(str);  
+        if (mem.copy==0) flush(ctx, str);  
       }     
    }
    
@@ -4843,8 +4874,8 @@ public class Assembler {
       ;
 
       @Override
-      public void flush(StringBuilder str) {
-      if (list.isEmpty()) return;  
+      public void flush(EmitContext ctx, StringBuilder str) {
+      if (ctx.list.isEmpty()) return;  
        
        boolean isString=false;
        boolean isFirst=true;
@@ -4852,42 +4883,42 @@ public class Assembler {
        int pos1=str.length(); 
        int start=pos1;
          
-       switch (aHighText) {
+       switch (ctx.aHighText) {
          case DOT_SHIFT_HIGHTEXT:
-           str.append(getDataSpacesTabs()).append((".shift "));
+           str.append(getDataSpacesTabs(ctx)).append((".shift "));
            break;  
          case DOT_TEXT_HIGHTEXT:
-           str.append(getDataSpacesTabs()).append((".text "));
+           str.append(getDataSpacesTabs(ctx)).append((".text "));
            break;            
          case DOT_TEXT_S_HIGHTEXT:
-           str.append(getDataSpacesTabs()).append((".text s"));
+           str.append(getDataSpacesTabs(ctx)).append((".text s"));
            break;  
          case DOT_BYTE_HIGHTEXT:
-           str.append(getDataSpacesTabs()).append((".byte "));
+           str.append(getDataSpacesTabs(ctx)).append((".byte "));
            break;
          case DOT_BYT_HIGHTEXT:
-           str.append(getDataSpacesTabs()).append((".byt "));
+           str.append(getDataSpacesTabs(ctx)).append((".byt "));
            break; 
          case DB_BYTE_HIGHTEXT:
-           str.append(getDataSpacesTabs()).append(("db "));
+           str.append(getDataSpacesTabs(ctx)).append(("db "));
            break;   
          case MARK_TEXT_HIGHTEXT:
-           str.append(getDataSpacesTabs()).append(("!text "));
+           str.append(getDataSpacesTabs(ctx)).append(("!text "));
            break;   
          case MARK_TX_HIGHTEXT:
-           str.append(getDataSpacesTabs()).append(("!tx "));
+           str.append(getDataSpacesTabs(ctx)).append(("!tx "));
            break; 
          case MARK_RAW_HIGHTEXT:
-           str.append(getDataSpacesTabs()).append(("!raw "));
+           str.append(getDataSpacesTabs(ctx)).append(("!raw "));
            break;            
          case BYTE_HIGHTEXT:
-           str.append(getDataSpacesTabs()).append(("byte "));  
+           str.append(getDataSpacesTabs(ctx)).append(("byte "));  
            break;
          case DC_BYTE_HIGHTEXT:
-           str.append(getDataSpacesTabs()).append(("dc "));  
+           str.append(getDataSpacesTabs(ctx)).append(("dc "));  
            break;
          case DC_B_BYTE_HIGHTEXT:
-           str.append(getDataSpacesTabs()).append(("dc.b "));  
+           str.append(getDataSpacesTabs(ctx)).append(("dc.b "));  
            break;   
        }
        
@@ -4895,22 +4926,22 @@ public class Assembler {
        
        MemoryDasm mem;
        MemoryDasm memRel;
-       while (!list.isEmpty()) {
+       while (!ctx.list.isEmpty()) {
           // accodate each bytes in the format choosed
-          mem=list.pop();
-          memRel=listRel.pop();
-          listRel2.pop();
-          listBase.pop();
-          listDest.pop();
+          mem=ctx.list.pop();
+          memRel=ctx.listRel.pop();
+          ctx.listRel2.pop();
+          ctx.listBase.pop();
+          ctx.listDest.pop();
           
           // not all char can be converted in string
           
           int val=(mem.copy & 0xFF);  
-          switch (option.assembler) {
+          switch (ctx.option.assembler) {
             case DASM:
               if (
-                  (!option.allowUtf && (val<0x20 || val==0x22 || (val>127))) ||     
-                  (option.allowUtf && ((val==0x00) || (val==0x0A) || (val==0x22) || (val>127)))  
+                  (!ctx.option.allowUtf && (val<0x20 || val==0x22 || (val>127))) ||     
+                  (ctx.option.allowUtf && ((val==0x00) || (val==0x0A) || (val==0x22) || (val>127)))  
                  )  {
                   if (isString) {
                     str.append("\"");
@@ -4933,19 +4964,19 @@ public class Assembler {
                 }  
               break;
            case TMPX:
-              if (list.size()==1) {
+              if (ctx.list.size()==1) {
                 // terminating has 1 converted to 0
-                mem=list.pop();
-                listRel.pop();
-                listRel2.pop();
-                listBase.pop();
-                listDest.pop();
+                mem=ctx.list.pop();
+                ctx.listRel.pop();
+                ctx.listRel2.pop();
+                ctx.listBase.pop();
+                ctx.listDest.pop();
                 
                 str.append((char)(mem.copy & 0x7F));  
               } 
               if (
-                  (!option.allowUtf && ((val<0x08) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127))) ||    
-                  (option.allowUtf && ((val==0x08) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127)))   
+                  (!ctx.option.allowUtf && ((val<0x08) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127))) ||    
+                  (ctx.option.allowUtf && ((val==0x08) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127)))   
                  )   {                                    
                   // sorry, we force to be bytes as tmpx did not supports byte in line of text
                   if (isFirst) {
@@ -4956,13 +4987,13 @@ public class Assembler {
                         str.append("\"\n");
                         isString=false;  
                       }                  
-                  list.push(mem);
-                  listRel.push(memRel);
-                  listRel2.push(null);
-                  listBase.push(null);
-                  listDest.push(null);
+                  ctx.list.push(mem);
+                  ctx.listRel.push(memRel);
+                  ctx.listRel2.push(null);
+                  ctx.listBase.push(null);
+                  ctx.listDest.push(null);
                   
-                  aByte.flush(str);   
+                  ctx.aByte.flush(ctx, str);   
               } else {
                  if (isFirst) {
                       isFirst=false;
@@ -4977,8 +5008,8 @@ public class Assembler {
               break; 
             case CA65:
               if (
-                  (!option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) ||    
-                  (option.allowUtf && ((val==0x0A) || (val==0x22) || (val>127)))   
+                  (!ctx.option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) ||    
+                  (ctx.option.allowUtf && ((val==0x0A) || (val==0x22) || (val>127)))   
                  )  {
                   if (isString) {
                     str.append("\"");
@@ -5002,8 +5033,8 @@ public class Assembler {
               break;  
            case ACME:                
               if (
-                  (!option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) ||    
-                  (option.allowUtf && ( (val==0x00) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127)))   
+                  (!ctx.option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) ||    
+                  (ctx.option.allowUtf && ( (val==0x00) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127)))   
                  )  {
                   if (isString) {
                     str.append("\"");
@@ -5033,13 +5064,13 @@ public class Assembler {
                 isFirst=false;  
               }    
               if (
-                  (!option.allowUtf && ((val<=0x1F) || (val==0x40) ||
+                  (!ctx.option.allowUtf && ((val<=0x1F) || (val==0x40) ||
                     (val==0x5B) ||
                     (val==0x5D) ||
                     (val>=0x61 && val<=0x7A) ||
                     (val==0x7F) ||
                     (val>=0xA0))) ||    
-                  (option.allowUtf && ((val<=0x02) ||
+                  (ctx.option.allowUtf && ((val<=0x02) ||
                     (val==0x0A) ||
                     (val==0x0C) ||    
                     (val==0x0D) ||
@@ -5064,8 +5095,8 @@ public class Assembler {
               break;         
             case TASS64:                
               if (
-                  (!option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) || 
-                  (option.allowUtf && ((val==0x0A) ||
+                  (!ctx.option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) || 
+                  (ctx.option.allowUtf && ((val==0x0A) ||
                    (val==0x0D) ||
                    (val==0x22) ||
                    (val>127)))                      
@@ -5089,13 +5120,13 @@ public class Assembler {
                         }  
                   str.append((char)val);  
                 }            
-              if (list.size()==1) {
+              if (ctx.list.size()==1) {
                 // terminating has 1 converted to 0
-                mem=list.pop();
-                listRel.pop();
-                listRel2.pop();
-                listBase.pop();
-                listDest.pop();
+                mem=ctx.list.pop();
+                ctx.listRel.pop();
+                ctx.listRel2.pop();
+                ctx.listBase.pop();
+                ctx.listDest.pop();
                 
                 str.append((char)(mem.copy & 0x7F));  
               }
@@ -5164,8 +5195,8 @@ public class Assembler {
               break;   
             case AS:
               if (
-                  (!option.allowUtf && ((val<0x20 || val==0x22 || val==0x5c || (val>127)))) ||     
-                  (option.allowUtf && ((val==0x00) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val==0x5c) || (val>127))) 
+                  (!ctx.option.allowUtf && ((val<0x20 || val==0x22 || val==0x5c || (val>127)))) ||     
+                  (ctx.option.allowUtf && ((val==0x00) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val==0x5c) || (val>127))) 
                  )  {
                   if (isString) {
                     str.append("\"");
@@ -5189,9 +5220,9 @@ public class Assembler {
               break;
           }   
           
-          carets.add(start, str.length(), mem, Type.HIGH_TEXT);
+          ctx.carets.add(start, str.length(), mem, Type.HIGH_TEXT);
            
-          if (list.isEmpty()) { 
+          if (ctx.list.isEmpty()) { 
             if (isString) str.append("\"\n");
             else str.append("\n");
 
@@ -5204,14 +5235,15 @@ public class Assembler {
             /**
        * Put a value to the stream
        * 
+       * @param ctx the emit context
        * @param str the otput stream
        * @param mem the memory dasm
        * @param option the option to use
        */
       @Override
-      public void putValue(StringBuilder str, MemoryDasm mem, Option option) {
+      public void putValue(EmitContext ctx, StringBuilder str, MemoryDasm mem, Option option) {
         // look if it is time to aggregate data
-        if ((mem.copy & 0X80) !=0) flush(str); 
+        if ((mem.copy & 0X80) !=0) flush(ctx, str); 
       }
    }
    
@@ -5234,8 +5266,8 @@ public class Assembler {
       ;
 
         @Override
-        public void flush(StringBuilder str) {
-        if (list.isEmpty()) return;    
+        public void flush(EmitContext ctx, StringBuilder str) {
+        if (ctx.list.isEmpty()) return;    
         
         boolean isString=false;
         boolean isFirst=true;
@@ -5245,42 +5277,42 @@ public class Assembler {
         int pos1=str.length();
         int start=pos1;
                
-        switch (aShiftText) {
+        switch (ctx.aShiftText) {
           case DOT_BYTE_SHIFTTEXT:
-            str.append(getDataSpacesTabs()).append((".byte "));
+            str.append(getDataSpacesTabs(ctx)).append((".byte "));
             break;
           case DOT_BYT_SHIFTTEXT:
-            str.append(getDataSpacesTabs()).append((".byt "));
+            str.append(getDataSpacesTabs(ctx)).append((".byt "));
             break;  
           case BYTE_SHIFTTEXT:
-            str.append(getDataSpacesTabs()).append(("byte "));  
+            str.append(getDataSpacesTabs(ctx)).append(("byte "));  
             break;
           case DC_BYTE_SHIFTTEXT:
-            str.append(getDataSpacesTabs()).append(("dc "));  
+            str.append(getDataSpacesTabs(ctx)).append(("dc "));  
             break;
           case DC_B_BYTE_SHIFTTEXT:
-            str.append(getDataSpacesTabs()).append(("dc.b "));  
+            str.append(getDataSpacesTabs(ctx)).append(("dc.b "));  
             break;
          case DB_BYTE_SHIFTTEXT:
-           str.append(getDataSpacesTabs()).append(("db "));
+           str.append(getDataSpacesTabs(ctx)).append(("db "));
            break;   
           case MARK_TEXT_SHIFTTEXT:
-            str.append(getDataSpacesTabs()).append(("!text "));  
+            str.append(getDataSpacesTabs(ctx)).append(("!text "));  
             break;
           case MARK_TX_SHIFTTEXT:
-            str.append(getDataSpacesTabs()).append(("!tx "));  
+            str.append(getDataSpacesTabs(ctx)).append(("!tx "));  
             break; 
           case MARK_RAW_SHIFTTEXT:
-            str.append(getDataSpacesTabs()).append(("!raw "));  
+            str.append(getDataSpacesTabs(ctx)).append(("!raw "));  
             break;            
           case DOT_TEXT_SHIFTTEXT:
-            str.append(getDataSpacesTabs()).append((".text "));   
+            str.append(getDataSpacesTabs(ctx)).append((".text "));   
             break;  
           case DOT_TEXT_L_SHIFTTEXT:
-            str.append(getDataSpacesTabs()).append((".text l"));   
+            str.append(getDataSpacesTabs(ctx)).append((".text l"));   
             break;      
           case DOT_SHIFTL_SHIFTTEXT:
-            str.append(getDataSpacesTabs()).append((".shiftl "));   
+            str.append(getDataSpacesTabs(ctx)).append((".shiftl "));   
             break;              
         }       
         
@@ -5289,22 +5321,22 @@ public class Assembler {
         MemoryDasm mem;
         MemoryDasm memRel;
       
-        while (!list.isEmpty()) {
+        while (!ctx.list.isEmpty()) {
           // accodate each bytes in the format choosed
-          mem=list.pop();
-          memRel=listRel.pop();
-          listRel2.pop();
-          listBase.pop();
-          listDest.pop();
+          mem=ctx.list.pop();
+          memRel=ctx.listRel.pop();
+          ctx.listRel2.pop();
+          ctx.listBase.pop();
+          ctx.listDest.pop();
           
           // not all char can be converted in string
           
           int val=(mem.copy & 0xFF);  
-          switch (option.assembler) {
+          switch (ctx.option.assembler) {
             case DASM:
               if (
-                  (!option.allowUtf && (val<0x20 || val==0x22 || (val>127))) ||     
-                  (option.allowUtf && ((val==0x00) || (val==0x0A) || (val==0x22) || (val>127)))  
+                  (!ctx.option.allowUtf && (val<0x20 || val==0x22 || (val>127))) ||     
+                  (ctx.option.allowUtf && ((val==0x00) || (val==0x0A) || (val==0x22) || (val>127)))  
                  )  {
                   if (isString) {
                     str.append("\"");
@@ -5329,8 +5361,8 @@ public class Assembler {
             case TMPX:
               val>>=1;
               if (
-                  (!option.allowUtf && ((val<0x08) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127))) ||    
-                  (option.allowUtf && ((val==0x08) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127)))   
+                  (!ctx.option.allowUtf && ((val<0x08) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127))) ||    
+                  (ctx.option.allowUtf && ((val==0x08) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127)))   
                  )   {                                    
                   // sorry, we force to be bytes as tmpx did not supports byte in line of text
                   if (isFirst) {
@@ -5341,13 +5373,13 @@ public class Assembler {
                         str.append("\"\n");
                         isString=false;  
                       }                  
-                  list.push(mem);
-                  listRel.push(memRel);
-                  listRel2.push(null);
-                  listBase.push(null);
-                  listDest.push(null);
+                  ctx.list.push(mem);
+                  ctx.listRel.push(memRel);
+                  ctx.listRel2.push(null);
+                  ctx.listBase.push(null);
+                  ctx.listDest.push(null);
                           
-                  aByte.flush(str);   
+                  ctx.aByte.flush(ctx, str);   
               } else {
                  if (isFirst) {
                       isFirst=false;
@@ -5362,8 +5394,8 @@ public class Assembler {
               break;    
             case CA65:
               if (
-                  (!option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) ||    
-                  (option.allowUtf && ((val==0x0A) || (val==0x22) || (val>127)))   
+                  (!ctx.option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) ||    
+                  (ctx.option.allowUtf && ((val==0x0A) || (val==0x22) || (val>127)))   
                  )  {
                   if (isString) {
                     str.append("\"");
@@ -5387,8 +5419,8 @@ public class Assembler {
               break;
             case ACME:                
               if (
-                  (!option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) ||    
-                  (option.allowUtf && ( (val==0x00) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127)))   
+                  (!ctx.option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) ||    
+                  (ctx.option.allowUtf && ( (val==0x00) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127)))   
                  )  {
                   if (isString) {
                     str.append("\"");
@@ -5419,13 +5451,13 @@ public class Assembler {
                 isFirst=false;  
               }    
               if (
-                  (!option.allowUtf && ((val<=0x1F) || (val==0x40) ||
+                  (!ctx.option.allowUtf && ((val<=0x1F) || (val==0x40) ||
                     (val==0x5B) ||
                     (val==0x5D) ||
                     (val>=0x61 && val<=0x7A) ||
                     (val==0x7F) ||
                     (val>=0xA0))) ||    
-                  (option.allowUtf && ((val<=0x02) ||
+                  (ctx.option.allowUtf && ((val<=0x02) ||
                     (val==0x0A) ||
                     (val==0x0C) ||    
                     (val==0x0D) ||
@@ -5454,8 +5486,8 @@ public class Assembler {
             case TASS64:
               val>>=1;  
               if (
-                  (!option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) || 
-                  (option.allowUtf && ((val==0x0A) ||
+                  (!ctx.option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) || 
+                  (ctx.option.allowUtf && ((val==0x0A) ||
                    (val==0x0D) ||
                    (val==0x22) ||
                    (val>127)))                      
@@ -5544,8 +5576,8 @@ public class Assembler {
               break;  
             case AS:
               if (
-                  (!option.allowUtf && ((val<0x20 || val==0x22 || val==0x5c || (val>127)))) ||     
-                  (option.allowUtf && ((val==0x00) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val==0x5c) || (val>127)))   
+                  (!ctx.option.allowUtf && ((val<0x20 || val==0x22 || val==0x5c || (val>127)))) ||     
+                  (ctx.option.allowUtf && ((val==0x00) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val==0x5c) || (val>127)))   
                  )  {
                   if (isString) {
                     str.append("\"");
@@ -5569,12 +5601,12 @@ public class Assembler {
               break;
             }       
           
-          carets.add(start, str.length(), mem, Type.SHIFT_TEXT);
+          ctx.carets.add(start, str.length(), mem, Type.SHIFT_TEXT);
           
-          if (list.isEmpty()) { 
+          if (ctx.list.isEmpty()) { 
             if (isString) str.append("\"\n");
             else str.append("\n");
-            if (option.assembler==Assembler.Name.KICK && !isSpecial) str.setCharAt(position, ' ');
+            if (ctx.option.assembler==Assembler.Name.KICK && !isSpecial) str.setCharAt(position, ' ');
           }
           
           start=str.length();
@@ -5584,14 +5616,15 @@ public class Assembler {
        /**
      * Put a value to the stream
      * 
+     * @param ctx the emit context
      * @param str the otput stream
      * @param mem the memory dasm
      * @param option the option to use
      */
     @Override
-    public void putValue(StringBuilder str, MemoryDasm mem, Option option) {
+    public void putValue(EmitContext ctx, StringBuilder str, MemoryDasm mem, Option option) {
        // look if it is time to aggregate data
-       if (list.size()==option.maxTextAggregate) flush(str);   
+       if (ctx.list.size()==option.maxTextAggregate) flush(ctx, str);   
     }        
    }  
    
@@ -5611,8 +5644,8 @@ public class Assembler {
       ;
 
       @Override
-      public void flush(StringBuilder str) {
-        if (list.isEmpty()) return;    
+      public void flush(EmitContext ctx, StringBuilder str) {
+        if (ctx.list.isEmpty()) return;    
         
         boolean isString=false;
         boolean isFirst=true;
@@ -5622,33 +5655,33 @@ public class Assembler {
         int pos1=str.length();
         int start=pos1;
                
-        switch (aScreenText) {
+        switch (ctx.aScreenText) {
           case DOT_BYTE_SCREENTEXT:
-            str.append(getDataSpacesTabs()).append((".byte "));
+            str.append(getDataSpacesTabs(ctx)).append((".byte "));
             break;
           case DOT_BYT_SCREENTEXT:
-            str.append(getDataSpacesTabs()).append((".byt "));
+            str.append(getDataSpacesTabs(ctx)).append((".byt "));
             break;  
           case BYTE_SCREENTEXT:
-            str.append(getDataSpacesTabs()).append(("byte "));  
+            str.append(getDataSpacesTabs(ctx)).append(("byte "));  
             break;
           case DC_BYTE_SCREENTEXT:
-            str.append(getDataSpacesTabs()).append(("dc "));  
+            str.append(getDataSpacesTabs(ctx)).append(("dc "));  
             break;
           case DC_B_BYTE_SCREENTEXT:
-            str.append(getDataSpacesTabs()).append(("dc.b "));  
+            str.append(getDataSpacesTabs(ctx)).append(("dc.b "));  
             break;
           case DB_BYTE_SCREENTEXT:
-           str.append(getDataSpacesTabs()).append(("db "));
+           str.append(getDataSpacesTabs(ctx)).append(("db "));
            break;    
           case MARK_SCR_SCREENTEXT:
-            str.append(getDataSpacesTabs()).append(("!scr "));  
+            str.append(getDataSpacesTabs(ctx)).append(("!scr "));  
             break;            
           case DOT_TEXT_SCREENTEXT:
-            str.append(getDataSpacesTabs()).append((".text "));   
+            str.append(getDataSpacesTabs(ctx)).append((".text "));   
             break;  
           case DOT_SCREEN_SCREENTEXT:
-            str.append(getDataSpacesTabs()).append((".screen "));   
+            str.append(getDataSpacesTabs(ctx)).append((".screen "));   
             break;                  
         }     
         
@@ -5657,22 +5690,22 @@ public class Assembler {
         MemoryDasm mem;
         MemoryDasm memRel;
       
-        while (!list.isEmpty()) {
+        while (!ctx.list.isEmpty()) {
           // accodate each bytes in the format choosed
-          mem=list.pop();
-          memRel=listRel.pop();
-          listRel2.pop();
-          listBase.pop();
-          listDest.pop();
+          mem=ctx.list.pop();
+          memRel=ctx.listRel.pop();
+          ctx.listRel2.pop();
+          ctx.listBase.pop();
+          ctx.listDest.pop();
           
           // not all char can be converted in string
           
           int val=(mem.copy & 0xFF);  
-          switch (option.assembler) {
+          switch (ctx.option.assembler) {
             case DASM:
               if (
-                  (!option.allowUtf && (val<0x20 || val==0x22 || (val>127))) ||     
-                  (option.allowUtf && ((val==0x00) || (val==0x0A) || (val==0x22) || (val>127)))  
+                  (!ctx.option.allowUtf && (val<0x20 || val==0x22 || (val>127))) ||     
+                  (ctx.option.allowUtf && ((val==0x00) || (val==0x0A) || (val==0x22) || (val>127)))  
                  )  {
                   if (isString) {
                     str.append("\"");
@@ -5707,13 +5740,13 @@ public class Assembler {
                         str.append("\"\n");
                         isString=false;  
                       }                  
-                  list.push(mem);
-                  listRel.push(memRel);
-                  listRel2.push(null);
-                  listBase.push(null);
-                  listDest.push(null);
+                  ctx.list.push(mem);
+                  ctx.listRel.push(memRel);
+                  ctx.listRel2.push(null);
+                  ctx.listBase.push(null);
+                  ctx.listDest.push(null);
                   
-                  aByte.flush(str);   
+                  ctx.aByte.flush(ctx, str);   
               } else {
                  if (isFirst) {
                       isFirst=false;
@@ -5733,8 +5766,8 @@ public class Assembler {
               break;    
             case CA65:
               if (
-                  (!option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) ||    
-                  (option.allowUtf && ((val==0x0A) || (val==0x22) || (val>127)))   
+                  (!ctx.option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) ||    
+                  (ctx.option.allowUtf && ((val==0x0A) || (val==0x22) || (val>127)))   
                  )  {
                   if (isString) {
                     str.append("\"");
@@ -5794,13 +5827,13 @@ public class Assembler {
                 isFirst=false;  
               }    
               if (
-                  (!option.allowUtf && ((val<=0x1F) || (val==0x40) ||
+                  (!ctx.option.allowUtf && ((val<=0x1F) || (val==0x40) ||
                     (val==0x5B) ||
                     (val==0x5D) ||
                     (val>=0x61 && val<=0x7A) ||
                     (val==0x7F) ||
                     (val>=0xA0))) ||    
-                  (option.allowUtf && ((val<=0x02) ||
+                  (ctx.option.allowUtf && ((val<=0x02) ||
                     (val==0x0A) ||
                     (val==0x0C) ||    
                     (val==0x0D) ||
@@ -5828,8 +5861,8 @@ public class Assembler {
               break; 
             case TASS64:
               if (
-                  (!option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) || 
-                  (option.allowUtf && ((val==0x0A) ||
+                  (!ctx.option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) || 
+                  (ctx.option.allowUtf && ((val==0x0A) ||
                    (val==0x0D) ||
                    (val==0x22) ||
                    (val>127)))                      
@@ -5918,8 +5951,8 @@ public class Assembler {
               break;   
             case AS:
               if (
-                  (!option.allowUtf && ((val<0x20 || val==0x22 || val==0x5c || (val>127)))) ||     
-                  (option.allowUtf && ((val==0x00) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val==0x5c) || (val>127)))   
+                  (!ctx.option.allowUtf && ((val<0x20 || val==0x22 || val==0x5c || (val>127)))) ||     
+                  (ctx.option.allowUtf && ((val==0x00) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val==0x5c) || (val>127)))   
                  )  {
                   if (isString) {
                     str.append("\"");
@@ -5943,12 +5976,12 @@ public class Assembler {
               break;
           }     
           
-          carets.add(start, str.length(), mem, Type.SCREEN_TEXT);
+          ctx.carets.add(start, str.length(), mem, Type.SCREEN_TEXT);
           
-          if (list.isEmpty()) { 
+          if (ctx.list.isEmpty()) { 
             if (isString) str.append("\"\n");
             else str.append("\n");
-            if (option.assembler==Assembler.Name.KICK && !isSpecial) str.setCharAt(position, ' ');
+            if (ctx.option.assembler==Assembler.Name.KICK && !isSpecial) str.setCharAt(position, ' ');
           }
           
           start=str.length();
@@ -5958,14 +5991,15 @@ public class Assembler {
                 /**
      * Put a value to the stream
      * 
+     * @param ctx the emit context
      * @param str the otput stream
      * @param mem the memory dasm
      * @param option the option to use
      */
     @Override
-    public void putValue(StringBuilder str, MemoryDasm mem, Option option) {
+    public void putValue(EmitContext ctx, StringBuilder str, MemoryDasm mem, Option option) {
        // look if it is time to aggregate data
-       if (list.size()==option.maxTextAggregate) flush(str);   
+       if (ctx.list.size()==option.maxTextAggregate) flush(ctx, str);   
     }
    }  
    
@@ -5984,8 +6018,8 @@ public class Assembler {
       ;
 
       @Override
-      public void flush(StringBuilder str) {
-        if (list.isEmpty()) return;    
+      public void flush(EmitContext ctx, StringBuilder str) {
+        if (ctx.list.isEmpty()) return;    
         
         boolean isString=false;
         boolean isFirst=true;
@@ -5995,30 +6029,30 @@ public class Assembler {
         int pos1=str.length();
         int start=pos1;
                
-        switch (aPetasciiText) {
+        switch (ctx.aPetasciiText) {
           case DOT_BYTE_PETASCIITEXT:
-            str.append(getDataSpacesTabs()).append((".byte "));
+            str.append(getDataSpacesTabs(ctx)).append((".byte "));
             break;
           case DOT_BYT_PETASCIITEXT:
-            str.append(getDataSpacesTabs()).append((".byt "));
+            str.append(getDataSpacesTabs(ctx)).append((".byt "));
             break;  
           case BYTE_PETASCIITEXT:
-            str.append(getDataSpacesTabs()).append(("byte "));  
+            str.append(getDataSpacesTabs(ctx)).append(("byte "));  
             break;
           case DC_BYTE_PETASCIITEXT:
-            str.append(getDataSpacesTabs()).append(("dc "));  
+            str.append(getDataSpacesTabs(ctx)).append(("dc "));  
             break;
           case DC_B_BYTE_PETASCIITEXT:
-            str.append(getDataSpacesTabs()).append(("dc.b "));  
+            str.append(getDataSpacesTabs(ctx)).append(("dc.b "));  
             break;
           case DB_BYTE_PETASCIITEXT:
-            str.append(getDataSpacesTabs()).append(("db "));  
+            str.append(getDataSpacesTabs(ctx)).append(("db "));  
             break;  
           case MARK_PET_PETASCIITEXT:
-            str.append(getDataSpacesTabs()).append(("!pet "));  
+            str.append(getDataSpacesTabs(ctx)).append(("!pet "));  
             break;            
           case DOT_TEXT_PETASCIITEXT:
-            str.append(getDataSpacesTabs()).append((".text "));   
+            str.append(getDataSpacesTabs(ctx)).append((".text "));   
             break;                  
         }
         
@@ -6027,22 +6061,22 @@ public class Assembler {
         MemoryDasm mem;
         MemoryDasm memRel;
       
-        while (!list.isEmpty()) {
+        while (!ctx.list.isEmpty()) {
           // accodate each bytes in the format choosed
-          mem=list.pop();
-          memRel=listRel.pop();
-          listRel2.pop();
-          listBase.pop();
-          listDest.pop();
+          mem=ctx.list.pop();
+          memRel=ctx.listRel.pop();
+          ctx.listRel2.pop();
+          ctx.listBase.pop();
+          ctx.listDest.pop();
           
           // not all char can be converted in string
           
           int val=(mem.copy & 0xFF);  
-          switch (option.assembler) {
+          switch (ctx.option.assembler) {
             case DASM:
               if (
-                  (!option.allowUtf && (val<0x20 || val==0x22 || (val>127))) ||     
-                  (option.allowUtf && ((val==0x00) || (val==0x0A) || (val==0x22) || (val>127)))  
+                  (!ctx.option.allowUtf && (val<0x20 || val==0x22 || (val>127))) ||     
+                  (ctx.option.allowUtf && ((val==0x00) || (val==0x0A) || (val==0x22) || (val>127)))  
                  )  {
                   if (isString) {
                     str.append("\"");
@@ -6066,8 +6100,8 @@ public class Assembler {
               break;
             case TMPX:
               if (
-                  (!option.allowUtf && ((val<0x08) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127))) ||    
-                  (option.allowUtf && ((val==0x08) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127)))   
+                  (!ctx.option.allowUtf && ((val<0x08) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127))) ||    
+                  (ctx.option.allowUtf && ((val==0x08) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127)))   
                  )   {                                    
                   // sorry, we force to be bytes as tmpx did not supports byte in line of text
                   if (isFirst) {
@@ -6078,13 +6112,13 @@ public class Assembler {
                         str.append("\"\n");
                         isString=false;  
                       }                  
-                  list.push(mem);
-                  listRel.push(memRel);
-                  listRel2.push(null);
-                  listBase.push(null);
-                  listDest.push(null);
+                  ctx.list.push(mem);
+                  ctx.listRel.push(memRel);
+                  ctx.listRel2.push(null);
+                  ctx.listBase.push(null);
+                  ctx.listDest.push(null);
                   
-                  aByte.flush(str);   
+                  ctx.aByte.flush(ctx, str);   
               } else {
                  if (isFirst) {
                       isFirst=false;
@@ -6099,8 +6133,8 @@ public class Assembler {
               break;    
             case CA65:
               if (
-                  (!option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) ||    
-                  (option.allowUtf && ((val==0x0A) || (val==0x22) || (val>127)))   
+                  (!ctx.option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) ||    
+                  (ctx.option.allowUtf && ((val==0x0A) || (val==0x22) || (val>127)))   
                  )  {
                   if (isString) {
                     str.append("\"");
@@ -6124,8 +6158,8 @@ public class Assembler {
               break;
             case ACME:                 
               if (
-                  (!option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) ||    
-                  (option.allowUtf && ( (val==0x00) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127)))   
+                  (!ctx.option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) ||    
+                  (ctx.option.allowUtf && ( (val==0x00) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127)))   
                  )  {
                   if (isString) {
                     str.append("\"");
@@ -6160,13 +6194,13 @@ public class Assembler {
                 isFirst=false;  
               }    
               if (
-                  (!option.allowUtf && ((val<=0x1F) || (val==0x40) ||
+                  (!ctx.option.allowUtf && ((val<=0x1F) || (val==0x40) ||
                     (val==0x5B) ||
                     (val==0x5D) ||
                     (val>=0x61 && val<=0x7A) ||
                     (val==0x7F) ||
                     (val>=0xA0))) ||    
-                  (option.allowUtf && ((val<=0x02) ||
+                  (ctx.option.allowUtf && ((val<=0x02) ||
                     (val==0x0A) ||
                     (val==0x0C) ||    
                     (val==0x0D) ||
@@ -6194,8 +6228,8 @@ public class Assembler {
               break; 
             case TASS64:
               if (
-                  (!option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) || 
-                  (option.allowUtf && ((val==0x0A) ||
+                  (!ctx.option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) || 
+                  (ctx.option.allowUtf && ((val==0x0A) ||
                    (val==0x0D) ||
                    (val==0x22) ||
                    (val>127)))                      
@@ -6284,8 +6318,8 @@ public class Assembler {
               break;    
             case AS:
               if (
-                  (!option.allowUtf && ((val<0x20 || val==0x22 || val==0x5c || (val>127)))) ||     
-                  (option.allowUtf && ((val==0x00) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val==0x5c) || (val>127))) 
+                  (!ctx.option.allowUtf && ((val<0x20 || val==0x22 || val==0x5c || (val>127)))) ||     
+                  (ctx.option.allowUtf && ((val==0x00) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val==0x5c) || (val>127))) 
                  )  {
                   if (isString) {
                     str.append("\"");
@@ -6309,12 +6343,12 @@ public class Assembler {
               break;
           }           
           
-          carets.add(start, str.length(), mem, Type.PETASCII_TEXT);
+          ctx.carets.add(start, str.length(), mem, Type.PETASCII_TEXT);
           
-          if (list.isEmpty()) { 
+          if (ctx.list.isEmpty()) { 
             if (isString) str.append("\"\n");
             else str.append("\n");
-            if (option.assembler==Assembler.Name.KICK && !isSpecial) str.setCharAt(position, ' ');
+            if (ctx.option.assembler==Assembler.Name.KICK && !isSpecial) str.setCharAt(position, ' ');
           }
           
           start=str.length();
@@ -6324,14 +6358,15 @@ public class Assembler {
           /**
      * Put a value to the stream
      * 
+     * @param ctx the emit context
      * @param str the otput stream
      * @param mem the memory dasm
      * @param option the option to use
      */
     @Override
-    public void putValue(StringBuilder str, MemoryDasm mem, Option option) {
+    public void putValue(EmitContext ctx, StringBuilder str, MemoryDasm mem, Option option) {
        // look if it is time to aggregate data
-       if (list.size()==option.maxTextAggregate) flush(str);   
+       if (ctx.list.size()==option.maxTextAggregate) flush(ctx, str);   
     }
    }  
    
@@ -6349,8 +6384,8 @@ public class Assembler {
       ;
 
       @Override
-      public void flush(StringBuilder str) {
-       if (list.isEmpty()) return; 
+      public void flush(EmitContext ctx, StringBuilder str) {
+       if (ctx.list.isEmpty()) return; 
        
        MemoryDasm memLow;
        MemoryDasm memHigh;
@@ -6359,24 +6394,24 @@ public class Assembler {
      
        int pos1=str.length();  // store initial position
        int start=pos1;
-       int index=(int)(list.size()/2);
+       int index=(int)(ctx.list.size()/2);
        
        // create starting command according to the kind of byte
-       switch (aStackWord) {
+       switch (ctx.aStackWord) {
          case DOT_RTA_STACKWORD:
-           str.append(getDataSpacesTabs()).append((".rta "));  
+           str.append(getDataSpacesTabs(ctx)).append((".rta "));  
            break;
          case MACRO_STACKWORD:
          case MACRO3_STACKWORD: 
          case MACRO4_STACKWORD:     
          case MACRO5_STACKWORD:     
-           str.append(getDataSpacesTabs()).append("Stack").append(index).append(" ");  
+           str.append(getDataSpacesTabs(ctx)).append("Stack").append(index).append(" ");  
            break;           
          case MACRO1_STACKWORD:
-           str.append(getDataSpacesTabs()).append("Stack").append(index).append("(");   // must close the )
+           str.append(getDataSpacesTabs(ctx)).append("Stack").append(index).append("(");   // must close the )
            break;
          case MACRO2_STACKWORD:
-           str.append(getDataSpacesTabs()).append("+Stack").append(index).append(" ");  
+           str.append(getDataSpacesTabs(ctx)).append("+Stack").append(index).append(" ");  
            break;
        }
        
@@ -6384,30 +6419,30 @@ public class Assembler {
        boolean isFirst=true;    // true if this is the first output
        
        // we use word, so check for his default mode
-       boolean defaultMode=(aWord!=DW_WORD_H);  
+       boolean defaultMode=(ctx.aWord!=DW_WORD_H);  
        
        
-       while (!list.isEmpty()) {
+       while (!ctx.list.isEmpty()) {
          // if only 1 byte left, use byte coding
-         if (list.size()==1) {
+         if (ctx.list.size()==1) {
            if (isFirst) {
               str.replace(pos1, pos2, "");
               isFirst=false;                    
            }  
-           aByte.flush(str);
+           ctx.aByte.flush(ctx, str);
          }
          else {
-           memLow=list.pop();
-           memRelLow=listRel.pop();
-           listRel2.pop();
-           listBase.pop();
-           listDest.pop();
+           memLow=ctx.list.pop();
+           memRelLow=ctx.listRel.pop();
+           ctx.listRel2.pop();
+           ctx.listBase.pop();
+           ctx.listDest.pop();
            
-           memHigh=list.pop();
-           memRelHigh=listRel.pop();           
-           listRel2.pop();
-           listBase.pop();
-           listDest.pop();
+           memHigh=ctx.list.pop();
+           memRelHigh=ctx.listRel.pop();           
+           ctx.listRel2.pop();
+           ctx.listBase.pop();
+           ctx.listDest.pop();
            
            if (memLow.type==TYPE_MINOR && memHigh.type==TYPE_MAJOR && memLow.related==memHigh.related) {
              if (memRelLow.userLocation!=null && !"".equals(memRelLow.userLocation)) str.append(memRelLow.userLocation).append("+1");
@@ -6424,20 +6459,20 @@ public class Assembler {
                    memHigh.type==TYPE_MAJOR || 
                    memHigh.type==TYPE_PLUS_MAJOR || 
                    memHigh.type==TYPE_PLUS_MINOR)  {
-                 list.addFirst(memHigh);
-                 list.addFirst(memLow);
-                 listRel.addFirst(memRelHigh);
-                 listRel.addFirst(memRelLow);
-                 listRel2.addFirst(null);
-                 listRel2.addFirst(null);
-                 listBase.push(null);
-                 listDest.push(null);
+                 ctx.list.addFirst(memHigh);
+                 ctx.list.addFirst(memLow);
+                 ctx.listRel.addFirst(memRelHigh);
+                 ctx.listRel.addFirst(memRelLow);
+                 ctx.listRel2.addFirst(null);
+                 ctx.listRel2.addFirst(null);
+                 ctx.listBase.push(null);
+                 ctx.listDest.push(null);
                  
                  if (isFirst) {
                    str.replace(pos1, pos2, "");
                    isFirst=false;
                  }
-                 aByte.flush(str);
+                 ctx.aByte.flush(ctx, str);
                }
                else {
                  str.append(
@@ -6446,10 +6481,10 @@ public class Assembler {
                  isFirst=false;  
                }    
              }
-           carets.add(start, str.length(), memLow, Type.STACK_WORD);
+           ctx.carets.add(start, str.length(), memLow, Type.STACK_WORD);
            
-           if (list.size()>=2) str.append(", ");
-           else if (aStackWord==MACRO1_STACKWORD) str.append(")\n");
+           if (ctx.list.size()>=2) str.append(", ");
+           else if (ctx.aStackWord==MACRO1_STACKWORD) str.append(")\n");
            else str.append("\n");
            
            start=str.length();
@@ -6460,21 +6495,22 @@ public class Assembler {
     /**
      * Put a value to the stream
      * 
+     * @param ctx the emit context
      * @param str the otput stream
      * @param mem the memory dasm
      * @param option the option to use
      */
     @Override
-    public void putValue(StringBuilder str, MemoryDasm mem, Option option) {   
+    public void putValue(EmitContext ctx, StringBuilder str, MemoryDasm mem, Option option) {   
        // look if it is time to aggregate data
-       if (list.size()==option.maxStackWordAggregate*2) flush(str);
+       if (ctx.list.size()==option.maxStackWordAggregate*2) flush(ctx, str);
     }   
 
       @Override
-      public void setting(StringBuilder str) {
-        String spaces=getDataSpacesTabs();           
+      public void setting(EmitContext ctx, StringBuilder str) {
+        String spaces=getDataSpacesTabs(ctx);           
           
-        switch (aStackWord) {
+        switch (ctx.aStackWord) {
          case MACRO_STACKWORD:
            str.append(spaces).append(".mac Stack1 \n")
               .append(spaces).append("  .word {1}-1 \n")
@@ -6804,102 +6840,125 @@ public class Assembler {
    }
 
    
-   /** Fifo list of memory locations */
-   protected static LinkedList<MemoryDasm> list=new LinkedList();
+   /**
+    * Emit context.
+    * It contains all the pending output state of one assembler, so that
+    * more assemblers can create their output at the same time in different
+    * threads. The action types are shared enums, so the context is given
+    * to them at each call.
+    */
+   protected static class EmitContext {
+     /** Fifo list of memory locations */
+     protected final LinkedList<MemoryDasm> list=new LinkedList<>();
    
-   /** Fifo list of related memory locations */
-   protected static LinkedList<MemoryDasm> listRel=new LinkedList();   
+     /** Fifo list of related memory locations */
+     protected final LinkedList<MemoryDasm> listRel=new LinkedList<>();
    
-   /** Fifo list of related memory locations of second kind */
-   protected static LinkedList<MemoryDasm> listRel2=new LinkedList();
+     /** Fifo list of related memory locations of second kind */
+     protected final LinkedList<MemoryDasm> listRel2=new LinkedList<>();
    
-   /** Fifo list of memory locations base  */
-   protected static LinkedList<MemoryDasm> listBase=new LinkedList();
+     /** Fifo list of memory locations base  */
+     protected final LinkedList<MemoryDasm> listBase=new LinkedList<>();
    
-   /** Fifo list of memory locations destination */
-   protected static LinkedList<MemoryDasm> listDest=new LinkedList();
+     /** Fifo list of memory locations destination */
+     protected final LinkedList<MemoryDasm> listDest=new LinkedList<>();
    
-   /** Option to use */
-   protected static Option option;
+     /** Option to use */
+     protected Option option;
          
-   /** Last used memory dasm */
-   protected static MemoryDasm lastMem=null;   
-   
-   /** Last program counter */
-   protected static int lastPC=0;
-   
+     /** Last used memory dasm */
+     protected MemoryDasm lastMem=null;   
    
-   /** Assembler starting to use */
-   protected static Assembler.Starting aStarting; 
+     /** Last program counter */
+     protected int lastPC=0;
+      
+     /** Assembler starting to use */
+     protected Assembler.Starting aStarting; 
    
-   /** Assembler origin to use */
-   protected static Assembler.Origin aOrigin; 
+     /** Assembler origin to use */
+     protected Assembler.Origin aOrigin; 
    
-   /** Assembler label to use */
-   protected static Assembler.Label aLabel;
+     /** Assembler label to use */
+     protected Assembler.Label aLabel;
    
-   /** Assembler block comment to use */
-   protected static Assembler.BlockComment aBlockComment;  
+     /** Assembler block comment to use */
+     protected Assembler.BlockComment aBlockComment;  
    
-   /** Assembler comment to use */
-   protected static Assembler.Comment aComment;  
+     /** Assembler comment to use */
+     protected Assembler.Comment aComment;  
   
-   /** Assembler byte type */
-   protected static Assembler.Byte aByte;
+     /** Assembler byte type */
+     protected Assembler.Byte aByte;
   
-   /** Assembler word type */
-   protected static Assembler.Word aWord;
+     /** Assembler word type */
+     protected Assembler.Word aWord;
    
-   /** Assembler word swapped type */
-   protected static Assembler.WordSwapped aWordSwapped;
+     /** Assembler word swapped type */
+     protected Assembler.WordSwapped aWordSwapped;
    
-   /** Assembler tribyte type */
-   protected static Assembler.Tribyte aTribyte;
+     /** Assembler tribyte type */
+     protected Assembler.Tribyte aTribyte;
      
-   /** Assembler long type */
-   protected static Assembler.Long aLong;  
+     /** Assembler long type */
+     protected Assembler.Long aLong;  
+   
+     /** Assembler address type */
+     protected Assembler.Address aAddress;   
+   
+     /** Assembler stack word type */
+     protected Assembler.StackWord aStackWord;   
    
-   /** Assembler address type */
-   protected static Assembler.Address aAddress;   
+     /** Assembler mono color sprite type */
+     protected Assembler.MonoSprite aMonoSprite;
    
-   /** Assembler stack word type */
-   protected static Assembler.StackWord aStackWord;   
+     /** Assembler multi color sprite type */
+     protected Assembler.MultiSprite aMultiSprite;
    
-   /** Assembler mono color sprite type */
-   protected static Assembler.MonoSprite aMonoSprite;
+     /** Assembler text type */
+     protected Assembler.Text aText;
    
-   /** Assembler multi color sprite type */
-   protected static Assembler.MultiSprite aMultiSprite;
+     /** Assembler text with num char type */
+     protected Assembler.NumText aNumText;   
    
-   /** Assembler text type */
-   protected static Assembler.Text aText;
+     /** Assembler zero text type */
+     protected Assembler.ZeroText aZeroText;
    
-   /** Assembler text with num char type */
-   protected static Assembler.NumText aNumText;   
+     /** Assembler high text type */
+     protected Assembler.HighText aHighText;
    
-   /** Assembler zero text type */
-   protected static Assembler.ZeroText aZeroText;
+     /** Assembler left shift text type */
+     protected Assembler.ShiftText aShiftText;  
    
-   /** Assembler high text type */
-   protected static Assembler.HighText aHighText;
+     /** Assembler text to screen code type */
+     protected Assembler.ScreenText aScreenText;  
    
-   /** Assembler left shift text type */
-   protected static Assembler.ShiftText aShiftText;  
+     /** Assembler text to petascii code type */
+     protected Assembler.PetasciiText aPetasciiText; 
    
-   /** Assembler text to screen code type */
-   protected static Assembler.ScreenText aScreenText;  
+     /** Memory constant */
+     protected Constant constant;
    
-   /** Assembler text to petascii code type */
-   protected static Assembler.PetasciiText aPetasciiText; 
+     /** Carets to use */
+     protected Carets carets;
    
-   /** Memory constant */
-   protected static Constant constant;
+     /** Memory dasm for block macro comments **/
+     protected MemoryDasm[] memory;
    
-   /** Carets to use */
-   protected static Carets carets;
+     /** Actual size of monocromatic sprite block */
+     protected int sizeMonoSpriteBlock=0;
    
-   /** Memory dasm for block macro comments **/
-   protected static MemoryDasm[] memory;
+     /** Actual size of multicolor sprite block */
+     protected int sizeMultiSpriteBlock=0;
+   
+     /** Memory dasm with num or chars */
+     protected MemoryDasm numText;
+     
+     /** BASIC bytes being detokenized */
+     protected final BasicDetokenize basicList=new BasicDetokenize();
+   }
+   
+   /** Emit context of this assembler */
+   protected final EmitContext emit=new EmitContext();
    
    /** Actual type being processed */
    ActionType actualType=null;
@@ -6907,19 +6966,9 @@ public class Assembler {
    /** True if this ia a block of monoscromatic sprite */
    boolean isMonoSpriteBlock=false;
    
-   /** Actual size of monocromatic sprite block */
-   protected static int sizeMonoSpriteBlock=0;
-   
    /** True if this is a block of multicolor sprite */
    boolean isMultiSpriteBlock=false;
    
-   /** Actual size of multicolor sprite block */
-   protected static int sizeMultiSpriteBlock=0;
-   
-   /** Memory dasm with num or chars */
-   protected static MemoryDasm numText;
-     
-        
    /**
     * Set the option to use
     * 
@@ -6975,45 +7024,45 @@ public class Assembler {
                          Carets carets,
                          MemoryDasm[] memory
                          ) {
-     Assembler.aStarting=aStarting;  
-     Assembler.option=option;
-     Assembler.aOrigin=aOrigin;
-     Assembler.aLabel=aLabel;
-     Assembler.aComment=aComment;
-     Assembler.aBlockComment=aBlockComment;
-     Assembler.aByte=aByte;
-     Assembler.aWord=aWord;
-     Assembler.aWordSwapped=aWordSwapped;
-     Assembler.aTribyte=aTribyte;
-     Assembler.aLong=aLong;
-     Assembler.aAddress=aAddress;
-     Assembler.aStackWord=aStackWord;
-     Assembler.aMonoSprite=aMonoSprite;
-     Assembler.aMultiSprite=aMultiSprite;
-     Assembler.aText=aText;
-     Assembler.aNumText=aNumText;
-     Assembler.aZeroText=aZeroText;
-     Assembler.aHighText=aHighText;
-     Assembler.aShiftText=aShiftText;
-     Assembler.aScreenText=aScreenText;
-     Assembler.aPetasciiText=aPetasciiText;
+     emit.aStarting=aStarting;  
+     emit.option=option;
+     emit.aOrigin=aOrigin;
+     emit.aLabel=aLabel;
+     emit.aComment=aComment;
+     emit.aBlockComment=aBlockComment;
+     emit.aByte=aByte;
+     emit.aWord=aWord;
+     emit.aWordSwapped=aWordSwapped;
+     emit.aTribyte=aTribyte;
+     emit.aLong=aLong;
+     emit.aAddress=aAddress;
+     emit.aStackWord=aStackWord;
+     emit.aMonoSprite=aMonoSprite;
+     emit.aMultiSprite=aMultiSprite;
+     emit.aText=aText;
+     emit.aNumText=aNumText;
+     emit.aZeroText=aZeroText;
+     emit.aHighText=aHighText;
+     emit.aShiftText=aShiftText;
+     emit.aScreenText=aScreenText;
+     emit.aPetasciiText=aPetasciiText;
       
      isMonoSpriteBlock=false;
-     sizeMonoSpriteBlock=0;
+     emit.sizeMonoSpriteBlock=0;
      isMultiSpriteBlock=false;
-     sizeMultiSpriteBlock=0;
+     emit.sizeMultiSpriteBlock=0;
      
-     this.constant=constant;
-     this.carets=carets;
-     this.memory=memory;
+     emit.constant=constant;
+     emit.carets=carets;
+     emit.memory=memory;
      
      // clear up all list that can be still not empty from previous usage
-     list.clear();
-     listRel.clear();
-     listRel2.clear();
-     listBase.clear();
-     listDest.clear();
-     aByte.clearBasic();
+     emit.list.clear();
+     emit.listRel.clear();
+     emit.listRel2.clear();
+     emit.listBase.clear();
+     emit.listDest.clear();
+     emit.basicList.clear();
    } 
    
    /**
@@ -7022,7 +7071,7 @@ public class Assembler {
     * @return current cattets
     */
    public Carets getCarets() {
-     return carets;  
+     return emit.carets;  
    }
    
    /**
@@ -7037,24 +7086,24 @@ public class Assembler {
     */
    public void putValue(StringBuilder str, MemoryDasm mem, MemoryDasm memRel, MemoryDasm memRel2, MemoryDasm memBase, MemoryDasm memDest) {
      ActionType type=actualType;  
-     lastMem=mem;
+     emit.lastMem=mem;
      
      // if there is a block comments use it
      if (mem.userBlockComment!=null && !"".equals(mem.userBlockComment)) {
        flush(str);
        type=actualType;
-       actualType=aBlockComment;
+       actualType=emit.aBlockComment;
        flush(str);
        actualType=type;
      }     
        
      // if this is a label then the type will change  
-     if (!(lastMem.type==TYPE_PLUS || 
-           lastMem.type==TYPE_MINUS || 
-           lastMem.type==TYPE_PLUS_MAJOR || 
-           lastMem.type==TYPE_PLUS_MINOR)) {
-       if (mem.userLocation!=null && !"".equals(mem.userLocation)) type=aLabel;
-       else if (mem.dasmLocation!=null && !"".equals(mem.dasmLocation)) type=aLabel;  
+     if (!(emit.lastMem.type==TYPE_PLUS || 
+           emit.lastMem.type==TYPE_MINUS || 
+           emit.lastMem.type==TYPE_PLUS_MAJOR || 
+           emit.lastMem.type==TYPE_PLUS_MINOR)) {
+       if (mem.userLocation!=null && !"".equals(mem.userLocation)) type=emit.aLabel;
+       else if (mem.dasmLocation!=null && !"".equals(mem.dasmLocation)) type=emit.aLabel;  
      }
       
      // test if it change type  
@@ -7062,16 +7111,16 @@ public class Assembler {
        flush(str);              // write back previous data
        
        // we can have only one label in a memory row, so process it if this is the case
-       if (type==aLabel) {
+       if (type==emit.aLabel) {
          int size=str.length();         
-         type.flush(str);             // write back the label         
+         type.flush(emit, str);             // write back the label         
        
          // check if there is a comment for the label
-         if (lastMem.userComment!=null) {
+         if (emit.lastMem.userComment!=null) {
            size=str.length()-size;      // get number of chars used  
-           str.append(getDataCSpacesTabs(size-getDataSpacesTabs().length()));
-           type=aComment;
-           type.flush(str);
+           str.append(getDataCSpacesTabs(emit, size-getDataSpacesTabs(emit).length()));
+           type=emit.aComment;
+           type.flush(emit, str);
          } else str.append("\n");  // close label by going in a new line
        }   
               
@@ -7084,13 +7133,13 @@ public class Assembler {
        }
      } 
                
-     list.add(mem);
-     listRel.add(memRel);
-     listRel2.add(memRel2);     
-     listBase.add(memBase);
-     listDest.add(memDest);
+     emit.list.add(mem);
+     emit.listRel.add(memRel);
+     emit.listRel2.add(memRel2);     
+     emit.listBase.add(memBase);
+     emit.listDest.add(memDest);
      
-     actualType.putValue(str, mem, option);
+     actualType.putValue(emit, str, mem, emit.option);
    }
    
    /**
@@ -7099,7 +7148,7 @@ public class Assembler {
     * @param str the stream for output
     */
    public void setStarting(StringBuilder str) {
-     aStarting.flush(str);
+     emit.aStarting.flush(emit, str);
    }   
    
    /**
@@ -7109,8 +7158,8 @@ public class Assembler {
     * @param pc the program counter to set
     */
    public void setOrg(StringBuilder str, int pc) {
-     lastPC=pc;
-     aOrigin.flush(str);
+     emit.lastPC=pc;
+     emit.aOrigin.flush(emit, str);
    }      
    
    /**
@@ -7128,9 +7177,9 @@ public class Assembler {
      for (int i=0; i<Constant.COLS; i++) {
        already=false;
        
-       for (int j=0; j<Constant.ROWS; j++) {
-         val=constant.table[i][j];
-         comment=constant.comment[i][j];
+       for (int j: constant.getRows(i)) {
+         val=constant.get(i, j);
+         comment=constant.getComment(i, j);
          if (val!=null && !"".equals(val) && constant.isConstant(val)) {
            if (!already) {             
              // show block comment for the connstant type  
@@ -7142,7 +7191,7 @@ public class Assembler {
            }  
            
            pos1=str.length();          
-           switch (option.assembler) {
+           switch (emit.option.assembler) {
                case KICK:
                  str.append(".const "+val+" = "+"$"+ByteToExe(j));  
                  break;
@@ -7160,7 +7209,7 @@ public class Assembler {
              mem.userComment=comment;             
            }
            // gives the right spaces
-           str.append(getDataCSpacesTabs(str.length()-pos1-getDataSpacesTabs().length()));
+           str.append(getDataCSpacesTabs(emit, str.length()-pos1-getDataSpacesTabs(emit).length()));
            setComment(str, mem);
          }
        }         
@@ -7191,12 +7240,12 @@ public class Assembler {
        if (mem.dataType==DataType.STACK) hasStack=true;
      }
      
-     if (hasMonoSprite) aMonoSprite.setting(str);
-     if (hasMultiSprite) aMultiSprite.setting(str);
-     if (hasWordSwapped) aWordSwapped.setting(str);
-     if (hasTribyte) aTribyte.setting(str);
-     if (hasLong) aLong.setting(str);
-     if (hasStack) aStackWord.setting(str);
+     if (hasMonoSprite) emit.aMonoSprite.setting(emit, str);
+     if (hasMultiSprite) emit.aMultiSprite.setting(emit, str);
+     if (hasWordSwapped) emit.aWordSwapped.setting(emit, str);
+     if (hasTribyte) emit.aTribyte.setting(emit, str);
+     if (hasLong) emit.aLong.setting(emit, str);
+     if (hasStack) emit.aStackWord.setting(emit, str);
    }
    
    /**
@@ -7212,32 +7261,32 @@ public class Assembler {
      MemoryDasm lowMemRel=new MemoryDasm();
      MemoryDasm highMemRel=new MemoryDasm();
        
-     list.clear();
-     listRel.clear();  
-     listRel2.clear();  
-     listBase.clear();
-     listDest.clear();
+     emit.list.clear();
+     emit.listRel.clear();  
+     emit.listRel2.clear();  
+     emit.listBase.clear();
+     emit.listDest.clear();
      
      lowMem.type=TYPE_MINOR;
      lowMem.related=address;
      highMem.type=TYPE_MAJOR;
      highMem.related=address;
-     list.add(lowMem);
-     list.add(highMem);
+     emit.list.add(lowMem);
+     emit.list.add(highMem);
      
      lowMemRel.dasmLocation=label;
      highMemRel.dasmLocation=label;
-     listRel.add(lowMemRel);
-     listRel.add(highMemRel);
-     listRel2.add(null);
-     listRel2.add(null);
+     emit.listRel.add(lowMemRel);
+     emit.listRel.add(highMemRel);
+     emit.listRel2.add(null);
+     emit.listRel2.add(null);
      
-     listBase.add(null);
-     listBase.add(null);
-     listDest.add(null);
-     listDest.add(null);
+     emit.listBase.add(null);
+     emit.listBase.add(null);
+     emit.listDest.add(null);
+     emit.listDest.add(null);
      
-     actualType=aByte;
+     actualType=emit.aByte;
      flush(str);
      actualType=null;
    }
@@ -7255,32 +7304,32 @@ public class Assembler {
      MemoryDasm lowMemRel=new MemoryDasm();
      MemoryDasm highMemRel=new MemoryDasm();
        
-     list.clear();
-     listRel.clear();  
-     listRel2.clear();  
-     listBase.clear();
-     listDest.clear();
+     emit.list.clear();
+     emit.listRel.clear();  
+     emit.listRel2.clear();  
+     emit.listBase.clear();
+     emit.listDest.clear();
      
      lowMem.type=TYPE_MINOR;
      lowMem.related=address;
      highMem.type=TYPE_MAJOR;
      highMem.related=address;
-     list.add(highMem);
-     list.add(lowMem);
+     emit.list.add(highMem);
+     emit.list.add(lowMem);
      
      lowMemRel.dasmLocation=label;
      highMemRel.dasmLocation=label;
-     listRel.add(highMemRel);
-     listRel.add(lowMemRel);
-     listRel2.add(null);
-     listRel2.add(null);
+     emit.listRel.add(highMemRel);
+     emit.listRel.add(lowMemRel);
+     emit.listRel2.add(null);
+     emit.listRel2.add(null);
      
-     listBase.add(null);
-     listBase.add(null);
-     listDest.add(null);
-     listDest.add(null);
+     emit.listBase.add(null);
+     emit.listBase.add(null);
+     emit.listDest.add(null);
+     emit.listDest.add(null);
      
-     actualType=aByte;
+     actualType=emit.aByte;
      flush(str);
      actualType=null;
    }
@@ -7306,34 +7355,34 @@ public class Assembler {
      highMem.type='W';
      highMem.related=-1;
      
-     list.clear();
-     listRel.clear();
-     listRel2.clear();
-     listBase.clear();
-     listDest.clear();
+     emit.list.clear();
+     emit.listRel.clear();
+     emit.listRel2.clear();
+     emit.listBase.clear();
+     emit.listDest.clear();
      
-     list.add(lowMem);
-     listRel.add(null);
-     listRel2.add(null);
+     emit.list.add(lowMem);
+     emit.listRel.add(null);
+     emit.listRel2.add(null);
      
-     list.add(highMem);
-     listRel.add(null);
-     listRel2.add(null);
+     emit.list.add(highMem);
+     emit.listRel.add(null);
+     emit.listRel2.add(null);
      
-     listBase.add(null);
-     listBase.add(null);
-     listDest.add(null);
-     listDest.add(null);
+     emit.listBase.add(null);
+     emit.listBase.add(null);
+     emit.listDest.add(null);
+     emit.listDest.add(null);
      
      //int size=0;
      
      if (comment!=null) {
        highMem.userComment=comment;
-       lastMem=highMem;
+       emit.lastMem=highMem;
        //size=str.length();
      }
      
-     actualType=aWord;
+     actualType=emit.aWord;
      flush(str);
      actualType=null;
      
@@ -7341,7 +7390,7 @@ public class Assembler {
      //    str.deleteCharAt(str.length()-1);            // remove \n
      //    size=str.length()-size;                      // get number of chars used  
      //    str.append(SPACES.substring(0, SPACES.length()-size));
-     //   aComment.flush(str);  
+     //   aComment.flush(emit, str);  
      // }
    }
    
@@ -7360,24 +7409,24 @@ public class Assembler {
      lowMem.type='B';
      lowMem.related=-1;
      
-     list.clear();
-     listRel.clear();
-     listRel2.clear();
-     listBase.clear();
-     listDest.clear();
+     emit.list.clear();
+     emit.listRel.clear();
+     emit.listRel2.clear();
+     emit.listBase.clear();
+     emit.listDest.clear();
      
-     list.add(lowMem);
-     listRel.add(null);
-     listRel2.add(null);
-     listBase.add(null);
-     listDest.add(null);
+     emit.list.add(lowMem);
+     emit.listRel.add(null);
+     emit.listRel2.add(null);
+     emit.listBase.add(null);
+     emit.listDest.add(null);
      
      if (comment!=null) {
        lowMem.userComment=comment;
-       lastMem=lowMem;
+       emit.lastMem=lowMem;
      }
      
-     actualType=aWord;
+     actualType=emit.aWord;
      flush(str);
      actualType=null;    
    }
@@ -7391,24 +7440,24 @@ public class Assembler {
    public void setText(StringBuilder str, String text) {
      MemoryDasm mem;     
      
-     list.clear();
-     listRel.clear();
-     listRel2.clear();
-     listBase.clear();
-     listDest.clear();
+     emit.list.clear();
+     emit.listRel.clear();
+     emit.listRel2.clear();
+     emit.listBase.clear();
+     emit.listDest.clear();
                
      for (char val: text.toCharArray()) {
        mem=new MemoryDasm();
        mem.copy=(byte)val;
        mem.dataType=DataType.TEXT;
-       list.add(mem);
-       listRel.add(null);
-       listRel2.add(null);
-       listBase.push(null);
-       listDest.push(null);
+       emit.list.add(mem);
+       emit.listRel.add(null);
+       emit.listRel2.add(null);
+       emit.listBase.push(null);
+       emit.listDest.push(null);
      }
        
-     actualType=aText;
+     actualType=emit.aText;
      flush(str);
      actualType=null;          
    }
@@ -7420,8 +7469,8 @@ public class Assembler {
     * @param mem the memory with comment
     */
    public void setComment(StringBuilder str, MemoryDasm mem) {
-     lastMem=mem;
-     aComment.flush(str);
+     emit.lastMem=mem;
+     emit.aComment.flush(emit, str);
    }
    
    /**
@@ -7431,8 +7480,8 @@ public class Assembler {
     * @param mem the memory with comment
     */
    public void setLabel(StringBuilder str, MemoryDasm mem) {
-     lastMem=mem;
-     aLabel.flush(str);
+     emit.lastMem=mem;
+     emit.aLabel.flush(emit, str);
    }   
    
    /**
@@ -7442,8 +7491,8 @@ public class Assembler {
     * @param mem the memory with block comment
     */
    public void setBlockComment(StringBuilder str, MemoryDasm mem) {
-     lastMem=mem;
-     aBlockComment.flush(str);
+     emit.lastMem=mem;
+     emit.aBlockComment.flush(emit, str);
    }   
    
    /**
@@ -7452,7 +7501,7 @@ public class Assembler {
     * @param str the output stream
     */
    public void flush(StringBuilder str) {
-     if (actualType!=null) actualType.flush(str);
+     if (actualType!=null) actualType.flush(emit, str);
    }
    
    /**
@@ -7474,92 +7523,92 @@ public class Assembler {
        case BYTE_CHAR:
          isMonoSpriteBlock=false;
          isMultiSpriteBlock=false;    
-         numText=null;
-         return aByte;
+         emit.numText=null;
+         return emit.aByte;
        case WORD:
          isMonoSpriteBlock=false;
          isMultiSpriteBlock=false;   
-         numText=null;
-         return aWord;
+         emit.numText=null;
+         return emit.aWord;
        case SWAPPED:
          isMonoSpriteBlock=false;
          isMultiSpriteBlock=false;   
-         numText=null;
-         return aWordSwapped;       
+         emit.numText=null;
+         return emit.aWordSwapped;       
        case TRIBYTE:
          isMonoSpriteBlock=false;
          isMultiSpriteBlock=false;   
-         numText=null;
-         return aTribyte;  
+         emit.numText=null;
+         return emit.aTribyte;  
        case LONG:
          isMonoSpriteBlock=false;
          isMultiSpriteBlock=false;   
-         numText=null;
-         return aLong;      
+         emit.numText=null;
+         return emit.aLong;      
        case ADDRESS:
          isMonoSpriteBlock=false;
          isMultiSpriteBlock=false;   
-         numText=null;
-         return aAddress; 
+         emit.numText=null;
+         return emit.aAddress; 
        case STACK:
          isMonoSpriteBlock=false;
          isMultiSpriteBlock=false;   
-         numText=null;
-         return aStackWord;  
+         emit.numText=null;
+         return emit.aStackWord;  
        case MONO_SPRITE:
-         if (!isMonoSpriteBlock) sizeMonoSpriteBlock=0;  
+         if (!isMonoSpriteBlock) emit.sizeMonoSpriteBlock=0;  
          isMonoSpriteBlock=true;  
          isMultiSpriteBlock=false;
-         sizeMonoSpriteBlock++;
-         numText=null;
-         return aMonoSprite;
+         emit.sizeMonoSpriteBlock++;
+         emit.numText=null;
+         return emit.aMonoSprite;
        case MULTI_SPRITE:
-         if (!isMultiSpriteBlock) sizeMultiSpriteBlock=0; 
+         if (!isMultiSpriteBlock) emit.sizeMultiSpriteBlock=0; 
          isMultiSpriteBlock=true; 
          isMonoSpriteBlock=false;
-         sizeMultiSpriteBlock++;
-         numText=null;
-         return aMultiSprite;  
+         emit.sizeMultiSpriteBlock++;
+         emit.numText=null;
+         return emit.aMultiSprite;  
        case TEXT:
          isMonoSpriteBlock=false;
          isMultiSpriteBlock=false;   
-         return aText; 
+         return emit.aText; 
        case NUM_TEXT:
          isMonoSpriteBlock=false;
          isMultiSpriteBlock=false;   
-         return aNumText;     
+         return emit.aNumText;     
        case ZERO_TEXT:
          isMonoSpriteBlock=false;
          isMultiSpriteBlock=false;   
-         numText=null;
-         return aZeroText;         
+         emit.numText=null;
+         return emit.aZeroText;         
        case HIGH_TEXT:
          isMonoSpriteBlock=false;
          isMultiSpriteBlock=false;   
-         numText=null;
-         return aHighText;   
+         emit.numText=null;
+         return emit.aHighText;   
        case SHIFT_TEXT:
          isMonoSpriteBlock=false;
          isMultiSpriteBlock=false;   
-         numText=null;
-         return aShiftText;      
+         emit.numText=null;
+         return emit.aShiftText;      
        case SCREEN_TEXT:
          isMonoSpriteBlock=false;
          isMultiSpriteBlock=false;   
-         numText=null;
-         return aScreenText; 
+         emit.numText=null;
+         return emit.aScreenText; 
        case PETASCII_TEXT:
          isMonoSpriteBlock=false;
          isMultiSpriteBlock=false;   
-         numText=null;
-         return aPetasciiText;        
+         emit.numText=null;
+         return emit.aPetasciiText;        
      }
      
      // default is of Byte type
      isMonoSpriteBlock=false;
      isMultiSpriteBlock=false; 
-     numText=null;
-     return aByte;
+     emit.numText=null;
+     return emit.aByte;
    }   
 
   /**
@@ -7589,7 +7638,7 @@ public class Assembler {
         
         int start=result.length();
         
-        if (option.assembler==Assembler.Name.KICK) {
+        if (emit.option.assembler==Assembler.Name.KICK) {
           if (mem.address<=0xFF) tmp=".label "+label+" = $"+ByteToExe(mem.address);  
           else tmp=".label "+label+" = $"+ShortToExe(mem.address);  
         } else {
@@ -7620,7 +7669,7 @@ public class Assembler {
          
         int start=result.length();
         
-        if (option.assembler==Assembler.Name.KICK) {
+        if (emit.option.assembler==Assembler.Name.KICK) {
           if (mem.address<=0xFF) tmp=".label "+label+" = $"+ByteToExe(mem.address);  
           else tmp=".label "+label+" = $"+ShortToExe(mem.address);  
         } else {
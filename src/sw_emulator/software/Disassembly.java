@@ -24,13 +24,15 @@
 package sw_emulator.software;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
-import java.util.Iterator;
 import java.util.Locale;
 import sw_emulator.math.Unsigned;
 import sw_emulator.software.cpu.CpuDasm;
 import sw_emulator.software.cpu.I8048Dasm;
 import sw_emulator.software.cpu.M6510Dasm;
+import sw_emulator.software.cpu.M6510Tracer;
 import sw_emulator.software.machine.AtariDasm;
 import sw_emulator.software.machine.C64MusDasm;
 import sw_emulator.software.machine.C64SidDasm;
@@ -98,6 +100,9 @@ public class Disassembly {
   /** Blocks of memory to disassemble */
   public ArrayList<Block> blocks;
   
+  /** Index+1 of the block that contains each address (0 if none) */
+  private int[] blockIndex=new int[0x10000];
+  
   /** Constants */
   public Constant constant;
   
@@ -147,34 +152,98 @@ public class Disassembly {
   protected Assembler.StackWord aStackWord; 
   
   /** Assembler mono color sprite type */
-  protected static Assembler.MonoSprite aMonoSprite;
+  protected Assembler.MonoSprite aMonoSprite;
    
   /** Asembler multi color sprite type */
-  protected static Assembler.MultiSprite aMultiSprite;
+  protected Assembler.MultiSprite aMultiSprite;
    
   /** Asembler text type */
-  protected static Assembler.Text aText;
+  protected Assembler.Text aText;
    
   /** Asembler text with number of chars type */
-  protected static Assembler.NumText aNumText;   
+  protected Assembler.NumText aNumText;   
    
   /** Asembler text zero terminated type */
-  protected static Assembler.ZeroText aZeroText;   
+  protected Assembler.ZeroText aZeroText;   
    
   /** Asembler text terminated with high bit 1 */
-  protected static Assembler.HighText aHighText;  
+  protected Assembler.HighText aHighText;  
    
   /** Asembler text left shifted */
-  protected static Assembler.ShiftText aShiftText;  
+  protected Assembler.ShiftText aShiftText;  
    
   /** Asembler text to screen code */
-  protected static Assembler.ScreenText aScreenText;    
+  protected Assembler.ScreenText aScreenText;    
   
   /** Asembler text to screen code */
-  protected static Assembler.PetasciiText aPetasciiText; 
+  protected Assembler.PetasciiText aPetasciiText; 
   
   /** Reuse a string builder to avoid too much GC */
   private final StringBuilder builder=new StringBuilder();
+  
+  /** SID frequency engine of this disassembly */
+  private final SidFreq sidFreq=new SidFreq();
+  
+  /** Output of blocks in the last preview pass */
+  private final ArrayList<BlockOutput> cachePreview=new ArrayList<>();
+  
+  /** Output of blocks in the last source pass */
+  private final ArrayList<BlockOutput> cacheSource=new ArrayList<>();
+  
+  /** Addresses changed by the user after the last preview pass (null if not known) */
+  private BitSet touched;
+  
+  /** Addresses disassembled again by the last incremental preview pass (null if not incremental) */
+  private BitSet dirty;
+  
+  /** Addresses of memory changed by the last incremental disassembly (null if not known) */
+  private BitSet changed;
+  
+  /** True if actual pass can reuse the output of untouched blocks */
+  private boolean incremental;
+  
+  /** Minimum size of a chunk of block that is disassembled alone */
+  private static final int CHUNK_SIZE=256;
+  
+  /**
+   * Output of one block, kept for regenerating only the chunks touched by 
+   * memory changes
+   */
+  private static class BlockOutput {
+    /** Start address of block */  
+    int startAddress;
+    
+    /** End address of block */
+    int endAddress;
+    
+    /** Header text (origin and player) */
+    String header;
+    
+    /** Carets of header relative to its start */
+    Carets headerCarets;
+    
+    /** Chunks of the block in address order */
+    ArrayList<ChunkOutput> chunks=new ArrayList<>();
+  }
+  
+  /**
+   * Output of one chunk of a block.
+   * A chunk starts at an instruction, so the disassembler has no pending 
+   * data and its output does not depend from the previous chunk.
+   */
+  private static class ChunkOutput {
+    /** Start address of chunk */  
+    int startAddress;
+    
+    /** End address of chunk */
+    int endAddress;
+    
+    /** Disassembled text */
+    String text;
+    
+    /** Carets of text relative to its start */
+    Carets carets;
+  }
     
   /**
    * Disassemble the given data
@@ -197,6 +266,21 @@ public class Disassembly {
                            Relocate[] relocates, Patch[] patches,
                            int chip, int binAddress, TargetType targetType, 
                            boolean asSource, XRefManager xRefManager) {
+    // the cached output is valid only for the same model
+    if (this.inB!=inB || this.fileType!=fileType || this.option!=option ||
+        this.constant!=constant || this.memory!=memory || this.mpr!=mpr ||
+        this.relocates!=relocates || this.patches!=patches || 
+        this.xRefManager!=xRefManager || this.chip!=chip || 
+        this.binAddress!=binAddress) invalidate();
+    
+    if (asSource) incremental=(dirty!=null && !cacheSource.isEmpty());
+    else {
+      incremental=(touched!=null && !cachePreview.isEmpty());
+      changed=(incremental ? touched : null);
+      dirty=null;
+      touched=new BitSet();  
+    }
+    
     this.inB=inB;
     this.fileType=fileType;
     this.option=option;
@@ -222,7 +306,7 @@ public class Disassembly {
       return;
     }   
     
-    if (!asSource) xRefManager.clear();
+    if (!asSource && !incremental) xRefManager.clear();
     
     blocks=new ArrayList();
     
@@ -262,6 +346,68 @@ public class Disassembly {
         disassembly="";   
         break;
     }
+    
+    indexBlocks();
+    
+    if (!incremental) {
+      changed=null;
+      if (!asSource) dirty=null;
+    }
+  }
+  
+  /**
+   * Invalidate the output of blocks, so the next disassembly is done on all
+   * the blocks. 
+   * It must be called when memory is changed in a way not told by touch (as
+   * for code and data types) or when something other than memory is changed 
+   * (option, constants, relocates or patches).
+   */
+  public void invalidate() {
+    cachePreview.clear();
+    cacheSource.clear();
+    touched=null;
+    dirty=null;
+    changed=null;
+  }
+  
+  /**
+   * Tell that the user changes the comments or labels of the given addresses, 
+   * so the next disassembly can do again only the chunks that show them
+   * 
+   * @param start the first changed address
+   * @param end the last changed address
+   */
+  public void touch(int start, int end) {
+    if (touched!=null) touched.set(Math.max(0, start), Math.min(0xFFFF, end)+1);
+  }
+  
+  /**
+   * Get the addresses of memory that can be changed by the last disassembly
+   * (user changes included)
+   * 
+   * @return the changed addresses or null if all the memory can be changed
+   */
+  public BitSet getChanged() {
+    return changed;
+  }
+  
+  /**
+   * Take the output of the given disassembly, so it can be shown while the
+   * given one works on its copy of memory.
+   * The carets refer to the given memory in place of the copy.
+   * 
+   * @param from the disassembly with the output
+   * @param memory the memory of which the given one is a copy
+   */
+  public void publish(Disassembly from, MemoryDasm[] memory) {
+    source=from.source;
+    disassembly=from.disassembly;
+    blocks=from.blocks;
+    blockIndex=from.blockIndex;
+    this.memory=memory;
+    
+    caretsSource.set(from.caretsSource, from.memory, memory);
+    caretsPreview.set(from.caretsPreview, from.memory, memory);
   }
   
   /**
@@ -757,31 +903,8 @@ public class Disassembly {
     prg.setOption(option,  assembler);
     if (prg instanceof M6510Dasm) ((M6510Dasm)prg).setMode(option.illegalOpcodeMode);
     
-    // get start and end address for the selected chip
-    int header=Math.max(
-                      ((inB[0x10]&0xFF)<<24)+((inB[0x11]&0xFF)<<16)+
-                      ((inB[0x12]&0xFF)<<8)+(inB[0x13]&0xFF), 0x40);
-    
-    int pos=header;
-    int index=0;
-    if (chip!=0) {
-      try {       
-        for (int i=0; i<chip; i++) {        
-          pos=pos+((inB[pos+0x4]&0xFF)<<24)
-                    +((inB[pos+0x5]&0xFF)<<16)
-                    +((inB[pos+0x6]&0xFF)<<8)
-                    +(inB[pos+0x7]&0xFF);
-          if (pos>=inB.length) {
-            pos=header;
-            break;
-          }
-        }  
-      } catch (Exception e) {
-          pos=header; // force to use the chip 0
-        }  
-    }
-      
     // pos= position of starting of CHIP area inside buffer
+    int pos=getChipPosition(inB, chip);
     
     block=new Block();   
     block.startAddress=((inB[pos+0xC]&0xFF)<<8)+(inB[pos+0xD]&0xFF);
@@ -848,41 +971,9 @@ public class Disassembly {
     prg.setOption(option,  assembler);
     if (prg instanceof M6510Dasm) ((M6510Dasm)prg).setMode(option.illegalOpcodeMode);
     
-    int pos;
+    int pos=findVSFModule(inB, "C64MEM");
     
-    if (((inB[37] & 0xff) == 0x56) &&
-        ((inB[38] & 0xff) == 0x49) &&
-        ((inB[39] & 0xff) == 0x43) &&
-        ((inB[40] & 0xff) == 0x45)
-       ) pos=58;
-    else pos=37;
-        
-    int actPos;
-    int size=0;
-    boolean find=false;
-    
-    while (pos<inB.length-21) {
-      size=((inB[pos+21] & 0xff)<<24)+
-           ((inB[pos+20] & 0xff)<<16)+
-           ((inB[pos+19] & 0xff)<<8)+
-           (inB[pos+18] & 0xff);
-            
-      actPos=pos;
-      pos+=size;  
-        
-      if ((inB[actPos]& 0xff)   != 0x43) continue;
-      if ((inB[actPos+1]& 0xff) != 0x36) continue;
-      if ((inB[actPos+2]& 0xff) != 0x34) continue;
-      if ((inB[actPos+3]& 0xff) != 0x4D) continue;
-      if ((inB[actPos+4]& 0xff) != 0x45) continue;
-      if ((inB[actPos+5]& 0xff) != 0x4D) continue;
-      
-      pos=actPos;
-      find=true;
-      break;
-    }
-    
-    if (!find) {
+    if (pos<0) {
      if (asSource) source="";
      else disassembly="";
      return;
@@ -1245,6 +1336,31 @@ public class Disassembly {
     else disassembly=builder.toString();
   }   
   
+  /**
+   * Build the index of the block that contains each address.
+   * For overlapping blocks the first one in list wins.
+   */
+  private void indexBlocks() {
+    int[] index=new int[0x10000];
+    
+    for (int i=blocks.size()-1; i>=0; i--) {
+      Block block=blocks.get(i);
+      Arrays.fill(index, Math.max(0, block.startAddress), Math.min(0xFFFF, block.endAddress)+1, i+1);
+    }
+    
+    blockIndex=index;
+  }
+  
+  /**
+   * True if the given address is inside a block
+   * 
+   * @param address the address
+   * @return true if inside a block
+   */
+  public boolean isInBlock(int address) {
+    return address>=0 && address<=0xFFFF && blockIndex[address]!=0;
+  }
+  
   /**
    * Get the min starting address inside the blovks
    * 
@@ -1261,28 +1377,82 @@ public class Disassembly {
   }
   
   /**
-   * Disassembly the blocks we have 
+   * Get the addresses of memory without a disassembler label
+   * 
+   * @return the addresses without label
+   */
+  private BitSet getUnlabeled() {
+    BitSet unlabeled=new BitSet(memory.length);
+    
+    for (int i=0; i<memory.length; i++) {
+      if (memory[i].dasmLocation==null) unlabeled.set(i);
+    }
+    return unlabeled;
+  }
+  
+  /**
+   * Add to the found changes the addresses that get a disassembler label
+   * 
+   * @param unlabeled the addresses without label (the labeled are removed)
+   * @param found the changes found
+   */
+  private void addLabeled(BitSet unlabeled, BitSet found) {
+    for (int i=unlabeled.nextSetBit(0); i>=0; i=unlabeled.nextSetBit(i+1)) {
+      if (memory[i].dasmLocation!=null) {
+        unlabeled.clear(i);
+        found.set(i);
+      }
+    }
+  }
+  
+  /**
+   * Disassembly the blocks we have.
+   * If the previous output is available, only the chunks of blocks touched 
+   * by memory changes (or using a changed label) are disassembled again.
    * 
    * @param asSource true if the disassembly is as source
+   * @param prg the cpu disassembler to use
    * @param tmp the buffer for output
    */
   private void disassemblyBlocks(boolean asSource, CpuDasm prg, StringBuilder tmp) {
-    Block block;
-    
     // merge blocks with adiacent area
     if (option.mergeBlocks) mergeBlocks(); 
 
     // sort by asc memory address
     Collections.sort(blocks, (Block block2, Block block1) -> block2.startAddress-block1.startAddress);
     
-    if (option.useSidFreq) SidFreq.instance.reset();    
+    ArrayList<BlockOutput> cache=(asSource ? cacheSource : cachePreview);
+    
+    // only 6502 family has all the references into the xref manager
+    if (incremental && (!(prg instanceof M6510Dasm) || cache.size()!=blocks.size())) {
+      incremental=false;
+      if (!asSource) xRefManager.clear();
+    }
+    
+    if (option.useSidFreq) sidFreq.reset();    
     
     actualCarets.setOffset(tmp.length());
     tmp.append(assembler.addConstants(memory));
+    
+    int prefix=tmp.length();
+    int prefixCarets=actualCarets.size();
         
-    Iterator<Block> iter=blocks.iterator();
-    while (iter.hasNext()) {
-      block=iter.next();
+    // addresses changed by the disassembled chunks
+    BitSet found=new BitSet();
+    prg.setChanges(found);
+    
+    // the assembler labels the data without telling the changes
+    BitSet unlabeled=getUnlabeled();
+    
+    if (incremental && !asSource) {
+      dirty=getDirty(changed);
+      changed.or(dirty);
+    }
+    
+    ArrayList<BlockOutput> outputs=new ArrayList<>(blocks.size());
+    
+    for (int index=0; index<blocks.size(); index++) {
+      Block block=blocks.get(index);
       
       applyPatches(block);
       
@@ -1290,7 +1460,7 @@ public class Disassembly {
      
       // search for SID frequency table
       if (option.useSidFreq) {
-          SidFreq.instance.identifyFreq(block.inB, memory, block.startBuffer, 
+          sidFreq.identifyFreq(block.inB, memory, block.startBuffer, 
              block.endBuffer, block.startAddress-block.startBuffer,
              option.sidFreqLoLabel, option.sidFreqHiLabel, 
              option.sidFreqMarkMem, option.sidFreqCreateLabel,
@@ -1314,15 +1484,11 @@ public class Disassembly {
       String player="";
       
       if (option.showSidId) {
-        int[] buf=new int[block.endAddress-block.startAddress+1];
-        int j=0;
-        for (int i=block.startBuffer; i<=block.startBuffer+block.endAddress-block.startAddress; i++) {
-          buf[j]=(char)block.inB[i] & 0xFF;
-          j++;
-        }                 
-        
-        player=SidId.instance.identifyBuffer(buf, buf.length);
+        player=SidId.instance.identifyBuffer(block.inB, block.startBuffer, block.endAddress-block.startAddress+1);
       }
+      
+      int start=tmp.length();
+      int startCarets=actualCarets.size();
 
       // add an offset due to previous strings added
       if (asSource) {
@@ -1338,13 +1504,258 @@ public class Disassembly {
                                " \n"; 
           assembler.setBlockComment(builder, mem);
         }
-        actualCarets.setOffset(tmp.length());
-        tmp.append(prg.csdasm(block.inB, block.startBuffer, block.endBuffer, block.startAddress));
-      } else {    
-          actualCarets.setOffset(tmp.length());
-          tmp.append(prg.cdasm(block.inB, block.startBuffer, block.endBuffer, block.startAddress));
-        }       
+      }
+      
+      BlockOutput output=new BlockOutput();
+      output.startAddress=block.startAddress;
+      output.endAddress=block.endAddress;
+      output.header=tmp.substring(start);
+      output.headerCarets=actualCarets.copy(startCarets, start);
+      
+      BlockOutput cached=(incremental ? cache.get(index) : null);
+      if (cached!=null && (cached.startAddress!=output.startAddress ||
+          cached.endAddress!=output.endAddress)) cached=null;
+            
+      int pos=0;
+      for (ChunkOutput chunk: getChunks(prg, block)) {
+        // look for the same chunk in previous output  
+        ChunkOutput old=null;
+        if (cached!=null) {
+          while (pos<cached.chunks.size() && cached.chunks.get(pos).startAddress<chunk.startAddress) pos++;
+          if (pos<cached.chunks.size()) old=cached.chunks.get(pos);
+        }
+        
+        if (old!=null && old.startAddress==chunk.startAddress && old.endAddress==chunk.endAddress &&
+            !isDirty(dirty, chunk.startAddress, chunk.endAddress)) {
+          chunk.text=old.text;
+          chunk.carets=old.carets;
+        } else {
+            if (incremental) dirty.set(chunk.startAddress, chunk.endAddress+1);  
+            disassemblyChunk(asSource, prg, block, chunk);
+          }
+        
+        actualCarets.addAll(chunk.carets, tmp.length());
+        tmp.append(chunk.text);
+        output.chunks.add(chunk);
+      }
+      
+      outputs.add(output);
+    }
+    
+    addLabeled(unlabeled, found);
+    
+    // the disassembled chunks can change labels used by the reused ones
+    if (incremental) {
+      boolean again=false;
+      
+      while (!found.isEmpty()) {
+        BitSet labels=found;  
+        found=new BitSet();
+        prg.setChanges(found);
+        
+        changed.or(labels);
+        
+        // the previous pass does not know about them
+        if (asSource) touched.or(labels);
+        
+        BitSet redo=getDirty(labels);
+        redo.andNot(dirty);
+        dirty.or(redo);
+        changed.or(redo);
+        
+        for (int index=0; index<blocks.size(); index++) {
+          Block block=blocks.get(index);
+          if (!isDirty(redo, block.startAddress, block.endAddress)) continue;
+          
+          for (ChunkOutput chunk: outputs.get(index).chunks) {
+            if (!isDirty(redo, chunk.startAddress, chunk.endAddress)) continue;
+            
+            disassemblyChunk(asSource, prg, block, chunk);
+            again=true;
+          }
+        }
+        
+        addLabeled(unlabeled, found);
+      }
+      
+      if (again) {
+        tmp.setLength(prefix);
+        actualCarets.truncate(prefixCarets);
+        
+        for (BlockOutput output: outputs) {
+          actualCarets.addAll(output.headerCarets, tmp.length());
+          tmp.append(output.header);
+          
+          for (ChunkOutput chunk: output.chunks) {
+            actualCarets.addAll(chunk.carets, tmp.length());
+            tmp.append(chunk.text);
+          }
+        }
+      }
     }
+    
+    // chunks before a change are to do again in next disassembly
+    if (!incremental && touched!=null) touched.or(found);
+    prg.setChanges(null);
+    
+    cache.clear();
+    cache.addAll(outputs);
+  }
+  
+  /**
+   * Get the chunks of the given block.
+   * Chunks are cut only at instructions not preceded by garbage, where the
+   * disassembler flushes all the pending data, so the output of all the 
+   * chunks is the same of the whole block.
+   * 
+   * @param prg the cpu disassembler to use
+   * @param block the block to divide
+   * @return the chunks of the block
+   */
+  private ArrayList<ChunkOutput> getChunks(CpuDasm prg, Block block) {
+    ArrayList<ChunkOutput> chunks=new ArrayList<>();
+    
+    int start=block.startAddress;
+    
+    // only for 6502 family we know the size of instructions
+    if (prg instanceof M6510Dasm) {
+      boolean wasGarbage=false;
+      int pc=block.startAddress;
+      
+      while (pc<=block.endAddress) {
+        MemoryDasm mem=memory[pc];
+        boolean isCode=((mem.isCode || (!mem.isData && option.useAsCode)) && !mem.isGarbage);
+        
+        boolean isLabel=((mem.userLocation!=null && !"".equals(mem.userLocation)) ||
+                         (mem.dasmLocation!=null && !"".equals(mem.dasmLocation))) &&
+                        mem.type!=MemoryDasm.TYPE_PLUS && mem.type!=MemoryDasm.TYPE_MINUS && 
+                        mem.type!=MemoryDasm.TYPE_PLUS_MAJOR && mem.type!=MemoryDasm.TYPE_PLUS_MINOR;
+        
+        if ((isCode || (isLabel && !mem.isGarbage)) && !wasGarbage && pc-start>=CHUNK_SIZE) {
+          ChunkOutput chunk=new ChunkOutput();
+          chunk.startAddress=start;
+          chunk.endAddress=pc-1;
+          chunks.add(chunk);
+          start=pc;
+        }
+        
+        if (isCode) {
+          pc+=M6510Dasm.tableSize[block.inB[block.startBuffer+pc-block.startAddress] & 0xFF];
+          wasGarbage=false;
+        } else {
+            wasGarbage=mem.isGarbage;
+            pc++;
+          }
+      }
+    }
+    
+    ChunkOutput chunk=new ChunkOutput();
+    chunk.startAddress=start;
+    chunk.endAddress=block.endAddress;
+    chunks.add(chunk);
+    
+    return chunks;
+  }
+  
+  /**
+   * Disassembly one chunk of block
+   * 
+   * @param asSource true if the disassembly is as source
+   * @param prg the cpu disassembler to use
+   * @param block the block of the chunk
+   * @param chunk the chunk where to store text and carets
+   */
+  private void disassemblyChunk(boolean asSource, CpuDasm prg, Block block, ChunkOutput chunk) {
+    int startCarets=actualCarets.size();
+    int start=block.startBuffer+chunk.startAddress-block.startAddress;
+    int end=block.startBuffer+chunk.endAddress-block.startAddress;
+    
+    if (!asSource && incremental) xRefManager.clearForSource(chunk.startAddress, chunk.endAddress);
+      
+    actualCarets.setOffset(0);
+    if (asSource) chunk.text=prg.csdasm(block.inB, start, end, chunk.startAddress);
+    else chunk.text=prg.cdasm(block.inB, start, end, chunk.startAddress);
+    
+    chunk.carets=actualCarets.copy(startCarets, 0);
+    actualCarets.truncate(startCarets);
+  }
+  
+  /**
+   * Test if there is a dirty address inside the given range
+   * 
+   * @param dirty the dirty addresses
+   * @param start the start address
+   * @param end the end address
+   * @return true if the range is dirty
+   */
+  private boolean isDirty(BitSet dirty, int start, int end) {
+    if (dirty==null) return false;  
+    
+    int address=dirty.nextSetBit(start);
+    return address!=-1 && address<=end;
+  }
+  
+  /**
+   * Get the addresses that are to disassembly again as they are changed, or 
+   * they refer to a changed address
+   * 
+   * @param changes the changed addresses
+   * @return the dirty addresses
+   */
+  private BitSet getDirty(BitSet changes) {
+    BitSet dirty=(BitSet)changes.clone();
+    BitSet labels=new BitSet(memory.length);
+    
+    if (changes.isEmpty()) return dirty;
+    
+    // references near the change can be shown relative to another label
+    for (int i=changes.nextSetBit(0); i>=0; i=changes.nextSetBit(i+1)) {
+      labels.set(Math.max(0, i-2), Math.min(memory.length, i+3));
+    }
+    
+    // data and operands related to the changed addresses, that are shown
+    // relative to them (two levels as for related of related)
+    for (int level=0; level<2; level++) {
+      BitSet related=new BitSet(memory.length);
+      
+      for (Block block: blocks) {
+        for (int i=Math.max(0, block.startAddress); i<=Math.min(memory.length-1, block.endAddress); i++) {
+          MemoryDasm mem=memory[i];
+      
+          if ((mem.related!=-1 && (labels.get(mem.related & 0xFFFF) || labels.get((mem.related>>16) & 0xFFFF))) ||
+              (mem.relatedAddressBase!=0 && labels.get(mem.relatedAddressBase & 0xFFFF)) ||
+              (mem.relatedAddressDest!=0 && labels.get(mem.relatedAddressDest & 0xFFFF))) related.set(i);
+        }
+      }
+      
+      dirty.or(related);
+      related.andNot(labels);
+      if (related.isEmpty()) break;
+      labels.or(related);
+    }
+    
+    // instructions that use the changed addresses
+    for (int address=labels.nextSetBit(0); address>=0; address=labels.nextSetBit(address+1)) {
+      for (XRefManager.XRef xref: xRefManager.getXRefsForAddress(address)) {
+        dirty.set(xref.sourceAddress);
+      }
+    }
+    
+    // absolute and zero page values of the changed addresses inside blocks
+    boolean zeroPage=labels.nextSetBit(0)<0x100;
+    for (Block block: blocks) {
+      for (int i=block.startBuffer; i<=block.endBuffer; i++) {
+        int value=block.inB[i] & 0xFF;
+        if (i<block.endBuffer) value|=(block.inB[i+1] & 0xFF)<<8;
+        
+        if (labels.get(value) || (zeroPage && labels.get(value & 0xFF))) {
+          int address=block.startAddress+i-block.startBuffer;
+          dirty.set(Math.max(block.startAddress, address-1), Math.min(block.endAddress, address+1)+1);
+        }
+      }
+    }
+        
+    return dirty;
   }
   
   /**
@@ -1512,6 +1923,205 @@ private void mergeBlocks() {
       
   }
   
+  /**
+   * Get the position of the chip area inside a CRT file
+   * 
+   * @param inB the CRT file
+   * @param chip the chip number
+   * @return the position of the chip (the first one if chip is not valid)
+   */
+  private static int getChipPosition(byte[] inB, int chip) {
+    // get start and end address for the selected chip
+    int header=Math.max(
+                      ((inB[0x10]&0xFF)<<24)+((inB[0x11]&0xFF)<<16)+
+                      ((inB[0x12]&0xFF)<<8)+(inB[0x13]&0xFF), 0x40);
+    
+    int pos=header;
+    if (chip!=0) {
+      try {       
+        for (int i=0; i<chip; i++) {        
+          pos=pos+((inB[pos+0x4]&0xFF)<<24)
+                    +((inB[pos+0x5]&0xFF)<<16)
+                    +((inB[pos+0x6]&0xFF)<<8)
+                    +(inB[pos+0x7]&0xFF);
+          if (pos>=inB.length) {
+            pos=header;
+            break;
+          }
+        }  
+      } catch (Exception e) {
+          pos=header; // force to use the chip 0
+        }  
+    }
+    
+    return pos;
+  }
+  
+  /**
+   * Find a module inside a VSF file
+   * 
+   * @param inB the VSF file
+   * @param name the start of module name
+   * @return the position of module or -1 if not found
+   */
+  private static int findVSFModule(byte[] inB, String name) {
+    int pos;
+    
+    if (((inB[37] & 0xff) == 0x56) &&
+        ((inB[38] & 0xff) == 0x49) &&
+        ((inB[39] & 0xff) == 0x43) &&
+        ((inB[40] & 0xff) == 0x45)
+       ) pos=58;
+    else pos=37;
+        
+    int actPos;
+    int size=0;
+    
+    while (pos<inB.length-21) {
+      size=((inB[pos+21] & 0xff)<<24)+
+           ((inB[pos+20] & 0xff)<<16)+
+           ((inB[pos+19] & 0xff)<<8)+
+           (inB[pos+18] & 0xff);
+            
+      actPos=pos;
+      pos+=size;  
+        
+      boolean find=true;
+      for (int i=0; i<name.length(); i++) {
+        if ((inB[actPos+i] & 0xff)!=name.charAt(i)) {
+          find=false;
+          break;
+        }
+      }
+      if (find) return actPos;
+      if (size<=0) break;                       // not valid module
+    }
+    
+    return -1;
+  }
+  
+  /**
+   * Trace the code of a M6510 file from its entry points (start of PRG, SYS 
+   * of basic line, init/play of SID, vectors of CRT, PC and vectors of VSF) 
+   * and mark code and data not already marked by the user
+   * 
+   * @param fileType the type of file
+   * @param inB the file data
+   * @param memory the memory to mark
+   * @param chip the CRT chip
+   * @return the number of bytes marked
+   */
+  public static int traceCode(FileType fileType, byte[] inB, MemoryDasm[] memory, int chip) {
+    M6510Tracer tracer=new M6510Tracer();
+    
+    switch (fileType) {
+      case PRG: {
+        int address=Unsigned.done(inB[0])+Unsigned.done(inB[1])*256;
+        tracer.load(inB, 2, address, inB.length-2);
+        
+        int sys=(address==0x0801 ? getBasicSys(inB) : -1);
+        if (sys>=0) tracer.addEntry(sys);
+        else if (address!=0x0801) tracer.addEntry(address);  // pure basic is not code
+        break;
+      }
+      case SID: {
+        int psidDOff=Unsigned.done(inB[0x07])+Unsigned.done(inB[0x06])*256;
+        int psidLAddr=Unsigned.done(inB[9])+Unsigned.done(inB[8])*256;
+        int psidIAddr=Unsigned.done(inB[11])+Unsigned.done(inB[10])*256;
+        int psidPAddr=Unsigned.done(inB[13])+Unsigned.done(inB[12])*256;
+        
+        if (psidLAddr==0) {
+          psidLAddr=Unsigned.done(inB[psidDOff])+Unsigned.done(inB[psidDOff+1])*256;
+          psidDOff+=2;
+        }
+        tracer.load(inB, psidDOff, psidLAddr, inB.length-psidDOff);
+        
+        tracer.addEntry(psidIAddr!=0 ? psidIAddr : psidLAddr);
+        if (psidPAddr!=0) tracer.addEntry(psidPAddr);
+        break;
+      }
+      case CRT: {
+        int pos=getChipPosition(inB, chip);
+        int address=((inB[pos+0xC]&0xFF)<<8)+(inB[pos+0xD]&0xFF);
+        int size=((inB[pos+0xE]&0xFF)<<8)+(inB[pos+0xF]&0xFF);
+        tracer.load(inB, pos+0x10, address, size);
+        
+        // CBM80 signature for cold/warm start
+        if (tracer.getByte(0x8004)==0xC3 && tracer.getByte(0x8005)==0xC2 &&
+            tracer.getByte(0x8006)==0xCD && tracer.getByte(0x8007)==0x38 &&
+            tracer.getByte(0x8008)==0x30 && tracer.isLoaded(0x8008)) {
+          tracer.addVector(0x8000);
+          tracer.addVector(0x8002);
+        }
+        
+        // ultimax has the cpu vectors
+        tracer.addVector(0xFFFA);
+        tracer.addVector(0xFFFC);
+        tracer.addVector(0xFFFE);
+        break;
+      }
+      case VSF: {
+        int pos=findVSFModule(inB, "C64MEM");
+        if (pos<0) return 0;
+        
+        // only the ram visible to the cpu (rom and I/O are not into the file)
+        int port=(inB[pos+22] | ~inB[pos+23]) & 0x07;
+        boolean loram=(port & 0x01)!=0;
+        boolean hiram=(port & 0x02)!=0;
+        int ram=pos+26;
+        
+        tracer.load(inB, ram, 0, 0xA000);
+        if (!loram || !hiram) tracer.load(inB, ram+0xA000, 0xA000, 0x2000);
+        tracer.load(inB, ram+0xC000, 0xC000, 0x1000);
+        if (!loram && !hiram) tracer.load(inB, ram+0xD000, 0xD000, 0x1000);
+        if (!hiram) tracer.load(inB, ram+0xE000, 0xE000, 0x2000);
+        
+        // vectors are used only if they point to ram
+        tracer.addVector(0x0314);
+        tracer.addVector(0x0316);
+        tracer.addVector(0x0318);
+        tracer.addVector(0xFFFA);
+        tracer.addVector(0xFFFC);
+        tracer.addVector(0xFFFE);
+        
+        // actual PC of cpu
+        pos=findVSFModule(inB, "MAINCPU");
+        if (pos>=0 && pos+31<inB.length) tracer.addEntry(Unsigned.done(inB[pos+30])+Unsigned.done(inB[pos+31])*256);
+        break;
+      }
+      default:
+        return 0;
+    }
+    
+    tracer.trace();
+    return tracer.apply(memory);
+  }
+  
+  /**
+   * Get the address of the SYS into the first basic line of a PRG
+   * 
+   * @param inB the PRG file
+   * @return the address or -1 if not present
+   */
+  private static int getBasicSys(byte[] inB) {
+    int pos=6;                                        // after address, link and line number
+    
+    while (pos<inB.length && (inB[pos]==' ' || inB[pos]=='(')) pos++;
+    if (pos>=inB.length || (inB[pos] & 0xFF)!=0x9E) return -1;   // SYS token
+    pos++;
+    while (pos<inB.length && (inB[pos]==' ' || inB[pos]=='(')) pos++;
+    
+    int address=0;
+    int digits=0;
+    while (pos<inB.length && inB[pos]>='0' && inB[pos]<='9' && digits<5) {
+      address=address*10+inB[pos++]-'0';
+      digits++;
+    }
+    
+    if (digits==0 || address>0xFFFF) return -1;
+    return address;
+  }
+  
   /**
    * Mark the memory as inside
    * 
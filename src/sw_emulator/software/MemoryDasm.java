@@ -193,8 +193,35 @@ public class MemoryDasm implements Cloneable, Serializable {
     m.index=this.index;
     m.relatedAddressBase=this.relatedAddressBase;
     m.relatedAddressDest=this.relatedAddressDest;
+    m.basicType=this.basicType;
           
     return m;    
   }  
   
+  /**
+   * Set the values of this memory as the ones of the given memory
+   * 
+   * @param mem the memory to copy
+   */
+  public void set(MemoryDasm mem) {
+    address=mem.address;
+    copy=mem.copy;
+    dasmComment=mem.dasmComment;
+    dasmLocation=mem.dasmLocation;
+    isCode=mem.isCode;
+    isData=mem.isData;
+    isGarbage=mem.isGarbage;    
+    isInside=mem.isInside;
+    related=mem.related;
+    type=mem.type;
+    userBlockComment=mem.userBlockComment;
+    userComment=mem.userComment;
+    userLocation=mem.userLocation;
+    dataType=mem.dataType;
+    index=mem.index;
+    relatedAddressBase=mem.relatedAddressBase;
+    relatedAddressDest=mem.relatedAddressDest;
+    basicType=mem.basicType;
+  }
+  
 }
@@ -97,9 +97,10 @@ public class SidFreq {
   public static final SidFreq instance=new SidFreq();
   
   /**
-   * Private constructor
+   * Construct a frequency engine.
+   * Each disassembly uses its own engine, as the search keeps its state.
    */
-  private SidFreq() {      
+  public SidFreq() {      
   }
   
   /**
@@ -23,16 +23,16 @@
 package sw_emulator.software;
 
 import java.io.BufferedReader;
+import java.io.File;
 import java.io.FileReader;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.util.ArrayList;
-
-/**
- * Store the information about a SID Id signature (patterns)
- */
-class SidIdRecord {
-  String name;
-  ArrayList<int[]> list;
-}
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 /**
  * SidId from XSidplay2
@@ -55,8 +55,8 @@ public class SidId {
   /** list of Sid IDs */
   ArrayList<SidIdRecord> sidIdList=new ArrayList();
     
-  /** Last players identified */
-  String lastPlayers;  
+  /** Patterns compiled into one automaton (null if to compile) */
+  volatile SidIdAutomaton automaton;
   
   /**
    * Private constructor
@@ -104,6 +104,7 @@ public class SidId {
     try {
       in = new BufferedReader(new FileReader(name));
       sidIdList.clear();    // clear the list as we can read a config more time
+      automaton=null;
 
       while (in.ready()) {
         int len;
@@ -191,6 +192,92 @@ public class SidId {
     return true;
   }
   
+  /**
+   * Identify the IDs of the given part of buffer, searching all the patterns 
+   * in one pass with the compiled automaton
+   * 
+   * @param buffer the buffer with the data to identify
+   * @param offset the first byte to use
+   * @param length number of bytes to use
+   * @return the identified engines as string
+   */
+  public String identifyBuffer(byte[] buffer, int offset, int length) {
+    return identify(buffer, offset, length);
+  }
+  
+  /**
+   * Identify the IDs of the given part of buffer
+   * 
+   * @param buffer the buffer with the data to identify
+   * @param offset the first byte to use
+   * @param length number of bytes to use
+   * @return the identified engines as string
+   */
+  private String identify(byte[] buffer, int offset, int length) {
+    SidIdAutomaton actual=automaton;
+    if (actual==null) {
+      actual=new SidIdAutomaton(sidIdList);
+      automaton=actual;
+    }
+    
+    boolean[] found=actual.match(buffer, offset, offset+length);
+    
+    StringBuilder players=new StringBuilder();
+    for (int i=0; i<found.length; i++) {
+      if (found[i]) players.append(sidIdList.get(i).name).append(" ");
+    }
+    return players.toString();
+  }
+  
+  /**
+   * Identify the IDs of many files at the same time
+   * 
+   * @param files the files to identify
+   * @return the identified engines of each file (null if not readable), in the same order of files
+   */
+  public Map<File, String> identifyFiles(List<File> files) {
+    String[] players=files.parallelStream()
+                          .map(file -> {
+                            try {
+                              byte[] data=Files.readAllBytes(file.toPath());
+                              return identify(data, 0, data.length);
+                            } catch (IOException e) {
+                                return null;
+                              }
+                          })
+                          .toArray(String[]::new);
+    
+    Map<File, String> result=new LinkedHashMap<>();
+    for (int i=0; i<players.length; i++) {
+      result.put(files.get(i), players[i]);
+    }
+    return result;
+  }
+  
+  /**
+   * Identify the IDs of all the files of a directory
+   * 
+   * @param dir the directory
+   * @return the identified engines of each file (null if not readable), sorted by name
+   */
+  public Map<File, String> identifyDirectory(File dir) {
+    return identifyFiles(listFiles(dir));
+  }
+  
+  /**
+   * Get the files of a directory
+   * 
+   * @param dir the directory
+   * @return the files sorted by name
+   */
+  private static List<File> listFiles(File dir) {
+    File[] list=dir.listFiles(File::isFile);
+    if (list==null) return new ArrayList<>();
+    
+    Arrays.sort(list);
+    return Arrays.asList(list);
+  }
+  
   /**
    * Identify the IDs of the given buffer
    * 
@@ -199,18 +286,18 @@ public class SidId {
    * @return the identified engines as string
    */
   public String identifyBuffer(int[] buffer, int length) {
-    lastPlayers="";
+    String players="";
     // scan all the engines
     for (SidIdRecord list : sidIdList) {
       for (int[] bytes: list.list) {
         if (identifyBytes(bytes, buffer, length)) {
-          lastPlayers+=list.name+" ";
+          players+=list.name+" ";
           break;
         }
       }
     }
-  
-    return lastPlayers;
+ 
+    return players;
   }  
   
   /**
@@ -282,5 +369,35 @@ public class SidId {
     if ((c >= 'a') && (c <= 'f')) return c - 'a' + 10;
     if ((c >= 'A') && (c <= 'F')) return c - 'A' + 10;
     return -1;
-  }  
+  }
+  
+  /**
+   * Identify the players of files and directories
+   * 
+   * @param args the config file and the files/directories to identify
+   */
+  public static void main(String[] args) throws Exception {
+    if (args.length<2) {
+      System.err.println("Usage: SidId sidid.cfg file|dir ...");
+      System.exit(1);
+    }
+    
+    if (!instance.readConfig(args[0])) System.exit(1);
+    
+    ArrayList<File> files=new ArrayList<>();
+    for (int i=1; i<args.length; i++) {
+      File file=new File(args[i]);
+      if (file.isDirectory()) files.addAll(listFiles(file));
+      else files.add(file);
+    }
+    
+    long time=System.nanoTime();
+    Map<File, String> result=instance.identifyFiles(files);
+    time=System.nanoTime()-time;
+    
+    for (Map.Entry<File, String> entry: result.entrySet()) {
+      System.out.println(entry.getKey().getName()+": "+(entry.getValue()==null ? "ERROR" : entry.getValue().trim()));
+    }
+    System.out.println(String.format(Locale.ENGLISH, "%d files, %.2f ms", result.size(), time/1e6));
+  }
 }
@@ -0,0 +1,338 @@
+/**
+ * @(#)SidIdAutomaton.java 2026/10/18
+ *
+ * ICE Team free software group
+ *
+ * This file is part of C64 Java Software Emulator.
+ * See README for copyright notice.
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ *  02111-1307  USA.
+ */
+package sw_emulator.software;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.TreeMap;
+
+/**
+ * All the SidId patterns compiled into one Aho-Corasick automaton.
+ * Each pattern is split at AND into segments that must be found in order; the
+ * automaton searches the longest run of bytes without ANY of every segment,
+ * then the whole segment is verified in place into the buffer.
+ * A pattern advances to its next segment at the first (leftmost) match after
+ * the previous one, like <code>SidId.identifyBytes</code> does, so the result
+ * is the same with one pass for all the patterns.
+ * The automaton is immutable, so it can be used by many threads.
+ *
+ * @author ice
+ */
+class SidIdAutomaton {
+  /** Number of records (players) */
+  private final int records;
+
+  /** Record of each pattern */
+  private final int[] patternRecord;
+
+  /** Number of segments of each pattern */
+  private final int[] patternSegments;
+
+  /** Bytes (or ANY) of each segment */
+  private final int[][] segBytes;
+
+  /** Pattern of each segment */
+  private final int[] segPattern;
+
+  /** Index of each segment inside its pattern */
+  private final int[] segIndex;
+
+  /** Offset of the last byte of the searched run inside each segment */
+  private final int[] segAnchorEnd;
+
+  /** Transition from root for each byte */
+  private final int[] rootNext=new int[256];
+
+  /** Sorted bytes of children of each state */
+  private int[][] keys;
+
+  /** Children of each state (same order of keys) */
+  private int[][] children;
+
+  /** Failure of each state */
+  private int[] fail;
+
+  /** Segments whose run ends into each state (null if none) */
+  private int[][] out;
+
+  /**
+   * Compile the automaton of the given records
+   *
+   * @param list the records with patterns
+   */
+  SidIdAutomaton(ArrayList<SidIdRecord> list) {
+    ArrayList<Integer> pRecord=new ArrayList<>();
+    ArrayList<Integer> pSegments=new ArrayList<>();
+    ArrayList<int[]> sBytes=new ArrayList<>();
+    ArrayList<Integer> sPattern=new ArrayList<>();
+    ArrayList<Integer> sIndex=new ArrayList<>();
+
+    records=list.size();
+    for (int r=0; r<records; r++) {
+      for (int[] bytes: list.get(r).list) {
+        ArrayList<int[]> segments=split(bytes);
+        if (segments==null) continue;              // can never match
+
+        int pattern=pRecord.size();
+        pRecord.add(r);
+        pSegments.add(segments.size());
+        for (int i=0; i<segments.size(); i++) {
+          sBytes.add(segments.get(i));
+          sPattern.add(pattern);
+          sIndex.add(i);
+        }
+      }
+    }
+
+    patternRecord=toArray(pRecord);
+    patternSegments=toArray(pSegments);
+    segBytes=sBytes.toArray(new int[0][]);
+    segPattern=toArray(sPattern);
+    segIndex=toArray(sIndex);
+    segAnchorEnd=new int[segBytes.length];
+
+    build();
+  }
+
+  /**
+   * Split a pattern into its segments
+   *
+   * @param bytes the pattern (ending with END)
+   * @return the segments or null if the pattern can never match
+   */
+  private static ArrayList<int[]> split(int[] bytes) {
+    ArrayList<int[]> segments=new ArrayList<>();
+    int first=0;
+
+    for (int i=0; i<bytes.length; i++) {
+      if (bytes[i]==SidId.AND || bytes[i]==SidId.END) {
+        // an empty segment or one starting with ANY is never found
+        if (i==first || bytes[first]==SidId.ANY) return null;
+        segments.add(Arrays.copyOfRange(bytes, first, i));
+        if (bytes[i]==SidId.END) return segments;
+        first=i+1;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Build the trie of the longest run of each segment and its failures
+   */
+  private void build() {
+    ArrayList<TreeMap<Integer, Integer>> trie=new ArrayList<>();
+    ArrayList<ArrayList<Integer>> outs=new ArrayList<>();
+    trie.add(new TreeMap<>());
+    outs.add(null);
+
+    for (int seg=0; seg<segBytes.length; seg++) {
+      int[] bytes=segBytes[seg];
+
+      // longest run without ANY
+      int bestStart=0, bestLen=0;
+      for (int i=0; i<bytes.length; ) {
+        if (bytes[i]==SidId.ANY) {
+          i++;
+          continue;
+        }
+        int j=i;
+        while (j<bytes.length && bytes[j]!=SidId.ANY) j++;
+        if (j-i>bestLen) {
+          bestStart=i;
+          bestLen=j-i;
+        }
+        i=j;
+      }
+      segAnchorEnd[seg]=bestStart+bestLen-1;
+
+      int state=0;
+      for (int i=bestStart; i<bestStart+bestLen; i++) {
+        Integer next=trie.get(state).get(bytes[i]);
+        if (next==null) {
+          next=trie.size();
+          trie.get(state).put(bytes[i], next);
+          trie.add(new TreeMap<>());
+          outs.add(null);
+        }
+        state=next;
+      }
+      if (outs.get(state)==null) outs.set(state, new ArrayList<>());
+      outs.get(state).add(seg);
+    }
+
+    int size=trie.size();
+    keys=new int[size][];
+    children=new int[size][];
+    fail=new int[size];
+    out=new int[size][];
+
+    for (int state=0; state<size; state++) {
+      TreeMap<Integer, Integer> map=trie.get(state);
+      keys[state]=new int[map.size()];
+      children[state]=new int[map.size()];
+      int i=0;
+      for (Integer key: map.keySet()) {
+        keys[state][i]=key;
+        children[state][i++]=map.get(key);
+      }
+    }
+
+    // failures in breadth first order, so the ones of shorter states are ready
+    ArrayDeque<Integer> queue=new ArrayDeque<>();
+    for (int i=0; i<keys[0].length; i++) {
+      rootNext[keys[0][i]]=children[0][i];
+      queue.add(children[0][i]);
+    }
+    out[0]=null;
+
+    while (!queue.isEmpty()) {
+      int state=queue.poll();
+
+      ArrayList<Integer> list=outs.get(state);
+      int[] inherited=out[fail[state]];
+      if (list!=null || inherited!=null) {
+        int own=(list==null ? 0 : list.size());
+        int[] merged=new int[own+(inherited==null ? 0 : inherited.length)];
+        for (int i=0; i<own; i++) merged[i]=list.get(i);
+        if (inherited!=null) System.arraycopy(inherited, 0, merged, own, inherited.length);
+        out[state]=merged;
+      }
+
+      for (int i=0; i<keys[state].length; i++) {
+        int child=children[state][i];
+        fail[child]=next(fail[state], keys[state][i]);
+        queue.add(child);
+      }
+    }
+  }
+
+  /**
+   * Get the child of a state for the given byte
+   *
+   * @param state the state
+   * @param value the byte
+   * @return the child or -1
+   */
+  private int child(int state, int value) {
+    int[] k=keys[state];
+    int pos=(k.length<8 ? linear(k, value) : Arrays.binarySearch(k, value));
+    return (pos<0 ? -1 : children[state][pos]);
+  }
+
+  /**
+   * Linear search of a small sorted array
+   *
+   * @param k the array
+   * @param value the value to search
+   * @return the position or -1
+   */
+  private static int linear(int[] k, int value) {
+    for (int i=0; i<k.length; i++) {
+      if (k[i]==value) return i;
+    }
+    return -1;
+  }
+
+  /**
+   * Go to the next state with the given byte
+   *
+   * @param state the actual state
+   * @param value the byte
+   * @return the next state
+   */
+  private int next(int state, int value) {
+    while (state!=0) {
+      int child=child(state, value);
+      if (child>=0) return child;
+      state=fail[state];
+    }
+    return rootNext[value];
+  }
+
+  /**
+   * Verify that the segment is into the buffer at the given position
+   *
+   * @param bytes the segment bytes
+   * @param buffer the buffer
+   * @param pos the start of segment in buffer
+   * @return true if it matches
+   */
+  private static boolean verify(int[] bytes, byte[] buffer, int pos) {
+    for (int i=0; i<bytes.length; i++) {
+      if (bytes[i]!=SidId.ANY && bytes[i]!=(buffer[pos+i] & 0xFF)) return false;
+    }
+    return true;
+  }
+
+  /**
+   * Search all the records into the buffer
+   *
+   * @param buffer the buffer with the data
+   * @param start the first position to search
+   * @param end the position after the last to search
+   * @return for each record, true if one of its patterns matches
+   */
+  boolean[] match(byte[] buffer, int start, int end) {
+    boolean[] found=new boolean[records];
+    int[] next=new int[patternRecord.length];
+    int[] minStart=new int[patternRecord.length];
+    Arrays.fill(minStart, start);
+
+    int state=0;
+    for (int pos=start; pos<end; pos++) {
+      state=next(state, buffer[pos] & 0xFF);
+
+      int[] segs=out[state];
+      if (segs==null) continue;
+
+      for (int seg: segs) {
+        int pattern=segPattern[seg];
+        if (next[pattern]!=segIndex[seg] || found[patternRecord[pattern]]) continue;
+
+        int[] bytes=segBytes[seg];
+        int begin=pos-segAnchorEnd[seg];
+        if (begin<minStart[pattern] || begin+bytes.length>end) continue;
+        if (!verify(bytes, buffer, begin)) continue;
+
+        next[pattern]++;
+        minStart[pattern]=begin+bytes.length;
+        if (next[pattern]==patternSegments[pattern]) found[patternRecord[pattern]]=true;
+      }
+    }
+    return found;
+  }
+
+  /**
+   * Convert a list of integers to an array
+   *
+   * @param list the list
+   * @return the array
+   */
+  private static int[] toArray(ArrayList<Integer> list) {
+    int[] result=new int[list.size()];
+    for (int i=0; i<result.length; i++) result[i]=list.get(i);
+    return result;
+  }
+}
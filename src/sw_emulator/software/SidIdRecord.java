@@ -0,0 +1,35 @@
+/*
+ * @(#)SidIdRecord.java 2026/10/18
+ *
+ * ICE Team free software group
+ *
+ * This file is part of JIIT64 Java Ice Team Tracker 64
+ * See README for copyright notice.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ */
+package sw_emulator.software;
+
+import java.util.ArrayList;
+
+/**
+ * Store the information about a SID Id signature (patterns)
+ *
+ * @author ice00
+ */
+class SidIdRecord {
+  String name;
+  ArrayList<int[]> list;
+}
@@ -23,6 +23,7 @@
  */
 package sw_emulator.software.cpu;
 
+import java.util.BitSet;
 import java.util.Locale;
 import sw_emulator.software.Assembler;
 import sw_emulator.software.MemoryDasm;
@@ -88,6 +89,9 @@ public class CpuDasm implements disassembler {
   /** String builder global to reduce GC call */
   final StringBuilder result=new StringBuilder ("");     
   
+  /** Addresses of memory changed by disassembly (null if not recorded) */
+  protected BitSet changes;
+  
   /**
    * Set the memory dasm to use
    * 
@@ -97,6 +101,38 @@ public class CpuDasm implements disassembler {
     this.memory=memory;  
   }
   
+  /**
+   * Set where to record the addresses of memory changed by disassembly
+   * 
+   * @param changes the changed addresses or null for not recording them
+   */
+  public void setChanges(BitSet changes) {
+    this.changes=changes;  
+  }
+  
+  /**
+   * Record that memory at the given address is changed by disassembly
+   * 
+   * @param address the changed address
+   */
+  protected void change(int address) {
+    if (changes!=null) changes.set(address);  
+  }
+  
+  /**
+   * Set the dasm label of the given address
+   * 
+   * @param address the address of label
+   */
+  private void setDasmLocation(int address) {
+    String location="W"+ShortToExe(address);
+    
+    if (!location.equals(memory[address].dasmLocation)) {
+      memory[address].dasmLocation=location;
+      change(address);
+    }
+  }
+  
   /**
    * Set the xRefManager to use
    * 
@@ -127,6 +163,21 @@ public class CpuDasm implements disassembler {
     this.assembler=assembler;        
   }    
   
+  /** Hex digits */
+  private static final char[] HEX_DIGITS="0123456789ABCDEF".toCharArray();
+  
+  /** Unknown bytes after the first one of instruction outside buffer (by size) */
+  private static final String[] UNKNOWN_BYTES={"", "", "??", "?????", "???????"};
+  
+  /** Hex strings of all the bytes */
+  private static final String[] HEX_BYTES=new String[256];
+  
+  static {
+    for (int i=0; i<HEX_BYTES.length; i++) {
+      HEX_BYTES[i]=new String(new char[] {HEX_DIGITS[i>>4], HEX_DIGITS[i & 0x0F]});
+    }
+  }
+  
   /**
    * Convert a unsigned byte (containing in a int) to Exe upper case 2 chars
    *
@@ -134,13 +185,10 @@ public class CpuDasm implements disassembler {
    * @return the exe string rapresentation of byte
    */
   protected String ByteToExe(int value) {
-    int tmp=value;
-    
     if (value<0) return "??";
+    if (value<=0xFF) return HEX_BYTES[value];
     
-    String ret=Integer.toHexString(tmp);
-    if (ret.length()==1) ret="0"+ret;
-    return ret.toUpperCase(Locale.ENGLISH);
+    return Integer.toHexString(value).toUpperCase(Locale.ENGLISH);
   }
 
   /**
@@ -150,24 +198,113 @@ public class CpuDasm implements disassembler {
    * @return the exe string rapresentation of byte
    */
   protected String ShortToExe(int value) {
-    int tmp=value;
-
     if (value<0) return "????";
+    if (value<=0xFFFF) return HEX_BYTES[value>>8].concat(HEX_BYTES[value & 0xFF]);
+    
+    return Integer.toHexString(value).toUpperCase(Locale.ENGLISH);
+  }
+  
+  /**
+   * Append a unsigned byte as Exe upper case 2 chars
+   * 
+   * @param builder the builder where to append
+   * @param value the byte value to append
+   */
+  protected static void appendByte(StringBuilder builder, int value) {
+    if (value<0) builder.append("??");
+    else builder.append(HEX_DIGITS[(value>>4) & 0x0F]).append(HEX_DIGITS[value & 0x0F]);
+  }
+  
+  /**
+   * Append a unsigned short as Exe upper case 4 chars
+   * 
+   * @param builder the builder where to append
+   * @param value the short value to append
+   */
+  protected static void appendShort(StringBuilder builder, int value) {
+    if (value<0) builder.append("????");
+    else {
+      appendByte(builder, (value>>8) & 0xFF);
+      appendByte(builder, value & 0xFF);
+    }  
+  }
+  
+  /**
+   * Append a preview line of instruction: address, bytes of instruction and
+   * text, with the text at the given column and all padded up to comment
+   * 
+   * @param builder the builder where to append
+   * @param buffer the buffer with the instruction
+   * @param pos the position of instruction in buffer
+   * @param pc the address of instruction
+   * @param size the size of instruction
+   * @param column the column of the text of instruction
+   * @param text the text of instruction
+   */
+  protected static void appendPreview(StringBuilder builder, byte[] buffer, int pos, int pc, int size, int column, String text) {
+    int start=builder.length();
+    
+    appendPreviewBytes(builder, buffer, pos, pc, size, column);
+    builder.append(text);
+    appendSpaces(builder, PREVIEW_COMMENT_COLUMN-(builder.length()-start));
+  }
+  
+  /**
+   * Append the start of a preview line of instruction: address and bytes of 
+   * instruction, padded up to the column of the text
+   * 
+   * @param builder the builder where to append
+   * @param buffer the buffer with the instruction
+   * @param pos the position of instruction in buffer
+   * @param pc the address of instruction
+   * @param size the size of instruction
+   * @param column the column of the text of instruction
+   */
+  protected static void appendPreviewBytes(StringBuilder builder, byte[] buffer, int pos, int pc, int size, int column) {
+    int start=builder.length();
     
-    String ret=Integer.toHexString(tmp);
-    int len=ret.length();
-    switch (len) {
-      case 1:
-        ret="000"+ret;
-        break;
-     case 2:
-        ret="00"+ret;
-        break;
-     case 3:
-        ret="0"+ret;
-        break;
+    appendShort(builder, pc);
+    builder.append("  ");
+    appendByte(builder, buffer[pos] & 0xFF);
+    
+    if (size>1 && size<=4) {
+      builder.append(' ');
+      if (pos+size-1<buffer.length) {
+        for (int i=1; i<size; i++) {
+          if (i>1) builder.append(' ');
+          appendByte(builder, buffer[pos+i] & 0xFF);
+        }
+      } else builder.append(UNKNOWN_BYTES[size]);
+    }  
+    
+    appendSpaces(builder, column-(builder.length()-start));
+  }
+  
+  /**
+   * Append the given number of spaces
+   * 
+   * @param builder the builder where to append
+   * @param num the number of spaces (nothing if not positive)
+   */
+  protected static void appendSpaces(StringBuilder builder, int num) {
+    while (num>SPACES.length()) {
+      builder.append(SPACES);
+      num-=SPACES.length();
+    }
+    if (num>0) builder.append(SPACES, 0, num);
+  }
+  
+  /**
+   * Get the mnemonic of the given instruction text
+   * 
+   * @param text the instruction text
+   * @return the mnemonic
+   */
+  protected static String getMnemonic(String text) {
+    for (int i=0; i<text.length(); i++) {
+      if (Character.isWhitespace(text.charAt(i))) return text.substring(0, i);
     }
-    return ret.toUpperCase(Locale.ENGLISH);
+    return text;
   }
   
   /**
@@ -269,7 +406,7 @@ public class CpuDasm implements disassembler {
            }
     } else {        
         if (memory[(int)addr].index!=-1) {
-          String res=constant.table[memory[(int)addr].index][(int)value];  
+          String res=constant.get(memory[(int)addr].index, (int)value);  
           if (res!=null && !"".equals(res)) return res;
         }            
         return HexNum(ByteToExe((int)value), defaultMode);
@@ -405,16 +542,16 @@ public class CpuDasm implements disassembler {
         switch (mem.type) {
             case TYPE_PLUS:
             case TYPE_MINUS:
-                memory[mem.related].dasmLocation="W"+ShortToExe(mem.related);
+                setDasmLocation(mem.related);
                 break;
             case TYPE_PLUS_MAJOR:
             case TYPE_PLUS_MINOR: 
             case TYPE_MINUS_MAJOR:
             case TYPE_MINUS_MINOR:   
-                memory[mem.related & 0xFFFF].dasmLocation="W"+ShortToExe(mem.related & 0xFFFF);
+                setDasmLocation(mem.related & 0xFFFF);
                 break;
             default:
-                mem.dasmLocation="W"+ShortToExe((int)addr); // create dasm location only if there is not a related one
+                setDasmLocation((int)addr); // create dasm location only if there is not a related one
                 break;
         }
     }
@@ -436,6 +573,7 @@ public class CpuDasm implements disassembler {
       if (mem.dasmLocation!=null && (mem.type!=TYPE_PLUS) && (mem.type!=TYPE_MINUS)) {
         mem.type=TYPE_PLUS;
         mem.related=(int)addr;
+        change((int)addr+offset);
         setLabel(addr);
       } 
     }
@@ -454,6 +592,7 @@ public class CpuDasm implements disassembler {
     
     if (mem.isInside && mem.type!=TYPE_PLUS) {
       if (mem.dasmLocation!=null) {
+        if (mem.type!=TYPE_MINUS || mem.related!=(int)addr) change((int)addr-offset);
         mem.type=TYPE_MINUS;
         mem.related=(int)addr;
         setLabel(addr);
@@ -464,6 +603,9 @@ public class CpuDasm implements disassembler {
   private static final String SPACES="                                                                               "; 
   private static final String TABS="\t\t\t\t\t\t\t\t\t\t";
   
+  /** Column of comment in preview */
+  protected static final int PREVIEW_COMMENT_COLUMN=43;
+  
   /**
    * Return spaces/tabs to use in start of instruction
    * 
@@ -471,13 +613,26 @@ public class CpuDasm implements disassembler {
    * @return the spaces/tabs
    */
   protected String getInstrSpacesTabs(MemoryDasm mem) {
+    StringBuilder builder=new StringBuilder();
+    appendInstrSpacesTabs(builder, mem);
+    return builder.toString();
+  }    
+  
+  /**
+   * Append spaces/tabs to use in start of instruction
+   * 
+   * @param builder the builder where to append
+   * @param mem the memory of this line
+   */
+  protected void appendInstrSpacesTabs(StringBuilder builder, MemoryDasm mem) {
     if (!option.labelOnSepLine) {
       int num=0;  
       if (mem.userLocation!=null && !"".equals(mem.userLocation)) num=mem.userLocation.length()+1;
       else if (mem.dasmLocation!=null && !"".equals(mem.dasmLocation)) num=mem.dasmLocation.length()+1;
-      return SPACES.substring(0, (option.maxLabelLength-num<0 ? 1: option.maxLabelLength-num))+SPACES.substring(0, option.numInstrSpaces)+TABS.substring(0, option.numInstrTabs);
-    } else return SPACES.substring(0, option.numInstrSpaces)+TABS.substring(0, option.numInstrTabs);
-  }    
+      builder.append(SPACES, 0, (option.maxLabelLength-num<0 ? 1: option.maxLabelLength-num));
+    }
+    builder.append(SPACES, 0, option.numInstrSpaces).append(TABS, 0, option.numInstrTabs);
+  }
   
   /**
    * Return spaces/tabs to use in comment after instruction
@@ -486,7 +641,19 @@ public class CpuDasm implements disassembler {
    * @return the spaces/tabs
    */
   protected String getInstrCSpacesTabs(int skip) {
-    return SPACES.substring(0, (option.numInstrCSpaces-skip<0 ? 1:option.numInstrCSpaces-skip))+TABS.substring(0, option.numInstrCTabs);
+    StringBuilder builder=new StringBuilder();
+    appendInstrCSpacesTabs(builder, skip);
+    return builder.toString();
+  } 
+  
+  /**
+   * Append spaces/tabs to use in comment after instruction
+   * 
+   * @param builder the builder where to append
+   * @param skip amount to skip
+   */
+  protected void appendInstrCSpacesTabs(StringBuilder builder, int skip) {
+    builder.append(SPACES, 0, (option.numInstrCSpaces-skip<0 ? 1:option.numInstrCSpaces-skip)).append(TABS, 0, option.numInstrCTabs);
   } 
   
   /**
@@ -497,6 +664,16 @@ public class CpuDasm implements disassembler {
   protected String getSpacesTabsOp() {
     return SPACES.substring(0, (option.numSpacesOp))+TABS.substring(0, option.numTabsOp);  
   }
+  
+  /**
+   * Append spaces/tabs to use for separate opcode from operand
+   * 
+   * @param builder the builder where to append
+   * @param skip amount of spaces to skip
+   */
+  protected void appendSpacesTabsOp(StringBuilder builder, int skip) {
+    builder.append(SPACES, 0, option.numSpacesOp-skip).append(TABS, 0, option.numTabsOp);  
+  }
 
   /**
    * Return the mnemonic assembler instruction rapresent by passed code bytes,
@@ -509,6 +686,31 @@ public class CpuDasm implements disassembler {
     return dasm(buffer, pos, pc);
   }
   
+  /**
+   * Append the mnemonic assembler instruction rapresent by passed code bytes,
+   * using last position an program counter.
+   *
+   * @param builder the builder where to append
+   * @param buffer the buffer containg the data 
+   */
+  public void dasm(StringBuilder builder, byte[] buffer) {
+    dasm(builder, buffer, pos, pc);
+  }
+  
+  /**
+   * Append the mnemonic assembler instruction rapresent by passed code bytes.
+   * The carets are relative to the start of the appended instruction.
+   *
+   * @param builder the builder where to append
+   * @param buffer the buffer containg the data
+   * @param pos the actual position in the buffer
+   * @param pc the program counter value associated to the bytes being address
+   *           by the <code>pos</code> in the buffer
+   */
+  public void dasm(StringBuilder builder, byte[] buffer, int pos, long pc) {
+    builder.append(dasm(buffer, pos, pc));
+  }
+  
   @Override
   public String dasm(byte[] buffer, int pos, long pc) {
     return "";
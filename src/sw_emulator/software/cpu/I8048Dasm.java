@@ -633,27 +633,10 @@ public static final byte M_XRL = 60;
           actualOffset=assembler.getCarets().getOffset();                               // rember actual offset
           assembler.getCarets().setOffset(result.length()+actualOffset+17);             // use new offset
           tmp=dasm(buffer);                                                             // this is an instruction
-          xRefManager.processInstructionI8048((int)pc, tmp.split("\\s+")[0], (int)addr, tmp);
+          xRefManager.processInstructionI8048((int)pc, getMnemonic(tmp), (int)addr, tmp);
           assembler.getCarets().setOffset(actualOffset);                                // set old offset     
                
-          tmp2=ShortToExe((int)pc)+"  "+ByteToExe(Unsigned.done(buffer[pos]));
-          if (this.pc-pc==2) {
-            if (pos+1<buffer.length) tmp2+=" "+ByteToExe(Unsigned.done(buffer[pos+1]));
-            else tmp2+=" ??";
-          }
-          if (this.pc-pc==3) {
-            if (pos+2<buffer.length) tmp2+=" "+ByteToExe(Unsigned.done(buffer[pos+1]))+
-                                           " "+ByteToExe(Unsigned.done(buffer[pos+2]));
-            else tmp2+=" ?????";
-          }    
-          for (int i=tmp2.length(); i<17; i++) // insert spaces
-            tmp2+=" ";                   
-          
-          tmp=tmp2+tmp;
-          tmp2="";
-          for (int i=tmp.length(); i<43; i++) // insert spaces
-            tmp2+=" ";
-          result.append(tmp).append(tmp2);
+          appendPreview(result, buffer, pos, (int)pc, (int)(this.pc-pc), 17, tmp);
           
           tmp2=dcom();   
           
@@ -758,7 +741,7 @@ public static final byte M_XRL = 60;
           }  
                               
           pStart=result.length();
-          result.append(getInstrSpacesTabs(mem));
+          appendInstrSpacesTabs(result, mem);
           
           // this is an instruction         
           actualOffset=assembler.getCarets().getOffset();                               // rember actual offset
@@ -766,7 +749,8 @@ public static final byte M_XRL = 60;
           tmp=dasm(buffer);                                                             // this is an instruction
           assembler.getCarets().setOffset(actualOffset);                                // set old offset   
                   
-          result.append(tmp).append(getInstrCSpacesTabs(tmp.length()));
+          result.append(tmp);
+          appendInstrCSpacesTabs(result, tmp.length());
           assembler.getCarets().add(pStart, result.length(), mem, Type.INSTR);
           
           tmp2=dcom();   
@@ -23,6 +23,8 @@
  */
 package sw_emulator.software.cpu;
 
+import java.util.Arrays;
+import java.util.HashSet;
 import sw_emulator.math.Unsigned;
 import sw_emulator.software.MemoryDasm;
 import sw_emulator.swing.main.Carets.Type;
@@ -231,6 +233,23 @@ public class M6510Dasm extends CpuDasm implements disassembler {
     "SRE",
     "USBC"
   };
+  
+  /** Mnemonics of instructions with the mode of this disassembler */
+  protected final String[] modeMnemonics=mnemonics.clone();
+  
+  /** Mnemonics of instructions with the mode of this disassembler in lower case */
+  protected final String[] modeMnemonicsLower=toLower(mnemonics);
+  
+  /** Mnemonics of instructions in any mode */
+  private static final HashSet<String> allMnemonics=new HashSet<>(Arrays.asList(mnemonics));
+  
+  static {
+    for (byte mode=MODE1; mode<=MODE3; mode++) {
+      String[] table=mnemonics.clone();
+      setMode(table, mode);
+      allMnemonics.addAll(Arrays.asList(table));
+    }
+  }
 
   /** Contains the mnemonics reference for the instruction */
   public static final byte[] tableMnemonics={
@@ -351,8 +370,25 @@ public class M6510Dasm extends CpuDasm implements disassembler {
    */
   @Override
   public String dasm(byte[] buffer, int pos, long pc) {
+    StringBuilder builder=new StringBuilder();
+    dasm(builder, buffer, pos, pc);
+    return builder.toString();
+  }
+  
+  /**
+   * Append the mnemonic assembler instruction rapresent by passed code bytes.
+   * The carets are relative to the start of the appended instruction.
+   *
+   * @param builder the builder where to append
+   * @param buffer the buffer containg the data
+   * @param pos the actual position in the buffer
+   * @param pc the program counter value associated to the bytes being address
+   *           by the <code>pos</code> in the buffer
+   */
+  @Override
+  public void dasm(StringBuilder builder, byte[] buffer, int pos, long pc) {
     int pStart;                // start position for caret
-    String result="";          // result disassemble string
+    int start=builder.length(); // start of instruction in builder
     int op=Unsigned.done(buffer[pos++]); // instruction opcode
 
     iType=(int)tableMnemonics[op];   // store the type for creating comment
@@ -400,13 +436,12 @@ public class M6510Dasm extends CpuDasm implements disassembler {
         break;
     }
     
-    if (upperCase) result=mnemonics[iType];
-    else result=mnemonics[iType].toLowerCase();
+    String mnemonic=(upperCase ? modeMnemonics[iType] : modeMnemonicsLower[iType]);
+    builder.append(mnemonic);
       
     // we now force NOOP to use the same spaces of 3 chars opcode with >1 space 
-    String nn=getSpacesTabsOp();
-    if (result.length()==4 && option.numSpacesOp>1) result+=nn.substring(1,nn.length());
-    else result+=nn;
+    if (mnemonic.length()==4 && option.numSpacesOp>1) appendSpacesTabsOp(builder, 1);
+    else appendSpacesTabsOp(builder, 0);
 
     aType=tableModes[op];
     switch (aType) {
@@ -427,7 +462,7 @@ public class M6510Dasm extends CpuDasm implements disassembler {
         if (pos<buffer.length) value=Unsigned.done(buffer[pos++]);
         else value=0;
         
-        result+="#"+getLabelImm(pc+1, value);
+        builder.append('#').append(getLabelImm(pc+1, value));
         setLabelPlus(pc,1);
    
         pc+=2;
@@ -437,9 +472,9 @@ public class M6510Dasm extends CpuDasm implements disassembler {
         if (pos<buffer.length) addr=Unsigned.done(buffer[pos++]);
         else addr=-1;
         
-        pStart=result.length();
-        result+=getLabelZero(addr);
-        assembler.getCarets().add(pStart, result.length(), this.memory[(int)pc], Type.LABEL_REL);   
+        pStart=builder.length()-start;
+        builder.append(getLabelZero(addr));
+        assembler.getCarets().add(pStart, builder.length()-start, this.memory[(int)pc], Type.LABEL_REL);   
         setLabelPlus(pc,1);
         
         pc+=2;
@@ -448,9 +483,9 @@ public class M6510Dasm extends CpuDasm implements disassembler {
         if (pos<buffer.length) addr=Unsigned.done(buffer[pos++]);
         else addr=-1;
         
-        pStart=result.length();
-        result+=getLabelZero(addr)+(upperCase? ",X": ",x");
-        assembler.getCarets().add(pStart, result.length(), this.memory[(int)pc], Type.LABEL_REL);   
+        pStart=builder.length()-start;
+        builder.append(getLabelZero(addr)).append((upperCase? ",X": ",x"));
+        assembler.getCarets().add(pStart, builder.length()-start, this.memory[(int)pc], Type.LABEL_REL);   
         setLabelPlus(pc,1);
         
         pc+=2;
@@ -459,9 +494,9 @@ public class M6510Dasm extends CpuDasm implements disassembler {
         if (pos<buffer.length) addr=Unsigned.done(buffer[pos++]);
         else addr=-1;
         
-        pStart=result.length();
-        result+=getLabelZero(addr)+(upperCase? ",Y": ",y");
-        assembler.getCarets().add(pStart, result.length(), this.memory[(int)pc], Type.LABEL_REL);  
+        pStart=builder.length()-start;
+        builder.append(getLabelZero(addr)).append((upperCase? ",Y": ",y"));
+        assembler.getCarets().add(pStart, builder.length()-start, this.memory[(int)pc], Type.LABEL_REL);  
         setLabelPlus(pc,1);
         
         pc+=2;
@@ -469,9 +504,9 @@ public class M6510Dasm extends CpuDasm implements disassembler {
       case A_ABS:     // absolute
         if (pos<buffer.length-1) addr=((Unsigned.done(buffer[pos+1])<<8) | Unsigned.done(buffer[pos++]));
         else addr=-1;
-        pStart=result.length();
-        result+=getLabel(addr);
-        assembler.getCarets().add(pStart, result.length(), this.memory[(int)pc], Type.LABEL_REL);   
+        pStart=builder.length()-start;
+        builder.append(getLabel(addr));
+        assembler.getCarets().add(pStart, builder.length()-start, this.memory[(int)pc], Type.LABEL_REL);   
         setLabel(addr);
         setLabelPlus(pc,1);
         setLabelPlus(pc,2);
@@ -485,9 +520,9 @@ public class M6510Dasm extends CpuDasm implements disassembler {
         if (pos<buffer.length-1) addr=((Unsigned.done(buffer[pos+1])<<8) | Unsigned.done(buffer[pos++]));
         else addr=-1;
         
-        pStart=result.length();
-        result+=getLabel(addr)+(upperCase? ",X": ",x");
-        assembler.getCarets().add(pStart, result.length(), this.memory[(int)pc], Type.LABEL_REL);   
+        pStart=builder.length()-start;
+        builder.append(getLabel(addr)).append((upperCase? ",X": ",x"));
+        assembler.getCarets().add(pStart, builder.length()-start, this.memory[(int)pc], Type.LABEL_REL);   
         setLabel(addr);
         setLabelPlus(pc,1);
         setLabelPlus(pc,2);
@@ -502,9 +537,9 @@ public class M6510Dasm extends CpuDasm implements disassembler {
         else addr=-1;
         pos++;
         
-        pStart=result.length();
-        result+=getLabel(addr)+(upperCase? ",Y": ",y");
-        assembler.getCarets().add(pStart, result.length(), this.memory[(int)pc], Type.LABEL_REL);   
+        pStart=builder.length()-start;
+        builder.append(getLabel(addr)).append((upperCase? ",Y": ",y"));
+        assembler.getCarets().add(pStart, builder.length()-start, this.memory[(int)pc], Type.LABEL_REL);   
         setLabel(addr);
         setLabelPlus(pc,1);
         setLabelPlus(pc,2);
@@ -517,7 +552,7 @@ public class M6510Dasm extends CpuDasm implements disassembler {
         if (pos<buffer.length) addr=pc+buffer[pos++]+2;
         else addr=-1;   
         
-        result+=getLabel(addr);
+        builder.append(getLabel(addr));
         setLabel(addr);
         setLabelPlus(pc,1);
         
@@ -528,9 +563,9 @@ public class M6510Dasm extends CpuDasm implements disassembler {
         else addr=-1;
         pos++;
         
-        pStart=result.length();
-        result+="("+getLabel(addr)+")";
-        assembler.getCarets().add(pStart, result.length(), this.memory[(int)pc], Type.LABEL_REL);   
+        pStart=builder.length()-start;
+        builder.append('(').append(getLabel(addr)).append(')');
+        assembler.getCarets().add(pStart, builder.length()-start, this.memory[(int)pc], Type.LABEL_REL);   
         setLabel(addr);
         setLabelPlus(pc,1);
         setLabelPlus(pc,2);
@@ -541,9 +576,9 @@ public class M6510Dasm extends CpuDasm implements disassembler {
         if (pos<buffer.length) addr=Unsigned.done(buffer[pos++]);
         else addr=-1;
         
-        pStart=result.length();
-        result+="("+getLabelZero(addr)+(upperCase? ",X)": ",x)");
-        assembler.getCarets().add(pStart, result.length(), this.memory[(int)pc], Type.LABEL_REL);  
+        pStart=builder.length()-start;
+        builder.append('(').append(getLabelZero(addr)).append((upperCase? ",X)": ",x)"));
+        assembler.getCarets().add(pStart, builder.length()-start, this.memory[(int)pc], Type.LABEL_REL);  
         setLabelPlus(pc,1);
         
         pc+=2;
@@ -552,9 +587,9 @@ public class M6510Dasm extends CpuDasm implements disassembler {
         if (pos<buffer.length) addr=Unsigned.done(buffer[pos++]);
         else addr=-1;
         
-        pStart=result.length();
-        result+="("+getLabelZero(addr)+(upperCase? "),Y": "),y");
-        assembler.getCarets().add(pStart, result.length(), this.memory[(int)pc], Type.LABEL_REL);  
+        pStart=builder.length()-start;
+        builder.append('(').append(getLabelZero(addr)).append((upperCase? "),Y": "),y"));
+        assembler.getCarets().add(pStart, builder.length()-start, this.memory[(int)pc], Type.LABEL_REL);  
         setLabelPlus(pc,1);
         
         pc+=2;
@@ -562,9 +597,30 @@ public class M6510Dasm extends CpuDasm implements disassembler {
     }
     this.pc=pc;
     this.pos=pos;   
-    return result;
   }
 
+  /**
+   * Return the size of instruction by its addressing mode
+   * 
+   * @param op the opcode of instruction
+   * @return the size of instruction
+   */
+  private static int getSize(int op) {
+    switch (tableModes[op]) {
+      case A_NUL:
+      case A_ACC:
+      case A_IMP:
+        return 1;
+      case A_ABS:
+      case A_ABX:
+      case A_ABY:
+      case A_IND:
+        return 3;
+      default:
+        return 2;
+    }
+  }
+  
   /**
    * Comment and Disassemble a region of the buffer
    *
@@ -582,6 +638,8 @@ public class M6510Dasm extends CpuDasm implements disassembler {
     MemoryDasm memRel;           // memory related
     MemoryDasm memRel2;          // memory related of second kind
     int actualOffset;            // actual offset for caret action      
+    int pStart;                  // start of preview line
+    int iStart;                  // start of instruction
             
     int pos=start;               // actual position in buffer
     boolean isCode=true;         // true if we are decoding an instruction
@@ -619,30 +677,17 @@ public class M6510Dasm extends CpuDasm implements disassembler {
             result.append("\n");
           }  
           
+          pStart=result.length();
+          appendPreviewBytes(result, buffer, pos, (int)pc, getSize(Unsigned.done(buffer[pos])), 17);
+          
           actualOffset=assembler.getCarets().getOffset();                               // rember actual offset
-          assembler.getCarets().setOffset(result.length()+actualOffset+17);             // use new offset
-          tmp=dasm(buffer);                                                             // this is an instruction
-          xRefManager.processInstructionM6510((int)pc, tmp.split("\\s+")[0], (int)addr, tmp);
+          assembler.getCarets().setOffset(result.length()+actualOffset);                // use new offset
+          iStart=result.length();
+          dasm(result, buffer);                                                         // this is an instruction
+          xRefManager.processInstructionM6510((int)pc, iType, (int)addr, result, iStart);
           assembler.getCarets().setOffset(actualOffset);                                // set old offset     
                
-          tmp2=ShortToExe((int)pc)+"  "+ByteToExe(Unsigned.done(buffer[pos]));
-          if (this.pc-pc==2) {
-            if (pos+1<buffer.length) tmp2+=" "+ByteToExe(Unsigned.done(buffer[pos+1]));
-            else tmp2+=" ??";
-          }
-          if (this.pc-pc==3) {
-            if (pos+2<buffer.length) tmp2+=" "+ByteToExe(Unsigned.done(buffer[pos+1]))+
-                                           " "+ByteToExe(Unsigned.done(buffer[pos+2]));
-            else tmp2+=" ?????";
-          }    
-          for (int i=tmp2.length(); i<17; i++) // insert spaces
-            tmp2+=" ";                   
-          
-          tmp=tmp2+tmp;
-          tmp2="";
-          for (int i=tmp.length(); i<43; i++) // insert spaces
-            tmp2+=" ";
-          result.append(tmp).append(tmp2);
+          appendSpaces(result, PREVIEW_COMMENT_COLUMN-(result.length()-pStart));
           
           tmp2=dcom();   
           
@@ -712,6 +757,7 @@ public class M6510Dasm extends CpuDasm implements disassembler {
     MemoryDasm memRel;           // memory related
     MemoryDasm memRel2;          // memory related of second kind
     int actualOffset;            // actual offset
+    int iStart;                  // start of instruction
     int pos=start;               // actual position in buffer
     boolean isCode=true;         // true if we are decoding an instruction
     boolean wasGarbage=false;    // true if we were decoding garbage
@@ -747,15 +793,16 @@ public class M6510Dasm extends CpuDasm implements disassembler {
           }  
                               
           pStart=result.length();
-          result.append(getInstrSpacesTabs(mem));
+          appendInstrSpacesTabs(result, mem);
           
           // this is an instruction         
           actualOffset=assembler.getCarets().getOffset();                               // rember actual offset
           assembler.getCarets().setOffset(result.length()+actualOffset);                // use new offset
-          tmp=dasm(buffer);                                                             // this is an instruction
+          iStart=result.length();
+          dasm(result, buffer);                                                         // this is an instruction
           assembler.getCarets().setOffset(actualOffset);                                // set old offset   
                   
-          result.append(tmp).append(getInstrCSpacesTabs(tmp.length()));
+          appendInstrCSpacesTabs(result, result.length()-iStart);
           assembler.getCarets().add(pStart, result.length(), mem, Type.INSTR);
           
           tmp2=dcom();   
@@ -867,6 +914,45 @@ public class M6510Dasm extends CpuDasm implements disassembler {
    * @param mode the type of mode to use
    */
   public void setMode(byte mode) {
+    setMode(modeMnemonics, mode);
+    
+    for (int i=0; i<modeMnemonics.length; i++) {
+      modeMnemonicsLower[i]=modeMnemonics[i].toLowerCase();
+    }
+  }
+  
+  /**
+   * Return the given mnemonics in lower case
+   * 
+   * @param table the mnemonics
+   * @return the mnemonics in lower case
+   */
+  private static String[] toLower(String[] table) {
+    String[] lower=new String[table.length];
+    
+    for (int i=0; i<table.length; i++) {
+      lower[i]=table[i].toLowerCase();
+    }
+    return lower;
+  }
+  
+  /**
+   * Return true if the name is the mnemonic of an instruction in any mode
+   * 
+   * @param name the name in upper case
+   * @return true if it is a mnemonic
+   */
+  public static boolean isMnemonic(String name) {
+    return allMnemonics.contains(name);
+  }
+  
+  /**
+   * Set the mode of using mnemonics into the given table
+   * 
+   * @param mnemonics the table of mnemonics to change
+   * @param mode the type of mode to use
+   */
+  private static void setMode(String[] mnemonics, byte mode) {
     switch (mode) {
       case MODE1:
         mnemonics[M_ANE]="ANE";
@@ -0,0 +1,453 @@
+/**
+ * @(#)M6510Tracer.java 2026/10/18
+ *
+ * ICE Team Free Software Group
+ *
+ * This file is part of C64 Java Software Emulator.
+ * See README for copyright notice.
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ *  02111-1307  USA.
+ */
+package sw_emulator.software.cpu;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import sw_emulator.software.MemoryDasm;
+import static sw_emulator.software.cpu.M6510Dasm.*;
+
+/**
+ * Control flow tracer of M6510 code.
+ * Starting from the entry points, it follows the instructions with a worklist,
+ * using the tables of the disassembler: JSR and branches add their target,
+ * JMP goes to its target (or to the vector for indirect one), while RTS, RTI,
+ * BRK and JAM end the path. A vector (IRQ, BRK, NMI and hardware ones) set
+ * with immediate values in the same path is followed too. When a path sets
+ * only one byte of a vector (like a routine that changes only the low byte to
+ * chain the next handler into the same page), that byte is paired with the
+ * other bytes stored by the paths that set the whole vector.
+ * Only bytes read by the code are data: targets of stores and read-modify-write
+ * instructions are often operands of self modified code, so they are not
+ * marked. Code reached only in other ways (computed jumps, pushed addresses,
+ * vectors set by values not immediate) is not found, and its bytes are left
+ * unmarked unless they are read by the code.
+ * Code, operands and referenced data are kept into bitsets, then they are
+ * applied to the memory with one linear pass.
+ *
+ * @author ice
+ */
+public class M6510Tracer {
+  /** Size of the memory */
+  public static final int SIZE=0x10000;
+
+  /** Vectors followed when set by the code: kernal IRQ, BRK, NMI and hardware NMI, RESET, IRQ */
+  public static final int[] VECTORS={0x0314, 0x0316, 0x0318, 0xFFFA, 0xFFFC, 0xFFFE};
+
+  /** Image of memory */
+  private final byte[] image=new byte[SIZE];
+
+  /** Bytes present into the image */
+  private final BitSet loaded=new BitSet(SIZE);
+
+  /** First byte of instructions */
+  private final BitSet code=new BitSet(SIZE);
+
+  /** Operand bytes of instructions */
+  private final BitSet operands=new BitSet(SIZE);
+
+  /** Bytes referenced by instructions */
+  private final BitSet data=new BitSet(SIZE);
+
+  /** Addresses already put into worklist */
+  private final BitSet queued=new BitSet(SIZE);
+
+  /** Worklist of addresses to trace */
+  private final int[] work=new int[SIZE];
+
+  /** Number of addresses into worklist */
+  private int top;
+
+  /** True if undocumented instructions are followed */
+  private boolean illegal=true;
+
+  /** Byte stored into each vector byte (-1 if none) */
+  private final int[] vectorValue=new int[VECTORS.length*2];
+
+  /** Path where each vector byte was stored */
+  private final int[] vectorPath=new int[VECTORS.length*2];
+
+  /** Number of the actual path */
+  private int path;
+
+  /** Values of each vector byte stored by paths that set the whole vector */
+  private final BitSet[] vectorPair=new BitSet[VECTORS.length*2];
+
+  /** Values of each vector byte stored by paths that set only that byte */
+  private final BitSet[] vectorSingle=new BitSet[VECTORS.length*2];
+
+  /**
+   * Construct the tracer
+   */
+  public M6510Tracer() {
+    for (int i=0; i<vectorPair.length; i++) {
+      vectorPair[i]=new BitSet(256);
+      vectorSingle[i]=new BitSet(256);
+    }
+  }
+
+  /**
+   * Set if undocumented instructions are followed
+   *
+   * @param illegal true to follow undocumented instructions
+   */
+  public void setIllegal(boolean illegal) {
+    this.illegal=illegal;
+  }
+
+  /**
+   * Load bytes into the image
+   *
+   * @param buffer the buffer with the bytes
+   * @param offset the position of first byte into buffer
+   * @param address the address of first byte
+   * @param length the number of bytes
+   */
+  public void load(byte[] buffer, int offset, int address, int length) {
+    length=Math.min(length, Math.min(buffer.length-offset, SIZE-address));
+    if (length<=0 || offset<0 || address<0) return;
+
+    System.arraycopy(buffer, offset, image, address, length);
+    loaded.set(address, address+length);
+  }
+
+  /**
+   * True if the address is into the image
+   *
+   * @param address the address
+   * @return true if loaded
+   */
+  public boolean isLoaded(int address) {
+    return address>=0 && address<SIZE && loaded.get(address);
+  }
+
+  /**
+   * Get a byte of the image
+   *
+   * @param address the address
+   * @return the byte (unsigned)
+   */
+  public int getByte(int address) {
+    return image[address & 0xFFFF] & 0xFF;
+  }
+
+  /**
+   * Get a word (low/high) of the image
+   *
+   * @param address the address of low byte
+   * @return the word or -1 if not loaded
+   */
+  public int getWord(int address) {
+    if (!isLoaded(address) || !isLoaded(address+1)) return -1;
+    return getByte(address) | getByte(address+1)<<8;
+  }
+
+  /**
+   * Add an entry point
+   *
+   * @param address the address of code
+   */
+  public void addEntry(int address) {
+    if (!isLoaded(address) || queued.get(address)) return;
+
+    queued.set(address);
+    work[top++]=address;
+  }
+
+  /**
+   * Add the entry point pointed by a vector of the image
+   *
+   * @param address the address of the vector
+   */
+  public void addVector(int address) {
+    int value=getWord(address);
+    if (value>=0) addEntry(value);
+  }
+
+  /**
+   * Mark a referenced byte as data
+   *
+   * @param address the address
+   */
+  private void addData(int address) {
+    if (isLoaded(address)) data.set(address);
+  }
+
+  /**
+   * Record a byte stored by the code: if both bytes of a vector are stored
+   * into the same path, its value is an entry point
+   *
+   * @param address the address where to store
+   * @param value the value stored
+   */
+  private void store(int address, int value) {
+    for (int i=0; i<VECTORS.length; i++) {
+      int pos=address-VECTORS[i];
+      if (pos!=0 && pos!=1) continue;
+
+      vectorValue[i*2+pos]=value;
+      vectorPath[i*2+pos]=path;
+
+      int other=i*2+(1-pos);
+      if (vectorPath[other]==path && vectorValue[other]>=0) {
+        addEntry(vectorValue[i*2] | vectorValue[i*2+1]<<8);
+      }
+    }
+  }
+
+  /**
+   * True if the instruction only writes to its address (the target is not data)
+   *
+   * @param mnemonic the mnemonic of the instruction
+   * @return true for store and read-modify-write instructions
+   */
+  private static boolean isWrite(int mnemonic) {
+    switch (mnemonic) {
+      case M_STA:
+      case M_STX:
+      case M_STY:
+      case M_SAX:
+      case M_SHA:
+      case M_SHX:
+      case M_SHY:
+      case M_SHS:
+      case M_INC:
+      case M_DEC:
+      case M_ASL:
+      case M_LSR:
+      case M_ROL:
+      case M_ROR:
+      case M_SLO:
+      case M_RLA:
+      case M_SRE:
+      case M_RRA:
+      case M_DCP:
+      case M_ISB:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * At the end of a path, record the vector bytes it has stored and follow
+   * the vectors set by pairing one byte stored alone with the bytes stored by
+   * the paths that set the whole vector
+   */
+  private void endPath() {
+    for (int i=0; i<VECTORS.length; i++) {
+      int low=i*2;
+      int high=i*2+1;
+      boolean hasLow=vectorPath[low]==path && vectorValue[low]>=0;
+      boolean hasHigh=vectorPath[high]==path && vectorValue[high]>=0;
+
+      if (hasLow && hasHigh) {
+        vectorPair[low].set(vectorValue[low]);
+        vectorPair[high].set(vectorValue[high]);
+      } else if (hasLow) vectorSingle[low].set(vectorValue[low]);
+        else if (hasHigh) vectorSingle[high].set(vectorValue[high]);
+        else continue;
+
+      for (int l=vectorSingle[low].nextSetBit(0); l>=0; l=vectorSingle[low].nextSetBit(l+1)) {
+        for (int h=vectorPair[high].nextSetBit(0); h>=0; h=vectorPair[high].nextSetBit(h+1)) {
+          addEntry(l | h<<8);
+        }
+      }
+      for (int h=vectorSingle[high].nextSetBit(0); h>=0; h=vectorSingle[high].nextSetBit(h+1)) {
+        for (int l=vectorPair[low].nextSetBit(0); l>=0; l=vectorPair[low].nextSetBit(l+1)) {
+          addEntry(l | h<<8);
+        }
+      }
+    }
+  }
+
+  /**
+   * Trace all the entry points added so far
+   */
+  public void trace() {
+    Arrays.fill(vectorValue, -1);
+
+    while (top>0) {
+      int pc=work[--top];
+
+      path++;
+      int a=-1, x=-1, y=-1;        // immediate values of registers (-1 if unknown)
+
+      while (pc<SIZE && loaded.get(pc) && !code.get(pc) && !operands.get(pc)) {
+        int op=image[pc] & 0xFF;
+        int mnemonic=tableMnemonics[op];
+        int mode=tableModes[op];
+        int size=tableSize[op];
+
+        if (mnemonic==M_JAM || (!illegal && mnemonic>=M_ANC)) break;
+
+        // the instruction must be all inside the image and not overlap another
+        int next=pc+size;
+        if (next>SIZE) break;
+        if (size>1) {
+          if (loaded.nextClearBit(pc+1)<next) break;
+          int other=code.nextSetBit(pc+1);
+          if (other>=0 && other<next) break;
+          other=operands.nextSetBit(pc+1);
+          if (other>=0 && other<next) break;
+        }
+
+        code.set(pc);
+        if (size>1) operands.set(pc+1, next);
+
+        int value;
+        if (size==2) value=image[pc+1] & 0xFF;
+        else if (size==3) value=(image[pc+1] & 0xFF) | (image[pc+2] & 0xFF)<<8;
+        else value=-1;
+
+        switch (mode) {
+          case A_REL:
+            addEntry((next+(byte)value) & 0xFFFF);
+            break;
+          case A_IND:
+            int high=(value & 0xFF00) | ((value+1) & 0xFF);   // no page cross like the cpu
+            addData(value);
+            addData(high);
+            if (isLoaded(value) && isLoaded(high)) addEntry(getByte(value) | getByte(high)<<8);
+            break;
+          case A_ABS:
+            if (mnemonic==M_JMP || mnemonic==M_JSR) addEntry(value);
+            else if (!isWrite(mnemonic)) addData(value);
+            break;
+          case A_IDX:
+          case A_IDY:
+            addData(value);                    // the pointer is always read
+            addData((value+1) & 0xFF);
+            break;
+          case A_ZPG:
+          case A_ZPX:
+          case A_ZPY:
+          case A_ABX:
+          case A_ABY:
+            if (!isWrite(mnemonic)) addData(value);
+            break;
+        }
+
+        // vectors set with immediate values
+        if (mode==A_ABS || mode==A_ZPG) {
+          if (mnemonic==M_STA && a>=0) store(value, a);
+          else if (mnemonic==M_STX && x>=0) store(value, x);
+          else if (mnemonic==M_STY && y>=0) store(value, y);
+        }
+
+        switch (op) {
+          case 0xA9:                     // LDA #
+            a=value;
+            break;
+          case 0xA2:                     // LDX #
+            x=value;
+            break;
+          case 0xA0:                     // LDY #
+            y=value;
+            break;
+          default:
+            switch (mnemonic) {
+              case M_STA:
+              case M_STX:
+              case M_STY:
+              case M_SEI:
+              case M_CLI:
+              case M_CLC:
+              case M_SEC:
+              case M_CLD:
+              case M_SED:
+              case M_CLV:
+              case M_NOP:
+                break;
+              default:
+                a=x=y=-1;
+                break;
+            }
+            break;
+        }
+
+        if (mnemonic==M_JMP || mnemonic==M_RTS || mnemonic==M_RTI || mnemonic==M_BRK) break;
+        pc=next;
+      }
+      endPath();
+    }
+  }
+
+  /**
+   * Get the first bytes of the instructions found
+   *
+   * @return the addresses of code
+   */
+  public BitSet getCode() {
+    return (BitSet)code.clone();
+  }
+
+  /**
+   * Get the operand bytes of the instructions found
+   *
+   * @return the addresses of operands
+   */
+  public BitSet getOperands() {
+    return (BitSet)operands.clone();
+  }
+
+  /**
+   * Get the bytes referenced by the code that are not code
+   *
+   * @return the addresses of data
+   */
+  public BitSet getData() {
+    BitSet result=(BitSet)data.clone();
+    result.andNot(code);
+    result.andNot(operands);
+    return result;
+  }
+
+  /**
+   * Apply the result to the memory: instructions are marked as code and
+   * referenced bytes as data, only where the user has not already set them.
+   * A byte inside an instruction (found or already marked as code by the
+   * user) is never marked as data.
+   *
+   * @param memory the memory to mark
+   * @return the number of bytes marked
+   */
+  public int apply(MemoryDasm[] memory) {
+    int count=0;
+    int end=0;                     // end of the last instruction
+
+    for (int i=loaded.nextSetBit(0); i>=0; i=loaded.nextSetBit(i+1)) {
+      MemoryDasm mem=memory[i];
+      if (code.get(i) || (mem.isCode && i>=end)) end=Math.max(end, i+tableSize[getByte(i)]);
+      if (mem.isCode || mem.isData || mem.isGarbage) continue;
+
+      if (code.get(i) || operands.get(i)) mem.isCode=true;
+      else if (data.get(i) && i>=end) mem.isData=true;
+      else continue;
+
+      count++;
+    }
+    return count;
+  }
+}
@@ -3685,33 +3685,10 @@ public class Z80Dasm extends CpuDasm implements disassembler {
           actualOffset=assembler.getCarets().getOffset();                               // rember actual offset
           assembler.getCarets().setOffset(result.length()+actualOffset+21);             // use new offset
           tmp=dasm(buffer);                                                             // this is an instruction
-          xRefManager.processInstructionZ80((int)pc, tmp.split("\\s+")[0], (int)addr, tmp);
+          xRefManager.processInstructionZ80((int)pc, getMnemonic(tmp), (int)addr, tmp);
           assembler.getCarets().setOffset(actualOffset);                                // set old offset 
           
-          tmp2=ShortToExe((int)pc)+"  "+ByteToExe(Unsigned.done(buffer[pos]));
-          if (this.pc-pc==2) {
-            if (pos+1<buffer.length) tmp2+=" "+ByteToExe(Unsigned.done(buffer[pos+1]));
-            else tmp2+=" ??";
-          }
-          if (this.pc-pc==3) {
-            if (pos+2<buffer.length) tmp2+=" "+ByteToExe(Unsigned.done(buffer[pos+1]))+
-                                           " "+ByteToExe(Unsigned.done(buffer[pos+2]));
-            else tmp2+=" ?????";
-          }  
-          if (this.pc-pc==4) {
-            if (pos+3<buffer.length) tmp2+=" "+ByteToExe(Unsigned.done(buffer[pos+1]))+
-                                           " "+ByteToExe(Unsigned.done(buffer[pos+2]))+
-                                           " "+ByteToExe(Unsigned.done(buffer[pos+3]));
-            else tmp2+=" ???????";
-          }          
-          
-          for (int i=tmp2.length(); i<21; i++) // insert spaces
-            tmp2+=" ";
-          tmp=tmp2+tmp;
-          tmp2="";
-          for (int i=tmp.length(); i<43; i++) // insert spaces
-            tmp2+=" ";
-          result.append(tmp).append(tmp2);
+          appendPreview(result, buffer, pos, (int)pc, (int)(this.pc-pc), 21, tmp);
           
           tmp2=dcom();   
           
@@ -3823,7 +3800,9 @@ public class Z80Dasm extends CpuDasm implements disassembler {
           tmp=dasm(buffer);                                                             // this is an instruction
           assembler.getCarets().setOffset(actualOffset);                                // set old offset   
   
-          result.append(getInstrSpacesTabs(mem)).append(tmp).append(getInstrCSpacesTabs(tmp.length()));
+          appendInstrSpacesTabs(result, mem);
+          result.append(tmp);
+          appendInstrCSpacesTabs(result, tmp.length());
           assembler.getCarets().add(pStart, result.length(), mem, Type.INSTR);
           
           tmp2=dcom();   
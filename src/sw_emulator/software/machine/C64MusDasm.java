@@ -616,10 +616,10 @@ public class C64MusDasm extends M6510Dasm {
     this.pos=pos;
     this.pc=pc;
     while (pos<end | pos<start) { // verify also that don't circle in the buffer
-      tmp=dasm(buffer);
+      dasm(result, buffer);
       pos=this.pos;
       pc=this.pc;
-      result.append(tmp).append("\n");
+      result.append("\n");
     }
     return result.toString();
   }
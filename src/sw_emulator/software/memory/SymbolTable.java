@@ -0,0 +1,273 @@
+/**
+ * @(#)SymbolTable.java 2026/10/18
+ *
+ * ICE Team free software group
+ *
+ * This file is part of C64 Java Software Emulator.
+ * See README for copyright notice.
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ *  02111-1307  USA.
+ */
+package sw_emulator.software.memory;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import sw_emulator.software.MemoryDasm;
+import sw_emulator.swing.main.Constant;
+
+/**
+ * Symbol table of the labels (user and dasm location) and constants.
+ * It maps each name to where it is defined, so that a label can be validated
+ * without scanning the memory and constant tables.
+ * The table remembers the names it has indexed, so sync looks only at the
+ * reference of the strings for finding the changed ones.
+ * 
+ * @author ice
+ */
+public class SymbolTable {
+  /** Size of memory */
+  private static final int SIZE=0x10000;
+  
+  /** Memory indexed */
+  private MemoryDasm[] memory;
+  
+  /** Constant indexed */
+  private Constant constant;
+  
+  /** User location indexed for each address */
+  private final String[] userNames=new String[SIZE];
+  
+  /** Dasm location indexed for each address */
+  private final String[] dasmNames=new String[SIZE];
+  
+  /** Constants indexed */
+  private Constant constantNames=new Constant();
+  
+  /** Label to its lowest address and number of definitions */
+  private final HashMap<String, int[]> labels=new HashMap<>();
+  
+  /** Constant to its lowest cell (col*ROWS+row) and number of definitions */
+  private final HashMap<String, int[]> constants=new HashMap<>();
+  
+  /** Addresses with a label */
+  private final BitSet labelled=new BitSet(SIZE);
+  
+  /**
+   * Synchronize the table with the actual labels and constants
+   * 
+   * @param memory the memory with labels
+   * @param constant the constants
+   */
+  public void sync(MemoryDasm[] memory, Constant constant) {
+    if (this.memory!=memory || this.constant!=constant) clear();
+    
+    this.memory=memory;
+    this.constant=constant;
+    
+    if (memory!=null) {
+      for (int address=0; address<SIZE; address++) {
+        MemoryDasm mem=memory[address];
+        if (mem.userLocation!=userNames[address] || mem.dasmLocation!=dasmNames[address]) update(address);
+      }
+    }
+    
+    if (constant!=null) {
+      for (int col=0; col<Constant.COLS; col++) {
+        // rows defined now, then rows no more defined
+        for (int row: constant.getRows(col)) {
+          updateConstant(col, row);
+        }
+        for (int row: constantNames.getRows(col)) {
+          if (constant.get(col, row)==null) updateConstant(col, row);
+        }
+      }
+    }
+  }
+  
+  /**
+   * Synchronize the constant of the given cell
+   * 
+   * @param col the column
+   * @param row the row
+   */
+  private void updateConstant(int col, int row) {
+    String actual=constant.get(col, row);
+    String old=constantNames.get(col, row);
+    
+    if (actual!=old) {
+      constantNames.set(col, row, actual);
+      remove(constants, old, col*Constant.ROWS+row);
+      add(constants, actual, col*Constant.ROWS+row);
+    }
+  }
+  
+  /**
+   * Synchronize the labels of the given address after a change.
+   * Nothing is done if the table is not synchronized with a memory.
+   * 
+   * @param address the changed address
+   */
+  public void update(int address) {
+    if (memory==null) return;
+    
+    MemoryDasm mem=memory[address];
+      
+    String old;
+    
+    if (mem.userLocation!=userNames[address]) {
+      old=userNames[address];
+      userNames[address]=mem.userLocation;
+      remove(labels, old, address);
+      add(labels, userNames[address], address);
+    }
+    
+    if (mem.dasmLocation!=dasmNames[address]) {
+      old=dasmNames[address];
+      dasmNames[address]=mem.dasmLocation;
+      remove(labels, old, address);
+      add(labels, dasmNames[address], address);
+    }
+    
+    labelled.set(address, isName(userNames[address]) || isName(dasmNames[address]));
+  }
+  
+  /**
+   * Get the lowest address where the label is defined
+   * 
+   * @param label the label to search
+   * @return the address or -1 if not defined
+   */
+  public int getAddress(String label) {
+    int[] entry=labels.get(label);
+    
+    return entry==null ? -1 : entry[0];
+  }
+  
+  /**
+   * Get the first cell where the constant is defined
+   * 
+   * @param name the constant to search
+   * @return the cell as col*ROWS+row or -1 if not defined
+   */
+  public int getConstant(String name) {
+    int[] entry=constants.get(name);
+    
+    return entry==null ? -1 : entry[0];
+  }
+  
+  /**
+   * Get the addresses that have a label
+   * 
+   * @return the addresses in ascending order
+   */
+  public int[] getAddresses() {
+    return labelled.stream().toArray();
+  }
+  
+  /**
+   * Clear the table
+   */
+  public void clear() {
+    memory=null;
+    constant=null;
+    
+    for (int i=0; i<SIZE; i++) {
+      userNames[i]=null;
+      dasmNames[i]=null;
+    }
+    
+    constantNames=new Constant();
+    
+    labels.clear();
+    constants.clear();
+    labelled.clear();
+  }
+  
+  /**
+   * True if the string is a name to index
+   * 
+   * @param name the name
+   * @return true if name is to index
+   */
+  private static boolean isName(String name) {
+    return name!=null && !"".equals(name);
+  }
+  
+  /**
+   * Add a definition of the name at the given position
+   * 
+   * @param map the map where to add
+   * @param name the name
+   * @param position the position of the definition
+   */
+  private static void add(HashMap<String, int[]> map, String name, int position) {
+    if (!isName(name)) return;
+    
+    int[] entry=map.get(name);
+    if (entry==null) map.put(name, new int[] {position, 1});
+    else {
+      if (position<entry[0]) entry[0]=position;
+      entry[1]++;
+    }
+  }
+  
+  /**
+   * Remove the definition of the name at the given position.
+   * The position must be already indexed with its new name.
+   * 
+   * @param map the map where to remove
+   * @param name the name
+   * @param position the position of the definition
+   */
+  private void remove(HashMap<String, int[]> map, String name, int position) {
+    if (!isName(name)) return;
+    
+    int[] entry=map.get(name);
+    if (entry==null) return;
+    
+    if (--entry[1]==0) {
+      map.remove(name);
+      return;
+    }
+    
+    // duplicated name: search the next definition
+    if (entry[0]==position) entry[0]=(map==labels ? searchLabel(name) : searchConstant(name));
+  }
+  
+  /**
+   * Search the lowest indexed address of the label
+   * 
+   * @param label the label to search
+   * @return the address or -1 if not indexed
+   */
+  private int searchLabel(String label) {
+    for (int address=0; address<SIZE; address++) {
+      if (label.equals(userNames[address]) || label.equals(dasmNames[address])) return address;
+    }
+    
+    return -1;
+  }
+  
+  /**
+   * Search the lowest indexed cell of the constant
+   * 
+   * @param name the constant to search
+   * @return the cell or -1 if not indexed
+   */
+  private int searchConstant(String name) {
+    return constantNames.search(name);
+  }
+}
@@ -25,6 +25,7 @@ package sw_emulator.software.memory;
 
 import java.util.*;
 import java.util.stream.Collectors;
+import sw_emulator.software.cpu.M6510Dasm;
 
 /**
  * Manage cross-reference for addresses
@@ -417,6 +418,24 @@ public class XRefManager {
     }
   }
 
+  /**
+   * Replace all the references with the ones of the given manager
+   *
+   * @param xRefManager the manager to copy
+   */
+  public void copy(XRefManager xRefManager) {
+    synchronized (xRefManager.xrefMap) {
+      synchronized (xrefMap) {
+        xrefMap.clear();
+        for (Map.Entry<Integer, List<XRef>> entry : xRefManager.xrefMap.entrySet()) {
+          xrefMap.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+        }
+        statsCache.clear();
+        cacheDirty = true;
+      }
+    }
+  }
+
   /**
    * clear the references for a specific address
    *
@@ -429,6 +448,24 @@ public class XRefManager {
     }
   }
 
+  /**
+   * clear the references that start from the given address range
+   *
+   * @param start the first source address
+   * @param end the last source address
+   */
+  public void clearForSource(int start, int end) {
+    synchronized (xrefMap) {
+      Iterator<List<XRef>> iter = xrefMap.values().iterator();
+      while (iter.hasNext()) {
+        List<XRef> list = iter.next();
+        list.removeIf(x -> x.sourceAddress >= start && x.sourceAddress <= end);
+        if (list.isEmpty()) iter.remove();
+      }
+      cacheDirty = true;
+    }
+  }
+
   /**
    * Return the total stored references
    */
@@ -438,6 +475,88 @@ public class XRefManager {
     }
   }
 
+  /**
+   * Process one instruction and add references automatically for the M6510
+   * processor, using the type of instruction given by the disassembler.
+   * The instruction text is taken from the end of the disassembler output 
+   * only if a reference is added.
+   *
+   * @param address the address of the instruction
+   * @param iType the type of instruction (M6510Dasm.M_xxx)
+   * @param operand the address of the operand
+   * @param text the output with the instruction in assembly format at end
+   * @param start the start of instruction in text
+   */
+  public void processInstructionM6510(int address, int iType, int operand, CharSequence text, int start) {
+    XRefType type;
+    String context;
+      
+    switch (iType) {
+      case M6510Dasm.M_LDA:
+      case M6510Dasm.M_LDX:
+      case M6510Dasm.M_LDY:
+        type=XRefType.READ;
+        context="Load";
+        break;
+
+      case M6510Dasm.M_STA:
+      case M6510Dasm.M_STX:
+      case M6510Dasm.M_STY:
+        type=XRefType.WRITE;
+        context="Store";
+        break;
+
+      case M6510Dasm.M_JSR:
+        type=XRefType.CALL;
+        context="Subroutine call";
+        break;
+
+      case M6510Dasm.M_JMP:
+        type=XRefType.JUMP;
+        context="Jump";
+        break;
+
+      case M6510Dasm.M_BCC:
+      case M6510Dasm.M_BCS:
+      case M6510Dasm.M_BEQ:
+      case M6510Dasm.M_BMI:
+      case M6510Dasm.M_BNE:
+      case M6510Dasm.M_BPL:
+      case M6510Dasm.M_BVC:
+      case M6510Dasm.M_BVS:
+        type=XRefType.BRANCH;
+        context="Branch";
+        break;
+
+      case M6510Dasm.M_CMP:
+      case M6510Dasm.M_CPX:
+      case M6510Dasm.M_CPY:
+        type=XRefType.COMPARE;
+        context="Compare";
+        break;
+
+      case M6510Dasm.M_INC:
+      case M6510Dasm.M_DEC:
+      case M6510Dasm.M_ASL:
+      case M6510Dasm.M_LSR:
+      case M6510Dasm.M_ROL:
+      case M6510Dasm.M_ROR:
+        type=XRefType.MODIFY;
+        context="Modify";
+        break;
+
+      case M6510Dasm.M_BIT:
+        type=XRefType.BIT_TEST;
+        context="Bit test";
+        break;
+        
+      default:
+        return;  
+    }
+    
+    addXRef(address, operand, type, text.subSequence(start, text.length()).toString(), context);
+  }
+  
   /**
    * Process one instruction and add references automatically for the M6510
    * processor
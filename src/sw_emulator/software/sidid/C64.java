@@ -23,11 +23,6 @@
 package sw_emulator.software.sidid; 
 
 
-class Output {
-  int L;
-  int R;
-};
-
 /**
  * C64 class of cRSID original by Hermit
  * 
@@ -83,6 +78,12 @@ public class C64 {
   int periodCounter=0;
   int sampleAddress=0;
 
+  /** Memory where the cpu records read/write/execute (the shared one for the player) */
+  Memory memory=Memory.instance;
+  
+  /** Output of the sample, reused for not allocating at each sample */
+  final Output output=new Output();
+  
   //Hardware-elements:
   CPU cpu;
   SID[] sid=new SID[4]; //CRSID_SIDCOUNT_MAX+1];
@@ -287,12 +288,16 @@ public class C64 {
     sampleCycleCnt = overSampleCycleCnt = 0;
   }
   
+  /**
+   * Emulate the C64 up to the next sample
+   * 
+   * @return the sample, reused (and overwritten) by the next call
+   */
   public Output emulateC64() {
     byte InstructionCycles;
     int HQsampleCount=0;
     int Tmp;
     
-    Output output=new Output();
     SIDwavOutput sidWavOutput;
 
     //Cycle-based part of emulations:
@@ -98,7 +98,7 @@ public class CPU {
                }
       }
     }
-    Memory.instance.setRead(address);
+    c64.memory.setRead(address);
     return value;
   }
   
@@ -115,7 +115,7 @@ public class CPU {
         c64.vic.acknowledgeVICrasterIRQ(); 
       }  
     }
-    Memory.instance.setWrite(address);
+    c64.memory.setWrite(address);
   }
   
   /**
@@ -162,7 +162,7 @@ public class CPU {
            }
         }
     }
-    Memory.instance.setWrite(address);
+    c64.memory.setWrite(address);
   }
   
   /**
@@ -172,7 +172,7 @@ public class CPU {
     ++PC; 
     addr=PC; 
     cycles=2; 
-    Memory.instance.setExecute(PC);
+    c64.memory.setExecute(PC);
   }
  
   /** 
@@ -182,8 +182,8 @@ public class CPU {
     ++PC; 
     addr=rd(PC); 
     cycles=3; 
-    Memory.instance.setExecuteMinus(PC);
-    Memory.instance.setExecute(PC);
+    c64.memory.setExecuteMinus(PC);
+    c64.memory.setExecute(PC);
   } 
  
   /** 
@@ -195,8 +195,8 @@ public class CPU {
     ++PC;
     addr += rd(PC)<<8; 
     cycles=4; 
-    Memory.instance.setExecuteMinus(PC);
-    Memory.instance.setExecute(PC);
+    c64.memory.setExecuteMinus(PC);
+    c64.memory.setExecute(PC);
   } 
  
   /** 
@@ -208,7 +208,7 @@ public class CPU {
     ++PC; 
     addr = (rd(PC) + X) & 0xFF; 
     cycles=4; 
-    Memory.instance.setExecute(PC);
+    c64.memory.setExecute(PC);
   } 
     
   /**
@@ -220,7 +220,7 @@ public class CPU {
     ++PC; 
     addr = (rd(PC) + Y) & 0xFF; 
     cycles=4; 
-    Memory.instance.setExecute(PC);
+    c64.memory.setExecute(PC);
   } 
   
   /**
@@ -235,8 +235,8 @@ public class CPU {
     samePage = (addr <= 0xFF) ? 1:0; 
     addr += rd(PC)<<8; 
     cycles=5;
-    Memory.instance.setExecuteMinus(PC);
-    Memory.instance.setExecute(PC);
+    c64.memory.setExecuteMinus(PC);
+    c64.memory.setExecute(PC);
   }
 
   /**
@@ -251,8 +251,8 @@ public class CPU {
     samePage = (addr <= 0xFF) ? 1:0; 
     addr += rd(PC)<<8; 
     cycles=5;
-    Memory.instance.setExecuteMinus(PC);
-    Memory.instance.setExecute(PC);
+    c64.memory.setExecuteMinus(PC);
+    c64.memory.setExecute(PC);
   }
 
   /**
@@ -266,7 +266,7 @@ public class CPU {
     samePage = (addr <= 0xFF) ? 1:0; 
     addr += rd( (rd(PC)+1)&0xFF ) << 8; 
     cycles=6;
-    Memory.instance.setExecute(PC);
+    c64.memory.setExecute(PC);
   }
 
   /**
@@ -278,7 +278,7 @@ public class CPU {
     ++PC; 
     addr = ( rd(rd(PC)+X)&0xFF ) + ( ( rd(rd(PC)+X+1)&0xFF ) << 8 ); 
     cycles=6;
-    Memory.instance.setExecute(PC);
+    c64.memory.setExecute(PC);
   }
   
   /**
@@ -431,7 +431,7 @@ public class CPU {
     cycles = 2;
     samePage = 0; //'cycles': ensure smallest 6510 runtime (for implied/register instructions)
     
-    Memory.instance.setExecute(PC);
+    c64.memory.setExecute(PC);
 
 /*System.err.println("PC="+Integer.toHexString(PC)+" "+
                    "IR="+Integer.toHexString(IR)+" "+
@@ -824,7 +824,7 @@ public class CPU {
 
       if ((IR & 0x1F) == 0x10) { //BPL/BMI/BVC/BVS/BCC/BCS/BNE/BEQ  relative branch
         ++PC;
-        Memory.instance.setExecute(PC);
+        c64.memory.setExecute(PC);
         T = rd(PC);
         if ((T & 0x80) != 0) {
           T -= 0x100;
@@ -888,8 +888,8 @@ public class CPU {
               push((PC + 2 - 1) >> 8);
               push((PC + 2 - 1) & 0xFF);
               PC = rd(addr) + rd(addr + 1) * 256 - 1;
-              Memory.instance.setExecute(addr);
-              Memory.instance.setExecute(addr+1);
+              c64.memory.setExecute(addr);
+              c64.memory.setExecute(addr+1);
               cycles = 6;
             }
             break;
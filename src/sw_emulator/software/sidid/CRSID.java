@@ -54,8 +54,28 @@ public class CRSID extends Thread {
   
   
   public CRSID() {
-    init(44100);
-    start();
+    this(44100, true);
+  }
+  
+  /**
+   * Construct the player
+   * 
+   * @param samplerate the sample rate
+   * @param audio true for playing to the sound card, false for generating the
+   *              samples only by calling <code>generateSample</code>
+   */
+  public CRSID(int samplerate, boolean audio) {
+    init(samplerate);
+    if (audio) start();
+  }
+  
+  /**
+   * Get the emulated C64
+   * 
+   * @return the C64
+   */
+  public C64 getC64() {
+    return c64;
   }
   
   
@@ -82,7 +102,7 @@ public class CRSID extends Thread {
     c64.subTune = subtune;
     c64.secondCnt = c64.playTime = /*c64.Paused =*/ 0;
     
-    Memory.instance.clear();
+    c64.memory.clear();
 
     c64.setC64(psid);
     c64.initC64();
@@ -204,6 +224,27 @@ public class CRSID extends Thread {
     }
   }
   
+  /**
+   * Generate the sound from emulation into stereo interleaved samples, 
+   * without allocating anything
+   * 
+   * @param buf the buffer to fill with left/right samples
+   * @param offset the first sample to fill into the buffer
+   * @param frames the number of left/right couples to generate
+   */
+  public void generateSound(short[] buf, int offset, int frames) {
+    Output output=null;
+    int pos=offset;
+
+    for (int i = 0; i < frames; i++) {
+      for (int j = 0; j < c64.playbackSpeed; ++j) {
+        output = generateSample();
+      }
+      buf[pos++] = (short)(output.L * c64.mainVolume / 256);
+      buf[pos++] = (short)(output.R * c64.mainVolume / 256);
+    }
+  }
+  
   /**
    * Play the given sid file 
    * 
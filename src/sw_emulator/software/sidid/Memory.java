@@ -47,7 +47,19 @@ public class Memory {
   /** Use static access to reduce patching of file */
   public static Memory instance=new Memory();
   
-  private Memory() {    
+  /**
+   * Construct a memory for recording the accesses of one tune
+   */
+  public Memory() {    
+  }
+  
+  /**
+   * Get the recorded flags of each address
+   * 
+   * @return the flags (MEM_xxx) of the 64K
+   */
+  public byte[] getFlags() {
+    return memory;
   }
   
   /**
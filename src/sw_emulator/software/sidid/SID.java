@@ -28,12 +28,6 @@ import static sw_emulator.software.sidid.PulseTriangle.PulseTriangle;
 import static sw_emulator.software.sidid.SawTriangle.SawTriangle;
 
 
-
-class SIDwavOutput {
-  int nonFilted;
-  int filterInput;
-};
-
 /**
  * SID emulation of cRSID original by Hermit
  *
@@ -78,6 +72,9 @@ public class SID {
   //Output-stage:
   int nonFiltedSample;
   int filterInputSample;
+  
+  /** Output of the oversampled waves, reused for not allocating at each call */
+  final SIDwavOutput wavOutput=new SIDwavOutput();
   int prevNonFiltedSample;
   int prevFilterInputSample;
   int prevVolume; //lowpass-filtered version of Volume-band register
@@ -696,7 +693,7 @@ public class SID {
   }
   
   SIDwavOutput emulateHQwaves (int cycles) {
-    SIDwavOutput sidWavOutput=new SIDwavOutput();
+    SIDwavOutput sidWavOutput=wavOutput;
 
     int WF, Envelope, FilterSwitchReso, VolumeBand;
     int utmp, phaseAccuStep, MSB, WavGenOut, PW;
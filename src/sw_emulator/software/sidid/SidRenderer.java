@@ -0,0 +1,365 @@
+/**
+ * @(#)SidRenderer.java 2026/10/18
+ *
+ * ICE Team Free Software Group
+ *
+ * This file is part of C64 Java Software Emulator.
+ * See README for copyright notice.
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ *  02111-1307  USA.
+ */
+package sw_emulator.software.sidid;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Offline SID renderer.
+ * It renders a tune of a SID to 16 bit stereo PCM or to a WAV file as fast as
+ * the cpu allows, without audio line.
+ * Many tunes can be rendered at the same time, each one with its own C64.
+ *
+ * @author ice
+ */
+public class SidRenderer {
+  /** Default sample rate */
+  public static final int DEFAULT_SAMPLE_RATE=44100;
+
+  /** Number of channels (left/right) */
+  public static final int CHANNELS=2;
+
+  /** Left/right couples generated at each step */
+  public static final int CHUNK_FRAMES=4096;
+
+  /** Sample rate of rendering */
+  private final int sampleRate;
+
+  /** True for high quality (oversampled) SID */
+  private boolean highQuality=true;
+
+  /**
+   * A tune to render into a WAV file
+   */
+  public static class Job {
+    /** The SID file data */
+    public final byte[] sidData;
+
+    /** The tune to render (1..n) */
+    public final int tune;
+
+    /** Seconds to render */
+    public final int seconds;
+
+    /** The WAV file to write */
+    public final File file;
+
+    /**
+     * Construct the job
+     *
+     * @param sidData the SID file data
+     * @param tune the tune to render
+     * @param seconds seconds to render
+     * @param file the WAV file to write
+     */
+    public Job(byte[] sidData, int tune, int seconds, File file) {
+      this.sidData=sidData;
+      this.tune=tune;
+      this.seconds=seconds;
+      this.file=file;
+    }
+  }
+
+  /**
+   * Construct the renderer
+   *
+   * @param sampleRate the sample rate of the output
+   */
+  public SidRenderer(int sampleRate) {
+    this.sampleRate=sampleRate;
+  }
+
+  /**
+   * Set the quality of SID emulation
+   *
+   * @param highQuality true for oversampled SID
+   */
+  public void setHighQuality(boolean highQuality) {
+    this.highQuality=highQuality;
+  }
+
+  /**
+   * Create a player of the given tune, with its own C64 and Sidld memory
+   *
+   * @param sidData the SID file data
+   * @param tune the tune to play (1..n)
+   * @return the player ready to generate samples
+   */
+  public CRSID open(byte[] sidData, int tune) {
+    CRSID crsid=new CRSID(sampleRate, false);
+    C64 c64=crsid.getC64();
+    c64.memory=new Memory();
+
+    PSID psid=new PSID();
+    psid.processSIDfile(c64, sidData, sidData.length);
+    crsid.initSIDtune(psid, tune);
+    c64.highQualitySID=highQuality;
+
+    return crsid;
+  }
+
+  /**
+   * Render the tune into memory
+   *
+   * @param sidData the SID file data
+   * @param tune the tune to render (1..n)
+   * @param seconds seconds to render
+   * @return the left/right interleaved samples
+   */
+  public short[] render(byte[] sidData, int tune, int seconds) {
+    CRSID crsid=open(sidData, tune);
+    int frames=seconds*sampleRate;
+
+    short[] pcm=new short[frames*CHANNELS];
+    crsid.generateSound(pcm, 0, frames);
+    return pcm;
+  }
+
+  /**
+   * Render the tune into a WAV file
+   *
+   * @param sidData the SID file data
+   * @param tune the tune to render (1..n)
+   * @param seconds seconds to render
+   * @param file the WAV file to write
+   * @throws IOException if writing fails
+   */
+  public void renderWav(byte[] sidData, int tune, int seconds, File file) throws IOException {
+    CRSID crsid=open(sidData, tune);
+    int frames=seconds*sampleRate;
+
+    short[] pcm=new short[CHUNK_FRAMES*CHANNELS];
+    byte[] buf=new byte[CHUNK_FRAMES*CHANNELS*2];
+
+    try (OutputStream out=new BufferedOutputStream(new FileOutputStream(file))) {
+      writeWavHeader(out, sampleRate, frames);
+
+      for (int left=frames; left>0; left-=CHUNK_FRAMES) {
+        int size=Math.min(left, CHUNK_FRAMES);
+        crsid.generateSound(pcm, 0, size);
+
+        for (int i=0, j=0; i<size*CHANNELS; i++) {
+          buf[j++]=(byte)pcm[i];
+          buf[j++]=(byte)(pcm[i]>>8);
+        }
+        out.write(buf, 0, size*CHANNELS*2);
+      }
+    }
+  }
+
+  /**
+   * Render many tunes at the same time
+   *
+   * @param jobs the tunes to render
+   * @param threads number of threads to use
+   * @return the error of each job (null if ok), in the same order of jobs
+   */
+  public List<Exception> renderAll(List<Job> jobs, int threads) {
+    ExecutorService executor=Executors.newFixedThreadPool(threads);
+    ArrayList<Future<?>> futures=new ArrayList<>();
+    ArrayList<Exception> errors=new ArrayList<>();
+
+    try {
+      for (Job job: jobs) {
+        futures.add(executor.submit(() -> {
+          renderWav(job.sidData, job.tune, job.seconds, job.file);
+          return null;
+        }));
+      }
+
+      for (Future<?> future: futures) {
+        try {
+          future.get();
+          errors.add(null);
+        } catch (Exception e) {
+            errors.add(e);
+          }
+      }
+    } finally {
+        executor.shutdown();
+      }
+    return errors;
+  }
+
+  /**
+   * Write the header of a 16 bit stereo PCM WAV file
+   *
+   * @param out the stream where to write
+   * @param sampleRate the sample rate
+   * @param frames the number of left/right couples that follow
+   * @throws IOException if writing fails
+   */
+  public static void writeWavHeader(OutputStream out, int sampleRate, int frames) throws IOException {
+    int dataSize=frames*CHANNELS*2;
+
+    out.write(new byte[] {'R', 'I', 'F', 'F'});
+    writeInt(out, 36+dataSize);
+    out.write(new byte[] {'W', 'A', 'V', 'E', 'f', 'm', 't', ' '});
+    writeInt(out, 16);                         // format chunk size
+    writeShort(out, 1);                        // PCM
+    writeShort(out, CHANNELS);
+    writeInt(out, sampleRate);
+    writeInt(out, sampleRate*CHANNELS*2);      // byte rate
+    writeShort(out, CHANNELS*2);               // block align
+    writeShort(out, 16);                       // bits per sample
+    out.write(new byte[] {'d', 'a', 't', 'a'});
+    writeInt(out, dataSize);
+  }
+
+  /**
+   * Write a little endian int
+   *
+   * @param out the stream where to write
+   * @param value the value to write
+   * @throws IOException if writing fails
+   */
+  private static void writeInt(OutputStream out, int value) throws IOException {
+    writeShort(out, value);
+    writeShort(out, value>>16);
+  }
+
+  /**
+   * Write a little endian short
+   *
+   * @param out the stream where to write
+   * @param value the value to write
+   * @throws IOException if writing fails
+   */
+  private static void writeShort(OutputStream out, int value) throws IOException {
+    out.write(value & 0xFF);
+    out.write((value>>8) & 0xFF);
+  }
+
+  /**
+   * Print the usage
+   */
+  private static void usage() {
+    System.err.println("Usage: SidRenderer [-rate n] [-seconds n] [-tune n] [-lq] [-threads n] [-out dir] file.sid ...");
+  }
+
+  /**
+   * Render the given SID files (all tunes if no tune is given) to WAV files
+   *
+   * @param args the command line arguments
+   */
+  public static void main(String[] args) {
+    int rate=DEFAULT_SAMPLE_RATE;
+    int seconds=60;
+    int tune=0;
+    int threads=Runtime.getRuntime().availableProcessors();
+    boolean highQuality=true;
+    File outDir=null;
+    ArrayList<File> files=new ArrayList<>();
+
+    try {
+      for (int i=0; i<args.length; i++) {
+        switch (args[i]) {
+          case "-rate":
+            rate=Integer.parseInt(args[++i]);
+            break;
+          case "-seconds":
+            seconds=Integer.parseInt(args[++i]);
+            break;
+          case "-tune":
+            tune=Integer.parseInt(args[++i]);
+            break;
+          case "-threads":
+            threads=Math.max(1, Integer.parseInt(args[++i]));
+            break;
+          case "-lq":
+            highQuality=false;
+            break;
+          case "-out":
+            outDir=new File(args[++i]);
+            break;
+          default:
+            files.add(new File(args[i]));
+            break;
+        }
+      }
+    } catch (RuntimeException e) {
+        usage();
+        System.exit(1);
+      }
+
+    if (files.isEmpty()) {
+      usage();
+      System.exit(1);
+    }
+
+    if (outDir!=null && !outDir.isDirectory() && !outDir.mkdirs()) {
+      System.err.println("Unable to create output directory "+outDir);
+      System.exit(1);
+    }
+
+    ArrayList<Job> jobs=new ArrayList<>();
+    for (File file: files) {
+      try {
+        byte[] data=Files.readAllBytes(file.toPath());
+        PSID psid=new PSID();
+        psid.processSIDfile(new C64(rate), data, data.length);
+
+        String base=file.getName().replaceFirst("(?i)\\.sid$", "");
+        File dir=(outDir!=null ? outDir : file.getAbsoluteFile().getParentFile());
+
+        int first=(tune>0 ? tune : 1);
+        int last=(tune>0 ? tune : Math.max(1, psid.getMaxTune()));
+        for (int t=first; t<=last; t++) {
+          jobs.add(new Job(data, t, seconds, new File(dir, base+"_"+t+".wav")));
+        }
+      } catch (IOException e) {
+          System.err.println(file+": "+e);
+        }
+    }
+
+    SidRenderer renderer=new SidRenderer(rate);
+    renderer.setHighQuality(highQuality);
+
+    long time=System.nanoTime();
+    List<Exception> errors=renderer.renderAll(jobs, threads);
+    time=System.nanoTime()-time;
+
+    int ko=0;
+    for (int i=0; i<jobs.size(); i++) {
+      Exception error=errors.get(i);
+      if (error!=null) ko++;
+      System.out.println(jobs.get(i).file.getName()+": "+(error==null ? "ok" : error));
+    }
+    System.out.println(String.format(Locale.ENGLISH, "%d tunes, %d errors, %.2f ms (%.1fx real time)",
+                                     jobs.size(), ko, time/1e6,
+                                     (double)jobs.size()*seconds*1e9/Math.max(1, time)));
+    System.exit(ko==0 ? 0 : 2);
+  }
+}
@@ -0,0 +1,122 @@
+/**
+ * @(#)SidTracer.java 2026/10/18
+ *
+ * ICE Team Free Software Group
+ *
+ * This file is part of C64 Java Software Emulator.
+ * See README for copyright notice.
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ *  02111-1307  USA.
+ */
+package sw_emulator.software.sidid;
+
+import java.util.stream.IntStream;
+
+/**
+ * Offline Sidld tracer.
+ * It runs init and play of each tune of a SID without audio and as fast as
+ * possible, recording the memory accesses of each tune into its own memory
+ * instead of the shared one used by the player.
+ *
+ * @author ice
+ */
+public class SidTracer {
+  /** Sample rate used while tracing: samples are discarded, so keep it low */
+  public static final int SAMPLE_RATE=8000;
+
+  /** The SID file data */
+  private final byte[] sidData;
+
+  /** Number of tunes into the SID */
+  private final int tunes;
+
+  /**
+   * Construct the tracer of a SID file
+   *
+   * @param sidData the SID file data (PSID/RSID with header)
+   */
+  public SidTracer(byte[] sidData) {
+    this.sidData=sidData;
+
+    PSID psid=new PSID();
+    psid.processSIDfile(new C64(SAMPLE_RATE), sidData, sidData.length);
+    tunes=Math.max(1, psid.getMaxTune());
+  }
+
+  /**
+   * Get the number of tunes into the SID
+   *
+   * @return the number of tunes
+   */
+  public int getTunes() {
+    return tunes;
+  }
+
+  /**
+   * Trace init plus the given seconds of play of one tune
+   *
+   * @param tune the tune to trace (1..tunes)
+   * @param seconds the seconds of play
+   * @return the flags (MEM_xxx) of the 64K
+   */
+  public byte[] trace(int tune, int seconds) {
+    CRSID crsid=new CRSID(SAMPLE_RATE, false);
+    C64 c64=crsid.getC64();
+    c64.memory=new Memory();
+    c64.highQualitySID=false;
+
+    PSID psid=new PSID();
+    psid.processSIDfile(c64, sidData, sidData.length);
+    crsid.initSIDtune(psid, tune);
+
+    for (int i=seconds*SAMPLE_RATE; i>0; i--) {
+      crsid.generateSample();
+    }
+
+    return c64.memory.getFlags();
+  }
+
+  /**
+   * Trace all the tunes, each one with its own emulator
+   *
+   * @param seconds the seconds of play of each tune
+   * @param parallel true for tracing the tunes in parallel
+   * @return the flags of each tune (index 0 is tune 1)
+   */
+  public byte[][] traceAll(int seconds, boolean parallel) {
+    IntStream stream=IntStream.rangeClosed(1, tunes);
+    if (parallel) stream=stream.parallel();
+
+    return stream.mapToObj(tune -> trace(tune, seconds)).toArray(byte[][]::new);
+  }
+
+  /**
+   * Merge the flags of many tunes
+   *
+   * @param flags the flags of each tune
+   * @return the or of all the flags
+   */
+  public static byte[] merge(byte[][] flags) {
+    byte[] result=new byte[0x10000];
+
+    for (byte[] tune: flags) {
+      for (int i=0; i<result.length; i++) {
+        result[i]|=tune[i];
+      }
+    }
+    return result;
+  }
+}
@@ -290,7 +290,7 @@ public class JConstantDialog extends javax.swing.JDialog {
             return;
           }
           
-          constant.table[col-1][row++]=actual;
+          constant.set(col-1, row++, actual);
         }
       }              
     } catch (Exception e) {
@@ -313,8 +313,8 @@ public class JConstantDialog extends javax.swing.JDialog {
             return;
         }
         
-        String comment=JOptionPane.showInputDialog(this, "Insert the comment for the selected memory location", constant.comment[col-1][row]);  
-        if (comment!=null) constant.comment[col-1][row]=comment;          
+        String comment=JOptionPane.showInputDialog(this, "Insert the comment for the selected memory location", constant.getComment(col-1, row));  
+        if (comment!=null) constant.setComment(col-1, row, comment);          
 
         dataModel.fireTableDataChanged();  
   }
@@ -330,7 +330,7 @@ public class JConstantDialog extends javax.swing.JDialog {
         
         if (row<0 || col<1) return;
         
-        constant.comment[col-1][row]="";
+        constant.setComment(col-1, row, "");
         dataModel.fireTableDataChanged();    
   }  
     /**
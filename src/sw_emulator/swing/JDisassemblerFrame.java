@@ -24,6 +24,7 @@
 package sw_emulator.swing;
 
 import java.awt.AWTException;
+import java.awt.Cursor;
 import java.awt.Font;
 import java.awt.Image;
 import java.awt.Robot;
@@ -53,12 +54,14 @@ import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Base64;
+import java.util.BitSet;
 import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Stack;
 import java.util.StringTokenizer;
 import java.util.Vector;
+import java.util.concurrent.ExecutionException;
 import java.util.prefs.Preferences;
 import javax.swing.AbstractAction;
 import javax.swing.ActionMap;
@@ -75,6 +78,7 @@ import javax.swing.JTextArea;
 import javax.swing.KeyStroke;
 import javax.swing.ListSelectionModel;
 import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
 import javax.swing.Timer;
 import javax.swing.UIManager;
 import javax.swing.filechooser.FileNameExtensionFilter;
@@ -103,6 +107,7 @@ import static sw_emulator.software.MemoryDasm.TYPE_PLUS_MAJOR;
 import static sw_emulator.software.MemoryDasm.TYPE_PLUS_MINOR;
 import sw_emulator.software.cpu.M6510Dasm;
 import sw_emulator.software.cpu.Z80Dasm;
+import sw_emulator.software.memory.SymbolTable;
 import sw_emulator.software.memory.XRefManager;
 import sw_emulator.swing.main.Carets;
 import sw_emulator.swing.main.Constant;
@@ -150,12 +155,42 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
   /** Undo manager */
   UndoManager undo=new UndoManager();
   
+  /** Memory addresses changed from last undo store (null if not known) */
+  BitSet undoChanged;
+  
   /** Data table for memory */
   DataTableModelMemory dataTableModelMemory=new DataTableModelMemory(option);
   
   /** Disassembly engine  */
   Disassembly disassembly=new Disassembly();
   
+  /** Worker executing the disassembly passes outside the event thread */
+  SwingWorker<Void, Void> disassemblyWorker;
+  
+  /** True if a new disassembly was requested while the worker was running */
+  boolean disassemblyPending=false;
+  
+  /** True if the pending disassembly should store the undo */
+  boolean disassemblyPendingUndo=false;
+  
+  /** True if the pending disassembly can reuse the untouched output */
+  boolean disassemblyPendingIncremental=true;
+  
+  /** Disassembly done by the worker, whose output is published into disassembly */
+  Disassembly workDisassembly=new Disassembly();
+  
+  /** Copy of project memory used by the worker */
+  MemoryDasm[] workMemory;
+  
+  /** Project memory of which the worker one is a copy */
+  MemoryDasm[] workSource;
+  
+  /** Manager of xref used by the worker */
+  XRefManager workXRefManager=new XRefManager();
+  
+  /** Memory addresses changed by user from last copy into worker memory (null if not known) */
+  BitSet userChanged;
+  
   /** Option dialog */
   JOptionDialog jOptionDialog;
   
@@ -234,6 +269,9 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
   /** Manager for XRef */
   XRefManager xRefManager = new XRefManager();
   
+  /** Symbol table of labels and constants */
+  SymbolTable symbolTable=new SymbolTable();
+  
   /** Tool tip manager for Xref for preview */
   XRefToolTipManager tooltipManagerDis;
   
@@ -352,7 +390,7 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
             if (option.clickUcEdit) {
               addComment(row);
               if (option.forceCompilation) {
-                disassembly(true);
+                disassembly(true, true);
               }
             }
             break;
@@ -360,7 +398,7 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
             if (option.clickUlEdit) {
               addLabel(row);
               if (option.forceCompilation) {
-                disassembly(true);
+                disassembly(true, true);
               }
             }
             break;
@@ -368,7 +406,7 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
             if (option.clickUbEdit) {
               addBlock(row);
               if (option.forceCompilation) {
-                disassembly(true);
+                disassembly(true, true);
               }
             }
             break;
@@ -377,10 +415,11 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
               MemoryDasm mem = project.memory[row];
               if (mem.dasmComment != null && mem.userComment == null) {
                 mem.userComment = "";
+                touch(row, row);
               }
               dataTableModelMemory.fireTableDataChanged();
               if (option.forceCompilation) {
-                disassembly(true);
+                disassembly(true, true);
               }
             }
             break;
@@ -389,10 +428,11 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
               MemoryDasm mem = project.memory[row];
               if (mem.dasmLocation != null) {
                 mem.dasmLocation = null;
+                touch(row, row);
               }
               dataTableModelMemory.fireTableDataChanged();
               if (option.forceCompilation) {
-                disassembly(true);
+                disassembly(true, true);
               }
             }
             break;
@@ -427,7 +467,7 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
 
                 dataTableModelMemory.fireTableDataChanged();
                 if (option.forceCompilation) {
-                  disassembly(true);
+                  disassembly(true, true);
                 }
               }
 
@@ -1006,6 +1046,7 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
     jMenuItemMemHighLow = new javax.swing.JMenuItem();
     jMenuItemMemHigh = new javax.swing.JMenuItem();
     jMenuItemWizard = new javax.swing.JMenuItem();
+    jMenuItemTrace = new javax.swing.JMenuItem();
     jMenuOption = new javax.swing.JMenu();
     jMenuItemConfigure = new javax.swing.JMenuItem();
     jMenuItemCostants = new javax.swing.JMenuItem();
@@ -4136,6 +4177,15 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
   });
   jMenuMemory.add(jMenuItemWizard);
 
+  jMenuItemTrace.setIcon(new javax.swing.ImageIcon(getClass().getResource("/sw_emulator/swing/icons/mini/code.png"))); // NOI18N
+  jMenuItemTrace.setText("Mark code/data by tracing from entry points");
+  jMenuItemTrace.addActionListener(new java.awt.event.ActionListener() {
+    public void actionPerformed(java.awt.event.ActionEvent evt) {
+      jMenuItemTraceActionPerformed(evt);
+    }
+  });
+  jMenuMemory.add(jMenuItemTrace);
+
   jMenuBar.add(jMenuMemory);
 
   jMenuOption.setText("Option");
@@ -5307,6 +5357,10 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
       execute(MEM_WIZARD);  
     }//GEN-LAST:event_jMenuItemWizardActionPerformed
 
+    private void jMenuItemTraceActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_jMenuItemTraceActionPerformed
+      execute(MEM_TRACE);
+    }//GEN-LAST:event_jMenuItemTraceActionPerformed
+
     private void jMenuItemSaveAsDasmActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_jMenuItemSaveAsDasmActionPerformed
       execute(SOURCE_DASM);
     }//GEN-LAST:event_jMenuItemSaveAsDasmActionPerformed
@@ -6442,6 +6496,7 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
   private javax.swing.JMenuItem jMenuItemTextZero2;
   private javax.swing.JMenuItem jMenuItemTool;
   private javax.swing.JMenuItem jMenuItemTool1;
+  private javax.swing.JMenuItem jMenuItemTrace;
   private javax.swing.JMenuItem jMenuItemTribyte;
   private javax.swing.JMenuItem jMenuItemTribyte1;
   private javax.swing.JMenuItem jMenuItemTribyte2;
@@ -6574,6 +6629,9 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
 
   @Override
   public void execute(int type) {
+    // next disassembly is not incremental if memory can change untold  
+    if (!isTouching(type)) invalidateDisassembly();
+      
     switch (type) {
       case PROJ_NEW:
         projectNew();
@@ -6649,23 +6707,23 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
         break;        
       case MEM_CLEARDCOM:
         clearDasmComment();
-        if (option.forceCompilation) disassembly(true);
+        if (option.forceCompilation) disassembly(true, true);
         break;
        case MEM_CLEARUCOM:
         clearUserComment();
-        if (option.forceCompilation) disassembly(true);
+        if (option.forceCompilation) disassembly(true, true);
         break;    
        case MEM_ADDCOMM:
          addComment();
-         if (option.forceCompilation) disassembly(true);
+         if (option.forceCompilation) disassembly(true, true);
          break;
        case MEM_ADDLABEL:
          addLabel();
-         if (option.forceCompilation) disassembly(true);
+         if (option.forceCompilation) disassembly(true, true);
          break;      
        case MEM_ADDLABELOP:
          addLabelOp();
-         if (option.forceCompilation) disassembly(true);
+         if (option.forceCompilation) disassembly(true, true);
          break;                   
        case MEM_MARKCODE:
          markAsCode();  
@@ -6761,15 +6819,15 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
          break;  
        case MEM_ADDBLOCK:
          addBlock();
-         if (option.forceCompilation) disassembly(true);
+         if (option.forceCompilation) disassembly(true, true);
          break;
        case MEM_ADDBLOCKAUTO:
          addBlockAuto();
-         if (option.forceCompilation) disassembly(true);
+         if (option.forceCompilation) disassembly(true, true);
          break;         
        case MEM_CLEARDLABEL:
          clearDLabel();  
-         if (option.forceCompilation) disassembly(true);
+         if (option.forceCompilation) disassembly(true, true);
          break;
        case MEM_LOW:
          memLow();  
@@ -6887,6 +6945,10 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
          wizard();  
          if (option.forceCompilation) disassembly(true); 
          break;
+       case MEM_TRACE:
+         memTrace();
+         if (option.forceCompilation) disassembly(true); 
+         break;
        case MEM_HEX:
          showHex();  
          break;
@@ -7127,6 +7189,43 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
         
   }
   
+  /**
+   * Test if the given action does not change memory, or it tells the changes
+   * to disassembly by touch
+   * 
+   * @param type the type of action
+   * @return true if next disassembly can be incremental
+   */
+  private boolean isTouching(int type) {
+    switch (type) {
+      case MEM_CLEARDCOM:
+      case MEM_CLEARUCOM:
+      case MEM_ADDCOMM:
+      case MEM_ADDLABEL:
+      case MEM_ADDLABELOP:
+      case MEM_ADDBLOCK:
+      case MEM_ADDBLOCKAUTO:
+      case MEM_CLEARDLABEL:
+      case MEM_HEX:
+      case MEM_JUMPBACK:
+      case MEM_JUMPFOLLOW:
+      case SOURCE_EXPASDIS:
+      case SOURCE_EXPASSOURCE:
+      case SOURCE_FINDA:
+      case SOURCE_FINDX:
+      case SOURCE_FINDD:
+      case SOURCE_FINDS:
+      case HELP_CONTENTS:
+      case HELP_LICENSE:
+      case HELP_CREDITS:
+      case HELP_ABOUT:
+      case APP_COPY:
+        return true;
+      default:
+        return false;
+    }
+  }
+  
   /**
    * Project new user action
    */
@@ -7158,6 +7257,7 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
       xRefPanelDis.clean();
       xRefPanelSource.clean();
     } else {
+      syncSymbols();
       dataTableModelMemory.setData(project.memory);
       dataTableModelMemory.fireTableDataChanged();
       xRefPanelDis.setMemory(project.memory);
@@ -7183,6 +7283,7 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
   
     setTitle("JC64dis");
     project=null;
+    symbolTable.clear();
     savedProject=null;
     projectFile=null;
     rSyntaxTextAreaSource.setText("");
@@ -7207,6 +7308,7 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
     } 
     
     int retVal=projectChooserFile.showOpenDialog(this);
+    FileManager.instance.saveSummaryCache();
     if (retVal == JFileChooser.APPROVE_OPTION) {
       projectFile=projectChooserFile.getSelectedFile();
 
@@ -7228,6 +7330,7 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
           JOptionPane.showMessageDialog(this, "Error reading project file", "Error", JOptionPane.ERROR_MESSAGE);
       } else {
           if (option.pedantic) JOptionPane.showMessageDialog(this, "File read", "Information", JOptionPane.INFORMATION_MESSAGE);
+          syncSymbols();
           execute(SOURCE_DISASS);
         }
       savedProject=project.clone();
@@ -7265,6 +7368,7 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
       JOptionPane.showMessageDialog(this, "There is nothing to save", "Information", JOptionPane.INFORMATION_MESSAGE);  
     } else {
         int retVal=projectChooserFile.showSaveDialog(this);
+        FileManager.instance.saveSummaryCache();
         if (retVal == JFileChooser.APPROVE_OPTION) {
           projectFile=projectChooserFile.getSelectedFile();
           
@@ -7303,6 +7407,7 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
          jConstantDialog.setUp(project.constant, project.memory);
          jProjectDialog.setUp(project);
          jProjectDialog.setVisible(true);
+         syncSymbols();
          dataTableModelMemory.setData(project.memory);
          dataTableModelMemory.fireTableDataChanged();
          xRefPanelDis.setMemory(project.memory);
@@ -7318,6 +7423,7 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
     } else {
        jConstantDialog.setUp(project.constant, project.memory);
        jConstantDialog.setVisible(true); 
+       syncSymbols();
        dataTableModelMemory.fireTableDataChanged();       
     }
   }
@@ -7374,6 +7480,8 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
         // for compatibility, we erase a user "" comment
         if ("".equals(mem.userComment)) mem.userComment=null;
       } else if (mem.dasmComment!=null && mem.userComment==null) mem.userComment="";
+      
+      touch(rows[i], rows[i]);
     }
     
     dataTableModelMemory.fireTableDataChanged();
@@ -7394,6 +7502,7 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
     for (int i=0; i<rows.length; i++) {
       mem= project.memory[rows[i]];
       if (mem.userComment!=null) mem.userComment=null;
+      touch(rows[i], rows[i]);
     }
     
     dataTableModelMemory.fireTableDataChanged();
@@ -7751,6 +7860,7 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
       mem.isCode=false;
       mem.isGarbage=true;
       mem.dasmLocation=null;
+      updateSymbols(rows[i], rows[i]);
       if (option.eraseDComm) mem.dasmComment=null;
       if (option.erasePlus) {         
         switch (mem.type) {
@@ -7822,7 +7932,7 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
       JOptionPane.showMessageDialog(this,"No project. Open a project first", "Warning", JOptionPane.WARNING_MESSAGE); 
       return;
     }
-    jLabelsDialog.setUp(project.memory, jTableMemory, rSyntaxTextAreaDis, project);
+    jLabelsDialog.setUp(project.memory, jTableMemory, rSyntaxTextAreaDis, project, symbolTable);
     jLabelsDialog.setVisible(true);
   }
   
@@ -7840,28 +7950,262 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
   }
   
   /**
-   * Disassembly the memory
+   * Disassembly the memory.
+   * The preview and source passes are executed by a worker outside the event
+   * thread, and their output goes into the text areas when both are done.
    * 
    * @param storeUndo true if we store for the undo the compiled project
    */
   private void disassembly(boolean storeUndo) {
+    disassembly(storeUndo, false);  
+  }
+  
+  /**
+   * Disassembly the memory.
+   * If incremental, only comments and labels told to disassembly by touch 
+   * are changed from last disassembly, so the output of untouched chunks is 
+   * reused.
+   * 
+   * @param storeUndo true if we store for the undo the compiled project
+   * @param incremental true if only touched comments and labels are changed
+   */
+  private void disassembly(boolean storeUndo, boolean incremental) {
     useFont();  
+    
+    // a worker is running: execute again when it finishes
+    if (disassemblyWorker!=null) {
+      disassemblyPending=true;
+      disassemblyPendingUndo|=storeUndo;
+      disassemblyPendingIncremental&=incremental;
+      if (!incremental) invalidateDisassembly();
+      return;
+    }
+    
+    if (!incremental) invalidateDisassembly();
       
     if (project==null) {
       disassembly.source="";
       disassembly.disassembly="";
-    } else {
-        disassembly.dissassembly(project.fileType, project.inB, option, 
-                                 project.memory, project.constant, project.mpr, 
-                                 project.relocates, project.patches, 
-                                 project.chip, project.binAddress, 
-                                 project.targetType, false, xRefManager);
-        disassembly.dissassembly(project.fileType, project.inB, option,
-                                 project.memory, project.constant, project.mpr,
-                                 project.relocates, project.patches, 
-                                 project.chip, project.binAddress,
-                                 project.targetType, true, xRefManager);
-      }  
+      showDisassembly(storeUndo);
+      return;
+    } 
+    
+    Project actual=project;
+    MemoryDasm[] memory=copyToWorker();
+    
+    disassemblyWorker=new SwingWorker<Void, Void>() {
+      @Override
+      protected Void doInBackground() {
+        workDisassembly.dissassembly(actual.fileType, actual.inB, option, 
+                                     memory, actual.constant, actual.mpr, 
+                                     actual.relocates, actual.patches, 
+                                     actual.chip, actual.binAddress, 
+                                     actual.targetType, false, workXRefManager);
+        workDisassembly.dissassembly(actual.fileType, actual.inB, option,
+                                     memory, actual.constant, actual.mpr,
+                                     actual.relocates, actual.patches, 
+                                     actual.chip, actual.binAddress,
+                                     actual.targetType, true, workXRefManager);
+        return null;
+      }
+
+      @Override
+      protected void done() {
+        disassemblyWorker=null;
+        setBusy(false);
+        
+        try {
+          get();
+          
+          if (project==actual && actual.memory==workSource) {
+            // user changes not told by touch: output could be not valid
+            if (userChanged==null) {
+              disassemblyPending=true;
+              disassemblyPendingUndo|=storeUndo;
+              disassemblyPendingIncremental=false;
+            } else {
+                copyFromWorker();
+                showDisassembly(storeUndo);
+              }
+          }  
+        } catch (InterruptedException | ExecutionException e) {
+            System.err.println(e);
+          }
+        
+        if (disassemblyPending) {
+          boolean pendingUndo=disassemblyPendingUndo;
+          boolean pendingIncremental=disassemblyPendingIncremental;
+          
+          disassemblyPending=false;
+          disassemblyPendingUndo=false;
+          disassemblyPendingIncremental=true;
+          disassembly(pendingUndo, pendingIncremental);
+        }
+      }
+    };
+    
+    setBusy(true);
+    disassemblyWorker.execute();
+  }
+  
+  /**
+   * Set the frame as busy while disassembly is running.
+   * The worker uses its copy of memory, so the user can go on working, but
+   * the actions that change the options, constants, memory regions or project 
+   * read by the worker are disabled.
+   * 
+   * @param busy true if disassembly is running
+   */
+  private void setBusy(boolean busy) {
+    if (busy) setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+    else setCursor(null);
+    
+    jButtonConfigure.setEnabled(!busy);
+    jMenuItemConfigure.setEnabled(!busy);
+    jButtonViewProject.setEnabled(!busy);
+    jMenuItemViewProject.setEnabled(!busy);
+    jButtonCostants.setEnabled(!busy);
+    jMenuItemCostants.setEnabled(!busy);
+    jButtonMPR.setEnabled(!busy);
+    jMenuItemMPR.setEnabled(!busy);
+    jButtonMerge.setEnabled(!busy);
+    jMenuItem2.setEnabled(!busy);
+  }
+  
+  /**
+   * Tell that the user changes the comments or labels of the given addresses
+   * 
+   * @param start the first changed address
+   * @param end the last changed address
+   */
+  private void touch(int start, int end) {
+    if (userChanged!=null) userChanged.set(Math.max(0, start), Math.min(0xFFFF, end)+1);  
+    updateSymbols(start, end);
+  }
+  
+  /**
+   * Update the symbol table with the labels of the given addresses
+   * 
+   * @param start the first changed address
+   * @param end the last changed address
+   */
+  private void updateSymbols(int start, int end) {
+    if (project==null) return;
+    
+    for (int i=Math.max(0, start); i<=Math.min(0xFFFF, end); i++) {
+      symbolTable.update(i);
+    }
+  }
+  
+  /**
+   * Synchronize all the symbol table with the project (after load, undo, 
+   * merge or other changes of many labels or constants)
+   */
+  private void syncSymbols() {
+    if (project==null) symbolTable.clear();
+    else symbolTable.sync(project.memory, project.constant);
+  }
+  
+  /**
+   * Tell that memory can be changed in a way not told by touch, so next
+   * disassembly is done on all the blocks
+   */
+  private void invalidateDisassembly() {
+    userChanged=null;  
+  }
+  
+  /**
+   * Copy into the worker memory what the user changed in project memory.
+   * It must be called when the worker is not running.
+   * 
+   * @return the worker memory
+   */
+  private MemoryDasm[] copyToWorker() {
+    if (workSource!=project.memory) {
+      workSource=project.memory;
+      workMemory=new MemoryDasm[workSource.length];
+      for (int i=0; i<workSource.length; i++) {
+        workMemory[i]=workSource[i].clone();
+      }
+      workDisassembly.invalidate();
+    } else if (userChanged==null) {
+        for (int i=0; i<workSource.length; i++) {
+          workMemory[i].set(workSource[i]);
+        }  
+        workDisassembly.invalidate();
+      } else {
+          for (int i=userChanged.nextSetBit(0); i>=0 && i<workSource.length; i=userChanged.nextSetBit(i+1)) {
+            workMemory[i].set(workSource[i]);
+            workDisassembly.touch(i, i);
+          }
+        }
+    
+    userChanged=new BitSet();
+    return workMemory;
+  }
+  
+  /**
+   * Copy into project memory what the worker changed, and publish the 
+   * output of the worker.
+   * The cells changed by the user while the worker was running are kept, 
+   * as they will be copied into the worker by the next disassembly.
+   */
+  private void copyFromWorker() {
+    BitSet changed=workDisassembly.getChanged();
+    
+    for (int i=0; i<workSource.length; i++) {
+      if (changed!=null) {
+        i=changed.nextSetBit(i);
+        if (i<0 || i>=workSource.length) break;
+      }
+      
+      if (!userChanged.get(i)) {
+        workSource[i].set(workMemory[i]);
+        if (workSource==project.memory) symbolTable.update(i);
+      }
+    }
+    
+    disassembly.publish(workDisassembly, workSource);
+    xRefManager.copy(workXRefManager);
+  }
+  
+  /**
+   * Set the text of the area, replacing only the lines that differ from
+   * the actual text, so highlight and views of the untouched part are kept
+   * 
+   * @param area the area to set
+   * @param text the new text
+   */
+  private void setText(org.fife.ui.rsyntaxtextarea.RSyntaxTextArea area, String text) {
+    String actual=area.getText();
+    
+    if (actual.isEmpty() || text.isEmpty()) {
+      area.setText(text);
+      return;
+    }
+    if (actual.equals(text)) return;
+    
+    int len=Math.min(actual.length(), text.length());
+    
+    // common prefix at line boundary
+    int start=0;
+    while (start<len && actual.charAt(start)==text.charAt(start)) start++;
+    start=actual.lastIndexOf('\n', start-1)+1;
+    
+    // common suffix at line boundary, not overlapping the prefix
+    int end=0;
+    while (end<len-start && actual.charAt(actual.length()-1-end)==text.charAt(text.length()-1-end)) end++;
+    while (end>0 && end<actual.length() && actual.charAt(actual.length()-end-1)!='\n') end--;
+    
+    area.replaceRange(text.substring(start, text.length()-end), start, actual.length()-end);
+  }
+  
+  /**
+   * Show the output of disassembly into the text areas
+   * 
+   * @param storeUndo true if we store for the undo the compiled project
+   */
+  private void showDisassembly(boolean storeUndo) {
     int lineS=0;
     int lineD=0;
     try {
@@ -7871,8 +8215,8 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
         System.err.println(ex);
     }
     
-    rSyntaxTextAreaSource.setText(disassembly.source); 
-    if (option.showMiniatureSource) rSyntaxTextAreaSourceMin.setText(disassembly.source); 
+    setText(rSyntaxTextAreaSource, disassembly.source); 
+    if (option.showMiniatureSource) setText(rSyntaxTextAreaSourceMin, disassembly.source); 
     else rSyntaxTextAreaSourceMin.setText("");
     try {
       rSyntaxTextAreaSource.setCaretPosition(rSyntaxTextAreaSource.getDocument()
@@ -7883,8 +8227,8 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
         System.err.println(ex);
     }
     
-    rSyntaxTextAreaDis.setText(disassembly.disassembly);
-    if (option.showMiniaturePreview) rSyntaxTextAreaDisMin.setText(disassembly.disassembly);
+    setText(rSyntaxTextAreaDis, disassembly.disassembly);
+    if (option.showMiniaturePreview) setText(rSyntaxTextAreaDisMin, disassembly.disassembly);
     else rSyntaxTextAreaDisMin.setText("");
     try {
       rSyntaxTextAreaDis.setCaretPosition(rSyntaxTextAreaDis.getDocument()
@@ -7900,8 +8244,16 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
     // repositionate in memory if option is on
     if (option.repositionate) gotoMem(rSyntaxTextAreaDis, disassembly.caretsPreview, 0);
     
+    // undo compares only the memory changed by the disassemblies from last store
+    BitSet changed=(project==null ? null : workDisassembly.getChanged());
+    if (changed==null) undoChanged=null;
+    else if (undoChanged!=null) undoChanged.or(changed);
+    
     DateFormat df = new SimpleDateFormat("dd/MM/yy HH:mm:ss");    
-    if (storeUndo) undo.store(df.format(new Date()), project);
+    if (storeUndo) {
+      undo.store(df.format(new Date()), project, undoChanged);
+      undoChanged=new BitSet();
+    }
     
     // update perc based onto the work done by renaming the labels
     int total=0;
@@ -7965,7 +8317,10 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
     MemoryDasm mem= project.memory[row];
     String comment=JOptionPane.showInputDialog(this, "Insert the comment for the selected memory location", mem.userComment);
     
-    if (comment!=null) mem.userComment=comment;  
+    if (comment!=null) {
+      mem.userComment=comment;  
+      touch(row, row);
+    }
     
     dataTableModelMemory.fireTableDataChanged(); 
     jTableMemory.setRowSelectionInterval(row, row); 
@@ -8133,6 +8488,7 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
       if ("".equals(label)) {
         if (option.pedantic) JOptionPane.showMessageDialog(this, "User label erased", "Information", JOptionPane.INFORMATION_MESSAGE);   
         mem.userLocation=null;
+        touch(mem.address, mem.address);
         return;
       }  
       
@@ -8143,6 +8499,7 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
         }
       
       mem.userLocation=label;
+      touch(mem.address, mem.address);
     }  
   }
   
@@ -8392,6 +8749,7 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
     if (JOptionPane.showConfirmDialog(null, scrollPane, "Add a multi lines block comment", JOptionPane.OK_CANCEL_OPTION)==JOptionPane.OK_OPTION) {
       mem.userBlockComment=area.getText();
       if ("".equals(mem.userBlockComment)) mem.userBlockComment=null;
+      touch(row, row);
       dataTableModelMemory.fireTableDataChanged();  
       jTableMemory.setRowSelectionInterval(row, row); 
     }       
@@ -8408,6 +8766,7 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
     
     if (mem.userBlockComment==null || "".equals(mem.userBlockComment)) mem.userBlockComment=" \n";
     else mem.userBlockComment+=" \n";
+    touch(row, row);
   }
 
   /**
@@ -8421,12 +8780,14 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
     // erase all if no row selected
     if (rows.length==0) {
       clearLab();
+      invalidateDisassembly();
       return;
     }
         
     for (int i=0; i<rows.length; i++) {
       mem= project.memory[rows[i]];
       if (mem.dasmLocation!=null) mem.dasmLocation=null;
+      touch(rows[i], rows[i]);
     }
     
     dataTableModelMemory.fireTableDataChanged();    
@@ -9021,6 +9382,7 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
               
               // delete an automatic label if present, otherwise in code instruction it will be recreated if label is no more used
               project.memory[row].dasmLocation=null;
+              updateSymbols(row, row);
           }
         } else JOptionPane.showMessageDialog(this, "No row selected", "Warning", JOptionPane.WARNING_MESSAGE);  
         return;
@@ -9087,8 +9449,8 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
        
        // copy constant
        for (int i=0; i<Constant.COLS; i++) {
-         for (int j=0; i<Constant.ROWS; j++) {
-           if (project.constant.table[i][j]==null || "".equals(project.constant.table[i][j])) project.constant.table[i][j]=mergeProject.constant.table[i][j];
+         for (int j: mergeProject.constant.getRows(i)) {
+           if (project.constant.get(i, j)==null || "".equals(project.constant.get(i, j))) project.constant.set(i, j, mergeProject.constant.get(i, j));
          }  
        }      
        
@@ -9140,6 +9502,7 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
           project.patches=patches2;
        }            
                         
+       syncSymbols();
        dataTableModelMemory.fireTableDataChanged();
     }      
   }
@@ -9318,6 +9681,7 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
     if (project==null) return;
     jAutoLoHiDialog.setUp(project.memory, jTableMemory);
     jAutoLoHiDialog.setVisible(true);
+    syncSymbols();
   }
   
   /**
@@ -9348,6 +9712,24 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
     
     jWizardDialog.setUp(project.memory, disassembly, project, jTableMemory.getSelectedRow());
     jWizardDialog.setVisible(true);
+    syncSymbols();
+  }
+  
+  /**
+   * Mark code and data by tracing the code from the entry points of the file
+   * (start, SYS, init/play, vectors). Cells already marked by the user are
+   * not changed.
+   */
+  private void memTrace() {
+    if (project==null || project.inB==null) {
+      JOptionPane.showMessageDialog(this, "No project are actually being used.", "Warning", JOptionPane.WARNING_MESSAGE);
+      return;
+    }
+    
+    int marked=Disassembly.traceCode(project.fileType, project.inB, project.memory, project.chip);
+    dataTableModelMemory.fireTableDataChanged();
+    
+    if (option.pedantic) JOptionPane.showMessageDialog(this, "Marked "+marked+" bytes as code/data", "Information", JOptionPane.INFORMATION_MESSAGE);
   }
   
   /**
@@ -9373,7 +9755,7 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
     
     String result;
     String error;
-      
+    
     for (MemoryDasm mem:project.memory) {
       if (mem.userLocation!=null && !"".equals(mem.userLocation) && mem.userLocation.startsWith(oldPrefix)) {
         result=mem.userLocation.replaceFirst(oldPrefix, newPrefix);
@@ -9385,12 +9767,14 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
         }
         
         mem.userLocation=result;
+        symbolTable.update(mem.address);
       }
     }
   }
   
   /**
-   * Return if label gives error
+   * Return if label gives error, using the symbol table kept in sync with
+   * the labels and constants of the project
    * 
    * @param label the label to check
    * @return null if ok or the error message
@@ -9401,26 +9785,16 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
       if (label.length()<2) return "Label too short. Min allowed=2";
             
       // see if the label is already defined
-      for (MemoryDasm memory : project.memory) {
-        if (label.equals(memory.dasmLocation) || label.equals(memory.userLocation)) {
-          return "This label is already used into the source at: "+Shared.ShortToExe(memory.address);
-       }
-      }
+      int address=symbolTable.getAddress(label);
+      if (address>=0) return "This label is already used into the source at: "+Shared.ShortToExe(address);
       
       // see if label is as constant
-      for (int i=0; i<Constant.COLS; i++) {
-        for (int j=0; j<Constant.ROWS; j++) {
-          if (label.equals(project.constant.table[i][j])) {
-             return "This label is already used as constant ("+i+"/"+j+")";
-           } 
-         }
-      }
+      int cell=symbolTable.getConstant(label);
+      if (cell>=0) return "This label is already used as constant ("+(cell/Constant.ROWS)+"/"+(cell%Constant.ROWS)+")";
       
       String tmp=label.toUpperCase();
-      for (String val: M6510Dasm.mnemonics) {
-        if (tmp.equals(val)) {
-          return "This label is an opcode, cannot be defined";
-        }
+      if (M6510Dasm.isMnemonic(tmp)) {
+        return "This label is an opcode, cannot be defined";
       }
       
       if (label.startsWith("W") && label.length()==5) {
@@ -9437,38 +9811,7 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
    * @return true if error
    */
   private boolean silentErrorLabel(String label) {
-      if (label.contains(" ")) return true;     
-      if (label.length()>option.maxLabelLength) return true;      
-      if (label.length()<2) return true ;
-            
-      // see if the label is already defined
-      for (MemoryDasm memory : project.memory) {
-        if (label.equals(memory.dasmLocation) || label.equals(memory.userLocation)) {       
-          return true;
-       }
-      }
-      
-      // see if label is as constant
-      for (int i=0; i<Constant.COLS; i++) {
-        for (int j=0; j<Constant.ROWS; j++) {
-          if (label.equals(project.constant.table[i][j])) {
-            return true;  
-           } 
-         }
-      }
-      
-      String tmp=label.toUpperCase();
-      for (String val: M6510Dasm.mnemonics) {
-        if (tmp.equals(val)) {
-          return true;  
-        }
-      }
-      
-      if (label.startsWith("W") && label.length()==5) {
-         return true;
-      }
-      
-      return false;        
+      return errorLabel(label)!=null;        
   }
   
   /**
@@ -9512,6 +9855,7 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
          if (mem.dasmLocation!=null && mem.dasmLocation.equals(mem.userLocation)) continue;
          
          mem.userLocation=label;
+         symbolTable.update(address);
          done++;
        }
          
@@ -9598,6 +9942,7 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
         JOptionPane.showMessageDialog(this, "Error reading project file", "Error", JOptionPane.ERROR_MESSAGE);
     } else {
         if (option.pedantic) JOptionPane.showMessageDialog(this, "File read", "Information", JOptionPane.INFORMATION_MESSAGE);
+        syncSymbols();
         execute(SOURCE_DISASS);
       }
     savedProject=project.clone();
@@ -9614,6 +9959,7 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
     for (MemoryDasm mem: project.memory) {
       mem.dasmLocation=null;  
     }  
+    syncSymbols();
     dataTableModelMemory.fireTableDataChanged();
   }
   
@@ -9839,6 +10185,7 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
         memP.dataType=memC.dataType;
         memP.relatedAddressBase=memC.relatedAddressBase;
         memP.relatedAddressDest=memC.relatedAddressDest;
+        updateSymbols(memP.address, memP.address);
       }
     } catch (Exception e) {
         System.err.println(e);
@@ -9940,6 +10287,7 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
     
     if (search!=null) {
       project=search;  
+      syncSymbols();
       dataTableModelMemory.setData(project.memory);
       dataTableModelMemory.fireTableDataChanged();
       if (option.forceCompilation) disassembly(false);   
@@ -10204,6 +10552,7 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
       
       jBlockDialog.setUp(project.memory, rows[0], rows[rows.length-1]);
       jBlockDialog.setVisible(true);
+      updateSymbols(rows[0], rows[rows.length-1]);
     }
     
     /**
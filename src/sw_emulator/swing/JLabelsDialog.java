@@ -33,6 +33,7 @@ import javax.swing.Timer;
 import javax.swing.table.DefaultTableCellRenderer;
 import org.fife.ui.rsyntaxtextarea.RSyntaxTextArea;
 import sw_emulator.software.MemoryDasm;
+import sw_emulator.software.memory.SymbolTable;
 import sw_emulator.swing.main.Option;
 import sw_emulator.swing.main.Project;
 import sw_emulator.swing.table.ConstantCellEditor;
@@ -62,6 +63,9 @@ public class JLabelsDialog extends javax.swing.JDialog {
     
     /** The project */
     Project project;
+    
+    /** Symbol table of the project */
+    SymbolTable symbolTable;
             
 
     /**
@@ -177,12 +181,7 @@ public class JLabelsDialog extends javax.swing.JDialog {
         if (str.length()==4) addr=Integer.decode("0x"+str);
         else {
           str=str.contains(":") ? str.split(":")[0] : str;  
-          for (MemoryDasm memory : project.memory) {
-            if (str.equals(memory.dasmLocation) || str.equals(memory.userLocation)) {
-              addr=memory.address;
-              break;      
-            }    
-          }  
+          addr=symbolTable.getAddress(str);
         }
       } catch (Exception e)  {
           System.err.println(e);   
@@ -198,12 +197,14 @@ public class JLabelsDialog extends javax.swing.JDialog {
      * @param jTable the table to updeate positon on click
      * @param rSyntaxTextAreaDis preview area
      * @param project the actual project
+     * @param symbolTable the symbol table in sync with the project
      */
-    public void setUp(MemoryDasm[] data, JTable jTable, RSyntaxTextArea rSyntaxTextAreaDis, Project project) {
-      dataModel.setData(data);
+    public void setUp(MemoryDasm[] data, JTable jTable, RSyntaxTextArea rSyntaxTextAreaDis, Project project, SymbolTable symbolTable) {
+      dataModel.setData(data, symbolTable);
       this.jTable=jTable;
       this.rSyntaxTextAreaDis=rSyntaxTextAreaDis;
       this.project=project;
+      this.symbolTable=symbolTable;
       
       labelsTableCellRenderer.setMemory(data);
       
@@ -39,7 +39,6 @@ import javax.swing.text.DefaultFormatter;
 import javax.swing.text.DefaultFormatterFactory;
 import sw_emulator.software.memory.MemoryFlags;
 import sw_emulator.software.memory.ViceMemMapParser;
-import sw_emulator.software.memory.memoryState;
 import sw_emulator.swing.main.FileManager;
 import sw_emulator.swing.main.Option;
 import sw_emulator.swing.main.Patch;
@@ -1337,21 +1336,7 @@ public class JProjectDialog extends javax.swing.JDialog {
     } else {
       int res = JOptionPane.showConfirmDialog(this, "Confirm to apply SIDLD memory flags to code/data in table?", "Information", JOptionPane.YES_NO_OPTION);
       if (res == JFileChooser.APPROVE_OPTION) {
-
-        for (int i = 0; i < project.memoryFlags.length; i++) {
-          project.memory[i].isData = (project.memoryFlags[i]
-                  & (memoryState.MEM_READ | memoryState.MEM_READ_FIRST
-                  | memoryState.MEM_WRITE | memoryState.MEM_WRITE_FIRST
-                  | memoryState.MEM_SAMPLE)) != 0;
-
-          project.memory[i].isCode = (project.memoryFlags[i]
-                  & (memoryState.MEM_EXECUTE | memoryState.MEM_EXECUTE_FIRST)) != 0;
-
-          // code execution has priority over data access
-          if (project.memory[i].isCode) {
-            project.memory[i].isData = false;
-          }
-        }
+        project.applyMemoryFlags(false);
         if (option.pedantic) {
           JOptionPane.showMessageDialog(this, "Operation done.", "Info", JOptionPane.INFORMATION_MESSAGE);
         }
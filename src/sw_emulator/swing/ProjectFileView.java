@@ -32,8 +32,9 @@ import sw_emulator.swing.main.Option;
 
 /**
  * Add custom icon based onto % of project state
- * We cache the already reas files to speed up, that means that the perc. is 
- * the inital one, and is not update in real time
+ * We cache the already reas files (by path and time) to speed up, while the 
+ * summary of projects is read from file header or from the on disk cache 
+ * of old projects
  * 
  * @author ice
  */
@@ -60,7 +61,7 @@ public class ProjectFileView extends FileView {
     
     int perc;
     
-    String key=f.getAbsolutePath();
+    String key=f.getAbsolutePath()+"@"+f.lastModified();
     
     if (hashFile.containsKey(key)) perc=hashFile.get(key);
     else {
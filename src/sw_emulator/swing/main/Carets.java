@@ -23,30 +23,15 @@
  */
 package sw_emulator.swing.main;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import sw_emulator.software.MemoryDasm;
 
-/**
- * Caret container
- * 
- * @author ice
- */
-class Caret {
-   /** Starting caret position */  
-   public int start;
-   
-   /** Ending caret position */
-   public int end;
-   
-   /** Memory associated with those caret interval */
-   MemoryDasm memory;
-   
-   /** Type of action */
-   Carets.Type type;
-}
-
 /**
  * Carets to memory position
+ * Carets are kept in parallel arrays in order of add. For lookup an index is
+ * built at first use after a change: carets are in ascending order of end
+ * (a label can be added before its enclosing instruction, so not of start)
+ * and a binary search finds the first one that contains the position.
  * 
  * @author ice
  */
@@ -80,18 +65,46 @@ public class Carets {
       LABEL_REL
     }
       
+  /** Initial capacity of arrays */
+  private static final int CAPACITY=16;
     
-  /** List of caret */  
-  ArrayList<Caret> list=new ArrayList();
+  /** Number of carets */
+  private int size;
+  
+  /** Starting caret positions */
+  private int[] starts=new int[CAPACITY];
+  
+  /** Ending caret positions */
+  private int[] ends=new int[CAPACITY];
+  
+  /** Memory associated with each caret interval */
+  private MemoryDasm[] memories=new MemoryDasm[CAPACITY];
+  
+  /** Type of action of each caret */
+  private Type[] types=new Type[CAPACITY];
        
    /** Offset to use for shift */
    private int offset=0;
+   
+  /** True if the index is valid for actual carets */
+  private boolean indexed;
+  
+  /** True if ends are in ascending order (else search is linear) */
+  private boolean sorted;
+  
+  /** Minimum start of carets from each index to the last */
+  private int[] minStarts;
+  
+  /** Index of first caret with memory of each address (-1 if none) */
+  private int[] firstByAddress;
   
   /**
    * Clear the actual list
    */
   public void clear() {
-    list.clear();
+    Arrays.fill(memories, 0, size, null);
+    size=0;
+    indexed=false;
     this.offset=0;
   }
   
@@ -111,6 +124,21 @@ public class Carets {
     return offset;  
   }
   
+  /**
+   * Be sure that arrays can contain the given number of carets
+   * 
+   * @param capacity the number of carets
+   */
+  private void ensureCapacity(int capacity) {
+    if (capacity<=starts.length) return;
+    
+    int length=Math.max(capacity, starts.length*2);
+    starts=Arrays.copyOf(starts, length);
+    ends=Arrays.copyOf(ends, length);
+    memories=Arrays.copyOf(memories, length);
+    types=Arrays.copyOf(types, length);
+  }
+  
   /**
    * Add this entry into the list
    * 
@@ -119,16 +147,81 @@ public class Carets {
    * @param memory the memory associated with those postions
    * @param type the type of caret action
    */
-
   public void add(int start, int end, MemoryDasm memory, Type type) {
-     Caret caret=new Caret();
-     
-     caret.start=start+offset;
-     caret.end=end+offset;
-     caret.memory=memory;
-     caret.type=type;
+    ensureCapacity(size+1);
      
-     list.add(caret);
+    starts[size]=start+offset;
+    ends[size]=end+offset;
+    memories[size]=memory;
+    types[size]=type;
+    size++;
+    
+    indexed=false;
+  }
+  
+  /**
+   * Build the index of actual carets if needed
+   */
+  private void index() {
+    if (indexed) return;
+    
+    sorted=true;
+    for (int i=1; i<size; i++) {
+      if (ends[i]<ends[i-1]) {
+        sorted=false;
+        break;
+      }
+    }
+    
+    if (minStarts==null || minStarts.length<size) minStarts=new int[starts.length];
+    int min=Integer.MAX_VALUE;
+    for (int i=size-1; i>=0; i--) {
+      min=Math.min(min, starts[i]);
+      minStarts[i]=min;
+    }
+    
+    if (firstByAddress==null) firstByAddress=new int[0x10000];
+    Arrays.fill(firstByAddress, -1);
+    for (int i=size-1; i>=0; i--) {
+      MemoryDasm memory=memories[i];
+      if (memory!=null && memory.address>=0 && memory.address<firstByAddress.length) {
+        firstByAddress[memory.address]=i;
+      }
+    }
+    
+    indexed=true;
+  }
+  
+  /**
+   * Find the first caret that contains the position
+   * 
+   * @param position the postion to search
+   * @return the index of caret or -1
+   */
+  private int find(int position) {
+    index();
+    
+    if (!sorted) {
+      for (int i=0; i<size; i++) {
+        if (position>=starts[i] && position<=ends[i]) return i;
+      }
+      return -1;
+    }
+    
+    // first caret that ends at or after the position
+    int low=0;
+    int high=size;
+    while (low<high) {
+      int mid=(low+high)>>>1;
+      if (ends[mid]<position) low=mid+1;
+      else high=mid;
+    }
+    
+    // all next ones end after it: take the first that starts before it
+    for (int i=low; i<size && minStarts[i]<=position; i++) {
+      if (starts[i]<=position) return i;
+    }
+    return -1;
   }
   
   /**
@@ -138,11 +231,10 @@ public class Carets {
    * @return the memory associated with that postion
    */
   public MemoryDasm getMemory(int position) {
-    for (Caret caret: list) {
-      if (position>=caret.start && position<=caret.end) return caret.memory;  
-    }  
+    int i=find(position);
     
-    return null;
+    if (i<0) return null;
+    return memories[i];
   }
   
   /**
@@ -152,11 +244,10 @@ public class Carets {
    * @return the memory associated with that postion
    */
   public Type getType(int position) {
-    for (Caret caret: list) {
-      if (position>=caret.start && position<=caret.end) return caret.type;  
-    }  
+    int i=find(position);
     
-    return null;
+    if (i<0) return null;
+    return types[i];
   }
   
   /**
@@ -166,10 +257,109 @@ public class Carets {
    * @return the position or -1
    */
   public int getPosition(MemoryDasm memory) {
-    for (Caret caret: list) {
-      if (caret.memory==memory) return caret.start;        
+    index();
+    
+    int first=0;
+    if (memory!=null && memory.address>=0 && memory.address<firstByAddress.length) {
+      first=firstByAddress[memory.address];
+      if (first<0) return -1;
+      if (memories[first]==memory) return starts[first];
+    }
+    
+    // another memory with the same address comes first
+    for (int i=first; i<size; i++) {
+      if (memories[i]==memory) return starts[i];        
     }  
         
      return -1;
   }
+  
+  /**
+   * Get the number of carets in the list
+   * 
+   * @return the number of carets
+   */
+  public int size() {
+    return size;  
+  }
+  
+  /**
+   * Copy the carets starting from the given index, with position relative 
+   * to the given base
+   * 
+   * @param from the index of first caret to copy
+   * @param base the position that became zero
+   * @return the copied carets
+   */
+  public Carets copy(int from, int base) {
+    Carets carets=new Carets();
+    
+    if (from<size) carets.append(this, from, -base);
+    return carets;
+  }
+  
+  /**
+   * Add all the given carets, shifting them at the given position
+   * 
+   * @param carets the carets to add
+   * @param position the position where carets start
+   */
+  public void addAll(Carets carets, int position) {
+    append(carets, 0, position);
+  }
+  
+  /**
+   * Append the carets starting from the given index, shifting them by the 
+   * given value
+   * 
+   * @param carets the carets to append
+   * @param from the index of first caret to append
+   * @param shift the value to add to positions
+   */
+  private void append(Carets carets, int from, int shift) {
+    int count=carets.size-from;
+    ensureCapacity(size+count);
+    
+    for (int i=0; i<count; i++) {
+      starts[size+i]=carets.starts[from+i]+shift;
+      ends[size+i]=carets.ends[from+i]+shift;
+    }
+    System.arraycopy(carets.memories, from, memories, size, count);
+    System.arraycopy(carets.types, from, types, size, count);
+    size+=count;
+    
+    indexed=false;
+  }
+  
+  /**
+   * Set the carets as the given ones, where the cells of a memory are 
+   * replaced by the cells at the same address of another memory
+   * 
+   * @param carets the carets to copy
+   * @param from the memory of given carets
+   * @param to the memory to use in place of it
+   */
+  public void set(Carets carets, MemoryDasm[] from, MemoryDasm[] to) {
+    clear();
+    append(carets, 0, 0);
+    
+    for (int i=0; i<size; i++) {
+      MemoryDasm mem=memories[i];
+      if (mem!=null && mem.address>=0 && mem.address<from.length && 
+          from[mem.address]==mem) memories[i]=to[mem.address];
+    }
+  }
+  
+  /**
+   * Remove all the carets starting from the given index
+   * 
+   * @param from the index of first caret to remove
+   */
+  public void truncate(int from) {
+    if (from<size) {
+      Arrays.fill(memories, from, size, null);
+      size=from;
+      indexed=false;
+    }
+  }
 }
@@ -47,11 +47,326 @@ public class Constant {
   /** Rows */
   public static final int ROWS=0xFFFF+1;
     
-  /** String tables of constants  */  
-  public String[][] table=new String[COLS][ROWS];
+  /** String tables of constants, by column  */  
+  private final Column[] table=new Column[COLS];
   
-  /** String comments of constants  */  
-  public String[][] comment=new String[COLS][ROWS];  
+  /** String comments of constants, by column  */  
+  private final Column[] comment=new Column[COLS];  
+  
+  /**
+   * Sparse column of strings: an open addressing map from row to string, so
+   * the memory used is given by the defined rows only
+   */
+  static final class Column {
+    /** Key of a free slot */
+    private static final int FREE=-1;
+    
+    /** Rows of slots */
+    private int[] keys=new int[0];
+    
+    /** Strings of slots */
+    private String[] values=new String[0];
+    
+    /** Number of used slots */
+    private int size;
+    
+    /** Shift that keeps the top bits of the hash for the number of slots */
+    private int shift=32;
+    
+    /**
+     * Get the home slot of the row: the top bits of a multiplicative hash
+     * (the low ones are poorly mixed)
+     * 
+     * @param row the row
+     * @return the home slot
+     */
+    private int home(int row) {
+      return (row*0x9E3779B1)>>>shift;
+    }
+    
+    /**
+     * Get the slot of the row, or the free slot where to put it
+     * 
+     * @param row the row
+     * @return the slot
+     */
+    private int slot(int row) {
+      int mask=keys.length-1;
+      int pos=home(row);
+      
+      while (keys[pos]!=FREE && keys[pos]!=row) pos=(pos+1) & mask;
+      return pos;
+    }
+    
+    /**
+     * Get the string of the row
+     * 
+     * @param row the row
+     * @return the string or null
+     */
+    String get(int row) {
+      if (size==0) return null;
+      
+      int pos=slot(row);
+      return (keys[pos]==FREE ? null : values[pos]);
+    }
+    
+    /**
+     * Set the string of the row
+     * 
+     * @param row the row
+     * @param value the string (null for removing it)
+     */
+    void put(int row, String value) {
+      if (value==null) {
+        remove(row);
+        return;
+      }
+      
+      if ((size+1)*2>keys.length) grow();
+      
+      int pos=slot(row);
+      if (keys[pos]==FREE) {
+        keys[pos]=row;
+        size++;
+      }
+      values[pos]=value;
+    }
+    
+    /**
+     * Remove the row, shifting back the following slots of the run
+     * 
+     * @param row the row
+     */
+    private void remove(int row) {
+      if (size==0) return;
+      
+      int pos=slot(row);
+      if (keys[pos]==FREE) return;
+      
+      int mask=keys.length-1;
+      int next=pos;
+      while (true) {
+        next=(next+1) & mask;
+        if (keys[next]==FREE) break;
+        
+        int home=home(keys[next]);
+        // move the slot back if its home is not between the hole and it
+        if (((next-home) & mask)>=((next-pos) & mask)) {
+          keys[pos]=keys[next];
+          values[pos]=values[next];
+          pos=next;
+        }
+      }
+      keys[pos]=FREE;
+      values[pos]=null;
+      size--;
+    }
+    
+    /**
+     * Double the slots
+     */
+    private void grow() {
+      int[] oldKeys=keys;
+      String[] oldValues=values;
+      
+      int length=Math.max(16, keys.length*2);
+      keys=new int[length];
+      values=new String[length];
+      shift=Integer.numberOfLeadingZeros(length)+1;
+      Arrays.fill(keys, FREE);
+      
+      for (int i=0; i<oldKeys.length; i++) {
+        if (oldKeys[i]==FREE) continue;
+        
+        int pos=slot(oldKeys[i]);
+        keys[pos]=oldKeys[i];
+        values[pos]=oldValues[i];
+      }
+    }
+    
+    /**
+     * Get the rows with a string
+     * 
+     * @return the rows in ascending order
+     */
+    int[] rows() {
+      int[] result=new int[size];
+      int n=0;
+      for (int key: keys) {
+        if (key!=FREE) result[n++]=key;
+      }
+      Arrays.sort(result);
+      return result;
+    }
+    
+    /**
+     * Copy the column
+     * 
+     * @return the copy
+     */
+    Column copy() {
+      Column res=new Column();
+      res.keys=keys.clone();
+      res.values=values.clone();
+      res.size=size;
+      res.shift=shift;
+      return res;
+    }
+    
+    @Override
+    public boolean equals(Object obj) {
+      if (!(obj instanceof Column)) return false;
+      
+      Column other=(Column)obj;
+      if (size!=other.size) return false;
+      
+      for (int i=0; i<keys.length; i++) {
+        if (keys[i]!=FREE && !values[i].equals(other.get(keys[i]))) return false;
+      }
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      int hash=0;
+      for (int i=0; i<keys.length; i++) {
+        if (keys[i]!=FREE) hash+=keys[i]^values[i].hashCode();
+      }
+      return hash;
+    }
+  }
+  
+  /**
+   * Construct an empty constant table
+   */
+  public Constant() {
+    for (int i=0; i<COLS; i++) {
+      table[i]=new Column();
+      comment[i]=new Column();
+    }
+  }
+  
+  /**
+   * Get the constant at the given position
+   * 
+   * @param col the column
+   * @param row the row (value of the constant)
+   * @return the constant or null
+   */
+  public String get(int col, int row) {
+    if (row<0 || row>=ROWS) throw new ArrayIndexOutOfBoundsException(row);
+    return table[col].get(row);
+  }
+  
+  /**
+   * Set the constant at the given position
+   * 
+   * @param col the column
+   * @param row the row (value of the constant)
+   * @param value the constant (null for removing it)
+   */
+  public void set(int col, int row, String value) {
+    if (row<0 || row>=ROWS) throw new ArrayIndexOutOfBoundsException(row);
+    table[col].put(row, value);
+  }
+  
+  /**
+   * Get the comment of the constant at the given position
+   * 
+   * @param col the column
+   * @param row the row (value of the constant)
+   * @return the comment or null
+   */
+  public String getComment(int col, int row) {
+    if (row<0 || row>=ROWS) throw new ArrayIndexOutOfBoundsException(row);
+    return comment[col].get(row);
+  }
+  
+  /**
+   * Set the comment of the constant at the given position
+   * 
+   * @param col the column
+   * @param row the row (value of the constant)
+   * @param value the comment (null for removing it)
+   */
+  public void setComment(int col, int row, String value) {
+    if (row<0 || row>=ROWS) throw new ArrayIndexOutOfBoundsException(row);
+    comment[col].put(row, value);
+  }
+  
+  /**
+   * Get the rows of the column with a constant
+   * 
+   * @param col the column
+   * @return the rows in ascending order
+   */
+  public int[] getRows(int col) {
+    return table[col].rows();
+  }
+  
+  /**
+   * Get the rows of the column with a comment
+   * 
+   * @param col the column
+   * @return the rows in ascending order
+   */
+  public int[] getCommentRows(int col) {
+    return comment[col].rows();
+  }
+  
+  /**
+   * Get the rows of the column with a constant or a comment
+   * 
+   * @param col the column
+   * @return the rows in ascending order
+   */
+  public int[] getUsedRows(int col) {
+    int[] rows=table[col].rows();
+    int[] comments=comment[col].rows();
+    int[] result=new int[rows.length+comments.length];
+    
+    // merge the two sorted arrays without duplicates
+    int i=0, j=0, n=0;
+    while (i<rows.length || j<comments.length) {
+      int value;
+      if (j>=comments.length || (i<rows.length && rows[i]<comments[j])) value=rows[i++];
+      else if (i>=rows.length || comments[j]<rows[i]) value=comments[j++];
+      else {
+        value=rows[i++];
+        j++;
+      }
+      result[n++]=value;
+    }
+    return Arrays.copyOf(result, n);
+  }
+  
+  /**
+   * Copy all the constants and comments from another table
+   * 
+   * @param constant the table to copy
+   */
+  public void copy(Constant constant) {
+    for (int i=0; i<COLS; i++) {
+      table[i]=constant.table[i].copy();
+      comment[i]=constant.comment[i].copy();
+    }
+  }
+  
+  /**
+   * Get the first cell (col*ROWS+row) with the given constant
+   * 
+   * @param value the constant to search
+   * @return the cell or -1 if not present
+   */
+  public int search(String value) {
+    for (int i=0; i<COLS; i++) {
+      for (int j: table[i].rows()) {
+        if (value.equals(table[i].get(j))) return i*ROWS+j;
+      }
+    }
+    return -1;
+  }
 
   @Override
   public boolean equals(Object obj) {
@@ -68,25 +383,28 @@ public class Constant {
     }
 
     final Constant other = (Constant) obj;
-    if (!Arrays.deepEquals(this.table, other.table)) {
+    if (!Arrays.equals(this.table, other.table)) {
       return false;
     }
     
-    if (!Arrays.deepEquals(this.comment, other.comment)) {
+    if (!Arrays.equals(this.comment, other.comment)) {
       return false;
     }
     return true;
   }
 
+  @Override
+  public int hashCode() {
+    return 31*Arrays.hashCode(table)+Arrays.hashCode(comment);
+  }
+
    @Override
    protected Object clone() {
      Constant res=new Constant();       
      
      for (int i=0; i<COLS; i++) {
-       for (int j=0; j<ROWS; j++) {
-         res.table[i][j]=table[i][j];
-         res.comment[i][j]=comment[i][j];
-       }     
+       res.table[i]=table[i].copy();
+       res.comment[i]=comment[i].copy();
      }  
      
      return res;
@@ -101,13 +419,7 @@ public class Constant {
    public boolean isAllowed(String value) {
      if (value==null || "".equals(value)) return false;
        
-     for (int i=0; i<COLS; i++) {
-       for (int j=0; j<ROWS; j++) {
-         if (value.equals(table[i][j])) return false;
-       }     
-     }    
-     
-     return true;
+     return search(value)<0;
    }
    
    /**
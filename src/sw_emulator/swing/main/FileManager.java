@@ -54,6 +54,9 @@ public class FileManager {
   /** File to use for option*/
   public static final File OPTION_FILE=new File(System.getProperty("user.home")+File.separator+".jc64dis");
   
+  /** File to use for summary of old projects */
+  public static final File SUMMARY_FILE=new File(System.getProperty("user.home")+File.separator+".jc64dis.summary");
+  
   /** Header for costant file */
   private static final String HEADER_CST="CST";
     
@@ -962,12 +965,23 @@ public class FileManager {
   
   /**
    * Read the project from file 
+   * Versions 0-11 are read from the old stream and converted
    * 
    * @param file the file to read
    * @param project the project to fill from file
    * @return true if operation is ok
    */
   public boolean readProjectFile(File file, Project project) {
+    if (ProjectFormat.isProjectFormat(file)) {
+      try {
+        ProjectFormat.read(file, project);
+      } catch (Exception e) {
+          System.err.println(e);
+          return false;
+        }
+      return true;
+    }
+    
     try {      
       MemoryDasm mem;  
       Relocate relocate;
@@ -1070,8 +1084,8 @@ public class FileManager {
       if (version>2)  {                         // version 3
         for (int i=0; i<Constant.MIN_COLS; i++) {
           for (int j=0; j<Constant.MIN_ROWS; j++) {
-            if (in.readBoolean()) project.constant.table[i][j]=in.readUTF();
-            else project.constant.table[i][j]=null;   
+            if (in.readBoolean()) project.constant.set(i, j, in.readUTF());
+            else project.constant.set(i, j, null);   
           }  
         }
       }
@@ -1109,8 +1123,8 @@ public class FileManager {
       if (version>5)  {                         // version 6
         for (int i=0; i<Constant.MIN_COLS; i++) {
           for (int j=Constant.MIN_ROWS; j<Constant.ROWS; j++) {
-            if (in.readBoolean()) project.constant.table[i][j]=in.readUTF();
-            else project.constant.table[i][j]=null;   
+            if (in.readBoolean()) project.constant.set(i, j, in.readUTF());
+            else project.constant.set(i, j, null);   
           }  
         }
       }
@@ -1141,8 +1155,8 @@ public class FileManager {
       if (version>7)  {                         // version 8
         for (int i=Constant.MIN_COLS; i<Constant.COLS; i++) {
           for (int j=0; j<Constant.ROWS; j++) {
-            if (in.readBoolean()) project.constant.table[i][j]=in.readUTF();
-            else project.constant.table[i][j]=null;   
+            if (in.readBoolean()) project.constant.set(i, j, in.readUTF());
+            else project.constant.set(i, j, null);   
           }  
         }
       }
@@ -1150,8 +1164,8 @@ public class FileManager {
       if (version>9)  {                         // version 10
         for (int i=0; i<Constant.COLS; i++) {
           for (int j=0; j<Constant.ROWS; j++) {
-            if (in.readBoolean()) project.constant.comment[i][j]=in.readUTF();
-            else project.constant.comment[i][j]=null;   
+            if (in.readBoolean()) project.constant.setComment(i, j, in.readUTF());
+            else project.constant.setComment(i, j, null);   
           }  
         }
       }    
@@ -1174,177 +1188,7 @@ public class FileManager {
    */
   public boolean writeProjectFile(File file, Project project) {
     try {      
-      DataOutputStream out=new DataOutputStream(
-                           new GZIPOutputStream(
-                           new BufferedOutputStream(
-                           new FileOutputStream(file)))); 
-      
-      out.writeByte(project.ACTUAL_VERSION);
-      
-      out.writeUTF(project.name);
-      out.writeUTF(project.file);
-      out.writeUTF(project.description);
-      out.writeUTF(project.fileType.name());
-      out.writeUTF(project.targetType.name());  // version 1
-      
-      out.writeInt(project.inB.length);
-      out.write(project.inB);
-      
-      out.writeInt(project.memoryFlags.length);
-      out.write(project.memoryFlags);
-      
-      out.writeInt(project.memory.length);
-      for (MemoryDasm memory : project.memory) {
-          out.writeInt(memory.address);
-          
-          if (memory.dasmComment!=null) {
-              out.writeBoolean(true);
-              out.writeUTF(memory.dasmComment);
-          } else {
-              out.writeBoolean(false);
-            }
-          
-          if (memory.userComment!=null) {
-              out.writeBoolean(true);
-              out.writeUTF(memory.userComment);
-          } else {
-              out.writeBoolean(false);
-            }
-          
-          if (memory.userBlockComment!=null) {
-              out.writeBoolean(true);
-              out.writeUTF(memory.userBlockComment);
-          } else {
-              out.writeBoolean(false);
-            }         
-          
-          if (memory.dasmLocation!=null) {
-              out.writeBoolean(true);
-              out.writeUTF(memory.dasmLocation);
-          } else {
-              out.writeBoolean(false);
-            }
-          
-          if (memory.userLocation!=null) {
-              out.writeBoolean(true);
-              out.writeUTF(memory.userLocation);
-          } else {
-              out.writeBoolean(false);
-            }      
-          
-          out.writeBoolean(memory.isInside);
-          out.writeBoolean(memory.isCode);
-          out.writeBoolean(memory.isData);
-          out.writeBoolean(memory.isGarbage);    // version 1
-          out.writeUTF(memory.dataType.name());  // version 1
-          out.writeByte(memory.copy);
-          out.writeInt(memory.related);
-          out.writeChar(memory.type);
-          
-          out.writeByte(memory.index);   // version 3
-          
-          out.writeInt(memory.relatedAddressBase); // version 9
-          out.writeInt(memory.relatedAddressDest); // version 9
-          out.writeUTF(memory.basicType.name());   // version 10
-      }  
-      
-      out.writeInt(project.chip);  // version 2
-      
-      // version 3
-      for (int i=0; i<Constant.MIN_COLS; i++) {
-        for (int j=0; j<Constant.MIN_ROWS; j++) {
-          if (project.constant.table[i][j]!=null) {
-            out.writeBoolean(true);
-            out.writeUTF(project.constant.table[i][j]);  
-          } else {
-              out.writeBoolean(false);
-            } 
-        }  
-      }
-      
-      // version 4
-      if (project.relocates==null) out.writeInt(0);
-      else {
-        out.writeInt(project.relocates.length);
-        for (Relocate relocate:project.relocates) {
-          out.writeInt(relocate.fromStart);
-          out.writeInt(relocate.fromEnd);
-          out.writeInt(relocate.toStart);
-          out.writeInt(relocate.toEnd);
-        }
-      }
-      
-      // version 5
-      if (project.patches==null) out.writeInt(0);
-      else {
-        out.writeInt(project.patches.length);
-        for (Patch patch:project.patches) {
-          out.writeInt(patch.address);
-          out.writeInt(patch.value);
-        }
-      }    
-      
-      // version 6
-      for (int i=0; i<Constant.MIN_COLS; i++) {
-        for (int j=Constant.MIN_ROWS; j<Constant.ROWS; j++) {
-          if (project.constant.table[i][j]!=null) {
-            out.writeBoolean(true);
-            out.writeUTF(project.constant.table[i][j]);  
-          } else {
-              out.writeBoolean(false);
-            } 
-        }  
-      }  
-      
-      // version 7
-      if (project.freezes==null) out.writeInt(0);
-      else {
-        out.writeInt(project.freezes.length);
-        for (Freeze freeze:project.freezes) {
-          out.writeUTF(freeze.name);
-          
-          // writeUTF is limited to FFFF size, so apply different way
-          if (freeze.text.length()>0xFFFF) {
-            out.writeBoolean(true);  
-            byte[] buf=freeze.text.getBytes("utf-8");
-            out.writeInt(buf.length);
-            out.write(buf);           
-          } else {
-              out.writeBoolean(false);
-              out.writeUTF(freeze.text);
-            }
-        }
-      }  
-      
-      // version 8
-      for (int i=Constant.MIN_COLS; i<Constant.COLS; i++) {
-        for (int j=0; j<Constant.ROWS; j++) {
-          if (project.constant.table[i][j]!=null) {
-            out.writeBoolean(true);
-            out.writeUTF(project.constant.table[i][j]);  
-          } else {
-              out.writeBoolean(false);
-            } 
-        }          
-      }
-      
-      // version 10
-      for (int i=0; i<Constant.COLS; i++) {
-        for (int j=0; j<Constant.ROWS; j++) {
-          if (project.constant.comment[i][j]!=null) {
-            out.writeBoolean(true);
-            out.writeUTF(project.constant.comment[i][j]);  
-          } else {
-              out.writeBoolean(false);
-            } 
-        }          
-      }      
-      
-      // version 11
-      out.writeInt(project.binAddress);  
-      
-      out.flush();
-      out.close();
+      ProjectFormat.write(file, project);
     } catch (Exception e) {
         System.err.println(e);
         return false;
@@ -1361,29 +1205,70 @@ public class FileManager {
    * @return >0 as percent, -1 as error
    */
   public int readPercProjectFile(File file) {
+    ProjectSummary summary=readProjectSummary(file);
+    
+    if (summary==null) return -1;
+    return summary.perc;
+  }
+  
+  /**
+   * Read the summary of the project from file 
+   * New projects have it into the file, while the old ones are read and 
+   * cached on disk (see saveSummaryCache)
+   * 
+   * @param file the file to read
+   * @return the summary or null if error
+   */
+  public ProjectSummary readProjectSummary(File file) {
+    if (ProjectFormat.isProjectFormat(file)) {
+      try {
+        return ProjectFormat.readSummary(file);
+      } catch (Exception e) {
+          System.err.println(e);
+          return null;
+        }
+    }
+    
+    ProjectSummary summary=ProjectSummaryCache.instance.get(file);
+    if (summary!=null) return summary;
+    
+    summary=readOldProjectSummary(file);
+    if (summary!=null) ProjectSummaryCache.instance.put(file, summary);
+    return summary;
+  }
+  
+  /**
+   * Write the cache of summary of old projects, if changed
+   * 
+   * @return true if operation is ok
+   */
+  public boolean saveSummaryCache() {
+    return ProjectSummaryCache.instance.save();
+  }
+  
+  /**
+   * Read the summary of an old project (version 0-11) from file 
+   * 
+   * @param file the file to read
+   * @return the summary or null if error
+   */
+  private ProjectSummary readOldProjectSummary(File file) {
+    ProjectSummary summary=new ProjectSummary();
     int total=0;
     int done=0;
     
-    try {      
-      MemoryDasm mem;  
-      DataInputStream in;
- 
-      if (isGZipped(file)) in=new DataInputStream(
-              new GZIPInputStream(
-              new BufferedInputStream(
-              new FileInputStream(file)))); 
-          
-      else in=new DataInputStream(
-              new BufferedInputStream(
-              new FileInputStream(file)));  
-      
+    try (FileInputStream fin=new FileInputStream(file);
+         DataInputStream in=new DataInputStream(isGZipped(file) ?
+              new BufferedInputStream(new GZIPInputStream(fin, 65536), 65536) :
+              new BufferedInputStream(fin))) {
       byte version=in.readByte();
 
-      in.skipNBytes((int)in.readChar());    //name
+      summary.name=in.readUTF();
       in.skipNBytes((int)in.readChar());   // file 
       in.skipNBytes((int)in.readChar());   // description 
-      in.skipNBytes((int)in.readChar());   // file type
-      if (version>0) in.skipNBytes((int)in.readChar()); //target 
+      summary.fileType=FileType.valueOf(in.readUTF());
+      if (version>0) summary.targetType=TargetType.valueOf(in.readUTF());
+      else summary.targetType=TargetType.C64;
       
       int size=in.readInt();   
       in.skipNBytes(size);      // inB
@@ -1458,10 +1343,12 @@ public class FileManager {
         }
       }
       
-      return (int)(done*100/total);  // avoid that total should be zero
+      summary.perc=(total==0 ? -1 : done*100/total);
+      summary.modified=file.lastModified();
+      return summary;
     } catch (Exception e) {
         System.err.println(e);
-        return -1;
+        return null;
       }        
   }
   
@@ -1550,9 +1437,9 @@ public class FileManager {
         out.writeUTF(HEADER_CST);              // write header    
         out.writeInt(1);                       // write version   
         
-        String[] values=constant.table[col];
-        out.writeInt(values.length);
-        for (String val:values) {
+        out.writeInt(Constant.ROWS);
+        for (int i=0; i<Constant.ROWS; i++) {
+          String val=constant.get(col, i);
           if (val==null) out.writeBoolean(false);
           else {
             out.writeBoolean(true);
@@ -1599,8 +1486,8 @@ public class FileManager {
         int size=in.readInt();
         
         for (int i=0; i<size; i++) {
-          if (in.readBoolean()) constant.table[col][i]=in.readUTF();
-          else constant.table[col][i]=null;
+          if (in.readBoolean()) constant.set(col, i, in.readUTF());
+          else constant.set(col, i, null);
         }
         
         in.close();         
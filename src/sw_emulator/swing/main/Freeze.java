@@ -57,8 +57,8 @@ public class Freeze implements Cloneable {
     
     Freeze freeze=(Freeze) obj;
      
-    freeze.name=name;
-    freeze.text=text;
+    if (!Objects.equals(freeze.name, name)) return false;
+    if (!Objects.equals(freeze.text, text)) return false;
 
     return true;
   }
@@ -0,0 +1,425 @@
+/**
+ * @(#)JC64DisBatch.java 2026/10/18
+ *
+ * ICE Team free software group
+ *
+ * This file is part of C64 Java Software Emulator.
+ * See README for copyright notice.
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ *  02111-1307  USA.
+ */
+package sw_emulator.swing.main;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import sw_emulator.software.Disassembly;
+import sw_emulator.software.SidId;
+import sw_emulator.software.memory.XRefManager;
+
+/**
+ * Headless batch disassembler.
+ * It reads many projects and writes the preview and source output of each
+ * one of them, without creating any graphical component, so it can be used
+ * onto a build server.
+ * With -parallel the projects are processed at the same time into a fork/join
+ * pool, each one with its own disassembly.
+ * With -trace the code reachable from the entry points of the file is marked
+ * before disassembling, where the user has not marked the memory.
+ *
+ * Usage:
+ *   JC64DisBatch [-option file] [-out dir] [-nopreview] [-nosource] [-parallel [n]] [-trace] file.dis|dir ...
+ *
+ * @author ice
+ */
+public class JC64DisBatch {
+  /** Extension of project files */
+  public static final String PROJECT_EXT=".dis";
+
+  /** Extension of source output */
+  public static final String SOURCE_EXT=".asm";
+
+  /** Extension of preview output */
+  public static final String PREVIEW_EXT=".txt";
+
+  /** Option to use for all the projects */
+  private final Option option;
+
+  /** Output directory (null for using the project one) */
+  private File outDir;
+
+  /** True if preview should be written */
+  private boolean writePreview=true;
+
+  /** True if source should be written */
+  private boolean writeSource=true;
+
+  /** True if code should be traced before disassembling */
+  private boolean trace;
+
+  /** Disassembly reused between projects */
+  private final Disassembly disassembly=new Disassembly();
+
+  /** Pool of threads reused by parallel processing (null if not created) */
+  private ForkJoinPool pool;
+
+  /**
+   * Timing and result of one project
+   */
+  public static class Result {
+    /** Project file */
+    public File file;
+
+    /** True if project was processed without errors */
+    public boolean ok;
+
+    /** Error message if not ok */
+    public String error;
+
+    /** Nano seconds for reading the project */
+    public long readTime;
+
+    /** Nano seconds for tracing the code */
+    public long traceTime;
+
+    /** Nano seconds for the preview pass */
+    public long previewTime;
+
+    /** Nano seconds for the source pass */
+    public long sourceTime;
+
+    /** Nano seconds for writing the output */
+    public long writeTime;
+
+    /**
+     * Total time in nano seconds
+     *
+     * @return the total time
+     */
+    public long getTotal() {
+      return readTime+traceTime+previewTime+sourceTime+writeTime;
+    }
+
+    @Override
+    public String toString() {
+      if (!ok) return String.format(Locale.ENGLISH, "%-40s ERROR: %s", file.getName(), error);
+      return String.format(Locale.ENGLISH, "%-40s read %8.2f ms  trace %8.2f ms  preview %8.2f ms  source %8.2f ms  write %8.2f ms  total %8.2f ms",
+                           file.getName(), readTime/1e6, traceTime/1e6, previewTime/1e6,
+                           sourceTime/1e6, writeTime/1e6, getTotal()/1e6);
+    }
+  }
+
+  /**
+   * Construct the batch disassembler
+   *
+   * @param option the option to use for all projects
+   */
+  public JC64DisBatch(Option option) {
+    this.option=option;
+  }
+
+  /**
+   * Set the output directory
+   *
+   * @param outDir the output directory (null for project directory)
+   */
+  public void setOutDir(File outDir) {
+    this.outDir=outDir;
+  }
+
+  /**
+   * Set what output to produce
+   *
+   * @param writePreview true to write the preview
+   * @param writeSource true to write the source
+   */
+  public void setOutput(boolean writePreview, boolean writeSource) {
+    this.writePreview=writePreview;
+    this.writeSource=writeSource;
+  }
+
+  /**
+   * Set if code should be traced from the entry points before disassembling
+   *
+   * @param trace true to trace the code
+   */
+  public void setTrace(boolean trace) {
+    this.trace=trace;
+  }
+
+  /**
+   * Process one project file
+   *
+   * @param file the project file
+   * @return the result of processing
+   */
+  public Result process(File file) {
+    return process(file, disassembly);
+  }
+
+  /**
+   * Process one project file with the given disassembly
+   *
+   * @param file the project file
+   * @param disassembly the disassembly to use
+   * @return the result of processing
+   */
+  private Result process(File file, Disassembly disassembly) {
+    Result result=new Result();
+    result.file=file;
+
+    long time=System.nanoTime();
+    Project project=new Project();
+    if (!FileManager.instance.readProjectFile(file, project)) {
+      result.error="error reading project file";
+      return result;
+    }
+    result.readTime=System.nanoTime()-time;
+
+    if (project.inB==null) {
+      result.error="project has no data";
+      return result;
+    }
+
+    try {
+      XRefManager xRefManager=new XRefManager();
+
+      if (trace) {
+        time=System.nanoTime();
+        Disassembly.traceCode(project.fileType, project.inB, project.memory, project.chip);
+        result.traceTime=System.nanoTime()-time;
+      }
+
+      time=System.nanoTime();
+      disassembly.dissassembly(project.fileType, project.inB, option,
+                               project.memory, project.constant, project.mpr,
+                               project.relocates, project.patches,
+                               project.chip, project.binAddress,
+                               project.targetType, false, xRefManager);
+      result.previewTime=System.nanoTime()-time;
+
+      time=System.nanoTime();
+      disassembly.dissassembly(project.fileType, project.inB, option,
+                               project.memory, project.constant, project.mpr,
+                               project.relocates, project.patches,
+                               project.chip, project.binAddress,
+                               project.targetType, true, xRefManager);
+      result.sourceTime=System.nanoTime()-time;
+    } catch (Exception e) {
+        result.error=e.toString();
+        return result;
+      }
+
+    time=System.nanoTime();
+    String base=getBaseName(file);
+    File dir=(outDir!=null ? outDir: file.getAbsoluteFile().getParentFile());
+
+    if (writePreview && !FileManager.instance.writeTxtFile(new File(dir, base+PREVIEW_EXT), disassembly.disassembly)) {
+      result.error="error writing preview file";
+      return result;
+    }
+    if (writeSource && !FileManager.instance.writeTxtFile(new File(dir, base+SOURCE_EXT), disassembly.source)) {
+      result.error="error writing source file";
+      return result;
+    }
+    result.writeTime=System.nanoTime()-time;
+
+    result.ok=true;
+    return result;
+  }
+
+  /**
+   * Process all the given projects
+   *
+   * @param files the projects to process
+   * @return the results of each project
+   */
+  public ArrayList<Result> process(ArrayList<File> files) {
+    ArrayList<Result> results=new ArrayList<>();
+
+    for (File file: files) {
+      Result result=process(file);
+      System.out.println(result);
+      results.add(result);
+    }
+    return results;
+  }
+
+  /**
+   * Process all the given projects in parallel
+   * The pool of threads is kept for next calls, until shutdown
+   *
+   * @param files the projects to process
+   * @param threads number of threads to use
+   * @return the results of each project, in the same order of files
+   */
+  public ArrayList<Result> processParallel(ArrayList<File> files, int threads) {
+    if (pool==null || pool.getParallelism()!=threads) {
+      if (pool!=null) pool.shutdown();
+      pool=new ForkJoinPool(threads);
+    }
+
+    try {
+      List<Result> list=pool.submit(() -> files.parallelStream()
+                                               .map(file -> process(file, new Disassembly()))
+                                               .collect(Collectors.toList())).get();
+
+      ArrayList<Result> results=new ArrayList<>(list);
+      for (Result result: results) {
+        System.out.println(result);
+      }
+      return results;
+    } catch (Exception e) {
+        throw new RuntimeException(e);
+      }
+  }
+
+  /**
+   * Release the threads of parallel processing
+   */
+  public void shutdown() {
+    if (pool!=null) pool.shutdown();
+    pool=null;
+  }
+
+  /**
+   * Get the name of the file without the project extension
+   *
+   * @param file the file
+   * @return the base name
+   */
+  static String getBaseName(File file) {
+    String name=file.getName();
+    if (name.toLowerCase(Locale.ENGLISH).endsWith(PROJECT_EXT)) return name.substring(0, name.length()-PROJECT_EXT.length());
+    return name;
+  }
+
+  /**
+   * Add the given file to the list, expanding the directories
+   *
+   * @param file the file or directory
+   * @param files the list where to add
+   */
+  private static void addFile(File file, ArrayList<File> files) {
+    if (file.isDirectory()) {
+      File[] list=file.listFiles((dir, name) -> name.toLowerCase(Locale.ENGLISH).endsWith(PROJECT_EXT));
+      if (list==null) return;
+      Arrays.sort(list);
+      files.addAll(Arrays.asList(list));
+    } else files.add(file);
+  }
+
+  /**
+   * Print the usage
+   */
+  private static void usage() {
+    System.err.println("Usage: JC64DisBatch [-option file] [-out dir] [-nopreview] [-nosource] [-parallel [n]] [-trace] file.dis|dir ...");
+  }
+
+  /**
+   * @param args the command line arguments
+   */
+  public static void main(String[] args) {
+    System.setProperty("java.awt.headless", "true");
+
+    File optionFile=FileManager.OPTION_FILE;
+    File outDir=null;
+    boolean writePreview=true;
+    boolean writeSource=true;
+    boolean trace=false;
+    int threads=1;
+    ArrayList<File> files=new ArrayList<>();
+
+    for (int i=0; i<args.length; i++) {
+      switch (args[i]) {
+        case "-option":
+          if (++i>=args.length) {
+            usage();
+            System.exit(1);
+          }
+          optionFile=new File(args[i]);
+          break;
+        case "-out":
+          if (++i>=args.length) {
+            usage();
+            System.exit(1);
+          }
+          outDir=new File(args[i]);
+          break;
+        case "-nopreview":
+          writePreview=false;
+          break;
+        case "-nosource":
+          writeSource=false;
+          break;
+        case "-trace":
+          trace=true;
+          break;
+        case "-parallel":
+          threads=Runtime.getRuntime().availableProcessors();
+          if (i+1<args.length && args[i+1].matches("[0-9]+")) threads=Math.max(1, Integer.parseInt(args[++i]));
+          break;
+        default:
+          addFile(new File(args[i]), files);
+          break;
+      }
+    }
+
+    if (files.isEmpty()) {
+      usage();
+      System.exit(1);
+    }
+
+    Option option=new Option();
+    if (optionFile.exists()) FileManager.instance.readOptionFile(optionFile, option);
+
+    if (option.showSidId && option.sidIdPath!=null) {
+      try {
+        SidId.instance.readConfig(option.sidIdPath);
+      } catch (Exception e) {
+          System.err.println(e);
+        }
+    }
+
+    if (outDir!=null && !outDir.isDirectory() && !outDir.mkdirs()) {
+      System.err.println("Unable to create output directory "+outDir);
+      System.exit(1);
+    }
+
+    JC64DisBatch batch=new JC64DisBatch(option);
+    batch.setOutDir(outDir);
+    batch.setOutput(writePreview, writeSource);
+    batch.setTrace(trace);
+
+    long time=System.nanoTime();
+    ArrayList<Result> results=(threads>1 ? batch.processParallel(files, threads) : batch.process(files));
+    time=System.nanoTime()-time;
+    batch.shutdown();
+
+    int errors=0;
+    for (Result result: results) {
+      if (!result.ok) errors++;
+    }
+
+    System.out.println(String.format(Locale.ENGLISH, "%d projects, %d errors, %.2f ms",
+                                     results.size(), errors, time/1e6));
+    System.exit(errors==0 ? 0 : 2);
+  }
+}
@@ -22,8 +22,13 @@
  */
 package sw_emulator.swing.main;
 
+import java.util.ArrayList;
+import sw_emulator.software.MemoryDasm;
+
 /**
- * Key project container for undo
+ * Key project container for undo.
+ * It does not contain the whole project, but only the values that are to be
+ * restored for going back to the previous stored state.
  * 
  * @author ice
  */
@@ -31,6 +36,57 @@ public class KeyProject {
   /** Key for search state */  
   public String key;  
   
-  /** Saved project */
-  public Project project; 
+  /** True if the values of previous state are present */
+  public boolean hasPrevious;
+  
+  /** Memory locations of previous state that are changed */
+  public ArrayList<MemoryDasm> memory=new ArrayList<>();
+  
+  /** Constant cells of previous state that are changed (column*ROWS+row) */
+  public ArrayList<Integer> constantCells=new ArrayList<>();
+  
+  /** Constant values of changed cells */
+  public ArrayList<String> constantTables=new ArrayList<>();
+  
+  /** Constant comments of changed cells */
+  public ArrayList<String> constantComments=new ArrayList<>();
+  
+  /** Type of the file in previous state */
+  public FileType fileType;
+  
+  /** Name of the project in previous state */
+  public String name;
+  
+  /** Path + name of file in previous state */
+  public String file;
+  
+  /** Description of the file in previous state */
+  public String description;
+  
+  /** Data of input file in previous state (shared, never changed) */
+  public byte[] inB;
+  
+  /** Mpr contents in previous state (shared, never changed) */
+  public MPR mpr;
+  
+  /** Target machine type in previous state */
+  public TargetType targetType;
+  
+  /** Memory flag of SIDLD in previous state (shared, never changed) */
+  public byte[] memoryFlags;
+  
+  /** CRT chip in previous state */
+  public int chip;
+  
+  /** Raw binary starting address in previous state */
+  public int binAddress;
+  
+  /** Relocate entries in previous state (shared, never changed) */
+  public Relocate[] relocates;
+  
+  /** Patch entries in previous state (shared, never changed) */
+  public Patch[] patches;
+  
+  /** Freeze image in previous state (shared, never changed) */
+  public Freeze[] freezes;
 }
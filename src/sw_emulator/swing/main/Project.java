@@ -26,6 +26,7 @@ package sw_emulator.swing.main;
 import java.util.Arrays;
 import java.util.Objects;
 import sw_emulator.software.MemoryDasm;
+import sw_emulator.software.memory.memoryState;
 
 /**
  * Container for the project
@@ -44,12 +45,13 @@ import sw_emulator.software.MemoryDasm;
  * Version 9: add related relocation addresses
  * Version 10: add basic type, add comments for contants
  * Version 11: add raw binary starting adddess
+ * Version 12: sections with table of contents (see ProjectFormat)
  * 
  * @author ice
  */
 public class Project implements Cloneable { 
   /** Actual version of project */ 
-  public static final byte ACTUAL_VERSION=11;       
+  public static final byte ACTUAL_VERSION=12;       
     
   /** Type of the file */
   public FileType fileType;
@@ -121,6 +123,32 @@ public class Project implements Cloneable {
       mpr.getElements(inB);
     }
   }
+  
+  /**
+   * Apply the Sidld memory flags to code/data of memory: executed bytes are
+   * code, read, written or sampled ones are data
+   * 
+   * @param garbage true to mark also the bytes of the file never touched as garbage
+   */
+  public void applyMemoryFlags(boolean garbage) {
+    if (memoryFlags==null) return;
+    
+    for (int i=0; i<memoryFlags.length; i++) {
+      MemoryDasm mem=memory[i];
+      int flags=memoryFlags[i];
+
+      mem.isData=(flags & (memoryState.MEM_READ | memoryState.MEM_READ_FIRST
+                         | memoryState.MEM_WRITE | memoryState.MEM_WRITE_FIRST
+                         | memoryState.MEM_SAMPLE))!=0;
+
+      mem.isCode=(flags & (memoryState.MEM_EXECUTE | memoryState.MEM_EXECUTE_FIRST))!=0;
+
+      // code execution has priority over data access
+      if (mem.isCode) mem.isData=false;
+
+      if (garbage && mem.isInside) mem.isGarbage=(flags==0);
+    }
+  }
 
   @Override
   public int hashCode() {
@@ -136,7 +164,7 @@ public class Project implements Cloneable {
     hash = 89 * hash + MPR.hashCode(this.mpr); 
     hash = 89 * hash + this.chip;
     hash = 89 * hash + this.binAddress;
-    hash = 89 * hash + Arrays.hashCode(this.constant.table);
+    hash = 89 * hash + Objects.hashCode(this.constant);
     hash = 89 * hash + Arrays.hashCode(this.relocates);
     hash = 89 * hash + Arrays.hashCode(this.patches);
     hash = 89 * hash + Arrays.hashCode(this.freezes);
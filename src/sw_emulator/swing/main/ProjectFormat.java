@@ -0,0 +1,1072 @@
+/**
+ * @(#)ProjectFormat.java 2026/10/18
+ *
+ * ICE Team free software group
+ *
+ * This file is part of C64 Java Software Emulator.
+ * See README for copyright notice.
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ *  02111-1307  USA.
+ */
+package sw_emulator.swing.main;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import sw_emulator.software.BasicDetokenize.BasicType;
+import sw_emulator.software.MemoryDasm;
+
+/**
+ * Binary project format (version 12).
+ * The file has a header with a table of contents, then each section is
+ * compressed by itself, so a reader can seek and load only the sections it
+ * needs. The memory is stored by columns (flags, values, references to the
+ * string pool), so it is read in bulk as arrays of primitives.
+ *
+ * Header: magic (4 bytes), version (byte), number of sections (int), then for
+ * each section its id, offset, compressed length and length (ints).
+ *
+ * @author ice
+ */
+public class ProjectFormat {
+  /** Magic at start of file (it is never a gzip or an old version byte) */
+  private static final byte[] MAGIC={'J', 'C', '6', '4'};
+
+  /** Version of this format */
+  public static final byte VERSION=12;
+
+  /** Flag of memory: inside */
+  public static final int FLAG_INSIDE=0x01;
+
+  /** Flag of memory: code */
+  public static final int FLAG_CODE=0x02;
+
+  /** Flag of memory: data */
+  public static final int FLAG_DATA=0x04;
+
+  /** Flag of memory: garbage */
+  public static final int FLAG_GARBAGE=0x08;
+
+  /** Flag of memory: dasm comment present */
+  public static final int FLAG_DASM_COMMENT=0x10;
+
+  /** Flag of memory: user comment present */
+  public static final int FLAG_USER_COMMENT=0x20;
+
+  /** Flag of memory: user block comment present */
+  public static final int FLAG_USER_BLOCK_COMMENT=0x40;
+
+  /** Flag of memory: dasm location present */
+  public static final int FLAG_DASM_LOCATION=0x80;
+
+  /** Flag of memory: user location present */
+  public static final int FLAG_USER_LOCATION=0x100;
+
+  /**
+   * Sections of the file
+   */
+  public enum Section {
+    /** Summary of the project (first after the table of contents) */
+    SUMMARY(11),
+    /** Name, file, description, types, chip and binary address */
+    INFO(1),
+    /** Data of input file */
+    INB(2),
+    /** Memory flags of SIDLD */
+    SIDLD(3),
+    /** Packed flags of each memory cell */
+    FLAGS(4),
+    /** Pool of the strings used by memory and constants */
+    STRINGS(5),
+    /** Values and strings of each memory cell */
+    MEMORY(6),
+    /** Constants and their comments */
+    CONSTANTS(7),
+    /** Relocate entries */
+    RELOCATES(8),
+    /** Patch entries */
+    PATCHES(9),
+    /** Freeze images */
+    FREEZES(10);
+
+    /** Id of section into the file */
+    final int id;
+
+    /**
+     * Construct the section
+     *
+     * @param id the id into the file
+     */
+    Section(int id) {
+      this.id=id;
+    }
+  }
+
+  /**
+   * Position of a section into the file
+   */
+  private static class Entry {
+    /** Offset into the file */
+    int offset;
+
+    /** Compressed length */
+    int length;
+
+    /** Uncompressed length */
+    int size;
+  }
+
+  /**
+   * True if the file is in this format
+   *
+   * @param file the file to test
+   * @return true if the file starts with the magic
+   */
+  public static boolean isProjectFormat(File file) {
+    try (RandomAccessFile raf=new RandomAccessFile(file, "r")) {
+      byte[] magic=new byte[MAGIC.length];
+      if (raf.read(magic)!=magic.length) return false;
+
+      for (int i=0; i<magic.length; i++) {
+        if (magic[i]!=MAGIC[i]) return false;
+      }
+      return true;
+    } catch (IOException e) {
+        return false;
+      }
+  }
+
+  /**
+   * Write the project
+   *
+   * @param file the file to write
+   * @param project the project to write
+   * @throws IOException if writing fails
+   */
+  public static void write(File file, Project project) throws IOException {
+    StringPool pool=new StringPool();
+    EnumMap<Section, byte[]> sections=new EnumMap<>(Section.class);
+    short[] flags=getFlags(project.memory);
+
+    sections.put(Section.SUMMARY, writeSummary(project, flags));
+    sections.put(Section.INFO, writeInfo(project));
+    sections.put(Section.INB, writeBytes(project.inB));
+    sections.put(Section.SIDLD, writeBytes(project.memoryFlags));
+    sections.put(Section.FLAGS, writeFlags(flags));
+    sections.put(Section.MEMORY, writeMemory(project.memory, pool));
+    sections.put(Section.CONSTANTS, writeConstants(project.constant, pool));
+    sections.put(Section.RELOCATES, writeRelocates(project.relocates));
+    sections.put(Section.PATCHES, writePatches(project.patches));
+    sections.put(Section.FREEZES, writeFreezes(project.freezes));
+    sections.put(Section.STRINGS, pool.write());
+
+    int count=sections.size();
+    int offset=MAGIC.length+1+4+count*16;
+
+    ByteArrayOutputStream toc=new ByteArrayOutputStream();
+    DataOutputStream header=new DataOutputStream(toc);
+    header.write(MAGIC);
+    header.writeByte(VERSION);
+    header.writeInt(count);
+
+    ArrayList<byte[]> bodies=new ArrayList<>();
+    for (Section section: Section.values()) {
+      byte[] raw=sections.get(section);
+      byte[] body=deflate(raw);
+
+      header.writeInt(section.id);
+      header.writeInt(offset);
+      header.writeInt(body.length);
+      header.writeInt(raw.length);
+
+      bodies.add(body);
+      offset+=body.length;
+    }
+
+    try (FileOutputStream out=new FileOutputStream(file)) {
+      out.write(toc.toByteArray());
+      for (byte[] body: bodies) out.write(body);
+    }
+  }
+
+  /**
+   * Read all the project
+   *
+   * @param file the file to read
+   * @param project the project to fill
+   * @throws IOException if reading fails
+   */
+  public static void read(File file, Project project) throws IOException {
+    read(file, project, EnumSet.allOf(Section.class));
+  }
+
+  /**
+   * Read only the given sections of the project (with the ones they need)
+   *
+   * @param file the file to read
+   * @param project the project to fill
+   * @param sections the sections to read
+   * @throws IOException if reading fails
+   */
+  public static void read(File file, Project project, EnumSet<Section> sections) throws IOException {
+    EnumSet<Section> wanted=EnumSet.copyOf(sections);
+    if (wanted.contains(Section.MEMORY)) wanted.add(Section.FLAGS);
+    if (wanted.contains(Section.MEMORY) || wanted.contains(Section.CONSTANTS)) wanted.add(Section.STRINGS);
+    if (wanted.contains(Section.INB)) wanted.add(Section.INFO);    // for MPR
+
+    try (RandomAccessFile raf=new RandomAccessFile(file, "r")) {
+      EnumMap<Section, Entry> toc=readToc(raf);
+
+      String[] strings=null;
+      short[] flags=null;
+
+      if (wanted.contains(Section.STRINGS)) strings=readStrings(load(raf, toc, Section.STRINGS));
+      if (wanted.contains(Section.INFO)) readInfo(load(raf, toc, Section.INFO), project);
+
+      if (wanted.contains(Section.INB)) {
+        project.inB=readBytes(load(raf, toc, Section.INB));
+        if (project.fileType==FileType.MPR) {
+          project.mpr=new MPR();
+          project.mpr.getElements(project.inB);
+        }
+      }
+
+      if (wanted.contains(Section.SIDLD)) project.memoryFlags=readBytes(load(raf, toc, Section.SIDLD));
+
+      if (wanted.contains(Section.FLAGS)) {
+        flags=readFlags(load(raf, toc, Section.FLAGS));
+        if (project.memory.length!=flags.length) {
+          project.memory=new MemoryDasm[flags.length];
+          for (int i=0; i<flags.length; i++) {
+            project.memory[i]=new MemoryDasm();
+            project.memory[i].address=i;
+          }
+        }
+        for (int i=0; i<flags.length; i++) {
+          MemoryDasm mem=project.memory[i];
+          mem.isInside=(flags[i] & FLAG_INSIDE)!=0;
+          mem.isCode=(flags[i] & FLAG_CODE)!=0;
+          mem.isData=(flags[i] & FLAG_DATA)!=0;
+          mem.isGarbage=(flags[i] & FLAG_GARBAGE)!=0;
+        }
+      }
+
+      if (wanted.contains(Section.MEMORY)) readMemory(load(raf, toc, Section.MEMORY), project.memory, flags, strings);
+      if (wanted.contains(Section.CONSTANTS)) readConstants(load(raf, toc, Section.CONSTANTS), project.constant, strings);
+      if (wanted.contains(Section.RELOCATES)) project.relocates=readRelocates(load(raf, toc, Section.RELOCATES));
+      if (wanted.contains(Section.PATCHES)) project.patches=readPatches(load(raf, toc, Section.PATCHES));
+      if (wanted.contains(Section.FREEZES)) project.freezes=readFreezes(load(raf, toc, Section.FREEZES));
+    }
+  }
+
+  /**
+   * Read only the packed flags of memory
+   *
+   * @param file the file to read
+   * @return the flags (FLAG_xxx) of each memory cell
+   * @throws IOException if reading fails
+   */
+  public static short[] readFlags(File file) throws IOException {
+    try (RandomAccessFile raf=new RandomAccessFile(file, "r")) {
+      return readFlags(load(raf, readToc(raf), Section.FLAGS));
+    }
+  }
+
+  /**
+   * Read only the summary of the project
+   *
+   * @param file the file to read
+   * @return the summary
+   * @throws IOException if reading fails
+   */
+  public static ProjectSummary readSummary(File file) throws IOException {
+    try (RandomAccessFile raf=new RandomAccessFile(file, "r")) {
+      EnumMap<Section, Entry> toc=readToc(raf);
+      if (toc.containsKey(Section.SUMMARY)) return readSummary(load(raf, toc, Section.SUMMARY));
+
+      // file without summary
+      Project project=new Project();
+      readInfo(load(raf, toc, Section.INFO), project);
+
+      ProjectSummary summary=new ProjectSummary();
+      summary.name=project.name;
+      summary.fileType=project.fileType;
+      summary.targetType=project.targetType;
+      summary.perc=getPerc(readFlags(load(raf, toc, Section.FLAGS)));
+      summary.modified=file.lastModified();
+      return summary;
+    }
+  }
+
+  /**
+   * Get the percent of done labels: user locations over all the locations
+   * of the memory inside the file that is not garbage
+   *
+   * @param flags the packed flags of memory
+   * @return the percent or -1 if there are no locations
+   */
+  public static int getPerc(short[] flags) {
+    int total=0;
+    int done=0;
+
+    for (short flag: flags) {
+      if ((flag & FLAG_INSIDE)==0 || (flag & FLAG_GARBAGE)!=0) continue;
+      if ((flag & FLAG_USER_LOCATION)!=0) {
+        total++;
+        done++;
+      } else {
+          if ((flag & FLAG_DASM_LOCATION)!=0) total++;
+        }
+    }
+
+    if (total==0) return -1;
+    return done*100/total;
+  }
+
+  /**
+   * Read the header and the table of contents
+   *
+   * @param raf the file
+   * @return the position of each section
+   * @throws IOException if the file is not valid
+   */
+  private static EnumMap<Section, Entry> readToc(RandomAccessFile raf) throws IOException {
+    byte[] magic=new byte[MAGIC.length];
+    raf.seek(0);
+    raf.readFully(magic);
+    for (int i=0; i<magic.length; i++) {
+      if (magic[i]!=MAGIC[i]) throw new IOException("Not a project file");
+    }
+
+    int version=raf.readByte();
+    if (version>VERSION) throw new IOException("Project version "+version+" is not supported");
+
+    EnumMap<Section, Entry> toc=new EnumMap<>(Section.class);
+    int count=raf.readInt();
+    for (int i=0; i<count; i++) {
+      int id=raf.readInt();
+      Entry entry=new Entry();
+      entry.offset=raf.readInt();
+      entry.length=raf.readInt();
+      entry.size=raf.readInt();
+
+      // sections of newer versions are skipped
+      for (Section section: Section.values()) {
+        if (section.id==id) toc.put(section, entry);
+      }
+    }
+    return toc;
+  }
+
+  /**
+   * Load and decompress a section
+   *
+   * @param raf the file
+   * @param toc the table of contents
+   * @param section the section to load
+   * @return the section data
+   * @throws IOException if the section is missing or not valid
+   */
+  private static ByteBuffer load(RandomAccessFile raf, EnumMap<Section, Entry> toc, Section section) throws IOException {
+    Entry entry=toc.get(section);
+    if (entry==null) throw new IOException("Missing section "+section);
+
+    byte[] body=new byte[entry.length];
+    raf.seek(entry.offset);
+    raf.readFully(body);
+
+    byte[] raw=new byte[entry.size];
+    Inflater inflater=new Inflater();
+    try {
+      inflater.setInput(body);
+      int size=0;
+      while (size<raw.length && !inflater.finished()) {
+        int n=inflater.inflate(raw, size, raw.length-size);
+        if (n==0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+        size+=n;
+      }
+      if (size!=raw.length) throw new IOException("Truncated section "+section);
+    } catch (DataFormatException e) {
+        throw new IOException("Corrupted section "+section, e);
+      } finally {
+          inflater.end();
+        }
+    return ByteBuffer.wrap(raw);
+  }
+
+  /**
+   * Compress a section
+   *
+   * @param raw the section data
+   * @return the compressed data
+   */
+  private static byte[] deflate(byte[] raw) {
+    Deflater deflater=new Deflater();
+    try {
+      deflater.setInput(raw);
+      deflater.finish();
+
+      ByteArrayOutputStream out=new ByteArrayOutputStream(raw.length/4+64);
+      byte[] buf=new byte[8192];
+      while (!deflater.finished()) {
+        int n=deflater.deflate(buf);
+        out.write(buf, 0, n);
+      }
+      return out.toByteArray();
+    } finally {
+        deflater.end();
+      }
+  }
+
+  /**
+   * Pool of strings, each one stored once
+   */
+  private static class StringPool {
+    /** Index of each string */
+    private final HashMap<String, Integer> index=new HashMap<>();
+
+    /** Strings in order of index */
+    private final ArrayList<String> strings=new ArrayList<>();
+
+    /**
+     * Get the index of a string, adding it if needed
+     *
+     * @param value the string
+     * @return the index
+     */
+    int add(String value) {
+      Integer pos=index.get(value);
+      if (pos==null) {
+        pos=strings.size();
+        index.put(value, pos);
+        strings.add(value);
+      }
+      return pos;
+    }
+
+    /**
+     * Write the pool: number, length of each string and all the bytes
+     *
+     * @return the section data
+     * @throws IOException if writing fails
+     */
+    byte[] write() throws IOException {
+      int[] lengths=new int[strings.size()];
+      ByteArrayOutputStream data=new ByteArrayOutputStream();
+
+      for (int i=0; i<lengths.length; i++) {
+        byte[] buf=strings.get(i).getBytes(StandardCharsets.UTF_8);
+        lengths[i]=buf.length;
+        data.write(buf);
+      }
+
+      ByteArrayOutputStream res=new ByteArrayOutputStream();
+      DataOutputStream out=new DataOutputStream(res);
+      out.writeInt(lengths.length);
+      writeInts(out, lengths);
+      data.writeTo(out);
+      return res.toByteArray();
+    }
+  }
+
+  /**
+   * Read the pool of strings
+   *
+   * @param in the section data
+   * @return the strings
+   */
+  private static String[] readStrings(ByteBuffer in) {
+    int[] lengths=readInts(in, in.getInt());
+    String[] strings=new String[lengths.length];
+
+    byte[] data=in.array();
+    int pos=in.position();
+    for (int i=0; i<lengths.length; i++) {
+      strings[i]=new String(data, pos, lengths[i], StandardCharsets.UTF_8);
+      pos+=lengths[i];
+    }
+    return strings;
+  }
+
+  /**
+   * Write the summary section
+   *
+   * @param project the project
+   * @param flags the packed flags of memory
+   * @return the section data
+   * @throws IOException if writing fails
+   */
+  private static byte[] writeSummary(Project project, short[] flags) throws IOException {
+    ByteArrayOutputStream res=new ByteArrayOutputStream();
+    DataOutputStream out=new DataOutputStream(res);
+
+    writeString(out, project.name);
+    writeString(out, project.fileType==null ? null : project.fileType.name());
+    writeString(out, project.targetType==null ? null : project.targetType.name());
+    out.writeInt(getPerc(flags));
+    out.writeLong(System.currentTimeMillis());
+    return res.toByteArray();
+  }
+
+  /**
+   * Read the summary section
+   *
+   * @param in the section data
+   * @return the summary
+   */
+  private static ProjectSummary readSummary(ByteBuffer in) {
+    ProjectSummary summary=new ProjectSummary();
+    summary.name=readString(in);
+
+    String value=readString(in);
+    summary.fileType=(value==null ? null : FileType.valueOf(value));
+    value=readString(in);
+    summary.targetType=(value==null ? null : TargetType.valueOf(value));
+
+    summary.perc=in.getInt();
+    summary.modified=in.getLong();
+    return summary;
+  }
+
+  /**
+   * Write the info section
+   *
+   * @param project the project
+   * @return the section data
+   * @throws IOException if writing fails
+   */
+  private static byte[] writeInfo(Project project) throws IOException {
+    ByteArrayOutputStream res=new ByteArrayOutputStream();
+    DataOutputStream out=new DataOutputStream(res);
+
+    writeString(out, project.name);
+    writeString(out, project.file);
+    writeString(out, project.description);
+    writeString(out, project.fileType==null ? null : project.fileType.name());
+    writeString(out, project.targetType==null ? null : project.targetType.name());
+    out.writeInt(project.chip);
+    out.writeInt(project.binAddress);
+    return res.toByteArray();
+  }
+
+  /**
+   * Read the info section
+   *
+   * @param in the section data
+   * @param project the project to fill
+   */
+  private static void readInfo(ByteBuffer in, Project project) {
+    project.name=readString(in);
+    project.file=readString(in);
+    project.description=readString(in);
+
+    String value=readString(in);
+    project.fileType=(value==null ? null : FileType.valueOf(value));
+    value=readString(in);
+    project.targetType=(value==null ? null : TargetType.valueOf(value));
+
+    project.chip=in.getInt();
+    project.binAddress=in.getInt();
+  }
+
+  /**
+   * Write an array of bytes with its length
+   *
+   * @param values the bytes (null as empty)
+   * @return the section data
+   */
+  private static byte[] writeBytes(byte[] values) {
+    int size=(values==null ? 0 : values.length);
+    ByteBuffer out=ByteBuffer.allocate(4+size);
+    out.putInt(size);
+    if (values!=null) out.put(values);
+    return out.array();
+  }
+
+  /**
+   * Read an array of bytes with its length
+   *
+   * @param in the section data
+   * @return the bytes
+   */
+  private static byte[] readBytes(ByteBuffer in) {
+    byte[] values=new byte[in.getInt()];
+    in.get(values);
+    return values;
+  }
+
+  /**
+   * Get the packed flags of a memory cell
+   *
+   * @param mem the memory cell
+   * @return the flags
+   */
+  private static int getFlags(MemoryDasm mem) {
+    int flags=0;
+    if (mem.isInside) flags|=FLAG_INSIDE;
+    if (mem.isCode) flags|=FLAG_CODE;
+    if (mem.isData) flags|=FLAG_DATA;
+    if (mem.isGarbage) flags|=FLAG_GARBAGE;
+    if (mem.dasmComment!=null) flags|=FLAG_DASM_COMMENT;
+    if (mem.userComment!=null) flags|=FLAG_USER_COMMENT;
+    if (mem.userBlockComment!=null) flags|=FLAG_USER_BLOCK_COMMENT;
+    if (mem.dasmLocation!=null) flags|=FLAG_DASM_LOCATION;
+    if (mem.userLocation!=null) flags|=FLAG_USER_LOCATION;
+    return flags;
+  }
+
+  /**
+   * Get the packed flags of the memory
+   *
+   * @param memory the memory
+   * @return the flags of each cell
+   */
+  private static short[] getFlags(MemoryDasm[] memory) {
+    short[] flags=new short[memory.length];
+    for (int i=0; i<flags.length; i++) {
+      flags[i]=(short)getFlags(memory[i]);
+    }
+    return flags;
+  }
+
+  /**
+   * Write the packed flags of the memory
+   *
+   * @param flags the flags of each cell
+   * @return the section data
+   */
+  private static byte[] writeFlags(short[] flags) {
+    ByteBuffer out=ByteBuffer.allocate(4+flags.length*2);
+    out.putInt(flags.length);
+    out.asShortBuffer().put(flags);
+    return out.array();
+  }
+
+  /**
+   * Read the packed flags of the memory
+   *
+   * @param in the section data
+   * @return the flags of each cell
+   */
+  private static short[] readFlags(ByteBuffer in) {
+    short[] flags=new short[in.getInt()];
+    in.asShortBuffer().get(flags);
+    in.position(in.position()+flags.length*2);
+    return flags;
+  }
+
+  /**
+   * Write the memory values by column, with the strings as references to the
+   * pool only for the cells that have them
+   *
+   * @param memory the memory
+   * @param pool the pool of strings
+   * @return the section data
+   * @throws IOException if writing fails
+   */
+  private static byte[] writeMemory(MemoryDasm[] memory, StringPool pool) throws IOException {
+    int size=memory.length;
+    int[] address=new int[size];
+    byte[] copy=new byte[size];
+    byte[] index=new byte[size];
+    int[] related=new int[size];
+    char[] type=new char[size];
+    int[] base=new int[size];
+    int[] dest=new int[size];
+    byte[] dataType=new byte[size];
+    byte[] basicType=new byte[size];
+
+    ArrayList<ArrayList<Integer>> refs=new ArrayList<>();
+    for (int i=0; i<5; i++) refs.add(new ArrayList<>());
+
+    for (int i=0; i<size; i++) {
+      MemoryDasm mem=memory[i];
+      address[i]=mem.address;
+      copy[i]=mem.copy;
+      index[i]=mem.index;
+      related[i]=mem.related;
+      type[i]=mem.type;
+      base[i]=mem.relatedAddressBase;
+      dest[i]=mem.relatedAddressDest;
+      dataType[i]=(byte)mem.dataType.ordinal();
+      basicType[i]=(byte)mem.basicType.ordinal();
+
+      if (mem.dasmComment!=null) refs.get(0).add(pool.add(mem.dasmComment));
+      if (mem.userComment!=null) refs.get(1).add(pool.add(mem.userComment));
+      if (mem.userBlockComment!=null) refs.get(2).add(pool.add(mem.userBlockComment));
+      if (mem.dasmLocation!=null) refs.get(3).add(pool.add(mem.dasmLocation));
+      if (mem.userLocation!=null) refs.get(4).add(pool.add(mem.userLocation));
+    }
+
+    ByteArrayOutputStream res=new ByteArrayOutputStream();
+    DataOutputStream out=new DataOutputStream(res);
+
+    out.writeInt(size);
+    writeInts(out, address);
+    out.write(copy);
+    out.write(index);
+    writeInts(out, related);
+    for (char value: type) out.writeChar(value);
+    writeInts(out, base);
+    writeInts(out, dest);
+
+    // enums by name, so a change of their order does not break the file
+    writeNames(out, DataType.values());
+    out.write(dataType);
+    writeNames(out, BasicType.values());
+    out.write(basicType);
+
+    for (ArrayList<Integer> list: refs) {
+      int[] values=new int[list.size()];
+      for (int i=0; i<values.length; i++) values[i]=list.get(i);
+      out.writeInt(values.length);
+      writeInts(out, values);
+    }
+    return res.toByteArray();
+  }
+
+  /**
+   * Read the memory values
+   *
+   * @param in the section data
+   * @param memory the memory to fill
+   * @param flags the packed flags of memory
+   * @param strings the pool of strings
+   * @throws IOException if the section does not match the memory
+   */
+  private static void readMemory(ByteBuffer in, MemoryDasm[] memory, short[] flags, String[] strings) throws IOException {
+    int size=in.getInt();
+    if (size!=memory.length) throw new IOException("Memory size mismatch");
+
+    int[] address=readInts(in, size);
+    byte[] copy=new byte[size];
+    in.get(copy);
+    byte[] index=new byte[size];
+    in.get(index);
+    int[] related=readInts(in, size);
+    char[] type=new char[size];
+    in.asCharBuffer().get(type);
+    in.position(in.position()+size*2);
+    int[] base=readInts(in, size);
+    int[] dest=readInts(in, size);
+
+    DataType[] dataTypes=readNames(in, DataType.class);
+    byte[] dataType=new byte[size];
+    in.get(dataType);
+    BasicType[] basicTypes=readNames(in, BasicType.class);
+    byte[] basicType=new byte[size];
+    in.get(basicType);
+
+    int[][] refs=new int[5][];
+    for (int i=0; i<refs.length; i++) refs[i]=readInts(in, in.getInt());
+    int[] pos=new int[refs.length];
+
+    for (int i=0; i<size; i++) {
+      MemoryDasm mem=memory[i];
+      int flag=flags[i];
+
+      mem.address=address[i];
+      mem.copy=copy[i];
+      mem.index=index[i];
+      mem.related=related[i];
+      mem.type=type[i];
+      mem.relatedAddressBase=base[i];
+      mem.relatedAddressDest=dest[i];
+      mem.dataType=dataTypes[dataType[i] & 0xFF];
+      mem.basicType=basicTypes[basicType[i] & 0xFF];
+
+      mem.dasmComment=((flag & FLAG_DASM_COMMENT)!=0 ? strings[refs[0][pos[0]++]] : null);
+      mem.userComment=((flag & FLAG_USER_COMMENT)!=0 ? strings[refs[1][pos[1]++]] : null);
+      mem.userBlockComment=((flag & FLAG_USER_BLOCK_COMMENT)!=0 ? strings[refs[2][pos[2]++]] : null);
+      mem.dasmLocation=((flag & FLAG_DASM_LOCATION)!=0 ? strings[refs[3][pos[3]++]] : null);
+      mem.userLocation=((flag & FLAG_USER_LOCATION)!=0 ? strings[refs[4][pos[4]++]] : null);
+    }
+  }
+
+  /**
+   * Write the defined constants and comments of each column
+   *
+   * @param constant the constants
+   * @param pool the pool of strings
+   * @return the section data
+   * @throws IOException if writing fails
+   */
+  private static byte[] writeConstants(Constant constant, StringPool pool) throws IOException {
+    ByteArrayOutputStream res=new ByteArrayOutputStream();
+    DataOutputStream out=new DataOutputStream(res);
+
+    out.writeInt(Constant.COLS);
+    for (int col=0; col<Constant.COLS; col++) {
+      int[] rows=constant.getRows(col);
+      int[] refs=new int[rows.length];
+      for (int i=0; i<rows.length; i++) refs[i]=pool.add(constant.get(col, rows[i]));
+
+      out.writeInt(rows.length);
+      writeInts(out, rows);
+      writeInts(out, refs);
+
+      rows=constant.getCommentRows(col);
+      refs=new int[rows.length];
+      for (int i=0; i<rows.length; i++) refs[i]=pool.add(constant.getComment(col, rows[i]));
+
+      out.writeInt(rows.length);
+      writeInts(out, rows);
+      writeInts(out, refs);
+    }
+    return res.toByteArray();
+  }
+
+  /**
+   * Read the constants and comments
+   *
+   * @param in the section data
+   * @param constant the constants to fill
+   * @param strings the pool of strings
+   */
+  private static void readConstants(ByteBuffer in, Constant constant, String[] strings) {
+    int cols=in.getInt();
+    for (int col=0; col<cols; col++) {
+      int size=in.getInt();
+      int[] rows=readInts(in, size);
+      int[] refs=readInts(in, size);
+      for (int i=0; i<size; i++) constant.set(col, rows[i], strings[refs[i]]);
+
+      size=in.getInt();
+      rows=readInts(in, size);
+      refs=readInts(in, size);
+      for (int i=0; i<size; i++) constant.setComment(col, rows[i], strings[refs[i]]);
+    }
+  }
+
+  /**
+   * Write the relocates
+   *
+   * @param relocates the relocates (can be null)
+   * @return the section data
+   */
+  private static byte[] writeRelocates(Relocate[] relocates) {
+    int size=(relocates==null ? 0 : relocates.length);
+    ByteBuffer out=ByteBuffer.allocate(4+size*16);
+    out.putInt(size);
+    for (int i=0; i<size; i++) {
+      out.putInt(relocates[i].fromStart);
+      out.putInt(relocates[i].fromEnd);
+      out.putInt(relocates[i].toStart);
+      out.putInt(relocates[i].toEnd);
+    }
+    return out.array();
+  }
+
+  /**
+   * Read the relocates
+   *
+   * @param in the section data
+   * @return the relocates or null if none
+   */
+  private static Relocate[] readRelocates(ByteBuffer in) {
+    int size=in.getInt();
+    if (size==0) return null;
+
+    Relocate[] relocates=new Relocate[size];
+    for (int i=0; i<size; i++) {
+      Relocate relocate=new Relocate();
+      relocate.fromStart=in.getInt();
+      relocate.fromEnd=in.getInt();
+      relocate.toStart=in.getInt();
+      relocate.toEnd=in.getInt();
+      relocates[i]=relocate;
+    }
+    return relocates;
+  }
+
+  /**
+   * Write the patches
+   *
+   * @param patches the patches (can be null)
+   * @return the section data
+   */
+  private static byte[] writePatches(Patch[] patches) {
+    int size=(patches==null ? 0 : patches.length);
+    ByteBuffer out=ByteBuffer.allocate(4+size*8);
+    out.putInt(size);
+    for (int i=0; i<size; i++) {
+      out.putInt(patches[i].address);
+      out.putInt(patches[i].value);
+    }
+    return out.array();
+  }
+
+  /**
+   * Read the patches
+   *
+   * @param in the section data
+   * @return the patches or null if none
+   */
+  private static Patch[] readPatches(ByteBuffer in) {
+    int size=in.getInt();
+    if (size==0) return null;
+
+    Patch[] patches=new Patch[size];
+    for (int i=0; i<size; i++) {
+      Patch patch=new Patch();
+      patch.address=in.getInt();
+      patch.value=in.getInt();
+      patches[i]=patch;
+    }
+    return patches;
+  }
+
+  /**
+   * Write the freezes
+   *
+   * @param freezes the freezes (can be null)
+   * @return the section data
+   * @throws IOException if writing fails
+   */
+  private static byte[] writeFreezes(Freeze[] freezes) throws IOException {
+    ByteArrayOutputStream res=new ByteArrayOutputStream();
+    DataOutputStream out=new DataOutputStream(res);
+
+    int size=(freezes==null ? 0 : freezes.length);
+    out.writeInt(size);
+    for (int i=0; i<size; i++) {
+      writeString(out, freezes[i].name);
+      writeString(out, freezes[i].text);
+    }
+    return res.toByteArray();
+  }
+
+  /**
+   * Read the freezes
+   *
+   * @param in the section data
+   * @return the freezes or null if none
+   */
+  private static Freeze[] readFreezes(ByteBuffer in) {
+    int size=in.getInt();
+    if (size==0) return null;
+
+    Freeze[] freezes=new Freeze[size];
+    for (int i=0; i<size; i++) {
+      Freeze freeze=new Freeze();
+      freeze.name=readString(in);
+      freeze.text=readString(in);
+      freezes[i]=freeze;
+    }
+    return freezes;
+  }
+
+  /**
+   * Write a string as UTF-8 with its length (-1 for null), without the 64K
+   * limit of writeUTF
+   *
+   * @param out the stream where to write
+   * @param value the string (can be null)
+   * @throws IOException if writing fails
+   */
+  private static void writeString(DataOutputStream out, String value) throws IOException {
+    if (value==null) {
+      out.writeInt(-1);
+      return;
+    }
+
+    byte[] buf=value.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(buf.length);
+    out.write(buf);
+  }
+
+  /**
+   * Read a string written by writeString
+   *
+   * @param in the section data
+   * @return the string (can be null)
+   */
+  private static String readString(ByteBuffer in) {
+    int size=in.getInt();
+    if (size<0) return null;
+
+    String value=new String(in.array(), in.position(), size, StandardCharsets.UTF_8);
+    in.position(in.position()+size);
+    return value;
+  }
+
+  /**
+   * Write the names of an enum
+   *
+   * @param out the stream where to write
+   * @param values the values of the enum
+   * @throws IOException if writing fails
+   */
+  private static void writeNames(DataOutputStream out, Enum<?>[] values) throws IOException {
+    out.writeInt(values.length);
+    for (Enum<?> value: values) writeString(out, value.name());
+  }
+
+  /**
+   * Read the names of an enum as its values
+   *
+   * @param <E> the enum type
+   * @param in the section data
+   * @param type the class of enum
+   * @return the values in order of the file
+   */
+  private static <E extends Enum<E>> E[] readNames(ByteBuffer in, Class<E> type) {
+    int size=in.getInt();
+    @SuppressWarnings("unchecked")
+    E[] values=(E[])java.lang.reflect.Array.newInstance(type, size);
+    for (int i=0; i<size; i++) values[i]=Enum.valueOf(type, readString(in));
+    return values;
+  }
+
+  /**
+   * Write an array of ints in bulk
+   *
+   * @param out the stream where to write
+   * @param values the values
+   * @throws IOException if writing fails
+   */
+  private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+    ByteBuffer buf=ByteBuffer.allocate(values.length*4);
+    buf.asIntBuffer().put(values);
+    out.write(buf.array());
+  }
+
+  /**
+   * Read an array of ints in bulk
+   *
+   * @param in the section data
+   * @param size number of ints
+   * @return the values
+   */
+  private static int[] readInts(ByteBuffer in, int size) {
+    int[] values=new int[size];
+    in.asIntBuffer().get(values);
+    in.position(in.position()+size*4);
+    return values;
+  }
+}
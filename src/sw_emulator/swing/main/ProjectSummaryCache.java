@@ -0,0 +1,194 @@
+/**
+ * @(#)ProjectSummaryCache.java 2026/10/18
+ *
+ * ICE Team free software group
+ *
+ * This file is part of C64 Java Software Emulator.
+ * See README for copyright notice.
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ *  02111-1307  USA.
+ */
+package sw_emulator.swing.main;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * On disk cache of the summary of old projects (version 0-11), that have not
+ * the summary inside the file.
+ * An entry is valid while path, time and size of the file are the same.
+ *
+ * @author ice
+ */
+public class ProjectSummaryCache {
+  /** Public access to the cache of summary file */
+  public static final ProjectSummaryCache instance=new ProjectSummaryCache(FileManager.SUMMARY_FILE);
+
+  /** Version of cache file */
+  private static final byte VERSION=1;
+
+  /** File of the cache */
+  private final File file;
+
+  /** Entries by path */
+  private final HashMap<String, Entry> entries=new HashMap<>();
+
+  /** True if the cache file is read */
+  private boolean loaded;
+
+  /** True if there are changes to write */
+  private boolean dirty;
+
+  /**
+   * Entry of the cache
+   */
+  private static class Entry {
+    /** Time of last modify of the file */
+    long modified;
+
+    /** Size of the file */
+    long length;
+
+    /** The summary */
+    ProjectSummary summary;
+  }
+
+  /**
+   * Construct the cache
+   *
+   * @param file the file of the cache
+   */
+  public ProjectSummaryCache(File file) {
+    this.file=file;
+  }
+
+  /**
+   * Get the summary of the given project file
+   *
+   * @param project the project file
+   * @return the summary or null if not cached or the file is changed
+   */
+  public synchronized ProjectSummary get(File project) {
+    load();
+
+    Entry entry=entries.get(project.getAbsolutePath());
+    if (entry==null) return null;
+    if (entry.modified!=project.lastModified() || entry.length!=project.length()) return null;
+
+    return entry.summary;
+  }
+
+  /**
+   * Put the summary of the given project file
+   *
+   * @param project the project file
+   * @param summary the summary
+   */
+  public synchronized void put(File project, ProjectSummary summary) {
+    load();
+
+    Entry entry=new Entry();
+    entry.modified=project.lastModified();
+    entry.length=project.length();
+    entry.summary=summary;
+
+    entries.put(project.getAbsolutePath(), entry);
+    dirty=true;
+  }
+
+  /**
+   * Read the cache file if not already done
+   * If file is not present, the cache is empty
+   */
+  private void load() {
+    if (loaded) return;
+    loaded=true;
+
+    if (!file.exists()) return;
+
+    try (DataInputStream in=new DataInputStream(
+                            new BufferedInputStream(
+                            new FileInputStream(file)))) {
+      if (in.readByte()!=VERSION) return;
+
+      int size=in.readInt();
+      for (int i=0; i<size; i++) {
+        String path=in.readUTF();
+
+        Entry entry=new Entry();
+        entry.modified=in.readLong();
+        entry.length=in.readLong();
+
+        entry.summary=new ProjectSummary();
+        entry.summary.name=in.readUTF();
+        entry.summary.fileType=FileType.valueOf(in.readUTF());
+        entry.summary.targetType=TargetType.valueOf(in.readUTF());
+        entry.summary.perc=in.readInt();
+        entry.summary.modified=in.readLong();
+
+        entries.put(path, entry);
+      }
+    } catch (Exception e) {
+        System.err.println(e);
+        entries.clear();
+      }
+  }
+
+  /**
+   * Write the cache file if there are changes
+   * Entries of files no more present are removed
+   *
+   * @return true if operation is ok
+   */
+  public synchronized boolean save() {
+    if (!dirty) return true;
+
+    entries.entrySet().removeIf(e -> !new File(e.getKey()).exists());
+
+    try (DataOutputStream out=new DataOutputStream(
+                              new BufferedOutputStream(
+                              new FileOutputStream(file)))) {
+      out.writeByte(VERSION);
+      out.writeInt(entries.size());
+
+      for (Map.Entry<String, Entry> e: entries.entrySet()) {
+        Entry entry=e.getValue();
+
+        out.writeUTF(e.getKey());
+        out.writeLong(entry.modified);
+        out.writeLong(entry.length);
+        out.writeUTF(entry.summary.name);
+        out.writeUTF(entry.summary.fileType.name());
+        out.writeUTF(entry.summary.targetType.name());
+        out.writeInt(entry.summary.perc);
+        out.writeLong(entry.summary.modified);
+      }
+    } catch (Exception e) {
+        System.err.println(e);
+        return false;
+      }
+
+    dirty=false;
+    return true;
+  }
+}
@@ -0,0 +1,250 @@
+/**
+ * @(#)SidTrace.java 2026/10/18
+ *
+ * ICE Team free software group
+ *
+ * This file is part of C64 Java Software Emulator.
+ * See README for copyright notice.
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ *  02111-1307  USA.
+ */
+package sw_emulator.swing.main;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Locale;
+import sw_emulator.software.sidid.SidTracer;
+
+/**
+ * Headless Sidld tracer of SID projects.
+ * It traces init and play of all the tunes of each SID project, then it adds
+ * the merged flags to the project memory flags and it marks the memory as
+ * code/data like the Sidld apply of the project dialog does.
+ * With -garbage the bytes of the file never touched by the tunes are marked as
+ * garbage.
+ * The traced project is saved as name_traced.dis (into the -out directory
+ * with its name, if given), so the input project is not touched unless
+ * -inplace is given.
+ *
+ * Usage:
+ *   SidTrace [-seconds n] [-garbage] [-parallel] [-out dir | -inplace] file.dis|dir ...
+ *
+ * @author ice
+ */
+public class SidTrace {
+  /** Default seconds of play of each tune */
+  public static final int DEFAULT_SECONDS=60;
+
+  /** Suffix of the name of traced project */
+  public static final String TRACED_SUFFIX="_traced";
+
+  /** Seconds of play of each tune */
+  private int seconds=DEFAULT_SECONDS;
+
+  /** True if untouched bytes are marked as garbage */
+  private boolean garbage;
+
+  /** True if tunes are traced in parallel */
+  private boolean parallel;
+
+  /** Output directory (null for project directory) */
+  private File outDir;
+
+  /** True if the input project is overwritten */
+  private boolean inPlace;
+
+  /**
+   * Set the seconds of play of each tune
+   *
+   * @param seconds the seconds
+   */
+  public void setSeconds(int seconds) {
+    this.seconds=seconds;
+  }
+
+  /**
+   * Set if untouched bytes are marked as garbage
+   *
+   * @param garbage true to mark as garbage
+   */
+  public void setGarbage(boolean garbage) {
+    this.garbage=garbage;
+  }
+
+  /**
+   * Set if tunes are traced in parallel
+   *
+   * @param parallel true for parallel tracing
+   */
+  public void setParallel(boolean parallel) {
+    this.parallel=parallel;
+  }
+
+  /**
+   * Set the output directory
+   *
+   * @param outDir the output directory (null for project directory)
+   */
+  public void setOutDir(File outDir) {
+    this.outDir=outDir;
+  }
+
+  /**
+   * Set if the input project is overwritten by the traced one
+   *
+   * @param inPlace true to overwrite the input project
+   */
+  public void setInPlace(boolean inPlace) {
+    this.inPlace=inPlace;
+  }
+
+  /**
+   * Get the file where to save the traced project
+   *
+   * @param file the input project file
+   * @return the output project file
+   */
+  public File getOutFile(File file) {
+    if (inPlace) return file;
+
+    if (outDir!=null) {
+      File out=new File(outDir, file.getName());
+      if (!out.getAbsoluteFile().equals(file.getAbsoluteFile())) return out;
+    }
+
+    File dir=file.getAbsoluteFile().getParentFile();
+    return new File(dir, JC64DisBatch.getBaseName(file)+TRACED_SUFFIX+JC64DisBatch.PROJECT_EXT);
+  }
+
+  /**
+   * Trace the tunes of the project and apply the flags to it
+   *
+   * @param project the SID project
+   * @return the number of tunes traced
+   */
+  public int trace(Project project) {
+    SidTracer tracer=new SidTracer(project.inB);
+    byte[] flags=SidTracer.merge(tracer.traceAll(seconds, parallel));
+
+    if (project.memoryFlags==null) project.memoryFlags=new byte[0x10000];
+    for (int i=0; i<project.memoryFlags.length; i++) {
+      project.memoryFlags[i]|=flags[i];
+    }
+
+    project.applyMemoryFlags(garbage);
+    return tracer.getTunes();
+  }
+
+  /**
+   * Trace one project file and save it to its output file
+   *
+   * @param file the project file
+   * @return the result message
+   */
+  public String process(File file) {
+    Project project=new Project();
+    if (!FileManager.instance.readProjectFile(file, project)) return "error reading project file";
+    if (project.fileType!=FileType.SID || project.inB==null) return "skipped: not a SID project";
+
+    long time=System.nanoTime();
+    int tunes;
+    try {
+      tunes=trace(project);
+    } catch (Exception e) {
+        return "ERROR: "+e;
+      }
+    time=System.nanoTime()-time;
+
+    File out=getOutFile(file);
+    if (!FileManager.instance.writeProjectFile(out, project)) return "error writing project file";
+    return String.format(Locale.ENGLISH, "%d tunes traced in %.2f ms into %s", tunes, time/1e6, out.getName());
+  }
+
+  /**
+   * Print the usage
+   */
+  private static void usage() {
+    System.err.println("Usage: SidTrace [-seconds n] [-garbage] [-parallel] [-out dir | -inplace] file.dis|dir ...");
+  }
+
+  /**
+   * @param args the command line arguments
+   */
+  public static void main(String[] args) {
+    System.setProperty("java.awt.headless", "true");
+
+    SidTrace trace=new SidTrace();
+    ArrayList<File> files=new ArrayList<>();
+    File outDir=null;
+    boolean inPlace=false;
+
+    for (int i=0; i<args.length; i++) {
+      switch (args[i]) {
+        case "-seconds":
+          if (++i>=args.length || !args[i].matches("[0-9]+")) {
+            usage();
+            System.exit(1);
+          }
+          trace.setSeconds(Integer.parseInt(args[i]));
+          break;
+        case "-garbage":
+          trace.setGarbage(true);
+          break;
+        case "-parallel":
+          trace.setParallel(true);
+          break;
+        case "-out":
+          if (++i>=args.length) {
+            usage();
+            System.exit(1);
+          }
+          outDir=new File(args[i]);
+          break;
+        case "-inplace":
+          inPlace=true;
+          break;
+        default:
+          File file=new File(args[i]);
+          if (file.isDirectory()) {
+            File[] list=file.listFiles((dir, name) -> name.toLowerCase(Locale.ENGLISH).endsWith(JC64DisBatch.PROJECT_EXT));
+            if (list!=null) {
+              Arrays.sort(list);
+              files.addAll(Arrays.asList(list));
+            }
+          } else files.add(file);
+          break;
+      }
+    }
+
+    if (files.isEmpty() || (inPlace && outDir!=null)) {
+      usage();
+      System.exit(1);
+    }
+
+    if (outDir!=null && !outDir.isDirectory() && !outDir.mkdirs()) {
+      System.err.println("Unable to create output directory "+outDir);
+      System.exit(1);
+    }
+
+    trace.setOutDir(outDir);
+    trace.setInPlace(inPlace);
+
+    for (File file: files) {
+      System.out.println(String.format(Locale.ENGLISH, "%-40s %s", file.getName(), trace.process(file)));
+    }
+  }
+}
@@ -22,12 +22,20 @@
  */
 package sw_emulator.swing.main;
 
-import com.rits.cloning.Cloner;
 import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Iterator;
+import java.util.Objects;
+import java.util.TreeSet;
+import sw_emulator.software.MemoryDasm;
 
 /**
- * Undo functionality
+ * Undo functionality.
+ * Only the last stored state is kept as a whole, with memory in compact form.
+ * Each stored key contains the values changed from the previous state, so
+ * storing costs as the changes and a state is rebuilt going back from the 
+ * last one.
  * 
  * @author ice
  */
@@ -39,11 +47,23 @@ public class UndoManager {
    /** The deque for undo of project */
    ArrayDeque<KeyProject> dequeProject=new ArrayDeque(maxCapacity); 
    
+   /** Last stored values (its arrays are never changed, only replaced) */
+   KeyProject last;
+   
+   /** Last stored memory */
+   UndoMemory lastMemory;
+   
+   /** Last stored constants */
+   Constant lastConstant;
+   
    /**
    * Clear all the undo
    */
   public void clear() {
     dequeProject.clear();
+    last=null;
+    lastMemory=null;
+    lastConstant=null;
   }
   
   /**
@@ -54,6 +74,7 @@ public class UndoManager {
   public void resize(int capacity) {
     maxCapacity=capacity;
     while (dequeProject.size()>maxCapacity) dequeProject.pollLast();
+    trim();
   }
   
   /**
@@ -63,20 +84,113 @@ public class UndoManager {
    * @param project the project to store   
    */
   public void store(String key, Project project) {
-    Project copy;
+    store(key, project, null);  
+  }
+  
+  /**
+   * Store the actual value for undo action according with the given type.
+   * Only the given memory addresses are compared with the last stored state.
+   * 
+   * @param key the key to use
+   * @param project the project to store   
+   * @param changed the memory addresses changed from last store (null if not known)
+   */
+  public void store(String key, Project project, BitSet changed) {
     KeyProject keyProject=new KeyProject();
-    Cloner cloner=new Cloner();  
-    
-
-    copy=cloner.deepClone(project);
     keyProject.key=key;
-    keyProject.project=copy;
+    
+    // the cells told as changed are of the last stored memory
+    if (last==null || lastMemory.size()!=project.memory.length) changed=null;
+    
+    if (last==null) {
+      last=new KeyProject();
+      lastMemory=new UndoMemory(project.memory.length);
+      lastConstant=new Constant();
+      keyProject.hasPrevious=false;
+    } else keyProject.hasPrevious=true;
+    
+    // previous values for the undo, last get the actual ones
+    keyProject.fileType=last.fileType;
+    keyProject.name=last.name;
+    keyProject.file=last.file;
+    keyProject.description=last.description;
+    keyProject.inB=last.inB;
+    keyProject.mpr=last.mpr;
+    keyProject.targetType=last.targetType;
+    keyProject.memoryFlags=last.memoryFlags;
+    keyProject.chip=last.chip;
+    keyProject.binAddress=last.binAddress;
+    keyProject.relocates=last.relocates;
+    keyProject.patches=last.patches;
+    keyProject.freezes=last.freezes;
+    
+    last.fileType=project.fileType;
+    last.name=project.name;
+    last.file=project.file;
+    last.description=project.description;
+    last.targetType=project.targetType;
+    last.chip=project.chip;
+    last.binAddress=project.binAddress;
+    
+    if (!Arrays.equals(last.inB, project.inB)) last.inB=(project.inB==null ? null : project.inB.clone());
+    if (!Arrays.equals(last.memoryFlags, project.memoryFlags)) last.memoryFlags=(project.memoryFlags==null ? null : project.memoryFlags.clone());
+    if (!equals(last.mpr, project.mpr)) last.mpr=(project.mpr==null ? null : (MPR)project.mpr.clone());
+    if (!Arrays.equals(last.relocates, project.relocates)) last.relocates=copy(project.relocates);
+    if (!Arrays.equals(last.patches, project.patches)) last.patches=copy(project.patches);
+    if (!Arrays.equals(last.freezes, project.freezes)) last.freezes=copy(project.freezes);
+    
+    if (changed==null) {
+      for (int i=0; i<project.memory.length; i++) {
+        store(keyProject, i, project.memory[i]);
+      }
+    } else {
+        for (int i=changed.nextSetBit(0); i>=0 && i<project.memory.length; i=changed.nextSetBit(i+1)) {
+          store(keyProject, i, project.memory[i]);
+        }
+      }
+    
+    for (int i=0; i<Constant.COLS; i++) {
+      TreeSet<Integer> rows=new TreeSet<>();
+      for (int j: project.constant.getUsedRows(i)) rows.add(j);
+      for (int j: lastConstant.getUsedRows(i)) rows.add(j);
+      
+      for (int j: rows) {
+        String table=project.constant.get(i, j);
+        String comment=project.constant.getComment(i, j);
+        String oldTable=lastConstant.get(i, j);
+        String oldComment=lastConstant.getComment(i, j);
         
+        if (!Objects.equals(table, oldTable) || !Objects.equals(comment, oldComment)) {
+          keyProject.constantCells.add(i*Constant.ROWS+j);
+          keyProject.constantTables.add(oldTable);
+          keyProject.constantComments.add(oldComment);
+          lastConstant.set(i, j, table);
+          lastConstant.setComment(i, j, comment);
+        }
+      }
+    }
+    
+    if (!keyProject.hasPrevious) clearPrevious(keyProject);
         
     dequeProject.addFirst(keyProject);
     
     // resize deque if needed
     while (dequeProject.size()>maxCapacity) dequeProject.pollLast();                 
+    trim();
+  }
+  
+  /**
+   * Store the given memory cell if it is changed from the last stored state
+   * 
+   * @param keyProject the key where to put the previous value
+   * @param address the address of cell
+   * @param mem the actual memory cell
+   */
+  private void store(KeyProject keyProject, int address, MemoryDasm mem) {
+    if (!lastMemory.same(address, mem)) {
+      if (keyProject.hasPrevious) keyProject.memory.add(lastMemory.get(address));
+      lastMemory.set(address, mem);
+    }  
   }
   
   /**
@@ -90,13 +204,79 @@ public class UndoManager {
     
     KeyProject keyProject;
     
+    // look if the key is present before building the project
+    boolean found=false;
     Iterator<KeyProject> iter=dequeProject.iterator();
     while (iter.hasNext()) {
       keyProject=iter.next();
-      if (keyProject.key.equals(key)) return keyProject.project;
-    }   
+      if (keyProject.key.equals(key)) {
+        found=true;
+        break;
+      }
+    }
+    if (!found) return null;
+    
+    Project project=new Project();
+    project.fileType=last.fileType;
+    project.name=last.name;
+    project.file=last.file;
+    project.description=last.description;
+    project.inB=last.inB;
+    project.mpr=last.mpr;
+    project.targetType=last.targetType;
+    project.memoryFlags=last.memoryFlags;
+    project.chip=last.chip;
+    project.binAddress=last.binAddress;
+    project.relocates=last.relocates;
+    project.patches=last.patches;
+    project.freezes=last.freezes;
+    
+    for (int i=0; i<lastMemory.size(); i++) {
+      lastMemory.get(i, project.memory[i]);
+    }
+    
+    project.constant.copy(lastConstant);
+    
+    // go back from last state up to the searched one
+    iter=dequeProject.iterator();
+    while (iter.hasNext()) {
+      keyProject=iter.next();
+      if (keyProject.key.equals(key)) break;
+      
+      project.fileType=keyProject.fileType;
+      project.name=keyProject.name;
+      project.file=keyProject.file;
+      project.description=keyProject.description;
+      project.inB=keyProject.inB;
+      project.mpr=keyProject.mpr;
+      project.targetType=keyProject.targetType;
+      project.memoryFlags=keyProject.memoryFlags;
+      project.chip=keyProject.chip;
+      project.binAddress=keyProject.binAddress;
+      project.relocates=keyProject.relocates;
+      project.patches=keyProject.patches;
+      project.freezes=keyProject.freezes;
+      
+      for (MemoryDasm mem: keyProject.memory) {
+        project.memory[mem.address]=mem.clone();
+      }
+      
+      for (int i=0; i<keyProject.constantCells.size(); i++) {
+        int cell=keyProject.constantCells.get(i);
+        project.constant.set(cell/Constant.ROWS, cell%Constant.ROWS, keyProject.constantTables.get(i));
+        project.constant.setComment(cell/Constant.ROWS, cell%Constant.ROWS, keyProject.constantComments.get(i));
+      }
+    }
+    
+    // the stored arrays are shared, so give a copy that can be changed
+    if (project.inB!=null) project.inB=project.inB.clone();
+    if (project.memoryFlags!=null) project.memoryFlags=project.memoryFlags.clone();
+    if (project.mpr!=null) project.mpr=(MPR)project.mpr.clone();
+    project.relocates=copy(project.relocates);
+    project.patches=copy(project.patches);
+    project.freezes=copy(project.freezes);
         
-    return null;
+    return project;
   }  
   
   
@@ -108,4 +288,100 @@ public class UndoManager {
   public Iterator<KeyProject> getAll() {
     return dequeProject.iterator();
   }
+  
+  /**
+   * Remove the previous values from the oldest key, as it has nothing to go
+   * back to
+   */
+  private void trim() {
+    KeyProject keyProject=dequeProject.peekLast();
+    if (keyProject!=null && keyProject.hasPrevious) clearPrevious(keyProject);
+  }
+  
+  /**
+   * Clear the previous values of the given key
+   * 
+   * @param keyProject the key to clear
+   */
+  private void clearPrevious(KeyProject keyProject) {
+    keyProject.hasPrevious=false;
+    keyProject.memory.clear();
+    keyProject.constantCells.clear();
+    keyProject.constantTables.clear();
+    keyProject.constantComments.clear();
+    keyProject.inB=null;
+    keyProject.mpr=null;
+    keyProject.memoryFlags=null;
+    keyProject.relocates=null;
+    keyProject.patches=null;
+    keyProject.freezes=null;
+  }
+  
+  /**
+   * Test if the mpr are equals
+   * 
+   * @param mpr1 first mpr
+   * @param mpr2 second mpr
+   * @return true if they have the same contents
+   */
+  private static boolean equals(MPR mpr1, MPR mpr2) {
+    if (mpr1==mpr2) return true;  
+    if (mpr1==null || mpr2==null) return false;
+    
+    if (!Objects.equals(mpr1.header, mpr2.header)) return false;
+    if (mpr1.block!=mpr2.block) return false;
+    for (int i=0; i<mpr1.block; i++) {
+      if (!Arrays.equals(mpr1.blocks.get(i), mpr2.blocks.get(i))) return false;
+    }
+    
+    return true;
+  }
+  
+  /**
+   * Copy the relocates
+   * 
+   * @param relocates the relocates to copy
+   * @return the copy (or null)
+   */
+  private static Relocate[] copy(Relocate[] relocates) {
+    if (relocates==null) return null;
+    
+    Relocate[] res=new Relocate[relocates.length];
+    for (int i=0; i<relocates.length; i++) {
+      res[i]=(Relocate)relocates[i].clone();
+    }
+    return res;
+  }
+  
+  /**
+   * Copy the patches
+   * 
+   * @param patches the patches to copy
+   * @return the copy (or null)
+   */
+  private static Patch[] copy(Patch[] patches) {
+    if (patches==null) return null;
+    
+    Patch[] res=new Patch[patches.length];
+    for (int i=0; i<patches.length; i++) {
+      res[i]=(Patch)patches[i].clone();
+    }
+    return res;
+  }
+  
+  /**
+   * Copy the freezes
+   * 
+   * @param freezes the freezes to copy
+   * @return the copy (or null)
+   */
+  private static Freeze[] copy(Freeze[] freezes) {
+    if (freezes==null) return null;
+    
+    Freeze[] res=new Freeze[freezes.length];
+    for (int i=0; i<freezes.length; i++) {
+      res[i]=(Freeze)freezes[i].clone();
+    }
+    return res;
+  }
 }
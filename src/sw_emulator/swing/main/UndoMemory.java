@@ -0,0 +1,257 @@
+/**
+ * @(#)UndoMemory.java 2026/10/18
+ *
+ * ICE Team free software group
+ *
+ * This file is part of C64 Java Software Emulator.
+ * See README for copyright notice.
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ *  02111-1307  USA.
+ */
+package sw_emulator.swing.main;
+
+import java.util.HashMap;
+import java.util.Objects;
+import sw_emulator.software.BasicDetokenize.BasicType;
+import sw_emulator.software.MemoryDasm;
+
+/**
+ * Last memory state kept by the undo manager.
+ * Flags, copy, index, type and data/basic types of a cell are packed into
+ * one long, the related addresses are int arrays, while the strings are into
+ * a side table keyed by address that holds only the cells with some string.
+ * So the state takes a fraction of the heap of the cell objects and it can be
+ * compared with them without allocation.
+ * 
+ * @author ice
+ */
+class UndoMemory {
+  /** Bit of inside flag */  
+  private static final long INSIDE=1L;
+  
+  /** Bit of code flag */
+  private static final long CODE=1L<<1;
+  
+  /** Bit of data flag */
+  private static final long DATA=1L<<2;
+  
+  /** Bit of garbage flag */
+  private static final long GARBAGE=1L<<3;
+  
+  /** Shift of copy value */
+  private static final int COPY_SHIFT=8;
+  
+  /** Shift of index value */
+  private static final int INDEX_SHIFT=16;
+  
+  /** Shift of type of relation */
+  private static final int TYPE_SHIFT=24;
+  
+  /** Shift of type of data (ordinal+1, 0 for null) */
+  private static final int DATA_TYPE_SHIFT=40;
+  
+  /** Shift of type of basic (ordinal+1, 0 for null) */
+  private static final int BASIC_TYPE_SHIFT=48;
+  
+  /** Position of dasm comment into strings */
+  private static final int DASM_COMMENT=0;
+  
+  /** Position of user comment into strings */
+  private static final int USER_COMMENT=1;
+  
+  /** Position of user block comment into strings */
+  private static final int USER_BLOCK_COMMENT=2;
+  
+  /** Position of dasm location into strings */
+  private static final int DASM_LOCATION=3;
+  
+  /** Position of user location into strings */
+  private static final int USER_LOCATION=4;
+  
+  /** Data types by ordinal */
+  private static final DataType[] DATA_TYPES=DataType.values();
+  
+  /** Basic types by ordinal */
+  private static final BasicType[] BASIC_TYPES=BasicType.values();
+  
+  /** Packed values of cells */
+  private final long[] values;
+  
+  /** Related address of cells */
+  private final int[] related;
+  
+  /** Base of relocation of cells */
+  private final int[] relatedAddressBase;
+  
+  /** Destination of relocation of cells */
+  private final int[] relatedAddressDest;
+  
+  /** Strings of cells that have at least one of them */
+  private final HashMap<Integer, String[]> strings=new HashMap<>();
+  
+  /**
+   * Construct the store with empty cells
+   * 
+   * @param size the number of cells
+   */
+  public UndoMemory(int size) {
+    values=new long[size];
+    related=new int[size];
+    relatedAddressBase=new int[size];
+    relatedAddressDest=new int[size];
+    
+    MemoryDasm empty=new MemoryDasm();
+    long value=pack(empty);
+    for (int i=0; i<size; i++) {
+      values[i]=value;
+      related[i]=empty.related;
+    }
+  }
+  
+  /**
+   * Get the number of cells
+   * 
+   * @return the number of cells
+   */
+  public int size() {
+    return values.length;
+  }
+  
+  /**
+   * Store the values of the given cell
+   * 
+   * @param address the address of cell
+   * @param mem the cell to store
+   */
+  public void set(int address, MemoryDasm mem) {
+    values[address]=pack(mem);
+    related[address]=mem.related;
+    relatedAddressBase[address]=mem.relatedAddressBase;
+    relatedAddressDest[address]=mem.relatedAddressDest;
+    
+    if (mem.dasmComment==null && mem.userComment==null && mem.userBlockComment==null &&
+        mem.dasmLocation==null && mem.userLocation==null) strings.remove(address);
+    else {
+      String[] str=strings.get(address);
+      if (str==null) {
+        str=new String[5];
+        strings.put(address, str);
+      }  
+      str[DASM_COMMENT]=mem.dasmComment;
+      str[USER_COMMENT]=mem.userComment;
+      str[USER_BLOCK_COMMENT]=mem.userBlockComment;
+      str[DASM_LOCATION]=mem.dasmLocation;
+      str[USER_LOCATION]=mem.userLocation;
+    }
+  }
+  
+  /**
+   * Get a new cell with the stored values
+   * 
+   * @param address the address of cell
+   * @return the cell
+   */
+  public MemoryDasm get(int address) {
+    MemoryDasm mem=new MemoryDasm();
+    get(address, mem);
+    return mem;
+  }
+  
+  /**
+   * Copy the stored values into the given cell
+   * 
+   * @param address the address of cell
+   * @param mem the cell where to copy
+   */
+  public void get(int address, MemoryDasm mem) {
+    long value=values[address];
+    
+    mem.address=address;
+    mem.isInside=(value & INSIDE)!=0;
+    mem.isCode=(value & CODE)!=0;
+    mem.isData=(value & DATA)!=0;
+    mem.isGarbage=(value & GARBAGE)!=0;
+    mem.copy=(byte)(value>>COPY_SHIFT);
+    mem.index=(byte)(value>>INDEX_SHIFT);
+    mem.type=(char)(value>>TYPE_SHIFT);
+    int dataType=(int)(value>>DATA_TYPE_SHIFT) & 0xFF;
+    mem.dataType=(dataType==0 ? null : DATA_TYPES[dataType-1]);
+    int basicType=(int)(value>>BASIC_TYPE_SHIFT) & 0xFF;
+    mem.basicType=(basicType==0 ? null : BASIC_TYPES[basicType-1]);
+    mem.related=related[address];
+    mem.relatedAddressBase=relatedAddressBase[address];
+    mem.relatedAddressDest=relatedAddressDest[address];
+    
+    String[] str=strings.get(address);
+    if (str==null) str=new String[5];
+    mem.dasmComment=str[DASM_COMMENT];
+    mem.userComment=str[USER_COMMENT];
+    mem.userBlockComment=str[USER_BLOCK_COMMENT];
+    mem.dasmLocation=str[DASM_LOCATION];
+    mem.userLocation=str[USER_LOCATION];
+  }
+  
+  /**
+   * Test if the given cell has the stored values (basic type included)
+   * 
+   * @param address the address of cell
+   * @param mem the cell to test
+   * @return true if they are the same
+   */
+  public boolean same(int address, MemoryDasm mem) {
+    if (mem.address!=address) return false;  
+    if (values[address]!=pack(mem)) return false;
+    if (related[address]!=mem.related) return false;
+    if (relatedAddressBase[address]!=mem.relatedAddressBase) return false;
+    if (relatedAddressDest[address]!=mem.relatedAddressDest) return false;
+    
+    String[] str=strings.get(address);
+    if (str==null) {
+      return mem.dasmComment==null && mem.userComment==null && mem.userBlockComment==null &&
+             mem.dasmLocation==null && mem.userLocation==null;
+    }
+    
+    if (!Objects.equals(str[DASM_COMMENT], mem.dasmComment)) return false;
+    if (!Objects.equals(str[USER_COMMENT], mem.userComment)) return false;
+    if (!Objects.equals(str[USER_BLOCK_COMMENT], mem.userBlockComment)) return false;
+    if (!Objects.equals(str[DASM_LOCATION], mem.dasmLocation)) return false;
+    if (!Objects.equals(str[USER_LOCATION], mem.userLocation)) return false;
+    
+    return true;
+  }
+  
+  /**
+   * Pack the values of cell
+   * 
+   * @param mem the cell to pack
+   * @return the packed value
+   */
+  private static long pack(MemoryDasm mem) {
+    long value=0;
+    
+    if (mem.isInside) value|=INSIDE;
+    if (mem.isCode) value|=CODE;
+    if (mem.isData) value|=DATA;
+    if (mem.isGarbage) value|=GARBAGE;
+    value|=(long)(mem.copy & 0xFF)<<COPY_SHIFT;
+    value|=(long)(mem.index & 0xFF)<<INDEX_SHIFT;
+    value|=(long)mem.type<<TYPE_SHIFT;
+    value|=(long)(mem.dataType==null ? 0 : mem.dataType.ordinal()+1)<<DATA_TYPE_SHIFT;
+    value|=(long)(mem.basicType==null ? 0 : mem.basicType.ordinal()+1)<<BASIC_TYPE_SHIFT;
+    
+    return value;
+  }
+}
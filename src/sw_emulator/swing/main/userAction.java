@@ -461,6 +461,9 @@ public interface userAction {
   /** Memory add a space in user block comment */
   public static final int MEM_ADDBLOCKAUTO = 145;
   
+  /** Memory mark code/data by tracing from the entry points */
+  public static final int MEM_TRACE = 146;
+  
   /**
    * Execute the passed user action
    * 
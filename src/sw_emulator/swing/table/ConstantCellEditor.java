@@ -67,11 +67,9 @@ public class ConstantCellEditor extends DefaultCellEditor {
     if (actual==null || "".equals(actual)) return super.stopCellEditing();
     
     String tmp=actual.toUpperCase();
-    for (String val: M6510Dasm.mnemonics) {
-      if (tmp.equals(val)) {
-        textField.setBorder(red);
-        return false;  
-      }
+    if (M6510Dasm.isMnemonic(tmp)) {
+      textField.setBorder(red);
+      return false;  
     }
 
     if (!constant.isAllowed(actual) || !constant.isCorrect(actual)) {
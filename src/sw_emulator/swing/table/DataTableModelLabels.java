@@ -27,6 +27,7 @@ import java.util.ArrayList;
 import java.util.Locale;
 import javax.swing.table.AbstractTableModel;
 import sw_emulator.software.MemoryDasm;
+import sw_emulator.software.memory.SymbolTable;
 import static sw_emulator.software.MemoryDasm.TYPE_MINUS;
 import static sw_emulator.software.MemoryDasm.TYPE_PLUS;
 import static sw_emulator.software.MemoryDasm.TYPE_PLUS_MAJOR;
@@ -70,14 +71,14 @@ public class DataTableModelLabels extends AbstractTableModel {
    * Set the memory data to use
    * 
    * @param data the memory data
+   * @param symbolTable the symbol table in sync with data
    */
-  public void setData(MemoryDasm[] data) {
+  public void setData(MemoryDasm[] data, SymbolTable symbolTable) {
     this.data=data;  
     
     data2.clear();
-    for (MemoryDasm mem:data) {
-      if ((mem.dasmLocation!=null && !"".equals(mem.dasmLocation)) || 
-          (mem.userLocation!=null && !"".equals(mem.userLocation))) data2.add(mem);
+    for (int address: symbolTable.getAddresses()) {
+      data2.add(data[address]);
     }
   }
   
@@ -28,7 +28,6 @@ import java.awt.Component;
 import javax.swing.JTable;
 import javax.swing.table.DefaultTableCellRenderer;
 import sw_emulator.software.Disassembly;
-import sw_emulator.swing.main.Block;
 import static sw_emulator.swing.table.DataTableModelMemory.COLUMNS.ID;
 
 /**
@@ -58,14 +57,12 @@ public class MemoryTableCellRenderer extends DefaultTableCellRenderer {
       
       if (DataTableModelMemory.columns[table.convertColumnIndexToModel(column)]==ID) {
 
-            for (Block block: disassembly.blocks) {
-              if (row>=block.startAddress && row<=block.endAddress) {
-                if (disassembly.memory[row].isCode) c.setBackground(Color.green);
-                else if (disassembly.memory[row].isData) c.setBackground(Color.cyan);
-                else if (disassembly.memory[row].isGarbage) c.setBackground(Color.red);
-                else c.setBackground(Color.LIGHT_GRAY);                  
-                return c;
-              } 
+            if (disassembly.isInBlock(row)) {
+              if (disassembly.memory[row].isCode) c.setBackground(Color.green);
+              else if (disassembly.memory[row].isData) c.setBackground(Color.cyan);
+              else if (disassembly.memory[row].isGarbage) c.setBackground(Color.red);
+              else c.setBackground(Color.LIGHT_GRAY);                  
+              return c;
             }
             c.setBackground(Color.white);
       }
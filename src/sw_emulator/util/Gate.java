@@ -0,0 +1,75 @@
+/**
+ * @(#)Gate.java 2026/10/18
+ *
+ * ICE Team free software group
+ *
+ * This file is part of C64 Java Software Emulator.
+ * See README for copyright notice.
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ *  02111-1307  USA.
+ */
+package sw_emulator.util;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+/**
+ * A gate where threads are parked until a condition becomes true (like power
+ * arrived, clock started or IO connected), so that an idle component uses no
+ * cpu. Who changes the condition must <code>signal</code> the gate.
+ * A parked thread looks again at the condition after <code>MAX_PARK</code>
+ * time, for conditions that change without a signal.
+ *
+ * @author Ice
+ * @version 1.00 18/10/2026
+ */
+public class Gate {
+  /** Max time in nano seconds that a thread is parked */
+  public static final long MAX_PARK=50_000_000L;
+  
+  /** Threads that are parked at the gate */
+  protected final ConcurrentLinkedQueue<Thread> waiters=new ConcurrentLinkedQueue<>();
+  
+  /**
+   * Park the actual thread until the condition is true
+   * 
+   * @param condition the condition to attend
+   */
+  public void await(BooleanSupplier condition) {
+    if (condition.getAsBoolean()) return;
+    
+    // enqueue before testing, so a signal between test and park is not lost
+    Thread thread=Thread.currentThread();
+    waiters.add(thread);
+    try {
+      while (!condition.getAsBoolean()) {
+        LockSupport.parkNanos(this, MAX_PARK);
+      }
+    } finally {
+        waiters.remove(thread);
+      }
+  }
+  
+  /**
+   * Resume the threads parked at the gate, as the condition may be changed
+   */
+  public void signal() {
+    for (Thread thread: waiters) {
+      LockSupport.unpark(thread);
+    }
+  }
+}
@@ -0,0 +1,123 @@
+/**
+ * @(#)TickMonitor.java 2026/10/18
+ *
+ * ICE Team free software group
+ *
+ * This file is part of C64 Java Software Emulator.
+ * See README for copyright notice.
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ *  02111-1307  USA.
+ */
+package sw_emulator.util;
+
+import java.util.ArrayList;
+import sw_emulator.hardware.clocked;
+
+/**
+ * Implement a Monitor for a single thread machine.
+ * Instead of suspending threads, the <code>opSignal</code> operation ticks
+ * all the registered components, while the <code>opWait</code> operation
+ * ticks the source of the clock until the next <code>opSignal</code>.
+ * So the only thread that uses <code>opWait</code> (the cpu) drives all the
+ * machine in cycle order, without any handoff between threads.
+ *
+ * @author Ice
+ * @version 1.00 18/10/2026
+ */
+public class TickMonitor extends Monitor {
+  /** The source that generates the signal of this monitor */
+  protected clocked source;
+  
+  /** The components to tick at each signal */
+  protected clocked[] listeners=new clocked[0];
+  
+  /** True if a signal was done since last wait */
+  protected boolean signaled;
+
+  /**
+   * Build a named monitor
+   *
+   * @param name the monitor debug name
+   * @param source the source that generates the signal
+   */
+  public TickMonitor(String name, clocked source) {
+    super(name);
+    this.source=source;
+  }
+  
+  /**
+   * Get the source that generates the signal
+   * 
+   * @return the source of signal
+   */
+  public clocked getSource() {
+    return source;
+  }
+  
+  /**
+   * Register a component to tick at each signal
+   * 
+   * @param component the component to tick
+   */
+  public void register(clocked component) {
+    ArrayList<clocked> list=new ArrayList<>();
+    for (clocked listener: listeners) {
+      list.add(listener);
+    }
+    list.add(component);
+    
+    listeners=list.toArray(new clocked[0]);
+  }
+  
+  /**
+   * Nothing to do, as there are no threads to count
+   */
+  @Override
+  public void opNotify() {
+  }
+  
+  /**
+   * Tick the source until a <code>opSignal</code> operation is made
+   */
+  @Override
+  public void opWait() {
+    while (!signaled) {
+      source.tick();
+    }
+    signaled=false;
+  }
+  
+  /**
+   * Tick all the registered components
+   */
+  @Override
+  public void opSignal() {
+    for (clocked listener: listeners) {
+      listener.tick();
+    }
+    signaled=true;
+  }
+  
+  /**
+   * Return true as the components finish into the signal operation
+   * 
+   * @return true
+   */
+  @Override
+  public boolean isFinish() {
+    return true;
+  }
+}